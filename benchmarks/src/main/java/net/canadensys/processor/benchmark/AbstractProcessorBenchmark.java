@@ -0,0 +1,81 @@
+package net.canadensys.processor.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import net.canadensys.processor.ProcessingResult;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Common configuration of the processor benchmarks.
+ * Each benchmark method processes one value per call, cycling through the values selected by the InputMix.
+ * Throughput and average time are reported, the allocation rate per call is reported by the GC profiler
+ * (enabled by BenchmarkRunner).
+ * 
+ * @author canadensys
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public abstract class AbstractProcessorBenchmark {
+
+	@Param({ "GOOD", "PARTIAL", "GARBAGE", "MIXED" })
+	public InputMix mix;
+
+	/**
+	 * Should errors be recorded in a ProcessingResult or should the processor receive null.
+	 */
+	@Param({ "false", "true" })
+	public boolean collectErrors;
+
+	private ProcessingResult result;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void setupProcessingResult() {
+		// non-synchronized, the state is not shared between threads
+		result = collectErrors ? new ProcessingResult(false) : null;
+		index = 0;
+	}
+
+	/**
+	 * Get the ProcessingResult to use for the next call. Errors from the previous call are cleared
+	 * to avoid measuring the growth of the error list.
+	 * 
+	 * @return ProcessingResult or null
+	 */
+	protected ProcessingResult nextResult() {
+		if (result != null) {
+			result.clear();
+		}
+		return result;
+	}
+
+	/**
+	 * Get the index of the next value to process.
+	 * 
+	 * @param length
+	 *            number of values available
+	 * @return index between 0 (inclusive) and length (exclusive)
+	 */
+	protected int nextIndex(int length) {
+		if (index >= length) {
+			index = 0;
+		}
+		return index++;
+	}
+}
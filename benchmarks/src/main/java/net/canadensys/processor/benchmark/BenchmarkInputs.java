@@ -0,0 +1,84 @@
+package net.canadensys.processor.benchmark;
+
+/**
+ * Input values used by the benchmarks.
+ * Values are taken from what we usually find in occurrence records (Darwin Core) and from the unit test files.
+ * 
+ * @author canadensys
+ * 
+ */
+public final class BenchmarkInputs {
+
+	// eventDate
+	public static final String[] GOOD_DATES = { "1987-06-03", "2008-12-27", "1987/6/3", "20081227", "31-12-2012", "12-31-2012", "3 Jun 1987",
+			"Jun 13, 2008", "1987.06.03", "2001-4-23" };
+	public static final String[] PARTIAL_DATES = { "1987", "1987-06", "Jun 1987", "Jun", "8.xi.2003", "2009 IV 02", "3 décembre 2012",
+			"1986 dic 3", "Enero 13, 2008", "1987-Août-3" };
+	public static final String[] GARBAGE_DATES = { "10-11-2010", "2014-02-30", "20140230", "10-VX-2010", "unknown", "s.d.", "19??",
+			"spring 1987", "1987-13-01", "3 Juin 87" };
+
+	// eventDate as interval
+	public static final String[] GOOD_DATE_INTERVALS = { "1977-08-16/1977-08-20", "1950-07-11-1950-07-15", "1910 Jul 23/1910 Jul 24",
+			"2001-02/2001-05", "1999/2001" };
+	public static final String[] PARTIAL_DATE_INTERVALS = { "9.v.1994 - 3.vi.1994", "3-5 June 1999", "Jun-Aug 1999", "1977-08-16/20",
+			"1987-06-03" };
+	public static final String[] GARBAGE_DATE_INTERVALS = { "1977-08-16,20", "between 1950 and 1960", "1950-07-11-1950/07/15", "??", "-" };
+
+	// verbatimLatitude, verbatimLongitude
+	public static final String[][] GOOD_DMS = { { "40°26′47″N", "74° 0' 21.5022\"W" }, { "40:26:47N", "30°17′12″E" },
+			{ "40d 26' 47\" N", "30°17′12″E" }, { "40d 26m 47sN", "74° 0' 21.5022\"W" }, { "45° 32' 25\" N", "129° 41' 31\" W" } };
+	public static final String[][] PARTIAL_DMS = { { "40d 26'N", "30°17′12″E" }, { "40d 26.17'N", "30°17′12″E" },
+			{ "45.5° N", "-129.6° W" }, { "1:2:3 N", "4:5:6 W" }, { "40°26′47″N", "" } };
+	public static final String[][] GARBAGE_DMS = { { "40°26'47\"", "30°17′12″E" }, { "40°26'47T", "30°17′12″E" },
+			{ "40.1:26:47N", "30°17′12″E" }, { "45° 332' 25\" N", "129° 41' 31\" W" }, { "195° 32' 25\" N", "129° 41' 31\" W" } };
+
+	// verbatimCoordinates
+	public static final String[] GOOD_COORDINATE_PAIRS = { "45.5,-129.6", "-71.87°;35.98 °", "40°26'47\"N/74° 0' 21.5022\"W",
+			"45° 32' 25\"N,129° 40' 31\"W", "45.5° N, 129.6° W" };
+	public static final String[] PARTIAL_COORDINATE_PAIRS = { "74° 0' 21.5022\"W/40°26'47\"N", "129° 40' 31\"W,45° 32' 25\"N",
+			"45.50000 -129.60000", "45.5\t-129.6", "45.5;-129.6" };
+	public static final String[] GARBAGE_COORDINATE_PAIRS = { "45° 32' 25\",129° 40' 31\"", "near the lake", "45.5", "N/A",
+			"45° 32' 25\"E,129° 40' 31\"W" };
+
+	// minimumElevationInMeters, maximumElevationInMeters
+	public static final String[][] GOOD_NUMERIC_PAIRS = { { "10", "20" }, { "1200.5", "1300" }, { "0", "15" }, { "-5", "5" },
+			{ "350", "375" } };
+	public static final String[][] PARTIAL_NUMERIC_PAIRS = { { "10m", "20 m" }, { "1200 ft", "" }, { "ca. 300", null }, { "", "45m" },
+			{ "350 meters", "375 meters" } };
+	public static final String[][] GARBAGE_NUMERIC_PAIRS = { { "high", "low" }, { "unknown", "unknown" }, { "sea level", "" },
+			{ "1.2.3", "4.5.6" }, { "--", "--" } };
+
+	// country
+	public static final String[] GOOD_COUNTRIES = { "Canada", "United States", "Brazil", "France", "Mexico" };
+	public static final String[] PARTIAL_COUNTRIES = { "CANADA", "U.S.A.", "Brasil", "Republique Francaise", "Méjico" };
+	public static final String[] GARBAGE_COUNTRIES = { "Atlantis", "North America", "Quebec", "?", "Western Province" };
+
+	// countryCode
+	public static final String[] GOOD_COUNTRY_CODES = { "CA", "US", "BR", "FR", "MX" };
+	public static final String[] PARTIAL_COUNTRY_CODES = { "AQ", "GL", "NC", "PF", "RE" };
+	public static final String[] GARBAGE_COUNTRY_CODES = { "ca", "CAN", "Canada", "XY", "??" };
+
+	// stateProvince (see benchmark/dictionary.txt)
+	public static final String[] GOOD_DICTIONARY_VALUES = { "São Paulo", "Paraná", "Rio de Janeiro", "Santa Catarina", "Roraima" };
+	public static final String[] PARTIAL_DICTIONARY_VALUES = { "Estado de São Paulo", "ParaÌba", "Roraima;Amazonas", "sao paulo",
+			"RIO GRANDE DO SUL" };
+	public static final String[] GARBAGE_DICTIONARY_VALUES = { "Ontario", "xyz", "Estado", "?", "Buenos Aires" };
+
+	// recordedBy
+	public static final String[] GOOD_PERSON_NAMES = { "Robert J. Bandoni", "C.M. Boardman", "E.A. Snyder", "U. Laine", "John W. Eastham" };
+	public static final String[] PARTIAL_PERSON_NAMES = { "Robert J. Bandoni;;and others", "C.M. Boardman; (1970)",
+			"John W. Eastham 1963; stet! E.A. Snyder 2005", "U. Laine & T. Lampianinen [?]", "J. Smith, K. Jones et al." };
+	public static final String[] GARBAGE_PERSON_NAMES = { "unknown", "anonymous", "?", "1963", "[illegible]" };
+
+	// x, y in EPSG:26918 (UTM zone 18N, NAD83)
+	public static final Double[][] GOOD_UTM_COORDINATES = { { 612710d, 5045877d }, { 600000d, 5000000d }, { 450000d, 5500000d },
+			{ 500000d, 4800000d }, { 630000d, 5100000d } };
+	// far from the central meridian of the zone, requires more work in the projection
+	public static final Double[][] PARTIAL_UTM_COORDINATES = { { 166021d, 5045877d }, { 833978d, 5045877d }, { 100000d, 7000000d },
+			{ 900000d, 1000000d }, { 200000d, 9000000d } };
+	public static final Double[][] GARBAGE_UTM_COORDINATES = { { -1e9, 5045877d }, { 612710d, 1e12 }, { 0d, 0d }, { Double.NaN, 5045877d },
+			{ 1e7, -1e7 } };
+
+	private BenchmarkInputs() {
+	}
+}
@@ -0,0 +1,28 @@
+package net.canadensys.processor.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar.
+ * Accepts the usual JMH command line options and always adds the GC profiler to report
+ * the allocation rate per call (gc.alloc.rate.norm).
+ * 
+ * e.g. java -jar target/benchmarks.jar DateProcessorBenchmark -p mix=MIXED
+ * 
+ * @author canadensys
+ * 
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		Options options = new OptionsBuilder().parent(commandLineOptions).addProfiler(GCProfiler.class).build();
+		new Runner(options).run();
+	}
+}
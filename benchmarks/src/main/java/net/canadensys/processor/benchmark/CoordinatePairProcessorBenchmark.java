@@ -0,0 +1,30 @@
+package net.canadensys.processor.benchmark;
+
+import net.canadensys.processor.geography.CoordinatePairProcessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmark of CoordinatePairProcessor.process
+ * 
+ * @author canadensys
+ * 
+ */
+public class CoordinatePairProcessorBenchmark extends AbstractProcessorBenchmark {
+
+	private CoordinatePairProcessor processor;
+	private String[] coordinatePairs;
+
+	@Setup
+	public void setup() {
+		processor = new CoordinatePairProcessor();
+		coordinatePairs = mix.select(BenchmarkInputs.GOOD_COORDINATE_PAIRS, BenchmarkInputs.PARTIAL_COORDINATE_PAIRS,
+				BenchmarkInputs.GARBAGE_COORDINATE_PAIRS);
+	}
+
+	@Benchmark
+	public String[] process() {
+		return processor.process(coordinatePairs[nextIndex(coordinatePairs.length)], nextResult());
+	}
+}
@@ -0,0 +1,34 @@
+package net.canadensys.processor.benchmark;
+
+import net.canadensys.processor.geography.CoordinatePairToDecimalProcessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmark of CoordinatePairToDecimalProcessor.process, to compare with CoordinatePairProcessorBenchmark followed by
+ * DegreeMinuteToDecimalProcessorBenchmark.
+ * 
+ * @author canadensys
+ * 
+ */
+public class CoordinatePairToDecimalProcessorBenchmark extends AbstractProcessorBenchmark {
+
+	private CoordinatePairToDecimalProcessor processor;
+	private String[] coordinatePairs;
+	private double[] output;
+
+	@Setup
+	public void setup() {
+		processor = new CoordinatePairToDecimalProcessor();
+		coordinatePairs = mix.select(BenchmarkInputs.GOOD_COORDINATE_PAIRS, BenchmarkInputs.PARTIAL_COORDINATE_PAIRS,
+				BenchmarkInputs.GARBAGE_COORDINATE_PAIRS);
+		output = new double[2];
+	}
+
+	@Benchmark
+	public double[] process() {
+		processor.process(coordinatePairs[nextIndex(coordinatePairs.length)], output, nextResult());
+		return output;
+	}
+}
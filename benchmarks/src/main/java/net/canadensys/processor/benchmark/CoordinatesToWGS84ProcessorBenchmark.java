@@ -0,0 +1,170 @@
+package net.canadensys.processor.benchmark;
+
+import java.util.BitSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import net.canadensys.processor.ProcessingResult;
+import net.canadensys.processor.geography.CoordinatesToWGS84Processor;
+
+import org.geotools.referencing.CRS;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark of CoordinatesToWGS84Processor.process and CoordinatesToWGS84Processor.processBatch (boxed and primitive).
+ * EPSG:26918 uses the UTM fast path, processGeoTools and processPrimitiveBatchGeoTools measure the GeoTools transform.
+ * processPrimitiveBatchParallel splits a larger batch between all the available processors.
+ * processMixedCRSBatch uses a code per coordinate, alternating between two source coordinate systems.
+ * processBatch results are reported per coordinate (OperationsPerInvocation).
+ * 
+ * @author canadensys
+ * 
+ */
+public class CoordinatesToWGS84ProcessorBenchmark extends AbstractProcessorBenchmark {
+
+	private static final String SOURCE_CRS = "EPSG:26918";
+	// same datum and projection, the results are the same for both codes
+	private static final String OTHER_SOURCE_CRS = "EPSG:32618";
+	private static final int BATCH_SIZE = 1000;
+	private static final int PARALLEL_BATCH_SIZE = 100000;
+
+	private CoordinatesToWGS84Processor processor;
+	private CoordinatesToWGS84Processor geoToolsProcessor;
+	private CoordinateReferenceSystem sourceCRS;
+	private Double[][] coordinates;
+
+	private Double[] batchX;
+	private Double[] batchY;
+	private ProcessingResult[] batchResults;
+
+	private double[] primitiveX;
+	private double[] primitiveY;
+	private double[] latitude;
+	private double[] longitude;
+	private BitSet valid;
+	private ProcessingResult primitiveBatchResult;
+	private String[] sourceCoordinateSystems;
+
+	private double[] parallelX;
+	private double[] parallelY;
+	private double[] parallelLatitude;
+	private double[] parallelLongitude;
+	private BitSet parallelValid;
+	private ExecutorService executorService;
+
+	@Setup
+	public void setup() throws FactoryException {
+		processor = new CoordinatesToWGS84Processor(SOURCE_CRS);
+		geoToolsProcessor = new CoordinatesToWGS84Processor(SOURCE_CRS);
+		geoToolsProcessor.setUseUTMFastPath(false);
+		sourceCRS = CRS.decode(SOURCE_CRS);
+		coordinates = mix.select(BenchmarkInputs.GOOD_UTM_COORDINATES, BenchmarkInputs.PARTIAL_UTM_COORDINATES,
+				BenchmarkInputs.GARBAGE_UTM_COORDINATES);
+
+		batchX = new Double[BATCH_SIZE];
+		batchY = new Double[BATCH_SIZE];
+		primitiveX = new double[BATCH_SIZE];
+		primitiveY = new double[BATCH_SIZE];
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			batchX[i] = coordinates[i % coordinates.length][0];
+			batchY[i] = coordinates[i % coordinates.length][1];
+			primitiveX[i] = batchX[i];
+			primitiveY[i] = batchY[i];
+		}
+		parallelX = new double[PARALLEL_BATCH_SIZE];
+		parallelY = new double[PARALLEL_BATCH_SIZE];
+		for (int i = 0; i < PARALLEL_BATCH_SIZE; i++) {
+			parallelX[i] = primitiveX[i % BATCH_SIZE];
+			parallelY[i] = primitiveY[i % BATCH_SIZE];
+		}
+		parallelLatitude = new double[PARALLEL_BATCH_SIZE];
+		parallelLongitude = new double[PARALLEL_BATCH_SIZE];
+		parallelValid = new BitSet(PARALLEL_BATCH_SIZE);
+		executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+		sourceCoordinateSystems = new String[BATCH_SIZE];
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			sourceCoordinateSystems[i] = (i % 2 == 0) ? SOURCE_CRS : OTHER_SOURCE_CRS;
+		}
+		latitude = new double[BATCH_SIZE];
+		longitude = new double[BATCH_SIZE];
+		valid = new BitSet(BATCH_SIZE);
+		if (collectErrors) {
+			primitiveBatchResult = new ProcessingResult(false);
+			batchResults = new ProcessingResult[BATCH_SIZE];
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				batchResults[i] = new ProcessingResult(false);
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		executorService.shutdown();
+	}
+
+	@Benchmark
+	public Double[] process() {
+		Double[] xy = coordinates[nextIndex(coordinates.length)];
+		return processor.process(xy[0], xy[1], sourceCRS, nextResult());
+	}
+
+	@Benchmark
+	public Double[] processGeoTools() {
+		Double[] xy = coordinates[nextIndex(coordinates.length)];
+		return geoToolsProcessor.process(xy[0], xy[1], sourceCRS, nextResult());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public Double[][] processBatch() {
+		if (batchResults != null) {
+			for (ProcessingResult pr : batchResults) {
+				pr.clear();
+			}
+		}
+		return processor.processBatch(batchX, batchY, sourceCRS, batchResults);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public int processPrimitiveBatch() {
+		if (primitiveBatchResult != null) {
+			primitiveBatchResult.clear();
+		}
+		return processor.processBatch(primitiveX, primitiveY, sourceCRS, latitude, longitude, valid, primitiveBatchResult);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public int processPrimitiveBatchGeoTools() {
+		if (primitiveBatchResult != null) {
+			primitiveBatchResult.clear();
+		}
+		return geoToolsProcessor.processBatch(primitiveX, primitiveY, sourceCRS, latitude, longitude, valid, primitiveBatchResult);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PARALLEL_BATCH_SIZE)
+	public int processPrimitiveBatchParallel() throws InterruptedException {
+		if (primitiveBatchResult != null) {
+			primitiveBatchResult.clear();
+		}
+		return processor.processBatch(parallelX, parallelY, sourceCRS, parallelLatitude, parallelLongitude, parallelValid,
+				primitiveBatchResult, executorService);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public int processMixedCRSBatch() {
+		if (primitiveBatchResult != null) {
+			primitiveBatchResult.clear();
+		}
+		return processor.processMixedCRSBatch(primitiveX, primitiveY, sourceCoordinateSystems, latitude, longitude, valid, primitiveBatchResult);
+	}
+}
@@ -0,0 +1,40 @@
+package net.canadensys.processor.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import net.canadensys.processor.geography.CoordinatesToWGS84Processor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Startup benchmark of CoordinatesToWGS84Processor: time from a fresh JVM to the first transformed coordinate, including the
+ * opening of the EPSG database. Each fork is a new JVM and measures a single call.
+ * e.g. java -jar target/benchmarks.jar CoordinatesToWGS84StartupBenchmark
+ * 
+ * @author canadensys
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class CoordinatesToWGS84StartupBenchmark {
+
+	private static final String SOURCE_CRS = "EPSG:26918";
+
+	@Benchmark
+	public Double[] timeToFirstTransform() {
+		CoordinatesToWGS84Processor processor = new CoordinatesToWGS84Processor(SOURCE_CRS);
+		return processor.process(612710d, 5045877d, null);
+	}
+}
@@ -0,0 +1,31 @@
+package net.canadensys.processor.benchmark;
+
+import net.canadensys.processor.geography.CountryContinentProcessor;
+import net.canadensys.vocabulary.Continent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmark of CountryContinentProcessor.process
+ * 
+ * @author canadensys
+ * 
+ */
+public class CountryContinentProcessorBenchmark extends AbstractProcessorBenchmark {
+
+	private CountryContinentProcessor processor;
+	private String[] countryCodes;
+
+	@Setup
+	public void setup() {
+		processor = new CountryContinentProcessor();
+		countryCodes = mix.select(BenchmarkInputs.GOOD_COUNTRY_CODES, BenchmarkInputs.PARTIAL_COUNTRY_CODES,
+				BenchmarkInputs.GARBAGE_COUNTRY_CODES);
+	}
+
+	@Benchmark
+	public Continent process() {
+		return processor.process(countryCodes[nextIndex(countryCodes.length)], nextResult());
+	}
+}
@@ -0,0 +1,30 @@
+package net.canadensys.processor.benchmark;
+
+import net.canadensys.processor.geography.CountryProcessor;
+
+import org.gbif.api.vocabulary.Country;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmark of CountryProcessor.process
+ * 
+ * @author canadensys
+ * 
+ */
+public class CountryProcessorBenchmark extends AbstractProcessorBenchmark {
+
+	private CountryProcessor processor;
+	private String[] countries;
+
+	@Setup
+	public void setup() {
+		processor = new CountryProcessor();
+		countries = mix.select(BenchmarkInputs.GOOD_COUNTRIES, BenchmarkInputs.PARTIAL_COUNTRIES, BenchmarkInputs.GARBAGE_COUNTRIES);
+	}
+
+	@Benchmark
+	public Country process() {
+		return processor.process(countries[nextIndex(countries.length)], nextResult());
+	}
+}
@@ -0,0 +1,52 @@
+package net.canadensys.processor.benchmark;
+
+import net.canadensys.processor.ProcessingResult;
+import net.canadensys.processor.datetime.DateIntervalProcessor;
+import net.canadensys.processor.datetime.DateProcessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmark of DateIntervalProcessor.process, followed or not by the parsing of the 2 dates, and of the fused
+ * DateIntervalProcessor.processDates
+ * 
+ * @author canadensys
+ * 
+ */
+public class DateIntervalProcessorBenchmark extends AbstractProcessorBenchmark {
+
+	private DateIntervalProcessor processor;
+	private DateProcessor dateProcessor;
+	private long[] dates;
+	private String[] dateIntervals;
+
+	@Setup
+	public void setup() {
+		processor = new DateIntervalProcessor();
+		dateProcessor = new DateProcessor();
+		dates = new long[2];
+		dateIntervals = mix.select(BenchmarkInputs.GOOD_DATE_INTERVALS, BenchmarkInputs.PARTIAL_DATE_INTERVALS,
+				BenchmarkInputs.GARBAGE_DATE_INTERVALS);
+	}
+
+	@Benchmark
+	public String[] process() {
+		return processor.process(dateIntervals[nextIndex(dateIntervals.length)], nextResult());
+	}
+
+	@Benchmark
+	public long[] processThenParse() {
+		ProcessingResult result = nextResult();
+		String[] interval = processor.process(dateIntervals[nextIndex(dateIntervals.length)], result);
+		dates[DateIntervalProcessor.START_DATE_IDX] = dateProcessor.processPacked(interval[DateIntervalProcessor.START_DATE_IDX], result);
+		dates[DateIntervalProcessor.END_DATE_IDX] = dateProcessor.processPacked(interval[DateIntervalProcessor.END_DATE_IDX], result);
+		return dates;
+	}
+
+	@Benchmark
+	public long[] processDates() {
+		processor.processDates(dateIntervals[nextIndex(dateIntervals.length)], dates, nextResult());
+		return dates;
+	}
+}
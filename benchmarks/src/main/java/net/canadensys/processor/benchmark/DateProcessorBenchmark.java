@@ -0,0 +1,102 @@
+package net.canadensys.processor.benchmark;
+
+import net.canadensys.processor.RowHeader;
+import net.canadensys.processor.RowRecord;
+import net.canadensys.processor.datetime.DateProcessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmark of DateProcessor.process and DateProcessor.processPacked, and of DateProcessor.processBean on a new bean per
+ * value compared to a reused RowRecord
+ * 
+ * @author canadensys
+ * 
+ */
+public class DateProcessorBenchmark extends AbstractProcessorBenchmark {
+
+	private DateProcessor processor;
+	private String[] dates;
+	private RowRecord rowRecord;
+	private String[] row;
+	private Object[] output;
+
+	@Setup
+	public void setup() {
+		processor = new DateProcessor("eventDate", "eventStartYear", "eventStartMonth", "eventStartDay");
+		dates = mix.select(BenchmarkInputs.GOOD_DATES, BenchmarkInputs.PARTIAL_DATES, BenchmarkInputs.GARBAGE_DATES);
+
+		RowHeader outHeader = new RowHeader(new String[] { "eventStartYear", "eventStartMonth", "eventStartDay" }, new Class<?>[] {
+				Integer.class, Integer.class, Integer.class });
+		rowRecord = new RowRecord(new RowHeader("eventDate"), outHeader);
+		row = new String[1];
+		output = outHeader.newBuffer();
+	}
+
+	@Benchmark
+	public Integer[] process() {
+		return processor.process(dates[nextIndex(dates.length)], nextResult());
+	}
+
+	@Benchmark
+	public long processPacked() {
+		return processor.processPacked(dates[nextIndex(dates.length)], nextResult());
+	}
+
+	@Benchmark
+	public DateBean processBean() {
+		DateBean in = new DateBean();
+		in.setEventDate(dates[nextIndex(dates.length)]);
+		DateBean out = new DateBean();
+		processor.processBean(in, out, null, nextResult());
+		return out;
+	}
+
+	@Benchmark
+	public Object[] processRow() {
+		row[0] = dates[nextIndex(dates.length)];
+		rowRecord.setRow(row, output);
+		processor.processBean(rowRecord, rowRecord, null, nextResult());
+		return output;
+	}
+
+	public static class DateBean {
+		private String eventDate;
+		private Integer eventStartYear;
+		private Integer eventStartMonth;
+		private Integer eventStartDay;
+
+		public String getEventDate() {
+			return eventDate;
+		}
+
+		public void setEventDate(String eventDate) {
+			this.eventDate = eventDate;
+		}
+
+		public Integer getEventStartYear() {
+			return eventStartYear;
+		}
+
+		public void setEventStartYear(Integer eventStartYear) {
+			this.eventStartYear = eventStartYear;
+		}
+
+		public Integer getEventStartMonth() {
+			return eventStartMonth;
+		}
+
+		public void setEventStartMonth(Integer eventStartMonth) {
+			this.eventStartMonth = eventStartMonth;
+		}
+
+		public Integer getEventStartDay() {
+			return eventStartDay;
+		}
+
+		public void setEventStartDay(Integer eventStartDay) {
+			this.eventStartDay = eventStartDay;
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package net.canadensys.processor.benchmark;
+
+import net.canadensys.processor.geography.DegreeMinuteToDecimalProcessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmark of DegreeMinuteToDecimalProcessor.process
+ * 
+ * @author canadensys
+ * 
+ */
+public class DegreeMinuteToDecimalProcessorBenchmark extends AbstractProcessorBenchmark {
+
+	private DegreeMinuteToDecimalProcessor processor;
+	private String[][] coordinates;
+
+	@Setup
+	public void setup() {
+		processor = new DegreeMinuteToDecimalProcessor();
+		coordinates = mix.select(BenchmarkInputs.GOOD_DMS, BenchmarkInputs.PARTIAL_DMS, BenchmarkInputs.GARBAGE_DMS);
+	}
+
+	@Benchmark
+	public Double[] process() {
+		String[] latLong = coordinates[nextIndex(coordinates.length)];
+		return processor.process(latLong[0], latLong[1], nextResult());
+	}
+}
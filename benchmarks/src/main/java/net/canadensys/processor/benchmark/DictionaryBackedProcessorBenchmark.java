@@ -0,0 +1,36 @@
+package net.canadensys.processor.benchmark;
+
+import java.io.InputStream;
+
+import net.canadensys.parser.DictionaryBasedValueParser;
+import net.canadensys.processor.DictionaryBackedProcessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmark of DictionaryBackedProcessor.process
+ * 
+ * @author canadensys
+ * 
+ */
+public class DictionaryBackedProcessorBenchmark extends AbstractProcessorBenchmark {
+
+	private static final String DICTIONARY_FILE = "/benchmark/dictionary.txt";
+
+	private DictionaryBackedProcessor processor;
+	private String[] values;
+
+	@Setup
+	public void setup() {
+		DictionaryBasedValueParser parser = new DictionaryBasedValueParser(new InputStream[] { getClass().getResourceAsStream(DICTIONARY_FILE) });
+		processor = new DictionaryBackedProcessor(parser);
+		values = mix.select(BenchmarkInputs.GOOD_DICTIONARY_VALUES, BenchmarkInputs.PARTIAL_DICTIONARY_VALUES,
+				BenchmarkInputs.GARBAGE_DICTIONARY_VALUES);
+	}
+
+	@Benchmark
+	public String process() {
+		return processor.process(values[nextIndex(values.length)], nextResult());
+	}
+}
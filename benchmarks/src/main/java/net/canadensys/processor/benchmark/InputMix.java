@@ -0,0 +1,75 @@
+package net.canadensys.processor.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Kind of input values fed to a benchmarked processor.
+ * 
+ * @author canadensys
+ * 
+ */
+public enum InputMix {
+	/**
+	 * Only values that can be fully processed.
+	 */
+	GOOD,
+	/**
+	 * Values that can only be partially processed or that require the slowest successful path.
+	 */
+	PARTIAL,
+	/**
+	 * Values that can not be processed.
+	 */
+	GARBAGE,
+	/**
+	 * Mix of the 3 other kinds, weighted like a typical harvest (70% good, 20% partial, 10% garbage).
+	 */
+	MIXED;
+
+	private static final int GOOD_WEIGHT = 7;
+	private static final int PARTIAL_WEIGHT = 2;
+	private static final int GARBAGE_WEIGHT = 1;
+
+	/**
+	 * Select the values matching this InputMix.
+	 * 
+	 * @param good
+	 * @param partial
+	 * @param garbage
+	 * @return values to use in the benchmark
+	 */
+	public <T> T[] select(T[] good, T[] partial, T[] garbage) {
+		switch (this) {
+			case GOOD:
+				return good;
+			case PARTIAL:
+				return partial;
+			case GARBAGE:
+				return garbage;
+			default:
+				return mix(good, partial, garbage);
+		}
+	}
+
+	/**
+	 * Build a weighted mix of values by cycling through each array.
+	 * Values are interleaved so consecutive calls do not always hit the same kind of input.
+	 */
+	private static <T> T[] mix(T[] good, T[] partial, T[] garbage) {
+		int rounds = Math.max(good.length, Math.max(partial.length, garbage.length));
+		T[] mixed = Arrays.copyOf(good, rounds * (GOOD_WEIGHT + PARTIAL_WEIGHT + GARBAGE_WEIGHT));
+		int idx = 0;
+		for (int round = 0; round < rounds; round++) {
+			for (int i = 0; i < GOOD_WEIGHT; i++) {
+				mixed[idx++] = good[(round * GOOD_WEIGHT + i) % good.length];
+			}
+			for (int i = 0; i < PARTIAL_WEIGHT; i++) {
+				mixed[idx++] = partial[(round * PARTIAL_WEIGHT + i) % partial.length];
+			}
+			for (int i = 0; i < GARBAGE_WEIGHT; i++) {
+				mixed[idx++] = garbage[(round * GARBAGE_WEIGHT + i) % garbage.length];
+			}
+		}
+		return mixed;
+	}
+}
@@ -0,0 +1,31 @@
+package net.canadensys.processor.benchmark;
+
+import net.canadensys.processor.numeric.NumericPairDataProcessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmark of NumericPairDataProcessor.process
+ * 
+ * @author canadensys
+ * 
+ */
+public class NumericPairDataProcessorBenchmark extends AbstractProcessorBenchmark {
+
+	private NumericPairDataProcessor processor;
+	private String[][] numericPairs;
+
+	@Setup
+	public void setup() {
+		processor = new NumericPairDataProcessor();
+		numericPairs = mix.select(BenchmarkInputs.GOOD_NUMERIC_PAIRS, BenchmarkInputs.PARTIAL_NUMERIC_PAIRS,
+				BenchmarkInputs.GARBAGE_NUMERIC_PAIRS);
+	}
+
+	@Benchmark
+	public Number[] process() {
+		String[] pair = numericPairs[nextIndex(numericPairs.length)];
+		return processor.process(pair[0], pair[1], Double.class, nextResult());
+	}
+}
@@ -0,0 +1,31 @@
+package net.canadensys.processor.benchmark;
+
+import java.util.List;
+
+import net.canadensys.processor.person.PersonNameProcessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmark of PersonNameProcessor.process
+ * 
+ * @author canadensys
+ * 
+ */
+public class PersonNameProcessorBenchmark extends AbstractProcessorBenchmark {
+
+	private PersonNameProcessor processor;
+	private String[] names;
+
+	@Setup
+	public void setup() {
+		processor = new PersonNameProcessor();
+		names = mix.select(BenchmarkInputs.GOOD_PERSON_NAMES, BenchmarkInputs.PARTIAL_PERSON_NAMES, BenchmarkInputs.GARBAGE_PERSON_NAMES);
+	}
+
+	@Benchmark
+	public List<String> process() {
+		return processor.process(names[nextIndex(names.length)], nextResult());
+	}
+}
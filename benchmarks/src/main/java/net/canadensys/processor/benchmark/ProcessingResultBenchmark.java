@@ -0,0 +1,59 @@
+package net.canadensys.processor.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import net.canadensys.processor.ProcessingResult;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of ProcessingResult.addError on an instance shared by all threads, like MultiThreadingTest.
+ * The number of threads can be changed with the -t option.
+ * Each thread clears the errors every CLEAR_INTERVAL calls to keep the memory used stable, like a worker processing records.
+ *
+ * @author canadensys
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(8)
+public class ProcessingResultBenchmark {
+
+	private static final int CLEAR_INTERVAL = 4096;
+
+	private ProcessingResult result;
+
+	@State(Scope.Thread)
+	public static class ThreadState {
+		private int count;
+	}
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		result = new ProcessingResult();
+	}
+
+	@Benchmark
+	public void addError(ThreadState threadState) {
+		result.addError("error");
+		if (++threadState.count == CLEAR_INTERVAL) {
+			threadState.count = 0;
+			result.clear();
+		}
+	}
+}
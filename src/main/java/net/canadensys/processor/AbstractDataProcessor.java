@@ -4,6 +4,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
 
+import net.canadensys.processor.ProcessorMetrics.OutcomeEnum;
+
 /**
  * All implementations shall be Thread-Safe once created.
  * Considering this, setters should be avoided.
@@ -21,6 +23,9 @@ public abstract class AbstractDataProcessor {
 
 	protected ResourceBundle resourceBundle;
 
+	// disabled by default
+	protected ProcessorMetrics metrics = NoOpProcessorMetrics.INSTANCE;
+
 	/**
 	 * Set the Locale to used to create the error messages
 	 * Configuration method, should be called at creation time.
@@ -32,6 +37,67 @@ public abstract class AbstractDataProcessor {
 		this.resourceBundle = ResourceBundle.getBundle(ERROR_BUNDLE_NAME, locale);
 	}
 
+	/**
+	 * Set the ProcessorMetrics receiving the calls and the errors of this processor.
+	 * Configuration method, should be called at creation time.
+	 *
+	 * @param metrics
+	 *            metrics or null to disable them
+	 */
+	public void setMetrics(ProcessorMetrics metrics) {
+		this.metrics = (metrics == null) ? NoOpProcessorMetrics.INSTANCE : metrics;
+	}
+
+	/**
+	 * @return the ProcessorMetrics of this processor, NoOpProcessorMetrics if disabled
+	 */
+	public ProcessorMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Report a call to the ProcessorMetrics, only called when the metrics are enabled.
+	 *
+	 * @param startNanos
+	 *            System.nanoTime() at the beginning of the call
+	 * @param blankInput
+	 *            the input was null or blank
+	 * @param success
+	 *            the input was processed
+	 */
+	protected void recordCall(long startNanos, boolean blankInput, boolean success) {
+		metrics.recordCall(System.nanoTime() - startNanos, blankInput ? OutcomeEnum.BLANK_INPUT : (success ? OutcomeEnum.SUCCESS
+				: OutcomeEnum.FAILURE));
+	}
+
+	/**
+	 * Check if an error would be recorded, used to avoid building the arguments of an error nobody will read.
+	 *
+	 * @param result
+	 *            optional processing result
+	 * @return
+	 */
+	protected boolean isErrorRecorded(ProcessingResult result) {
+		return result != null || metrics.isEnabled();
+	}
+
+	/**
+	 * Record an error in the ProcessingResult, the message is only rendered if the errors are read.
+	 *
+	 * @param result
+	 *            optional processing result
+	 * @param key
+	 *            key of the message in the error bundle
+	 * @param arguments
+	 *            arguments of the message, the first one being the value that could not be processed
+	 */
+	protected void addError(ProcessingResult result, String key, Object... arguments) {
+		metrics.recordError(key);
+		if (result != null) {
+			result.addError(new ProcessingError(getClass(), resourceBundle, key, arguments));
+		}
+	}
+
 	protected String getValueOnError(ErrorHandlingModeEnum errorHandlingMode, String originalValue) {
 		switch (errorHandlingMode) {
 			case USE_ORIGINAL:
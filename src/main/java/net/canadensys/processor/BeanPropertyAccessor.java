@@ -0,0 +1,325 @@
+package net.canadensys.processor;
+
+import java.beans.PropertyDescriptor;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.PropertyUtils;
+
+/**
+ * Simple property access used by the processors in processBean/validateBean.
+ * Drop-in replacement for PropertyUtils.getSimpleProperty, PropertyUtils.setSimpleProperty, PropertyUtils.getPropertyType and
+ * PropertyUtils.isWriteable (same exceptions) where the getter and the setter are resolved only once per (bean class, property name) and kept in
+ * a concurrent table shared by all processors. Lookups in the table are lock-free.
+ * Only the bean classes loaded by the class loader of this class (or one of its parents) are kept in that table. The accessors of other
+ * bean classes (e.g. loaded by the class loader of a web application while this library is shared) are kept in a second concurrent table
+ * where the classes are weakly referenced and the accessors softly referenced, so their class loader can be garbage collected. Lookups
+ * in that table are also lock-free.
+ *
+ * PropertyRecord are accessed directly and DynaBean are delegated to PropertyUtils.
+ *
+ * @author canadensys
+ *
+ */
+public final class BeanPropertyAccessor {
+
+	private static final ConcurrentMap<Class<?>, ConcurrentMap<String, PropertyAccessor>> ACCESSORS = new ConcurrentHashMap<Class<?>, ConcurrentMap<String, PropertyAccessor>>();
+	// the accessors reference their bean class (through the methods), they must not be strongly referenced by the table
+	private static final ConcurrentMap<Object, SoftReference<ConcurrentMap<String, PropertyAccessor>>> FOREIGN_ACCESSORS = new ConcurrentHashMap<Object, SoftReference<ConcurrentMap<String, PropertyAccessor>>>();
+	// keys of FOREIGN_ACCESSORS whose class was garbage collected
+	private static final ReferenceQueue<Class<?>> COLLECTED_CLASSES = new ReferenceQueue<Class<?>>();
+
+	private BeanPropertyAccessor() {
+	}
+
+	/**
+	 * Same as PropertyUtils.getSimpleProperty(bean, name)
+	 *
+	 * @param bean
+	 * @param name
+	 *            simple (not nested, indexed or mapped) property name
+	 * @return the value of the property
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 * @throws NoSuchMethodException
+	 *             if the property doesn't exist or has no getter
+	 */
+	public static Object getSimpleProperty(Object bean, String name) throws IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException {
+		if (bean instanceof PropertyRecord) {
+			return ((PropertyRecord) bean).getProperty(name);
+		}
+		if (bean instanceof DynaBean) {
+			return PropertyUtils.getSimpleProperty(bean, name);
+		}
+		Method readMethod = getAccessor(bean, name).readMethod;
+		if (readMethod == null) {
+			throw new NoSuchMethodException("Property '" + name + "' has no getter method in class '" + bean.getClass() + "'");
+		}
+		return readMethod.invoke(bean);
+	}
+
+	/**
+	 * Same as PropertyUtils.setSimpleProperty(bean, name, value)
+	 *
+	 * @param bean
+	 * @param name
+	 *            simple (not nested, indexed or mapped) property name
+	 * @param value
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 * @throws NoSuchMethodException
+	 *             if the property doesn't exist or has no setter
+	 */
+	public static void setSimpleProperty(Object bean, String name, Object value) throws IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException {
+		if (bean instanceof PropertyRecord) {
+			((PropertyRecord) bean).setProperty(name, value);
+			return;
+		}
+		if (bean instanceof DynaBean) {
+			PropertyUtils.setSimpleProperty(bean, name, value);
+			return;
+		}
+		Method writeMethod = getAccessor(bean, name).writeMethod;
+		if (writeMethod == null) {
+			throw new NoSuchMethodException("Property '" + name + "' has no setter method in class '" + bean.getClass() + "'");
+		}
+		writeMethod.invoke(bean, value);
+	}
+
+	/**
+	 * Same as PropertyUtils.getPropertyType(bean, name) for a simple property
+	 *
+	 * @param bean
+	 * @param name
+	 *            simple (not nested, indexed or mapped) property name
+	 * @return the type of the property or null if the property doesn't exist
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 * @throws NoSuchMethodException
+	 */
+	public static Class<?> getPropertyType(Object bean, String name) throws IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException {
+		if (bean instanceof PropertyRecord) {
+			return ((PropertyRecord) bean).getPropertyType(name);
+		}
+		if (bean instanceof DynaBean) {
+			return PropertyUtils.getPropertyType(bean, name);
+		}
+		PropertyAccessor accessor = findAccessor(bean, name);
+		return accessor == null ? null : accessor.propertyType;
+	}
+
+	/**
+	 * Same as PropertyUtils.isWriteable(bean, name) for a simple property
+	 *
+	 * @param bean
+	 * @param name
+	 *            simple (not nested, indexed or mapped) property name
+	 * @return the property exists and has a setter
+	 */
+	public static boolean isWriteable(Object bean, String name) {
+		if (bean instanceof PropertyRecord) {
+			return ((PropertyRecord) bean).isWriteable(name);
+		}
+		if (bean instanceof DynaBean) {
+			return PropertyUtils.isWriteable(bean, name);
+		}
+		try {
+			PropertyAccessor accessor = findAccessor(bean, name);
+			return accessor != null && accessor.writeMethod != null;
+		}
+		catch (IllegalAccessException e) {
+			return false;
+		}
+		catch (InvocationTargetException e) {
+			return false;
+		}
+		catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return the accessor of the property, never null
+	 * @throws NoSuchMethodException
+	 *             if the property doesn't exist
+	 */
+	private static PropertyAccessor getAccessor(Object bean, String name) throws IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException {
+		PropertyAccessor accessor = findAccessor(bean, name);
+		if (accessor == null) {
+			throw new NoSuchMethodException("Unknown property '" + name + "' on class '" + bean.getClass() + "'");
+		}
+		return accessor;
+	}
+
+	/**
+	 * @return the accessor of the property or null if the property doesn't exist
+	 */
+	private static PropertyAccessor findAccessor(Object bean, String name) throws IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException {
+		if (bean == null) {
+			throw new IllegalArgumentException("No bean specified");
+		}
+		if (name == null) {
+			throw new IllegalArgumentException("No name specified for bean class '" + bean.getClass() + "'");
+		}
+
+		ConcurrentMap<String, PropertyAccessor> classAccessors = getClassAccessors(bean.getClass());
+		PropertyAccessor accessor = classAccessors.get(name);
+		if (accessor == null) {
+			accessor = resolve(bean, name);
+			classAccessors.putIfAbsent(name, accessor);
+		}
+		return accessor == PropertyAccessor.UNKNOWN ? null : accessor;
+	}
+
+	/**
+	 * @return the table of the accessors of a bean class, never null
+	 */
+	private static ConcurrentMap<String, PropertyAccessor> getClassAccessors(Class<?> beanClass) {
+		ConcurrentMap<String, PropertyAccessor> classAccessors = ACCESSORS.get(beanClass);
+		if (classAccessors != null) {
+			return classAccessors;
+		}
+		SoftReference<ConcurrentMap<String, PropertyAccessor>> reference = FOREIGN_ACCESSORS.get(new ClassLookupKey(beanClass));
+		if (reference != null) {
+			classAccessors = reference.get();
+			if (classAccessors != null) {
+				return classAccessors;
+			}
+		}
+
+		classAccessors = new ConcurrentHashMap<String, PropertyAccessor>();
+		if (isCacheSafe(beanClass)) {
+			ConcurrentMap<String, PropertyAccessor> previous = ACCESSORS.putIfAbsent(beanClass, classAccessors);
+			return previous != null ? previous : classAccessors;
+		}
+
+		removeCollectedClasses();
+		// concurrent misses could replace each other accessors, the accessors would only be resolved again
+		FOREIGN_ACCESSORS.put(new ClassKey(beanClass, COLLECTED_CLASSES), new SoftReference<ConcurrentMap<String, PropertyAccessor>>(
+				classAccessors));
+		return classAccessors;
+	}
+
+	private static void removeCollectedClasses() {
+		Reference<? extends Class<?>> collected;
+		while ((collected = COLLECTED_CLASSES.poll()) != null) {
+			FOREIGN_ACCESSORS.remove(collected);
+		}
+	}
+
+	/**
+	 * Check if a class can be strongly referenced without preventing the garbage collection of its class loader, that is if the class
+	 * is loaded by the class loader of this class or one of its parents.
+	 * 
+	 * @param beanClass
+	 * @return
+	 */
+	static boolean isCacheSafe(Class<?> beanClass) {
+		ClassLoader beanClassLoader = beanClass.getClassLoader();
+		// bootstrap class loader
+		if (beanClassLoader == null) {
+			return true;
+		}
+		ClassLoader classLoader = BeanPropertyAccessor.class.getClassLoader();
+		while (classLoader != null) {
+			if (classLoader == beanClassLoader) {
+				return true;
+			}
+			classLoader = classLoader.getParent();
+		}
+		return false;
+	}
+
+	private static PropertyAccessor resolve(Object bean, String name) throws IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException {
+		if (name.indexOf('.') >= 0 || name.indexOf('[') >= 0 || name.indexOf('(') >= 0) {
+			throw new IllegalArgumentException("Nested, indexed or mapped property names are not allowed: Property '" + name
+					+ "' on bean class '" + bean.getClass() + "'");
+		}
+		PropertyDescriptor descriptor = PropertyUtils.getPropertyDescriptor(bean, name);
+		if (descriptor == null) {
+			return PropertyAccessor.UNKNOWN;
+		}
+		// the returned methods are accessible (e.g. public method of a non public class)
+		return new PropertyAccessor(descriptor.getPropertyType(), PropertyUtils.getReadMethod(descriptor), PropertyUtils.getWriteMethod(descriptor));
+	}
+
+	/**
+	 * Key of FOREIGN_ACCESSORS, the class is weakly referenced.
+	 */
+	private static final class ClassKey extends WeakReference<Class<?>> {
+		private final int hash;
+
+		private ClassKey(Class<?> beanClass, ReferenceQueue<Class<?>> queue) {
+			super(beanClass, queue);
+			this.hash = System.identityHashCode(beanClass);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			// a collected key is only equal to itself (to be removed)
+			if (obj == this) {
+				return true;
+			}
+			Class<?> beanClass = get();
+			return beanClass != null && obj instanceof ClassKey && ((ClassKey) obj).get() == beanClass;
+		}
+	}
+
+	/**
+	 * Short-lived key used to look up FOREIGN_ACCESSORS without creating a WeakReference. ConcurrentHashMap compares the looked up key
+	 * with the keys of the table (lookupKey.equals(tableKey)).
+	 */
+	private static final class ClassLookupKey {
+		private final Class<?> beanClass;
+
+		private ClassLookupKey(Class<?> beanClass) {
+			this.beanClass = beanClass;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(beanClass);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof ClassKey && ((ClassKey) obj).get() == beanClass;
+		}
+	}
+
+	/**
+	 * Resolved getter and setter of a property.
+	 */
+	private static final class PropertyAccessor {
+		// marker for properties that don't exist
+		private static final PropertyAccessor UNKNOWN = new PropertyAccessor(null, null, null);
+
+		private final Class<?> propertyType;
+		private final Method readMethod;
+		private final Method writeMethod;
+
+		private PropertyAccessor(Class<?> propertyType, Method readMethod, Method writeMethod) {
+			this.propertyType = propertyType;
+			this.readMethod = readMethod;
+			this.writeMethod = writeMethod;
+		}
+	}
+}
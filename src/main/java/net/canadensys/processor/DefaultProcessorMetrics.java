@@ -0,0 +1,184 @@
+package net.canadensys.processor;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * ProcessorMetrics keeping counters and a latency histogram (see ProcessorMetricsSnapshot) in atomic variables.
+ * Values can be read with snapshot() or through JMX once registered with registerMBean(...).
+ *
+ * Usage:
+ *
+ * <pre>
+ * DefaultProcessorMetrics metrics = new DefaultProcessorMetrics();
+ * dateProcessor.setMetrics(metrics);
+ * metrics.registerMBean(&quot;eventDate&quot;);
+ * </pre>
+ *
+ * @author canadensys
+ *
+ */
+public class DefaultProcessorMetrics implements ProcessorMetrics, ProcessorMetricsMXBean {
+
+	public static final String JMX_DOMAIN = "net.canadensys.processor";
+
+	private static final int HISTOGRAM_SIZE = 64;
+
+	private final AtomicLong successCount = new AtomicLong();
+	private final AtomicLong failureCount = new AtomicLong();
+	private final AtomicLong blankInputCount = new AtomicLong();
+	private final AtomicLong errorCount = new AtomicLong();
+	private final ConcurrentMap<String, AtomicLong> errorCountByKey = new ConcurrentHashMap<String, AtomicLong>();
+	private final AtomicLong totalLatencyNanos = new AtomicLong();
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+	private final AtomicLongArray latencyHistogram = new AtomicLongArray(HISTOGRAM_SIZE);
+
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+
+	@Override
+	public void recordCall(long elapsedNanos, OutcomeEnum outcome) {
+		switch (outcome) {
+			case SUCCESS:
+				successCount.incrementAndGet();
+				break;
+			case FAILURE:
+				failureCount.incrementAndGet();
+				break;
+			case BLANK_INPUT:
+				blankInputCount.incrementAndGet();
+				break;
+		}
+		// System.nanoTime() is not always monotonic
+		long latency = Math.max(elapsedNanos, 0);
+		totalLatencyNanos.addAndGet(latency);
+		latencyHistogram.incrementAndGet(HISTOGRAM_SIZE - Long.numberOfLeadingZeros(latency));
+		long max = maxLatencyNanos.get();
+		while (latency > max && !maxLatencyNanos.compareAndSet(max, latency)) {
+			max = maxLatencyNanos.get();
+		}
+	}
+
+	@Override
+	public void recordError(String key) {
+		errorCount.incrementAndGet();
+		AtomicLong keyCount = errorCountByKey.get(key);
+		if (keyCount == null) {
+			keyCount = new AtomicLong();
+			AtomicLong previous = errorCountByKey.putIfAbsent(key, keyCount);
+			if (previous != null) {
+				keyCount = previous;
+			}
+		}
+		keyCount.incrementAndGet();
+	}
+
+	/**
+	 * The values are read one by one, a snapshot taken while the processor is used could be slightly inconsistent (e.g. the sum of
+	 * the histogram could differ from the number of calls).
+	 */
+	@Override
+	public ProcessorMetricsSnapshot snapshot() {
+		long[] histogram = new long[HISTOGRAM_SIZE];
+		for (int i = 0; i < HISTOGRAM_SIZE; i++) {
+			histogram[i] = latencyHistogram.get(i);
+		}
+		return new ProcessorMetricsSnapshot(successCount.get(), failureCount.get(), blankInputCount.get(), errorCount.get(),
+				getErrorCountByKey(), totalLatencyNanos.get(), maxLatencyNanos.get(), histogram);
+	}
+
+	@Override
+	public void reset() {
+		successCount.set(0);
+		failureCount.set(0);
+		blankInputCount.set(0);
+		errorCount.set(0);
+		errorCountByKey.clear();
+		totalLatencyNanos.set(0);
+		maxLatencyNanos.set(0);
+		for (int i = 0; i < HISTOGRAM_SIZE; i++) {
+			latencyHistogram.set(i, 0);
+		}
+	}
+
+	/**
+	 * Register this instance in the platform MBeanServer as net.canadensys.processor:type=ProcessorMetrics,name=(name)
+	 *
+	 * @param name
+	 *            name identifying the processor, e.g. the processed field
+	 * @return name of the registered MBean, used to unregister it
+	 * @throws JMException
+	 */
+	public ObjectName registerMBean(String name) throws JMException {
+		ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=ProcessorMetrics,name=" + ObjectName.quote(name));
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		mBeanServer.registerMBean(this, objectName);
+		return objectName;
+	}
+
+	@Override
+	public long getCallCount() {
+		return successCount.get() + failureCount.get() + blankInputCount.get();
+	}
+
+	@Override
+	public long getSuccessCount() {
+		return successCount.get();
+	}
+
+	@Override
+	public long getFailureCount() {
+		return failureCount.get();
+	}
+
+	@Override
+	public long getBlankInputCount() {
+		return blankInputCount.get();
+	}
+
+	@Override
+	public double getFailureRate() {
+		return snapshot().getFailureRate();
+	}
+
+	@Override
+	public Map<String, Long> getErrorCountByKey() {
+		Map<String, Long> counts = new HashMap<String, Long>();
+		for (Entry<String, AtomicLong> entry : errorCountByKey.entrySet()) {
+			counts.put(entry.getKey(), entry.getValue().get());
+		}
+		return counts;
+	}
+
+	@Override
+	public double getMeanLatencyNanos() {
+		return snapshot().getMeanLatencyNanos();
+	}
+
+	@Override
+	public long getLatencyP50Nanos() {
+		return snapshot().getLatencyPercentileNanos(50);
+	}
+
+	@Override
+	public long getLatencyP99Nanos() {
+		return snapshot().getLatencyPercentileNanos(99);
+	}
+
+	@Override
+	public long getMaxLatencyNanos() {
+		return maxLatencyNanos.get();
+	}
+}
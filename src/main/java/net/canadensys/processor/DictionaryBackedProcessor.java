@@ -1,11 +1,9 @@
 package net.canadensys.processor;
 
 import java.lang.reflect.InvocationTargetException;
-import java.text.MessageFormat;
 import java.util.Locale;
 import java.util.Map;
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.gbif.common.parsers.core.FileBasedDictionaryParser;
 import org.gbif.common.parsers.core.ParseResult;
@@ -46,15 +44,24 @@ public class DictionaryBackedProcessor extends AbstractDataProcessor {
 	}
 
 	public String process(String value, ProcessingResult result) {
+		if (!metrics.isEnabled()) {
+			return doProcess(value, result);
+		}
+		long start = System.nanoTime();
+		String processedValue = doProcess(value, result);
+		recordCall(start, StringUtils.isBlank(value), processedValue != null);
+		return processedValue;
+	}
+
+	private String doProcess(String value, ProcessingResult result) {
 		ParseResult<String> parsingResult = fileBasedDisctionaryParser.parse(value);
 		if (parsingResult.isSuccessful() && parsingResult.getConfidence().equals(CONFIDENCE.DEFINITE)) {
 			return parsingResult.getPayload();
 		}
 
-		if (result != null) {
+		if (isErrorRecorded(result)) {
 			// TODO beanPropertyName can be null
-			result.addError(
-					MessageFormat.format(resourceBundle.getString("dictionary.error.notFound"), value));
+			addError(result, "dictionary.error.notFound", value);
 		}
 		return null;
 	}
@@ -67,7 +74,7 @@ public class DictionaryBackedProcessor extends AbstractDataProcessor {
 	@Override
 	public void processBean(Object in, Object out, Map<String, Object> params, ProcessingResult result) {
 		try {
-			String propertyText = (String) PropertyUtils.getSimpleProperty(in, beanPropertyName);
+			String propertyText = (String) BeanPropertyAccessor.getSimpleProperty(in, beanPropertyName);
 			String propertyProcessed = process(propertyText, result);
 
 			if (propertyProcessed == null) {
@@ -86,7 +93,7 @@ public class DictionaryBackedProcessor extends AbstractDataProcessor {
 						break;
 				}
 			}
-			PropertyUtils.setSimpleProperty(out, beanPropertyName, propertyProcessed);
+			BeanPropertyAccessor.setSimpleProperty(out, beanPropertyName, propertyProcessed);
 		}
 		catch (IllegalAccessException e) {
 			logger.error("Bean access error", e);
@@ -103,7 +110,7 @@ public class DictionaryBackedProcessor extends AbstractDataProcessor {
 	public boolean validateBean(Object in, boolean isMandatory, Map<String, Object> params, ProcessingResult result) {
 		String propertyText = null;
 		try {
-			propertyText = (String) PropertyUtils.getSimpleProperty(in, beanPropertyName);
+			propertyText = (String) BeanPropertyAccessor.getSimpleProperty(in, beanPropertyName);
 			if (process(propertyText, result) != null) {
 				return true;
 			}
@@ -0,0 +1,281 @@
+package net.canadensys.processor;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ProcessingResult keeping aggregated statistics instead of the list of all errors, for whole-dataset processing.
+ * For each error key, the number of errors and a fixed-size random sample (reservoir sampling) of the errors with the identifier
+ * of their record are kept. The number of errors per processor is also kept. The memory used doesn't depend on the number of
+ * errors.
+ *
+ * The identifier of the record being processed is set per thread with setRecordId(...) before calling the processors.
+ * Errors recorded as a message (addError(String)) are grouped under UNKEYED_ERROR_KEY.
+ *
+ * getErrorList(), getErrors() and getErrorString() only return the sampled errors. Thread-safe.
+ *
+ * @author canadensys
+ *
+ */
+public class ErrorStatisticsResult extends ProcessingResult {
+
+	public static final int DEFAULT_SAMPLE_SIZE = 10;
+	public static final String UNKEYED_ERROR_KEY = "error";
+
+	private final int sampleSize;
+	private final ConcurrentMap<String, KeyStatistics> keyStatistics = new ConcurrentHashMap<String, KeyStatistics>();
+	private final ConcurrentMap<Class<?>, AtomicLong> processorCounts = new ConcurrentHashMap<Class<?>, AtomicLong>();
+	private final AtomicLong errorCount = new AtomicLong();
+	private final ThreadLocal<Object> recordId = new ThreadLocal<Object>();
+
+	public ErrorStatisticsResult() {
+		this(DEFAULT_SAMPLE_SIZE);
+	}
+
+	/**
+	 * @param sampleSize
+	 *            maximum number of errors kept per error key
+	 */
+	public ErrorStatisticsResult(int sampleSize) {
+		super(false);
+		if (sampleSize < 0) {
+			throw new IllegalArgumentException("sampleSize can not be negative");
+		}
+		this.sampleSize = sampleSize;
+	}
+
+	/**
+	 * Set the identifier of the record processed by the current thread, it will be kept with the sampled errors.
+	 *
+	 * @param id
+	 *            identifier or null
+	 */
+	public void setRecordId(Object id) {
+		recordId.set(id);
+	}
+
+	@Override
+	public void addError(ProcessingError error) {
+		errorCount.incrementAndGet();
+		String key = error.getKey() == null ? UNKEYED_ERROR_KEY : error.getKey();
+		getKeyStatistics(key).add(error, recordId);
+
+		Class<?> processorClass = error.getProcessorClass();
+		if (processorClass != null) {
+			AtomicLong processorCount = processorCounts.get(processorClass);
+			if (processorCount == null) {
+				processorCount = new AtomicLong();
+				AtomicLong previous = processorCounts.putIfAbsent(processorClass, processorCount);
+				if (previous != null) {
+					processorCount = previous;
+				}
+			}
+			processorCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @return total number of errors
+	 */
+	public long getTotalErrorCount() {
+		return errorCount.get();
+	}
+
+	/**
+	 * @return total number of errors, Integer.MAX_VALUE if greater
+	 */
+	@Override
+	public int getErrorCount() {
+		return (int) Math.min(errorCount.get(), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @return number of errors per error key, sorted by decreasing count
+	 */
+	public Map<String, Long> getCountByKey() {
+		List<Entry<String, Long>> counts = new ArrayList<Entry<String, Long>>();
+		for (Entry<String, KeyStatistics> entry : keyStatistics.entrySet()) {
+			counts.add(new SimpleEntry<String, Long>(entry.getKey(), entry.getValue().count.get()));
+		}
+		return sortByCount(counts);
+	}
+
+	/**
+	 * @return number of errors per processor class, sorted by decreasing count
+	 */
+	public Map<Class<?>, Long> getCountByProcessor() {
+		List<Entry<Class<?>, Long>> counts = new ArrayList<Entry<Class<?>, Long>>();
+		for (Entry<Class<?>, AtomicLong> entry : processorCounts.entrySet()) {
+			counts.add(new SimpleEntry<Class<?>, Long>(entry.getKey(), entry.getValue().get()));
+		}
+		return sortByCount(counts);
+	}
+
+	/**
+	 * @param key
+	 *            error key
+	 * @return the sampled errors of the key, empty if no error was recorded with this key
+	 */
+	public List<ErrorSample> getSamples(String key) {
+		KeyStatistics statistics = keyStatistics.get(key);
+		if (statistics == null) {
+			return Collections.emptyList();
+		}
+		return statistics.getSamples();
+	}
+
+	/**
+	 * @return the sampled errors of all keys
+	 */
+	@Override
+	public List<ProcessingError> getErrors() {
+		List<ProcessingError> errors = new ArrayList<ProcessingError>();
+		for (KeyStatistics statistics : keyStatistics.values()) {
+			for (ErrorSample sample : statistics.getSamples()) {
+				errors.add(sample.getError());
+			}
+		}
+		return errors;
+	}
+
+	/**
+	 * @return unmodifiable list of the messages of the sampled errors
+	 */
+	@Override
+	public List<String> getErrorList() {
+		List<String> errorList = new ArrayList<String>();
+		for (ProcessingError error : getErrors()) {
+			errorList.add(error.getMessage());
+		}
+		return Collections.unmodifiableList(errorList);
+	}
+
+	/**
+	 * @return the messages of the sampled errors
+	 */
+	@Override
+	public String getErrorString() {
+		StringBuilder errorString = new StringBuilder();
+		for (ProcessingError error : getErrors()) {
+			if (errorString.length() > 0) {
+				errorString.append(',');
+			}
+			errorString.append(error.getMessage());
+		}
+		return errorString.toString();
+	}
+
+	/**
+	 * Clear all statistics
+	 */
+	@Override
+	public void clear() {
+		keyStatistics.clear();
+		processorCounts.clear();
+		errorCount.set(0);
+	}
+
+	private KeyStatistics getKeyStatistics(String key) {
+		KeyStatistics statistics = keyStatistics.get(key);
+		if (statistics == null) {
+			statistics = new KeyStatistics(sampleSize);
+			KeyStatistics previous = keyStatistics.putIfAbsent(key, statistics);
+			if (previous != null) {
+				statistics = previous;
+			}
+		}
+		return statistics;
+	}
+
+	private static <K> Map<K, Long> sortByCount(List<Entry<K, Long>> counts) {
+		Collections.sort(counts, new Comparator<Entry<K, Long>>() {
+			@Override
+			public int compare(Entry<K, Long> o1, Entry<K, Long> o2) {
+				return o2.getValue().compareTo(o1.getValue());
+			}
+		});
+		Map<K, Long> sortedCounts = new LinkedHashMap<K, Long>();
+		for (Entry<K, Long> entry : counts) {
+			sortedCounts.put(entry.getKey(), entry.getValue());
+		}
+		return sortedCounts;
+	}
+
+	@Override
+	public String toString() {
+		return "ErrorStatisticsResult [errorCount=" + errorCount.get() + ", countByKey=" + getCountByKey() + "]";
+	}
+
+	/**
+	 * Sampled error
+	 */
+	public static class ErrorSample {
+		private final ProcessingError error;
+		private final Object recordId;
+
+		private ErrorSample(ProcessingError error, Object recordId) {
+			this.error = error;
+			this.recordId = recordId;
+		}
+
+		public ProcessingError getError() {
+			return error;
+		}
+
+		/**
+		 * @return identifier of the record or null if not set
+		 */
+		public Object getRecordId() {
+			return recordId;
+		}
+	}
+
+	/**
+	 * Count and reservoir of the errors of a key.
+	 */
+	private static final class KeyStatistics {
+		private final AtomicLong count = new AtomicLong();
+		private final ErrorSample[] reservoir;
+		private final Random random;
+
+		private KeyStatistics(int sampleSize) {
+			reservoir = new ErrorSample[sampleSize];
+			// fixed seed, the same dataset gives the same samples when processed by a single thread
+			random = new Random(sampleSize);
+		}
+
+		private void add(ProcessingError error, ThreadLocal<Object> recordId) {
+			long seen = count.incrementAndGet();
+			if (reservoir.length == 0) {
+				return;
+			}
+			synchronized (this) {
+				// keep the error with probability sampleSize/seen
+				long idx = seen <= reservoir.length ? seen - 1 : (long) (random.nextDouble() * seen);
+				if (idx < reservoir.length) {
+					reservoir[(int) idx] = new ErrorSample(error, recordId.get());
+				}
+			}
+		}
+
+		private synchronized List<ErrorSample> getSamples() {
+			List<ErrorSample> samples = new ArrayList<ErrorSample>();
+			for (ErrorSample sample : reservoir) {
+				if (sample != null) {
+					samples.add(sample);
+				}
+			}
+			return samples;
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package net.canadensys.processor;
+
+import java.util.Collections;
+
+import net.canadensys.processor.ProcessorMetrics.OutcomeEnum;
+
+/**
+ * Disabled ProcessorMetrics, used by default by the processors.
+ *
+ * @author canadensys
+ *
+ */
+public final class NoOpProcessorMetrics implements ProcessorMetrics {
+
+	public static final NoOpProcessorMetrics INSTANCE = new NoOpProcessorMetrics();
+
+	private static final ProcessorMetricsSnapshot EMPTY_SNAPSHOT = new ProcessorMetricsSnapshot(0, 0, 0, 0, Collections
+			.<String, Long> emptyMap(), 0, 0, new long[0]);
+
+	private NoOpProcessorMetrics() {
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return false;
+	}
+
+	@Override
+	public void recordCall(long elapsedNanos, OutcomeEnum outcome) {
+	}
+
+	@Override
+	public void recordError(String key) {
+	}
+
+	@Override
+	public ProcessorMetricsSnapshot snapshot() {
+		return EMPTY_SNAPSHOT;
+	}
+}
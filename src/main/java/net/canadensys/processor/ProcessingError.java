@@ -0,0 +1,138 @@
+package net.canadensys.processor;
+
+import java.text.MessageFormat;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Error recorded in a ProcessingResult.
+ * An error is identified by the key of its message in the error bundle (e.g. date.error.unprocessable), the processor that
+ * recorded it and the arguments of the message, the first argument being the value that could not be processed.
+ *
+ * The localized message is only rendered when requested (getMessage(), ProcessingResult.getErrorString(), ...). The pattern of
+ * each message is read from the bundle and compiled once per key and bundle (Locale).
+ *
+ * @author canadensys
+ *
+ */
+public class ProcessingError {
+
+	private static final ConcurrentMap<ResourceBundle, ConcurrentMap<String, MessageFormat>> MESSAGE_FORMATS = new ConcurrentHashMap<ResourceBundle, ConcurrentMap<String, MessageFormat>>();
+	private static final Object[] NO_ARGUMENT = new Object[0];
+
+	private final String key;
+	private final Class<?> processorClass;
+	private final ResourceBundle resourceBundle;
+	private final Object[] arguments;
+
+	private volatile String message;
+
+	/**
+	 * Error with an already rendered message, see ProcessingResult.addError(String)
+	 *
+	 * @param message
+	 */
+	public ProcessingError(String message) {
+		this.key = null;
+		this.processorClass = null;
+		this.resourceBundle = null;
+		this.arguments = NO_ARGUMENT;
+		this.message = message;
+	}
+
+	/**
+	 * @param processorClass
+	 *            class of the processor recording the error
+	 * @param resourceBundle
+	 *            bundle containing the message
+	 * @param key
+	 *            key of the message in the bundle
+	 * @param arguments
+	 *            arguments of the message, the first one being the value that could not be processed. Without arguments, the message
+	 *            is used as is.
+	 */
+	public ProcessingError(Class<?> processorClass, ResourceBundle resourceBundle, String key, Object... arguments) {
+		this.key = key;
+		this.processorClass = processorClass;
+		this.resourceBundle = resourceBundle;
+		this.arguments = arguments == null ? NO_ARGUMENT : arguments;
+	}
+
+	/**
+	 * @return key of the message in the error bundle or null if the error was recorded as a message
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * @return class of the processor that recorded the error or null if unknown
+	 */
+	public Class<?> getProcessorClass() {
+		return processorClass;
+	}
+
+	/**
+	 * @return the value that could not be processed or null if unknown
+	 */
+	public Object getValue() {
+		return arguments.length > 0 ? arguments[0] : null;
+	}
+
+	/**
+	 * @return copy of the arguments of the message
+	 */
+	public Object[] getArguments() {
+		return arguments.clone();
+	}
+
+	/**
+	 * Render the localized message, the message is kept for the next calls.
+	 *
+	 * @return localized message
+	 */
+	public String getMessage() {
+		String currentMessage = message;
+		if (currentMessage == null) {
+			if (arguments.length == 0) {
+				currentMessage = resourceBundle.getString(key);
+			}
+			else {
+				MessageFormat messageFormat = getMessageFormat(resourceBundle, key);
+				// MessageFormat is not thread-safe
+				synchronized (messageFormat) {
+					currentMessage = messageFormat.format(arguments);
+				}
+			}
+			message = currentMessage;
+		}
+		return currentMessage;
+	}
+
+	private static MessageFormat getMessageFormat(ResourceBundle resourceBundle, String key) {
+		ConcurrentMap<String, MessageFormat> bundleFormats = MESSAGE_FORMATS.get(resourceBundle);
+		if (bundleFormats == null) {
+			bundleFormats = new ConcurrentHashMap<String, MessageFormat>();
+			ConcurrentMap<String, MessageFormat> previous = MESSAGE_FORMATS.putIfAbsent(resourceBundle, bundleFormats);
+			if (previous != null) {
+				bundleFormats = previous;
+			}
+		}
+		MessageFormat messageFormat = bundleFormats.get(key);
+		if (messageFormat == null) {
+			// same Locale as MessageFormat.format(pattern, arguments)
+			messageFormat = new MessageFormat(resourceBundle.getString(key));
+			MessageFormat previous = bundleFormats.putIfAbsent(key, messageFormat);
+			if (previous != null) {
+				messageFormat = previous;
+			}
+		}
+		return messageFormat;
+	}
+
+	@Override
+	public String toString() {
+		return getMessage();
+	}
+}
@@ -1,21 +1,38 @@
 package net.canadensys.processor;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.apache.commons.lang3.StringUtils;
 
 /**
  * Holding processing results. Thread-Safe by default.
  * 
+ * In the thread-safe mode, errors are first recorded in lock-free buffers selected according to the current thread (so threads
+ * sharing the same instance don't wait on each other) and are merged in the error list when it is requested. The order of the
+ * errors recorded by a thread is kept.
+ * 
+ * Errors are kept as ProcessingError, their localized message is only rendered when the error list or the error string is read.
+ * Counting the errors (getErrorCount(), getErrorList().size()) doesn't render the messages.
+ * 
  * @author canadensys
  * 
  */
 public class ProcessingResult {
 
+	private static final int STRIPE_COUNT = stripeCount(Runtime.getRuntime().availableProcessors());
+
 	private boolean synchronizedList;
+	private final List<ProcessingError> errors = new ArrayList<ProcessingError>();
+	// view of errors rendering the messages, in thread-safe mode its lock guards errors
 	private List<String> errorList;
+	// only used in thread-safe mode
+	private Queue<ProcessingError>[] errorStripes;
 
 	public ProcessingResult() {
 		this(true);
@@ -30,15 +47,30 @@ public class ProcessingResult {
 	public ProcessingResult(boolean synchronizedList) {
 		this.synchronizedList = synchronizedList;
 		if (synchronizedList) {
-			errorList = Collections.synchronizedList(new ArrayList<String>());
+			errorList = Collections.synchronizedList(new ErrorListView());
+			errorStripes = newStripes();
 		}
 		else {
-			errorList = new ArrayList<String>();
+			errorList = new ErrorListView();
 		}
 	}
 
 	public void addError(String errorDescription) {
-		errorList.add(errorDescription);
+		addError(new ProcessingError(errorDescription));
+	}
+
+	/**
+	 * Record an error, the message is not rendered.
+	 * 
+	 * @param error
+	 */
+	public void addError(ProcessingError error) {
+		if (synchronizedList) {
+			errorStripes[(int) Thread.currentThread().getId() & (STRIPE_COUNT - 1)].offer(error);
+		}
+		else {
+			errors.add(error);
+		}
 	}
 
 	/**
@@ -48,18 +80,50 @@ public class ProcessingResult {
 	 * @return
 	 */
 	public List<String> getErrorList() {
+		if (synchronizedList) {
+			mergeErrors();
+		}
 		return errorList;
 	}
 
+	/**
+	 * Returns a copy of the recorded errors, e.g. to group them by key.
+	 * 
+	 * @return
+	 */
+	public List<ProcessingError> getErrors() {
+		if (synchronizedList) {
+			synchronized (errorList) {
+				mergeErrors();
+				return new ArrayList<ProcessingError>(errors);
+			}
+		}
+		return new ArrayList<ProcessingError>(errors);
+	}
+
+	/**
+	 * @return number of recorded errors, messages are not rendered
+	 */
+	public int getErrorCount() {
+		if (synchronizedList) {
+			synchronized (errorList) {
+				mergeErrors();
+				return errors.size();
+			}
+		}
+		return errors.size();
+	}
+
 	public String getErrorString() {
 		String errorString;
 		if (synchronizedList) {
 			synchronized (errorList) {
-				errorString = StringUtils.join(errorList, ",");
+				mergeErrors();
+				errorString = StringUtils.join(errors, ",");
 			}
 		}
 		else {
-			errorString = StringUtils.join(errorList, ",");
+			errorString = StringUtils.join(errors, ",");
 		}
 		return errorString;
 	}
@@ -68,6 +132,97 @@ public class ProcessingResult {
 	 * Clear all errors
 	 */
 	public void clear() {
-		errorList.clear();
+		if (synchronizedList) {
+			synchronized (errorList) {
+				mergeErrors();
+				errors.clear();
+			}
+		}
+		else {
+			errors.clear();
+		}
+	}
+
+	/**
+	 * Move the errors recorded in the buffers to the error list.
+	 */
+	private void mergeErrors() {
+		synchronized (errorList) {
+			ProcessingError error;
+			for (Queue<ProcessingError> errorStripe : errorStripes) {
+				while ((error = errorStripe.poll()) != null) {
+					errors.add(error);
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Queue<ProcessingError>[] newStripes() {
+		Queue<ProcessingError>[] stripes = new Queue[STRIPE_COUNT];
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			stripes[i] = new ConcurrentLinkedQueue<ProcessingError>();
+		}
+		return stripes;
+	}
+
+	/**
+	 * @return power of 2 greater or equal to twice the number of processors
+	 */
+	private static int stripeCount(int processors) {
+		int stripeCount = 1;
+		while (stripeCount < processors * 2) {
+			stripeCount <<= 1;
+		}
+		return stripeCount;
+	}
+
+	/**
+	 * List of the messages of the errors, rendered on access.
+	 * In thread-safe mode, the buffered errors are merged on each access (the lock of the synchronized wrapper is held) so the
+	 * list stays live.
+	 */
+	private final class ErrorListView extends AbstractList<String> implements RandomAccess {
+		@Override
+		public String get(int index) {
+			mergeBufferedErrors();
+			return errors.get(index).getMessage();
+		}
+
+		@Override
+		public int size() {
+			mergeBufferedErrors();
+			return errors.size();
+		}
+
+		@Override
+		public String set(int index, String element) {
+			mergeBufferedErrors();
+			return errors.set(index, new ProcessingError(element)).getMessage();
+		}
+
+		@Override
+		public void add(int index, String element) {
+			mergeBufferedErrors();
+			errors.add(index, new ProcessingError(element));
+		}
+
+		@Override
+		public String remove(int index) {
+			mergeBufferedErrors();
+			return errors.remove(index).getMessage();
+		}
+
+		@Override
+		public void clear() {
+			mergeBufferedErrors();
+			errors.clear();
+		}
+
+		private void mergeBufferedErrors() {
+			if (synchronizedList) {
+				mergeErrors();
+			}
+		}
 	}
 }
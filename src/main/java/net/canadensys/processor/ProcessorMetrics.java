@@ -0,0 +1,47 @@
+package net.canadensys.processor;
+
+/**
+ * Instrumentation interface the processors report into.
+ * A processor reports each call of its process(...) method (latency and outcome) and each recorded error (error key).
+ * See AbstractDataProcessor.setMetrics(...), processors use NoOpProcessorMetrics by default.
+ *
+ * Implementations must be thread-safe.
+ *
+ * @author canadensys
+ *
+ */
+public interface ProcessorMetrics {
+
+	public enum OutcomeEnum {
+		SUCCESS, FAILURE, BLANK_INPUT
+	};
+
+	/**
+	 * When false, the processor doesn't measure the calls.
+	 *
+	 * @return
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Report a call to a process(...) method.
+	 *
+	 * @param elapsedNanos
+	 *            latency of the call
+	 * @param outcome
+	 */
+	void recordCall(long elapsedNanos, OutcomeEnum outcome);
+
+	/**
+	 * Report an error.
+	 *
+	 * @param key
+	 *            key of the message in the error bundle
+	 */
+	void recordError(String key);
+
+	/**
+	 * @return current values
+	 */
+	ProcessorMetricsSnapshot snapshot();
+}
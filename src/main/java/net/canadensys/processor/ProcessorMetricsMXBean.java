@@ -0,0 +1,37 @@
+package net.canadensys.processor;
+
+import java.util.Map;
+
+/**
+ * JMX view of a DefaultProcessorMetrics.
+ *
+ * @author canadensys
+ *
+ */
+public interface ProcessorMetricsMXBean {
+
+	long getCallCount();
+
+	long getSuccessCount();
+
+	long getFailureCount();
+
+	long getBlankInputCount();
+
+	double getFailureRate();
+
+	Map<String, Long> getErrorCountByKey();
+
+	double getMeanLatencyNanos();
+
+	long getLatencyP50Nanos();
+
+	long getLatencyP99Nanos();
+
+	long getMaxLatencyNanos();
+
+	/**
+	 * Reset all counters
+	 */
+	void reset();
+}
@@ -0,0 +1,144 @@
+package net.canadensys.processor;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable values of a ProcessorMetrics at a given time.
+ *
+ * Latencies are kept in a histogram of power of 2 buckets: bucket 0 counts the calls of 0 nanosecond, bucket i (i > 0) counts the
+ * calls between 2^(i-1) (inclusive) and 2^i (exclusive) nanoseconds. Percentiles are approximated by the upper bound of their
+ * bucket.
+ *
+ * @author canadensys
+ *
+ */
+public class ProcessorMetricsSnapshot {
+
+	private final long successCount;
+	private final long failureCount;
+	private final long blankInputCount;
+	private final long errorCount;
+	private final Map<String, Long> errorCountByKey;
+	private final long totalLatencyNanos;
+	private final long maxLatencyNanos;
+	private final long[] latencyHistogram;
+
+	public ProcessorMetricsSnapshot(long successCount, long failureCount, long blankInputCount, long errorCount,
+			Map<String, Long> errorCountByKey, long totalLatencyNanos, long maxLatencyNanos, long[] latencyHistogram) {
+		this.successCount = successCount;
+		this.failureCount = failureCount;
+		this.blankInputCount = blankInputCount;
+		this.errorCount = errorCount;
+		this.errorCountByKey = Collections.unmodifiableMap(new LinkedHashMap<String, Long>(errorCountByKey));
+		this.totalLatencyNanos = totalLatencyNanos;
+		this.maxLatencyNanos = maxLatencyNanos;
+		this.latencyHistogram = latencyHistogram.clone();
+	}
+
+	/**
+	 * @return number of calls to process(...)
+	 */
+	public long getCallCount() {
+		return successCount + failureCount + blankInputCount;
+	}
+
+	public long getSuccessCount() {
+		return successCount;
+	}
+
+	public long getFailureCount() {
+		return failureCount;
+	}
+
+	/**
+	 * @return number of calls with a null or blank input
+	 */
+	public long getBlankInputCount() {
+		return blankInputCount;
+	}
+
+	/**
+	 * @return number of recorded errors, a failed call could record more than one error
+	 */
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	/**
+	 * @return number of recorded errors per error key
+	 */
+	public Map<String, Long> getErrorCountByKey() {
+		return errorCountByKey;
+	}
+
+	/**
+	 * @return ratio (0 to 1) of failed calls, blank inputs excluded
+	 */
+	public double getFailureRate() {
+		long count = successCount + failureCount;
+		return count == 0 ? 0 : (double) failureCount / count;
+	}
+
+	public long getTotalLatencyNanos() {
+		return totalLatencyNanos;
+	}
+
+	public long getMaxLatencyNanos() {
+		return maxLatencyNanos;
+	}
+
+	/**
+	 * @return mean latency or 0 if no call was made
+	 */
+	public double getMeanLatencyNanos() {
+		long callCount = getCallCount();
+		return callCount == 0 ? 0 : (double) totalLatencyNanos / callCount;
+	}
+
+	/**
+	 * @param percentile
+	 *            0 to 100
+	 * @return approximate latency of the percentile or 0 if no call was made
+	 */
+	public long getLatencyPercentileNanos(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("percentile must be between 0 and 100");
+		}
+		long callCount = 0;
+		for (long bucketCount : latencyHistogram) {
+			callCount += bucketCount;
+		}
+		if (callCount == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(percentile / 100 * callCount);
+		long seen = 0;
+		for (int i = 0; i < latencyHistogram.length; i++) {
+			seen += latencyHistogram[i];
+			if (seen >= rank && seen > 0) {
+				return Math.min(bucketUpperBound(i), maxLatencyNanos);
+			}
+		}
+		return maxLatencyNanos;
+	}
+
+	/**
+	 * @return copy of the latency histogram
+	 */
+	public long[] getLatencyHistogram() {
+		return latencyHistogram.clone();
+	}
+
+	private static long bucketUpperBound(int bucket) {
+		return bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+	}
+
+	@Override
+	public String toString() {
+		return "ProcessorMetricsSnapshot [callCount=" + getCallCount() + ", successCount=" + successCount + ", failureCount="
+				+ failureCount + ", blankInputCount=" + blankInputCount + ", errorCountByKey=" + errorCountByKey + ", meanLatencyNanos="
+				+ getMeanLatencyNanos() + ", maxLatencyNanos=" + maxLatencyNanos + "]";
+	}
+}
@@ -0,0 +1,597 @@
+package net.canadensys.processor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs multiple processors over the same record.
+ * Each processor is registered with the names of the fields it reads and writes, the pipeline then orders the processors
+ * according to the dependencies between fields, e.g. CoordinatePairProcessor -> DegreeMinuteToDecimalProcessor ->
+ * CoordinatesToWGS84Processor.
+ *
+ * For each record, the input fields are read once from the input bean into an intermediate record shared by the processors
+ * and the output fields are written once into the output bean (if the output bean has the property).
+ *
+ * Dependency rules for a field:
+ * - a processor reading a field depends on the processors writing it
+ * - processors reading and writing the same field (in place) are run in registration order
+ * - processors only writing the same field are run in registration order
+ * Cyclic dependencies are rejected.
+ *
+ * Processors that don't share any field form independent branches, processBatch(...) runs branches and chunks of records
+ * in parallel.
+ *
+ * Like the processors, a pipeline is thread-safe once all the steps are added.
+ *
+ * @author canadensys
+ *
+ */
+public class ProcessorPipeline {
+
+	final Logger logger = LoggerFactory.getLogger(ProcessorPipeline.class);
+
+	public static final int DEFAULT_BATCH_CHUNK_SIZE = 512;
+
+	private final int batchChunkSize;
+	private final List<Step> steps = new ArrayList<Step>();
+	private volatile Plan plan;
+
+	public ProcessorPipeline() {
+		this(DEFAULT_BATCH_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param batchChunkSize
+	 *            number of records processed by each task of processBatch(...)
+	 */
+	public ProcessorPipeline(int batchChunkSize) {
+		if (batchChunkSize < 1) {
+			throw new IllegalArgumentException("batchChunkSize must be positive");
+		}
+		this.batchChunkSize = batchChunkSize;
+	}
+
+	/**
+	 * Add a processor to the pipeline.
+	 *
+	 * @param processor
+	 * @param inputFields
+	 *            names of the fields read by the processor
+	 * @param outputFields
+	 *            names of the fields written by the processor
+	 */
+	public void addStep(AbstractDataProcessor processor, String[] inputFields, String[] outputFields) {
+		addStep(processor, inputFields, outputFields, null);
+	}
+
+	/**
+	 * Add a processor to the pipeline.
+	 *
+	 * @param processor
+	 * @param inputFields
+	 *            names of the fields read by the processor
+	 * @param outputFields
+	 *            names of the fields written by the processor
+	 * @param params
+	 *            params given to processBean, could be null
+	 */
+	public void addStep(AbstractDataProcessor processor, String[] inputFields, String[] outputFields, Map<String, Object> params) {
+		addStep(processor, inputFields, outputFields, null, params);
+	}
+
+	/**
+	 * Add a processor to the pipeline and declare the type of its output fields.
+	 * A declared type is returned to the processors reading the type of a field (e.g. NumericPairDataProcessor uses it to decide
+	 * the type of its output). It is required for an intermediate field that is neither a property of the output bean nor of the
+	 * input bean, otherwise its type is String.
+	 *
+	 * @param processor
+	 * @param inputFields
+	 *            names of the fields read by the processor
+	 * @param outputFields
+	 *            names of the fields written by the processor
+	 * @param outputTypes
+	 *            type of each output field, same size as outputFields. If null or if a type is null, the type is taken from the
+	 *            output bean, then from the input bean.
+	 * @param params
+	 *            params given to processBean, could be null
+	 * @throws IllegalArgumentException
+	 *             if another step declared a different type for the same field
+	 */
+	public synchronized void addStep(AbstractDataProcessor processor, String[] inputFields, String[] outputFields, Class<?>[] outputTypes,
+			Map<String, Object> params) {
+		if (processor == null || inputFields == null || outputFields == null) {
+			throw new IllegalArgumentException("processor, inputFields and outputFields are required");
+		}
+		if (outputTypes != null && outputTypes.length != outputFields.length) {
+			throw new IllegalArgumentException("outputFields and outputTypes must have the same size");
+		}
+		Class<?>[] types = outputTypes == null ? new Class<?>[outputFields.length] : outputTypes.clone();
+		for (Step step : steps) {
+			for (int i = 0; i < outputFields.length; i++) {
+				Class<?> declaredType = step.getOutputType(outputFields[i]);
+				if (types[i] != null && declaredType != null && declaredType != types[i]) {
+					throw new IllegalArgumentException("Field '" + outputFields[i] + "' is already declared as " + declaredType.getName());
+				}
+			}
+		}
+		steps.add(new Step(steps.size(), processor, inputFields.clone(), outputFields.clone(), types, params));
+		plan = null;
+	}
+
+	/**
+	 * Compute the processing order. Called automatically on first use.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if there is a cyclic dependency between processors
+	 */
+	public synchronized void compile() {
+		if (plan == null) {
+			plan = new Plan(steps);
+		}
+	}
+
+	/**
+	 * @return the processors in processing order
+	 */
+	public List<AbstractDataProcessor> getProcessingOrder() {
+		List<AbstractDataProcessor> processingOrder = new ArrayList<AbstractDataProcessor>();
+		for (Branch branch : getPlan().branches) {
+			for (Step step : branch.steps) {
+				processingOrder.add(step.processor);
+			}
+		}
+		return processingOrder;
+	}
+
+	/**
+	 * @return names of the fields read from the input bean, fields produced by a processor are excluded
+	 */
+	public Set<String> getInputFields() {
+		Set<String> inputFields = new LinkedHashSet<String>();
+		for (Branch branch : getPlan().branches) {
+			inputFields.addAll(Arrays.asList(branch.inputFields));
+		}
+		return inputFields;
+	}
+
+	/**
+	 * @return number of independent branches
+	 */
+	public int getBranchCount() {
+		return getPlan().branches.size();
+	}
+
+	/**
+	 * Run all processors on a single record.
+	 *
+	 * @param in
+	 *            Java bean (or PropertyRecord) containing the input fields
+	 * @param out
+	 *            Java bean (or PropertyRecord) that will receive the output fields
+	 * @param result
+	 *            optional processing result
+	 */
+	public void process(Object in, Object out, ProcessingResult result) {
+		for (Branch branch : getPlan().branches) {
+			branch.process(in, out, result);
+		}
+	}
+
+	/**
+	 * Run all processors on a batch of records. Branches and chunks of records are processed in parallel using the
+	 * provided ExecutorService. The method returns when all records are processed.
+	 *
+	 * @param inList
+	 *            Java beans (or PropertyRecord) containing the input fields
+	 * @param outList
+	 *            Java beans (or PropertyRecord) that will receive the output fields, same size as inList
+	 * @param executorService
+	 * @param result
+	 *            optional processing result, must be thread-safe (the default ProcessingResult is)
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted, the remaining chunks are cancelled and stop at the next record
+	 */
+	public void processBatch(final List<?> inList, final List<?> outList, ExecutorService executorService, final ProcessingResult result)
+			throws InterruptedException {
+		if (inList.size() != outList.size()) {
+			throw new IllegalArgumentException("inList and outList must have the same size");
+		}
+
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+		for (final Branch branch : getPlan().branches) {
+			for (int chunkStart = 0; chunkStart < inList.size(); chunkStart += batchChunkSize) {
+				final int from = chunkStart;
+				final int to = Math.min(chunkStart + batchChunkSize, inList.size());
+				futures.add(executorService.submit(new Callable<Void>() {
+					@Override
+					public Void call() {
+						for (int i = from; i < to; i++) {
+							// stop writing in the beans of the caller once the batch is cancelled
+							if (Thread.currentThread().isInterrupted()) {
+								return null;
+							}
+							branch.process(inList.get(i), outList.get(i), result);
+						}
+						return null;
+					}
+				}));
+			}
+		}
+
+		try {
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		}
+		catch (InterruptedException e) {
+			for (Future<Void> future : futures) {
+				future.cancel(true);
+			}
+			throw e;
+		}
+		catch (ExecutionException e) {
+			for (Future<Void> future : futures) {
+				future.cancel(true);
+			}
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	private Plan getPlan() {
+		Plan currentPlan = plan;
+		if (currentPlan == null) {
+			compile();
+			currentPlan = plan;
+		}
+		return currentPlan;
+	}
+
+	/**
+	 * A registered processor
+	 */
+	private static final class Step {
+		private final int registrationIdx;
+		private final AbstractDataProcessor processor;
+		private final String[] inputFields;
+		private final String[] outputFields;
+		// declared type of each output field, could be null
+		private final Class<?>[] outputTypes;
+		private final Map<String, Object> params;
+
+		private Step(int registrationIdx, AbstractDataProcessor processor, String[] inputFields, String[] outputFields, Class<?>[] outputTypes,
+				Map<String, Object> params) {
+			this.registrationIdx = registrationIdx;
+			this.processor = processor;
+			this.inputFields = inputFields;
+			this.outputFields = outputFields;
+			this.outputTypes = outputTypes;
+			this.params = params;
+		}
+
+		/**
+		 * @return declared type of an output field or null
+		 */
+		private Class<?> getOutputType(String field) {
+			for (int i = 0; i < outputFields.length; i++) {
+				if (outputFields[i].equals(field)) {
+					return outputTypes[i];
+				}
+			}
+			return null;
+		}
+
+		private boolean reads(String field) {
+			return Arrays.asList(inputFields).contains(field);
+		}
+
+		private boolean writes(String field) {
+			return Arrays.asList(outputFields).contains(field);
+		}
+	}
+
+	/**
+	 * Compiled pipeline: ordered steps grouped in independent branches.
+	 */
+	private final class Plan {
+		private final List<Branch> branches = new ArrayList<Branch>();
+
+		private Plan(List<Step> steps) {
+			int stepCount = steps.size();
+			List<Set<Integer>> successors = new ArrayList<Set<Integer>>();
+			int[] predecessorCount = new int[stepCount];
+			for (int i = 0; i < stepCount; i++) {
+				successors.add(new LinkedHashSet<Integer>());
+			}
+
+			// dependencies between steps, see class documentation
+			for (Step a : steps) {
+				for (Step b : steps) {
+					if (a != b && dependsOn(b, a) && successors.get(a.registrationIdx).add(b.registrationIdx)) {
+						predecessorCount[b.registrationIdx]++;
+					}
+				}
+			}
+
+			// topological sort, ties are resolved using the registration order
+			List<Step> orderedSteps = new ArrayList<Step>();
+			boolean[] done = new boolean[stepCount];
+			while (orderedSteps.size() < stepCount) {
+				Step next = null;
+				for (Step step : steps) {
+					if (!done[step.registrationIdx] && predecessorCount[step.registrationIdx] == 0) {
+						next = step;
+						break;
+					}
+				}
+				if (next == null) {
+					throw new IllegalArgumentException("Cyclic dependency between the processors of the pipeline");
+				}
+				done[next.registrationIdx] = true;
+				orderedSteps.add(next);
+				for (Integer successor : successors.get(next.registrationIdx)) {
+					predecessorCount[successor]--;
+				}
+			}
+
+			// group the steps sharing fields into branches
+			int[] branchOf = new int[stepCount];
+			for (int i = 0; i < stepCount; i++) {
+				branchOf[i] = i;
+			}
+			Map<String, Integer> fieldOwner = new HashMap<String, Integer>();
+			for (Step step : steps) {
+				for (String field : fieldsOf(step)) {
+					Integer owner = fieldOwner.get(field);
+					if (owner == null) {
+						fieldOwner.put(field, step.registrationIdx);
+					}
+					else {
+						union(branchOf, owner, step.registrationIdx);
+					}
+				}
+			}
+			Map<Integer, List<Step>> branchSteps = new LinkedHashMap<Integer, List<Step>>();
+			for (Step step : orderedSteps) {
+				int root = find(branchOf, step.registrationIdx);
+				List<Step> stepList = branchSteps.get(root);
+				if (stepList == null) {
+					stepList = new ArrayList<Step>();
+					branchSteps.put(root, stepList);
+				}
+				stepList.add(step);
+			}
+			for (List<Step> stepList : branchSteps.values()) {
+				branches.add(new Branch(stepList));
+			}
+		}
+
+		/**
+		 * @return step b must run after step a
+		 */
+		private boolean dependsOn(Step b, Step a) {
+			for (String field : a.outputFields) {
+				boolean aInPlace = a.reads(field);
+				if (b.reads(field)) {
+					boolean bInPlace = b.writes(field);
+					if (!(aInPlace && bInPlace) || a.registrationIdx < b.registrationIdx) {
+						return true;
+					}
+				}
+				else if (b.writes(field) && !aInPlace && a.registrationIdx < b.registrationIdx) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private Set<String> fieldsOf(Step step) {
+			Set<String> fields = new LinkedHashSet<String>();
+			fields.addAll(Arrays.asList(step.inputFields));
+			fields.addAll(Arrays.asList(step.outputFields));
+			return fields;
+		}
+
+		private int find(int[] parent, int i) {
+			while (parent[i] != i) {
+				i = parent[i];
+			}
+			return i;
+		}
+
+		private void union(int[] parent, int i, int j) {
+			int rootI = find(parent, i);
+			int rootJ = find(parent, j);
+			if (rootI != rootJ) {
+				parent[Math.max(rootI, rootJ)] = Math.min(rootI, rootJ);
+			}
+		}
+	}
+
+	/**
+	 * Independent group of ordered steps.
+	 */
+	private final class Branch {
+		private final Step[] steps;
+		// fields read from the input bean
+		private final String[] inputFields;
+		// fields written to the output bean
+		private final String[] outputFields;
+		// index of each field in the PipelineRecord
+		private final Map<String, Integer> fieldIndex;
+		// declared type of each field (by index), could be null
+		private final Class<?>[] fieldTypes;
+
+		private Branch(List<Step> orderedSteps) {
+			steps = orderedSteps.toArray(new Step[orderedSteps.size()]);
+
+			Set<String> produced = new LinkedHashSet<String>();
+			Set<String> inputs = new LinkedHashSet<String>();
+			for (Step step : steps) {
+				for (String field : step.inputFields) {
+					if (!produced.contains(field)) {
+						inputs.add(field);
+					}
+				}
+				produced.addAll(Arrays.asList(step.outputFields));
+			}
+			inputFields = inputs.toArray(new String[inputs.size()]);
+			outputFields = produced.toArray(new String[produced.size()]);
+
+			Map<String, Integer> index = new HashMap<String, Integer>();
+			for (String field : inputs) {
+				index.put(field, index.size());
+			}
+			for (String field : produced) {
+				if (!index.containsKey(field)) {
+					index.put(field, index.size());
+				}
+			}
+			fieldIndex = Collections.unmodifiableMap(index);
+
+			fieldTypes = new Class<?>[index.size()];
+			for (Step step : steps) {
+				for (int i = 0; i < step.outputFields.length; i++) {
+					if (step.outputTypes[i] != null) {
+						fieldTypes[index.get(step.outputFields[i])] = step.outputTypes[i];
+					}
+				}
+			}
+		}
+
+		private void process(Object in, Object out, ProcessingResult result) {
+			PipelineRecord record = new PipelineRecord(fieldIndex, fieldTypes, in, out);
+			// each field is read and written on its own so a bean access error only affects that field
+			for (String field : inputFields) {
+				try {
+					record.setProperty(field, BeanPropertyAccessor.getSimpleProperty(in, field));
+				}
+				catch (IllegalAccessException e) {
+					logger.error("Bean access error", e);
+				}
+				catch (InvocationTargetException e) {
+					logger.error("Bean access error", e);
+				}
+				catch (NoSuchMethodException e) {
+					logger.error("Bean access error", e);
+				}
+			}
+			for (Step step : steps) {
+				step.processor.processBean(record, record, step.params, result);
+			}
+			for (String field : outputFields) {
+				try {
+					if (BeanPropertyAccessor.isWriteable(out, field)) {
+						BeanPropertyAccessor.setSimpleProperty(out, field, record.getProperty(field));
+					}
+				}
+				catch (IllegalAccessException e) {
+					logger.error("Bean access error", e);
+				}
+				catch (InvocationTargetException e) {
+					logger.error("Bean access error", e);
+				}
+				catch (NoSuchMethodException e) {
+					logger.error("Bean access error", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Intermediate record shared by the processors of a branch.
+	 * The type of a property is the type declared with addStep(...), then the type of the property in the output bean, then in
+	 * the input bean, String otherwise.
+	 */
+	private static final class PipelineRecord implements PropertyRecord {
+		private final Map<String, Integer> fieldIndex;
+		private final Class<?>[] fieldTypes;
+		private final Object[] values;
+		private final Object in;
+		private final Object out;
+
+		private PipelineRecord(Map<String, Integer> fieldIndex, Class<?>[] fieldTypes, Object in, Object out) {
+			this.fieldIndex = fieldIndex;
+			this.fieldTypes = fieldTypes;
+			this.values = new Object[fieldIndex.size()];
+			this.in = in;
+			this.out = out;
+		}
+
+		private int indexOf(String name) throws NoSuchMethodException {
+			Integer idx = fieldIndex.get(name);
+			if (idx == null) {
+				throw new NoSuchMethodException("Field '" + name + "' is not declared in the pipeline");
+			}
+			return idx;
+		}
+
+		@Override
+		public Object getProperty(String name) throws NoSuchMethodException {
+			return values[indexOf(name)];
+		}
+
+		@Override
+		public void setProperty(String name, Object value) throws NoSuchMethodException {
+			values[indexOf(name)] = value;
+		}
+
+		@Override
+		public Class<?> getPropertyType(String name) {
+			Integer idx = fieldIndex.get(name);
+			if (idx == null) {
+				return null;
+			}
+			if (fieldTypes[idx] != null) {
+				return fieldTypes[idx];
+			}
+			Class<?> type = findPropertyType(out, name);
+			if (type == null) {
+				type = findPropertyType(in, name);
+			}
+			return type == null ? String.class : type;
+		}
+
+		@Override
+		public boolean isWriteable(String name) {
+			return fieldIndex.containsKey(name);
+		}
+
+		private static Class<?> findPropertyType(Object bean, String name) {
+			try {
+				return BeanPropertyAccessor.getPropertyType(bean, name);
+			}
+			catch (IllegalAccessException e) {
+				return null;
+			}
+			catch (InvocationTargetException e) {
+				return null;
+			}
+			catch (NoSuchMethodException e) {
+				return null;
+			}
+		}
+	}
+}
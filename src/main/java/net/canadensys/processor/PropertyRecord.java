@@ -0,0 +1,39 @@
+package net.canadensys.processor;
+
+/**
+ * Record of named properties that can be used instead of a Java bean in processBean/validateBean.
+ * Properties of a PropertyRecord are accessed directly by BeanPropertyAccessor, without reflection.
+ * 
+ * @author canadensys
+ * 
+ */
+public interface PropertyRecord {
+
+	/**
+	 * @param name
+	 * @return the value of the property or null
+	 * @throws NoSuchMethodException
+	 *             if the property is not part of this record
+	 */
+	Object getProperty(String name) throws NoSuchMethodException;
+
+	/**
+	 * @param name
+	 * @param value
+	 * @throws NoSuchMethodException
+	 *             if the property is not part of this record
+	 */
+	void setProperty(String name, Object value) throws NoSuchMethodException;
+
+	/**
+	 * @param name
+	 * @return the type of the property or null if the property is not part of this record
+	 */
+	Class<?> getPropertyType(String name);
+
+	/**
+	 * @param name
+	 * @return the property can be set on this record
+	 */
+	boolean isWriteable(String name);
+}
@@ -0,0 +1,124 @@
+package net.canadensys.processor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Immutable description of the columns of a row: name, index and type of each column.
+ * Used by RowRecord to access the columns of a String[] (or CharSequence[]) row by name, e.g. the header line of a CSV file or
+ * the field indexes declared in the meta.xml of a Darwin Core Archive.
+ *
+ * The type of a column is String unless specified otherwise, it is the type returned by BeanPropertyAccessor.getPropertyType(...)
+ * (e.g. NumericPairDataProcessor uses it to decide the type of its output).
+ *
+ * @author canadensys
+ *
+ */
+public final class RowHeader {
+
+	public static final int NOT_FOUND = -1;
+
+	private final String[] columnNames;
+	private final Class<?>[] columnTypes;
+	private final Map<String, Integer> columnIndex;
+
+	/**
+	 * Header of String columns.
+	 *
+	 * @param columnNames
+	 *            name of each column, in row order
+	 */
+	public RowHeader(String... columnNames) {
+		this(columnNames, null);
+	}
+
+	/**
+	 * @param columnNames
+	 *            name of each column, in row order
+	 * @param columnTypes
+	 *            type of each column, same size as columnNames. If null or if a type is null, String is used.
+	 */
+	public RowHeader(String[] columnNames, Class<?>[] columnTypes) {
+		if (columnNames == null) {
+			throw new IllegalArgumentException("columnNames is required");
+		}
+		if (columnTypes != null && columnTypes.length != columnNames.length) {
+			throw new IllegalArgumentException("columnNames and columnTypes must have the same size");
+		}
+		this.columnNames = columnNames.clone();
+		this.columnTypes = new Class<?>[columnNames.length];
+
+		Map<String, Integer> index = new HashMap<String, Integer>();
+		for (int i = 0; i < columnNames.length; i++) {
+			this.columnTypes[i] = (columnTypes == null || columnTypes[i] == null) ? String.class : columnTypes[i];
+			// unnamed columns are allowed (e.g. unused columns of a file)
+			if (columnNames[i] != null && index.put(columnNames[i], i) != null) {
+				throw new IllegalArgumentException("Duplicated column name '" + columnNames[i] + "'");
+			}
+		}
+		columnIndex = Collections.unmodifiableMap(index);
+	}
+
+	/**
+	 * Header of String columns built from a header map.
+	 *
+	 * @param headerMap
+	 *            column name to column index (0 based), indexes not in the map are unnamed columns
+	 * @return new RowHeader
+	 */
+	public static RowHeader fromIndexMap(Map<String, Integer> headerMap) {
+		int size = 0;
+		for (Integer idx : headerMap.values()) {
+			size = Math.max(size, idx + 1);
+		}
+		String[] columnNames = new String[size];
+		for (Entry<String, Integer> entry : headerMap.entrySet()) {
+			if (entry.getValue() < 0 || columnNames[entry.getValue()] != null) {
+				throw new IllegalArgumentException("Invalid index for column '" + entry.getKey() + "'");
+			}
+			columnNames[entry.getValue()] = entry.getKey();
+		}
+		return new RowHeader(columnNames);
+	}
+
+	/**
+	 * @param columnName
+	 * @return index of the column or NOT_FOUND
+	 */
+	public int indexOf(String columnName) {
+		Integer idx = columnIndex.get(columnName);
+		return idx == null ? NOT_FOUND : idx;
+	}
+
+	/**
+	 * @return number of columns
+	 */
+	public int size() {
+		return columnNames.length;
+	}
+
+	/**
+	 * @param idx
+	 * @return name of the column or null if the column is unnamed
+	 */
+	public String getColumnName(int idx) {
+		return columnNames[idx];
+	}
+
+	/**
+	 * @param idx
+	 * @return type of the column
+	 */
+	public Class<?> getColumnType(int idx) {
+		return columnTypes[idx];
+	}
+
+	/**
+	 * @return new row-shaped output buffer
+	 */
+	public Object[] newBuffer() {
+		return new Object[columnNames.length];
+	}
+}
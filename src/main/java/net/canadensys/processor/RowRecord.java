@@ -0,0 +1,205 @@
+package net.canadensys.processor;
+
+import java.util.Arrays;
+
+/**
+ * PropertyRecord giving access to the columns of a row by name, without creating a Java bean for each row.
+ * The record is bound to an input RowHeader and an output RowHeader once, then moved from row to row with setRow(...):
+ *
+ * <pre>
+ * RowRecord record = new RowRecord(inHeader, outHeader);
+ * Object[] output = outHeader.newBuffer();
+ * for (String[] row : rows) {
+ * 	record.setRow(row, output);
+ * 	processor.processBean(record, record, null, result);
+ * 	// use output
+ * }
+ * </pre>
+ *
+ * The same record can also be given to ProcessorPipeline.process(...).
+ *
+ * Reading a property returns the value written in the output buffer for this row if the column was written (even if the value
+ * written is null), the input column otherwise, so processors can read the output of a previous processor. Writing a property sets
+ * the output column.
+ *
+ * The indexes of a column are resolved once per record: the first access to a column name looks it up in the headers, the next
+ * accesses with the same String instance (processors use the same field names for each row) only compare references.
+ *
+ * A RowRecord is not thread-safe, use one instance per thread.
+ *
+ * @author canadensys
+ *
+ */
+public class RowRecord implements PropertyRecord {
+
+	private static final int INITIAL_BOUND_CAPACITY = 8;
+
+	private final RowHeader inHeader;
+	private final RowHeader outHeader;
+
+	private CharSequence[] row;
+	private Object[] output;
+	// output columns written by setProperty(...) for the current row
+	private final boolean[] ownWritten;
+	private boolean[] written;
+
+	// columns already resolved by name: name, index in the input header and index in the output header
+	private String[] boundNames = new String[INITIAL_BOUND_CAPACITY];
+	private int[] boundInIdx = new int[INITIAL_BOUND_CAPACITY];
+	private int[] boundOutIdx = new int[INITIAL_BOUND_CAPACITY];
+	private int boundCount;
+
+	/**
+	 * @param inHeader
+	 *            columns of the input rows
+	 * @param outHeader
+	 *            columns of the output buffer
+	 */
+	public RowRecord(RowHeader inHeader, RowHeader outHeader) {
+		if (inHeader == null || outHeader == null) {
+			throw new IllegalArgumentException("inHeader and outHeader are required");
+		}
+		this.inHeader = inHeader;
+		this.outHeader = outHeader;
+		this.ownWritten = new boolean[outHeader.size()];
+	}
+
+	/**
+	 * Move the record to a new row. The output buffer is cleared.
+	 *
+	 * @param row
+	 *            input row, could be shorter than the input header (missing columns are null)
+	 * @param output
+	 *            output buffer, at least the size of the output header
+	 */
+	public void setRow(CharSequence[] row, Object[] output) {
+		setRow(row, output, ownWritten);
+	}
+
+	/**
+	 * Same as setRow(row, output) but the output columns written for this row are also flagged in the provided array, e.g. to tell
+	 * a column left untouched by the processors from a column set to null. The array is cleared.
+	 *
+	 * @param row
+	 *            input row, could be shorter than the input header (missing columns are null)
+	 * @param output
+	 *            output buffer, at least the size of the output header
+	 * @param written
+	 *            receives the written output columns, at least the size of the output header
+	 */
+	public void setRow(CharSequence[] row, Object[] output, boolean[] written) {
+		if (output.length < outHeader.size()) {
+			throw new IllegalArgumentException("output buffer is smaller than the output header");
+		}
+		if (written.length < outHeader.size()) {
+			throw new IllegalArgumentException("written array is smaller than the output header");
+		}
+		Arrays.fill(output, null);
+		Arrays.fill(written, false);
+		this.row = row;
+		this.output = output;
+		this.written = written;
+	}
+
+	/**
+	 * @return current input row
+	 */
+	public CharSequence[] getRow() {
+		return row;
+	}
+
+	/**
+	 * @return current output buffer
+	 */
+	public Object[] getOutput() {
+		return output;
+	}
+
+	@Override
+	public Object getProperty(String name) throws NoSuchMethodException {
+		int bound = bind(name);
+		if (bound == RowHeader.NOT_FOUND) {
+			throw new NoSuchMethodException("Column '" + name + "' is not declared in the row headers");
+		}
+		int outIdx = boundOutIdx[bound];
+		if (outIdx != RowHeader.NOT_FOUND && written[outIdx]) {
+			return output[outIdx];
+		}
+		int inIdx = boundInIdx[bound];
+		if (inIdx != RowHeader.NOT_FOUND) {
+			if (inIdx >= row.length || row[inIdx] == null) {
+				return null;
+			}
+			// processors expect String, no copy when the row is a String[]
+			return row[inIdx].toString();
+		}
+		return null;
+	}
+
+	@Override
+	public void setProperty(String name, Object value) throws NoSuchMethodException {
+		int bound = bind(name);
+		int outIdx = bound == RowHeader.NOT_FOUND ? RowHeader.NOT_FOUND : boundOutIdx[bound];
+		if (outIdx == RowHeader.NOT_FOUND) {
+			throw new NoSuchMethodException("Column '" + name + "' is not declared in the output header");
+		}
+		output[outIdx] = value;
+		written[outIdx] = true;
+	}
+
+	@Override
+	public Class<?> getPropertyType(String name) {
+		int bound = bind(name);
+		if (bound == RowHeader.NOT_FOUND) {
+			return null;
+		}
+		if (boundOutIdx[bound] != RowHeader.NOT_FOUND) {
+			return outHeader.getColumnType(boundOutIdx[bound]);
+		}
+		return inHeader.getColumnType(boundInIdx[bound]);
+	}
+
+	@Override
+	public boolean isWriteable(String name) {
+		int bound = bind(name);
+		return bound != RowHeader.NOT_FOUND && boundOutIdx[bound] != RowHeader.NOT_FOUND;
+	}
+
+	/**
+	 * Resolve the indexes of a column, only once per column name.
+	 *
+	 * @param name
+	 * @return index in the bound columns or RowHeader.NOT_FOUND if the column is in none of the headers
+	 */
+	private int bind(String name) {
+		for (int i = 0; i < boundCount; i++) {
+			if (boundNames[i] == name) {
+				return i;
+			}
+		}
+		if (name == null) {
+			return RowHeader.NOT_FOUND;
+		}
+		// another String instance of a bound name, not added to keep the number of bound columns bounded by the headers
+		for (int i = 0; i < boundCount; i++) {
+			if (boundNames[i].equals(name)) {
+				return i;
+			}
+		}
+
+		int inIdx = inHeader.indexOf(name);
+		int outIdx = outHeader.indexOf(name);
+		if (inIdx == RowHeader.NOT_FOUND && outIdx == RowHeader.NOT_FOUND) {
+			return RowHeader.NOT_FOUND;
+		}
+		if (boundCount == boundNames.length) {
+			boundNames = Arrays.copyOf(boundNames, boundCount * 2);
+			boundInIdx = Arrays.copyOf(boundInIdx, boundCount * 2);
+			boundOutIdx = Arrays.copyOf(boundOutIdx, boundCount * 2);
+		}
+		boundNames[boundCount] = name;
+		boundInIdx[boundCount] = inIdx;
+		boundOutIdx[boundCount] = outIdx;
+		return boundCount++;
+	}
+}
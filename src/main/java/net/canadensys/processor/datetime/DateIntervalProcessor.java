@@ -1,18 +1,14 @@
 package net.canadensys.processor.datetime;
 
 import java.lang.reflect.InvocationTargetException;
-import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import net.canadensys.processor.AbstractDataProcessor;
+import net.canadensys.processor.BeanPropertyAccessor;
 import net.canadensys.processor.ProcessingResult;
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,7 +17,8 @@ import org.slf4j.LoggerFactory;
  * Data processor to handle date interval.
  * This is a basic implementation.
  * Dates are extracted by finding symmetry in the date interval punctuation.
- * Extracted dates are not necessarily valid and should be processed with the appropriate DataProcessor.
+ * Extracted dates are not necessarily valid and should be processed with the appropriate DataProcessor, or
+ * processDates(...) can be used to extract and process them in one pass.
  * 
  * @author canadensys
  * 
@@ -45,6 +42,11 @@ public class DateIntervalProcessor extends AbstractDataProcessor {
 
 	protected String dateIntervalName, dateStartName, dateEndName;
 
+	// used to parse the dates in processDates(...)
+	protected DateProcessor dateProcessor;
+	// Locale of the error messages, also used by the dateProcessor
+	private Locale locale;
+
 	/**
 	 * Default constructor, default field names will be used
 	 */
@@ -65,10 +67,21 @@ public class DateIntervalProcessor extends AbstractDataProcessor {
 		this.dateStartName = dateStartName;
 		this.dateEndName = dateEndName;
 
+		this.dateProcessor = new DateProcessor();
 		// always a default Locale
 		setLocale(Locale.ENGLISH);
 	}
 
+	@Override
+	public void setLocale(Locale locale) {
+		super.setLocale(locale);
+		this.locale = locale;
+		// the errors of the dates are recorded in the same ProcessingResult
+		if (dateProcessor != null) {
+			dateProcessor.setLocale(locale);
+		}
+	}
+
 	@Override
 	public ErrorHandlingModeEnum getErrorHandlingMode() {
 		return errorHandlingMode;
@@ -78,12 +91,12 @@ public class DateIntervalProcessor extends AbstractDataProcessor {
 	public void processBean(Object in, Object out, Map<String, Object> params, ProcessingResult result) {
 		try {
 			String[] output = null;
-			String textDateInterval = (String) PropertyUtils.getSimpleProperty(in, dateIntervalName);
+			String textDateInterval = (String) BeanPropertyAccessor.getSimpleProperty(in, dateIntervalName);
 
 			output = process(textDateInterval, result);
 
-			PropertyUtils.setSimpleProperty(out, dateStartName, output[START_DATE_IDX]);
-			PropertyUtils.setSimpleProperty(out, dateEndName, output[END_DATE_IDX]);
+			BeanPropertyAccessor.setSimpleProperty(out, dateStartName, output[START_DATE_IDX]);
+			BeanPropertyAccessor.setSimpleProperty(out, dateEndName, output[END_DATE_IDX]);
 		}
 		catch (IllegalAccessException e) {
 			logger.error("Bean access error", e);
@@ -108,7 +121,7 @@ public class DateIntervalProcessor extends AbstractDataProcessor {
 		String textDateInterval = null;
 
 		try {
-			textDateInterval = (String) PropertyUtils.getSimpleProperty(in, dateIntervalName);
+			textDateInterval = (String) BeanPropertyAccessor.getSimpleProperty(in, dateIntervalName);
 			output = process(textDateInterval, result);
 			// we need the 2 dates to be considered valid
 			if (output[0] != null && output[1] != null) {
@@ -145,38 +158,240 @@ public class DateIntervalProcessor extends AbstractDataProcessor {
 	 * @return initialized array(size==2) that will contain the parsed data(start date, end date) or null.
 	 */
 	public String[] process(String dateIntervalText, ProcessingResult result) {
+		if (!metrics.isEnabled()) {
+			return doProcess(dateIntervalText, result);
+		}
+		long start = System.nanoTime();
+		String[] output = doProcess(dateIntervalText, result);
+		recordCall(start, StringUtils.isBlank(dateIntervalText), output[START_DATE_IDX] != null);
+		return output;
+	}
+
+	private String[] doProcess(String dateIntervalText, ProcessingResult result) {
 		String[] output = new String[2];
 		if (StringUtils.isBlank(dateIntervalText)) {
 			return output;
 		}
 		dateIntervalText = dateIntervalText.trim();
-		Matcher m = DATE_INTERVAL_SEPARATOR_PATTERN.matcher(dateIntervalText);
-		StringBuilder separatorStr = new StringBuilder();
-		List<Integer> idx = new ArrayList<Integer>();
-		while (m.find()) {
-			separatorStr.append(m.group());
-			idx.add(m.start());
-		}
-
-		// separatorStr has even length ?
-		if ((separatorStr.length() & 1) != 0) {
-			int separatorIdx = idx.get(separatorStr.length() / 2);
-			// make sure punctuation is symmetric
-			if (separatorStr.substring(0, separatorStr.length() / 2).equals(separatorStr.substring(separatorStr.length() / 2 + 1))) {
-				output[START_DATE_IDX] = dateIntervalText.substring(0, separatorIdx).trim();
-				output[END_DATE_IDX] = dateIntervalText.substring(separatorIdx + 1, dateIntervalText.length()).trim();
+		int separatorIdx = findIntervalSeparator(dateIntervalText);
+		if (separatorIdx >= 0) {
+			output[START_DATE_IDX] = dateIntervalText.substring(0, separatorIdx).trim();
+			output[END_DATE_IDX] = dateIntervalText.substring(separatorIdx + 1, dateIntervalText.length()).trim();
+		}
+		else {
+			if (isErrorRecorded(result)) {
+				addError(result, "dateInterval.error.nonSymmetric", dateIntervalText);
 			}
-			else {
-				if (result != null) {
-					result.addError(MessageFormat.format(resourceBundle.getString("dateInterval.error.nonSymmetric"), dateIntervalText));
-				}
+		}
+		return output;
+	}
+
+	/**
+	 * Fused date interval processing function, the date interval is split and both dates are parsed (see DateProcessor) in
+	 * one pass.
+	 * The start date can omit the parts it shares with the end date, e.g. 3-5 June 1999, 3 May - 5 June 1999.
+	 * 
+	 * @param dateIntervalText
+	 *            text representing the date interval
+	 * @param result
+	 *            optional processing result
+	 * @return initialized array(size==2) that will contain the packed dates (start date, end date) or PackedDate.EMPTY.
+	 */
+	public long[] processDates(String dateIntervalText, ProcessingResult result) {
+		long[] output = new long[2];
+		processDates(dateIntervalText, output, result);
+		return output;
+	}
+
+	/**
+	 * Same as processDates(String, ProcessingResult) but writing into a caller-owned array.
+	 * 
+	 * @param dateIntervalText
+	 *            text representing the date interval
+	 * @param output
+	 *            initialized array(size==2) that will receive the packed dates (start date, end date) or PackedDate.EMPTY
+	 * @param result
+	 *            optional processing result
+	 * @return both dates were parsed
+	 */
+	public boolean processDates(String dateIntervalText, long[] output, ProcessingResult result) {
+		if (!metrics.isEnabled()) {
+			return doProcessDates(dateIntervalText, output, result);
+		}
+		long start = System.nanoTime();
+		boolean processed = doProcessDates(dateIntervalText, output, result);
+		recordCall(start, StringUtils.isBlank(dateIntervalText), processed);
+		return processed;
+	}
+
+	private boolean doProcessDates(String dateIntervalText, long[] output, ProcessingResult result) {
+		output[START_DATE_IDX] = PackedDate.EMPTY;
+		output[END_DATE_IDX] = PackedDate.EMPTY;
+		if (StringUtils.isBlank(dateIntervalText)) {
+			return false;
+		}
+
+		int separatorIdx = findIntervalSeparator(dateIntervalText);
+		if (separatorIdx < 0) {
+			if (isErrorRecorded(result)) {
+				addError(result, "dateInterval.error.nonSymmetric", dateIntervalText.trim());
 			}
+			return false;
+		}
+
+		// trimmed ranges of the 2 dates
+		int startBegin = skipWhitespaces(dateIntervalText, 0, separatorIdx);
+		int startEnd = skipTrailingWhitespaces(dateIntervalText, startBegin, separatorIdx);
+		int endBegin = skipWhitespaces(dateIntervalText, separatorIdx + 1, dateIntervalText.length());
+		int endEnd = skipTrailingWhitespaces(dateIntervalText, endBegin, dateIntervalText.length());
+		if (startBegin == startEnd || endBegin == endEnd) {
+			return false;
 		}
-		else {// odd...
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("dateInterval.error.nonSymmetric"), dateIntervalText));
+
+		long endDate = dateProcessor.processPacked(dateIntervalText, endBegin, endEnd, null, result);
+		long startDate;
+		if (PackedDate.hasYear(endDate) && !containsYear(dateIntervalText, startBegin, startEnd)) {
+			startDate = processSharedYearStartDate(dateIntervalText, startBegin, startEnd, endDate, result);
+		}
+		else {
+			startDate = dateProcessor.processPacked(dateIntervalText, startBegin, startEnd, null, result);
+		}
+
+		output[START_DATE_IDX] = startDate;
+		output[END_DATE_IDX] = endDate;
+		return !PackedDate.isEmpty(startDate) && !PackedDate.isEmpty(endDate);
+	}
+
+	/**
+	 * Process a start date that is sharing the year (and possibly the month) with the end date.
+	 * 
+	 * @param text
+	 * @param start
+	 *            index of the first character of the start date (inclusive)
+	 * @param end
+	 *            index of the last character of the start date (exclusive)
+	 * @param endDate
+	 *            packed end date, including the year
+	 * @param result
+	 * @return packed start date or PackedDate.EMPTY
+	 */
+	private long processSharedYearStartDate(String text, int start, int end, long endDate, ProcessingResult result) {
+		int year = PackedDate.getYear(endDate);
+		// only the day, e.g. 3-5 June 1999
+		if (end - start <= 2 && StringUtils.isNumeric(text.substring(start, end))) {
+			int day = Integer.parseInt(text.substring(start, end));
+			int month = PackedDate.getMonth(endDate);
+			if (PackedDate.hasMonth(endDate) && NumericDateLexer.isValidDate(year, month, day)) {
+				return PackedDate.pack(year, month, day);
 			}
+			if (isErrorRecorded(result)) {
+				addError(result, "date.error.unprocessable", text.substring(start, end));
+			}
+			return PackedDate.EMPTY;
+		}
+		// day and month, e.g. 3 May - 5 June 1999
+		String startDateText = text.substring(start, end) + DateShape.SEPARATOR + year;
+		return dateProcessor.processPacked(startDateText, null, result);
+	}
+
+	/**
+	 * Find the date interval separator by finding symmetry in the date interval punctuation.
+	 * The separator is the middle one, the punctuation on each side of it must be the same.
+	 * e.g. 1977-08-16/1977-08-20 has the punctuation -,-,/,-,- and the separator is /
+	 * 
+	 * @param dateIntervalText
+	 * @return index of the separator or -1 if the punctuation is not symmetric
+	 */
+	static int findIntervalSeparator(String dateIntervalText) {
+		int count = 0;
+		for (int i = 0; i < dateIntervalText.length(); i++) {
+			if (isIntervalPunctuation(dateIntervalText.charAt(i))) {
+				count++;
+			}
+		}
+		// we need an odd number of punctuation
+		if ((count & 1) == 0) {
+			return -1;
+		}
+
+		int half = count / 2;
+		int left = nextIntervalPunctuation(dateIntervalText, 0);
+		int separatorIdx = left;
+		for (int i = 0; i < half; i++) {
+			separatorIdx = nextIntervalPunctuation(dateIntervalText, separatorIdx + 1);
+		}
+		// make sure punctuation is symmetric
+		int right = separatorIdx;
+		for (int i = 0; i < half; i++) {
+			right = nextIntervalPunctuation(dateIntervalText, right + 1);
+			if (dateIntervalText.charAt(left) != dateIntervalText.charAt(right)) {
+				return -1;
+			}
+			left = nextIntervalPunctuation(dateIntervalText, left + 1);
+		}
+		return separatorIdx;
+	}
+
+	private static int nextIntervalPunctuation(String text, int from) {
+		for (int i = from; i < text.length(); i++) {
+			if (isIntervalPunctuation(text.charAt(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Same characters as DATE_INTERVAL_SEPARATOR_PATTERN
+	 */
+	private static boolean isIntervalPunctuation(char c) {
+		return c == '.' || c == '-' || c == '/';
+	}
+
+	/**
+	 * A year is expressed with at least 4 digits
+	 */
+	private static boolean containsYear(String text, int start, int end) {
+		int digits = 0;
+		char c;
+		for (int i = start; i < end; i++) {
+			c = text.charAt(i);
+			if (c >= '0' && c <= '9') {
+				if (++digits == 4) {
+					return true;
+				}
+			}
+			else {
+				digits = 0;
+			}
+		}
+		return false;
+	}
+
+	private static int skipWhitespaces(String text, int start, int end) {
+		while (start < end && text.charAt(start) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	private static int skipTrailingWhitespaces(String text, int start, int end) {
+		while (end > start && text.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	/**
+	 * Set the DateProcessor used by processDates(...), e.g. to support other Locale.
+	 * The Locale of the error messages of this processor is applied to the dateProcessor.
+	 * 
+	 * @param dateProcessor
+	 */
+	public void setDateProcessor(DateProcessor dateProcessor) {
+		this.dateProcessor = dateProcessor;
+		if (dateProcessor != null) {
+			dateProcessor.setLocale(locale);
 		}
-		return output;
 	}
 }
@@ -0,0 +1,176 @@
+package net.canadensys.processor.datetime;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dataset-scoped inference of the day/month order of numerical dates (d-M-yyyy or M-d-yyyy).
+ * The order is inferred from a running tally of the unambiguous dates of the dataset (e.g. 23-4-2001 can only be
+ * d-M-yyyy) seen by the DateProcessor. Once enough unambiguous dates agree, ambiguous dates (e.g. 10-11-2010) are
+ * parsed using the inferred order and flagged with PackedDate.ORDER_INFERRED instead of being rejected as vague.
+ *
+ * The inference can also be decided by a first sampling pass on the dataset followed by a call to freeze(), or
+ * set explicitly with setDateOrder(...).
+ *
+ * An instance must only be used for a single dataset, it is thread safe.
+ *
+ * @author canadensys
+ *
+ */
+public class DateOrderInference {
+
+	public enum DateOrderEnum {
+		// d-M-yyyy
+		DAY_MONTH,
+		// M-d-yyyy
+		MONTH_DAY,
+		UNKNOWN
+	}
+
+	public static final int DEFAULT_MIN_SAMPLE_SIZE = 10;
+	public static final double DEFAULT_MIN_RATIO = 0.95;
+
+	private final int minSampleSize;
+	private final double minRatio;
+
+	private final AtomicInteger dayMonthCount = new AtomicInteger();
+	private final AtomicInteger monthDayCount = new AtomicInteger();
+	private final AtomicInteger inferredCount = new AtomicInteger();
+
+	// when set, the tally is ignored
+	private volatile DateOrderEnum fixedDateOrder;
+
+	public DateOrderInference() {
+		this(DEFAULT_MIN_SAMPLE_SIZE, DEFAULT_MIN_RATIO);
+	}
+
+	/**
+	 * @param minSampleSize
+	 *            minimum number of unambiguous dates required to infer the order
+	 * @param minRatio
+	 *            minimum ratio (0 to 1) of the unambiguous dates that must use the same order
+	 */
+	public DateOrderInference(int minSampleSize, double minRatio) {
+		if (minSampleSize < 1 || minRatio <= 0.5 || minRatio > 1) {
+			throw new IllegalArgumentException("minSampleSize must be positive and minRatio must be in ]0.5, 1]");
+		}
+		this.minSampleSize = minSampleSize;
+		this.minRatio = minRatio;
+	}
+
+	/**
+	 * Get the currently inferred order.
+	 *
+	 * @return the inferred order or UNKNOWN if it can't be inferred (yet)
+	 */
+	public DateOrderEnum getDateOrder() {
+		DateOrderEnum dateOrder = fixedDateOrder;
+		if (dateOrder != null) {
+			return dateOrder;
+		}
+		int dayMonth = dayMonthCount.get();
+		int monthDay = monthDayCount.get();
+		int total = dayMonth + monthDay;
+		if (total < minSampleSize) {
+			return DateOrderEnum.UNKNOWN;
+		}
+		if (dayMonth >= total * minRatio) {
+			return DateOrderEnum.DAY_MONTH;
+		}
+		if (monthDay >= total * minRatio) {
+			return DateOrderEnum.MONTH_DAY;
+		}
+		return DateOrderEnum.UNKNOWN;
+	}
+
+	/**
+	 * Explicitly set the order, the tally will be ignored.
+	 *
+	 * @param dateOrder
+	 */
+	public void setDateOrder(DateOrderEnum dateOrder) {
+		this.fixedDateOrder = dateOrder;
+	}
+
+	/**
+	 * Keep the currently inferred order (which could be UNKNOWN) for the rest of the dataset.
+	 * Usually called after a sampling pass.
+	 *
+	 * @return the kept order
+	 */
+	public DateOrderEnum freeze() {
+		DateOrderEnum dateOrder = getDateOrder();
+		fixedDateOrder = dateOrder;
+		return dateOrder;
+	}
+
+	/**
+	 * Reset the tally and the order.
+	 */
+	public void reset() {
+		fixedDateOrder = null;
+		dayMonthCount.set(0);
+		monthDayCount.set(0);
+		inferredCount.set(0);
+	}
+
+	/**
+	 * @return number of unambiguous d-M-yyyy dates seen
+	 */
+	public int getDayMonthCount() {
+		return dayMonthCount.get();
+	}
+
+	/**
+	 * @return number of unambiguous M-d-yyyy dates seen
+	 */
+	public int getMonthDayCount() {
+		return monthDayCount.get();
+	}
+
+	/**
+	 * @return number of ambiguous dates parsed using the inferred order
+	 */
+	public int getInferredCount() {
+		return inferredCount.get();
+	}
+
+	/**
+	 * Record an unambiguous date.
+	 *
+	 * @param dateOrder
+	 *            DAY_MONTH or MONTH_DAY
+	 */
+	void record(DateOrderEnum dateOrder) {
+		if (fixedDateOrder != null) {
+			return;
+		}
+		if (dateOrder == DateOrderEnum.DAY_MONTH) {
+			dayMonthCount.incrementAndGet();
+		}
+		else if (dateOrder == DateOrderEnum.MONTH_DAY) {
+			monthDayCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Resolve an ambiguous date using the inferred order.
+	 *
+	 * @param dayMonthDate
+	 *            packed date using the d-M-yyyy order
+	 * @param monthDayDate
+	 *            packed date using the M-d-yyyy order
+	 * @return the packed date flagged with PackedDate.ORDER_INFERRED or PackedDate.EMPTY if the order is unknown
+	 */
+	long resolve(long dayMonthDate, long monthDayDate) {
+		switch (getDateOrder()) {
+			case DAY_MONTH:
+				inferredCount.incrementAndGet();
+				return dayMonthDate | PackedDate.ORDER_INFERRED;
+			case MONTH_DAY:
+				inferredCount.incrementAndGet();
+				return monthDayDate | PackedDate.ORDER_INFERRED;
+			default:
+				return PackedDate.EMPTY;
+		}
+	}
+}
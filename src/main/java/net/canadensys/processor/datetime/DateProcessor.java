@@ -1,8 +1,9 @@
 package net.canadensys.processor.datetime;
 
 import java.lang.reflect.InvocationTargetException;
-import java.text.MessageFormat;
+import java.text.ParsePosition;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -11,9 +12,9 @@ import java.util.regex.Pattern;
 
 import net.canadensys.lang.RomanNumeral;
 import net.canadensys.processor.AbstractDataProcessor;
+import net.canadensys.processor.BeanPropertyAccessor;
 import net.canadensys.processor.ProcessingResult;
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +27,7 @@ import org.threeten.bp.format.DateTimeFormatter;
 import org.threeten.bp.format.DateTimeFormatterBuilder;
 import org.threeten.bp.format.ResolverStyle;
 import org.threeten.bp.temporal.TemporalAccessor;
+import org.threeten.bp.temporal.TemporalQuery;
 
 /**
  * Data processor to handle dates including partial dates.
@@ -50,6 +52,12 @@ public class DateProcessor extends AbstractDataProcessor {
 	public static final int MONTH_IDX = 1;
 	public static final int DAY_IDX = 2;
 
+	/**
+	 * Optional processBean/validateBean parameter, DateOrderInference of the dataset to resolve ambiguous d-M-yyyy/M-d-yyyy
+	 * dates
+	 */
+	public static final String DATE_ORDER_INFERENCE_TAG = "DateOrderInference";
+
 	// default field names
 	private static final String DEFAULT_DATE_NAME = "date";
 	private static final String DEFAULT_YEAR_NAME = "year";
@@ -112,11 +120,18 @@ public class DateProcessor extends AbstractDataProcessor {
 	// keep a reference on the complete (non partial) date patterns list
 	private static DateTimeFormatter[] COMPLETE_DATE_PATTERNS = new DateTimeFormatter[] { BE_ISO8601_BASIC_PATTERN, ME_MMM_D_YYYY_PATTERN,
 			ME_MMMM_D_YYYY_PATTERN, BE_YYYY_MMM_D_PATTERN, BE_YYYY_MMMM_D_PATTERN, LE_D_MMM_YYYY_PATTERN, LE_D_MMMM_YYYY_PATTERN };
-	// keep a reference on the non-numerical month (using a word to express the month) complete (non partial) date patterns list
-	private static DateTimeFormatter[] NON_NUMERICAL_MONTH_COMPLETE_DATE_PATTERNS = new DateTimeFormatter[] { LE_D_MMM_YYYY_PATTERN,
-			LE_D_MMMM_YYYY_PATTERN, ME_MMM_D_YYYY_PATTERN, ME_MMMM_D_YYYY_PATTERN, BE_YYYY_MMM_D_PATTERN, BE_YYYY_MMMM_D_PATTERN };
+	// DateShape format family of each element of COMPLETE_DATE_PATTERNS
+	private static int[] COMPLETE_DATE_PATTERNS_FAMILY = new int[] { DateShape.ISO_BASIC, DateShape.ME_TEXT_MONTH, DateShape.ME_TEXT_MONTH,
+			DateShape.BE_TEXT_MONTH, DateShape.BE_TEXT_MONTH, DateShape.LE_TEXT_MONTH, DateShape.LE_TEXT_MONTH };
+	// DateShape format families using a word to express the month
+	private static final int TEXT_MONTH_FAMILIES = DateShape.LE_TEXT_MONTH | DateShape.ME_TEXT_MONTH | DateShape.BE_TEXT_MONTH;
+
+	// the year (yyyy) and the day (d) of the text month patterns are parsed as YEAR_OF_ERA and DAY_OF_MONTH
+	private static final int MAX_DAY_OF_MONTH = 31;
 
 	protected List<Locale> supportedLocale;
+	// month names of all supported Locale
+	private final MonthNameTrie monthNameTrie;
 
 	/**
 	 * Default constructor, default field names will be used
@@ -136,15 +151,30 @@ public class DateProcessor extends AbstractDataProcessor {
 	 *            name of the field where the day will be stored
 	 */
 	public DateProcessor(String dateName, String yearName, String monthName, String dayName) {
+		this(dateName, yearName, monthName, dayName, Arrays.asList(Locale.FRENCH, new Locale("ES")));
+	}
+
+	/**
+	 * @param dateName
+	 *            name of the field containing the date string
+	 * @param yearName
+	 *            name of the field where the year will be stored
+	 * @param monthName
+	 *            name of the field where the month will be stored
+	 * @param dayName
+	 *            name of the field where the day will be stored
+	 * @param supportedLocale
+	 *            Locale of the month names supported in addition to English, in priority order
+	 */
+	public DateProcessor(String dateName, String yearName, String monthName, String dayName, List<Locale> supportedLocale) {
 		this.dateName = dateName;
 		this.yearName = yearName;
 		this.monthName = monthName;
 		this.dayName = dayName;
 		// always a default Locale
 		setLocale(Locale.ENGLISH);
-		supportedLocale = new ArrayList<Locale>();
-		supportedLocale.add(Locale.FRENCH);
-		supportedLocale.add(new Locale("ES"));
+		this.supportedLocale = new ArrayList<Locale>(supportedLocale);
+		this.monthNameTrie = new MonthNameTrie(this.supportedLocale);
 	}
 
 	/**
@@ -155,19 +185,19 @@ public class DateProcessor extends AbstractDataProcessor {
 	 * @param out
 	 *            Java bean containing the 3 properties that will keep the 3 parts of the date
 	 * @param params
-	 *            Will be ignored so use null, could eventually be used to include decades
+	 *            optional, a DateOrderInference can be provided using the DATE_ORDER_INFERENCE_TAG tag
 	 */
 	@Override
 	public void processBean(Object in, Object out, Map<String, Object> params, ProcessingResult result) {
 		try {
 			Integer[] output = null;
-			String textDate = (String) PropertyUtils.getSimpleProperty(in, dateName);
+			String textDate = (String) BeanPropertyAccessor.getSimpleProperty(in, dateName);
 
-			output = process(textDate, result);
+			output = PackedDate.toArray(processPacked(textDate, getDateOrderInference(params), result));
 
-			PropertyUtils.setSimpleProperty(out, yearName, output[YEAR_IDX]);
-			PropertyUtils.setSimpleProperty(out, monthName, output[MONTH_IDX]);
-			PropertyUtils.setSimpleProperty(out, dayName, output[DAY_IDX]);
+			BeanPropertyAccessor.setSimpleProperty(out, yearName, output[YEAR_IDX]);
+			BeanPropertyAccessor.setSimpleProperty(out, monthName, output[MONTH_IDX]);
+			BeanPropertyAccessor.setSimpleProperty(out, dayName, output[DAY_IDX]);
 		}
 		catch (IllegalAccessException e) {
 			logger.error("Bean access error", e);
@@ -186,14 +216,12 @@ public class DateProcessor extends AbstractDataProcessor {
 	 */
 	@Override
 	public boolean validateBean(Object in, boolean isMandatory, Map<String, Object> params, ProcessingResult result) {
-		Integer[] output = null;
 		String textDate = null;
 
 		try {
-			textDate = (String) PropertyUtils.getSimpleProperty(in, dateName);
-			output = process(textDate, result);
+			textDate = (String) BeanPropertyAccessor.getSimpleProperty(in, dateName);
 			// we support partial date so if we have only one part, it's valid
-			if (output[0] != null || output[1] != null || output[2] != null) {
+			if (!PackedDate.isEmpty(processPacked(textDate, getDateOrderInference(params), result))) {
 				return true;
 			}
 		}
@@ -227,93 +255,186 @@ public class DateProcessor extends AbstractDataProcessor {
 	 * @return initialized array(size==3) that will contain the parsed data(year,month,day) or null.
 	 */
 	public Integer[] process(String dateText, ProcessingResult result) {
-		Integer[] output = new Integer[3];
+		return PackedDate.toArray(processPacked(dateText, result));
+	}
+
+	/**
+	 * Date processing function writing into a caller-owned array.
+	 *
+	 * @param dateText
+	 *            a test representing the date or partial-date
+	 * @param output
+	 *            initialized array(size==3) that will receive the parsed data(year,month,day) or null.
+	 *            Can be reused between calls since all 3 elements are always written.
+	 * @param result
+	 *            optional processing result
+	 * @return at least one part of the date was parsed
+	 */
+	public boolean process(String dateText, Integer[] output, ProcessingResult result) {
+		long packedDate = processPacked(dateText, result);
+		PackedDate.unpack(packedDate, output);
+		return !PackedDate.isEmpty(packedDate);
+	}
+
+	/**
+	 * Date processing function returning the date packed in a primitive long.
+	 * Use PackedDate to decode the returned value.
+	 *
+	 * @param dateText
+	 *            a test representing the date or partial-date
+	 * @param result
+	 *            optional processing result
+	 * @return the packed (partial) date or PackedDate.EMPTY
+	 */
+	public long processPacked(String dateText, ProcessingResult result) {
+		return processPacked(dateText, null, result);
+	}
+
+	/**
+	 * Date processing function returning the date packed in a primitive long.
+	 * Ambiguous d-M-yyyy/M-d-yyyy dates are resolved using the provided DateOrderInference, if the order can be
+	 * inferred. Those dates are flagged with PackedDate.ORDER_INFERRED.
+	 *
+	 * @param dateText
+	 *            a test representing the date or partial-date
+	 * @param dateOrderInference
+	 *            optional, DateOrderInference of the dataset
+	 * @param result
+	 *            optional processing result
+	 * @return the packed (partial) date or PackedDate.EMPTY
+	 */
+	public long processPacked(String dateText, DateOrderInference dateOrderInference, ProcessingResult result) {
+		if (!metrics.isEnabled()) {
+			return doProcessPacked(dateText, dateOrderInference, result);
+		}
+		long start = System.nanoTime();
+		long packedDate = doProcessPacked(dateText, dateOrderInference, result);
+		recordCall(start, StringUtils.isBlank(dateText), !PackedDate.isEmpty(packedDate));
+		return packedDate;
+	}
+
+	private long doProcessPacked(String dateText, DateOrderInference dateOrderInference, ProcessingResult result) {
 		if (StringUtils.isBlank(dateText)) {
-			return output;
+			return PackedDate.EMPTY;
 		}
+		return processPacked(dateText, 0, dateText.length(), dateOrderInference, result);
+	}
 
-		dateText = standardizeDatePunctuation(dateText);
-
-		try {
-			// try ISO 8601 (with partial date like 2008 or 2008-12)
-			setPartialDate(output, BE_ISO8601_PARTIAL_DATE_PATTERN.parseBest(dateText, LocalDate.FROM, YearMonth.FROM, Year.FROM));
-			return output;
+	/**
+	 * Process the date contained in text[start, end) without extracting it when possible.
+	 *
+	 * @param text
+	 * @param start
+	 *            index of the first character (inclusive)
+	 * @param end
+	 *            index of the last character (exclusive), the range must not be blank
+	 * @param dateOrderInference
+	 *            optional, DateOrderInference of the dataset
+	 * @param result
+	 *            optional processing result
+	 * @return the packed (partial) date or PackedDate.EMPTY
+	 */
+	long processPacked(String text, int start, int end, DateOrderInference dateOrderInference, ProcessingResult result) {
+		// fast path for the most common numerical dates
+		long numericDate = NumericDateLexer.parse(text, start, end, dateOrderInference);
+		if (numericDate == NumericDateLexer.VAGUE) {
+			if (isErrorRecorded(result)) {
+				addError(result, "date.error.vagueDate", standardizeDatePunctuation(text.substring(start, end)));
+			}
+			return PackedDate.EMPTY;
 		}
-		catch (DateTimeException cpe) {
+		if (numericDate != NumericDateLexer.NO_MATCH) {
+			return numericDate;
+		}
+
+		String dateText = standardizeDatePunctuation(text.substring(start, end));
+		// only try the formats that could possibly match the shape of the date
+		int candidateFormats = DateShape.getCandidateFormats(dateText);
+
+		// try ISO 8601 (with partial date like 2008 or 2008-12)
+		if (isCandidate(candidateFormats, DateShape.ISO_PARTIAL)) {
+			TemporalAccessor isoDate = tryParseBest(BE_ISO8601_PARTIAL_DATE_PATTERN, dateText, LocalDate.FROM, YearMonth.FROM, Year.FROM);
+			if (isoDate != null) {
+				return packPartialDate(isoDate);
+			}
 		}
 
 		// Try to find a complete date
-		LocalDate localDate = tryParseCompleteDate(COMPLETE_DATE_PATTERNS, dateText);
+		LocalDate localDate = tryParseCompleteDate(COMPLETE_DATE_PATTERNS, COMPLETE_DATE_PATTERNS_FAMILY, candidateFormats, dateText);
 		if (localDate != null) {
-			setPartialDate(output, localDate);
-			return output;
+			return packPartialDate(localDate);
 		}
 
 		// PARTIAL DATE
-		try {
-			// try format like Jun 1895
-			setPartialDate(output, PARTIAL_MONTH_YEAR_PATTERN.parse(dateText, YearMonth.FROM));
-			return output;
-		}
-		catch (DateTimeException cpe) {
+		// try format like Jun 1895
+		if (isCandidate(candidateFormats, DateShape.PARTIAL_MONTH_YEAR)) {
+			YearMonth yearMonth = tryParse(PARTIAL_MONTH_YEAR_PATTERN, dateText, YearMonth.FROM);
+			if (yearMonth != null) {
+				return packPartialDate(yearMonth);
+			}
 		}
 
-		try {
-			// try format like Jun
-			setPartialDate(output, PARTIAL_MONTH_PATTERN.parse(dateText, Month.FROM));
-			return output;
-		}
-		catch (DateTimeException cpe) {
+		// try format like Jun
+		if (isCandidate(candidateFormats, DateShape.PARTIAL_MONTH)) {
+			Month month = tryParse(PARTIAL_MONTH_PATTERN, dateText, Month.FROM);
+			if (month != null) {
+				return packPartialDate(month);
+			}
 		}
 
 		// Warning - Fuzzy dates handling
-		LocalDate le_d_m_yyyy_date = null;
-		LocalDate me_m_d_yyyy_date = null;
-		try {
-			le_d_m_yyyy_date = LE_D_M_YYYY_PATTERN.parse(dateText, LocalDate.FROM);
-		}
-		catch (DateTimeException cpe) {
-		}
-
-		try {
-			me_m_d_yyyy_date = ME_M_D_YYYY_PATTERN.parse(dateText, LocalDate.FROM);
-		}
-		catch (DateTimeException cpe) {
-		}
-
-		// make sure the date can't be parsed into the 2 different patterns
-		// but allow if it gives the same date (e.g. 8-8-2010)
-		if (le_d_m_yyyy_date != null && me_m_d_yyyy_date != null && !le_d_m_yyyy_date.equals(me_m_d_yyyy_date)) {
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("date.error.vagueDate"), dateText));
+		if (isCandidate(candidateFormats, DateShape.FUZZY)) {
+			LocalDate le_d_m_yyyy_date = tryParse(LE_D_M_YYYY_PATTERN, dateText, LocalDate.FROM);
+			LocalDate me_m_d_yyyy_date = tryParse(ME_M_D_YYYY_PATTERN, dateText, LocalDate.FROM);
+
+			// make sure the date can't be parsed into the 2 different patterns
+			// but allow if it gives the same date (e.g. 8-8-2010)
+			if (le_d_m_yyyy_date != null && me_m_d_yyyy_date != null && !le_d_m_yyyy_date.equals(me_m_d_yyyy_date)) {
+				if (dateOrderInference != null) {
+					long packedDate = dateOrderInference.resolve(packPartialDate(le_d_m_yyyy_date), packPartialDate(me_m_d_yyyy_date));
+					if (packedDate != PackedDate.EMPTY) {
+						return packedDate;
+					}
+				}
+				if (isErrorRecorded(result)) {
+					addError(result, "date.error.vagueDate", dateText);
+				}
+				return PackedDate.EMPTY;
+			}
+			if (le_d_m_yyyy_date != null) {
+				if (me_m_d_yyyy_date == null && dateOrderInference != null) {
+					dateOrderInference.record(DateOrderInference.DateOrderEnum.DAY_MONTH);
+				}
+				return packPartialDate(le_d_m_yyyy_date);
+			}
+			if (me_m_d_yyyy_date != null) {
+				if (dateOrderInference != null) {
+					dateOrderInference.record(DateOrderInference.DateOrderEnum.MONTH_DAY);
+				}
+				return packPartialDate(me_m_d_yyyy_date);
 			}
-			return output;
-		}
-		if (le_d_m_yyyy_date != null) {
-			setPartialDate(output, le_d_m_yyyy_date);
-			return output;
-		}
-		if (me_m_d_yyyy_date != null) {
-			setPartialDate(output, me_m_d_yyyy_date);
-			return output;
 		}
 
 		// try Roman Numerals
-		if (processRomanNumeralDate(dateText, output, result)) {
-			return output;
+		if (isCandidate(candidateFormats, DateShape.ROMAN_NUMERAL)) {
+			LocalDate romanNumeralDate = parseRomanNumeralDate(dateText, result);
+			if (romanNumeralDate != null) {
+				return packPartialDate(romanNumeralDate);
+			}
 		}
 
 		// try with different Locale
-		localDate = tryParseWithSupportedLocale(NON_NUMERICAL_MONTH_COMPLETE_DATE_PATTERNS, dateText);
-		if (localDate != null) {
-			setPartialDate(output, localDate);
-			return output;
+		if (isCandidate(candidateFormats, TEXT_MONTH_FAMILIES)) {
+			long packedDate = parseWithSupportedLocale(candidateFormats, dateText);
+			if (packedDate != PackedDate.EMPTY) {
+				return packedDate;
+			}
 		}
 
-		if (result != null) {
-			result.addError(MessageFormat.format(resourceBundle.getString("date.error.unprocessable"), dateText));
+		if (isErrorRecorded(result)) {
+			addError(result, "date.error.unprocessable", dateText);
 		}
-		return output;
+		return PackedDate.EMPTY;
 	}
 
 	/**
@@ -346,6 +467,30 @@ public class DateProcessor extends AbstractDataProcessor {
 		}
 	}
 
+	/**
+	 * Pack the content of the Calendrical object.
+	 *
+	 * @param cal
+	 * @return packed date
+	 */
+	protected static long packPartialDate(TemporalAccessor cal) {
+		if (cal instanceof LocalDate) {
+			LocalDate lc = (LocalDate) cal;
+			return PackedDate.pack(lc.getYear(), lc.getMonthValue(), lc.getDayOfMonth());
+		}
+		else if (cal instanceof YearMonth) {
+			YearMonth ym = (YearMonth) cal;
+			return PackedDate.packYearMonth(ym.getYear(), ym.getMonthValue());
+		}
+		else if (cal instanceof Year) {
+			return PackedDate.packYear(((Year) cal).getValue());
+		}
+		else if (cal instanceof Month) {
+			return PackedDate.pack(null, ((Month) cal).getValue(), null);
+		}
+		throw new UnsupportedOperationException();
+	}
+
 	/**
 	 * This function will replace all dots (.), space ( ), slashes(/) and coma(,) characters by a dash(-).
 	 *
@@ -366,6 +511,22 @@ public class DateProcessor extends AbstractDataProcessor {
 	 * @return could be parsed as date with a Roman numeral as the month.
 	 */
 	public boolean processRomanNumeralDate(String dateText, Integer[] output, ProcessingResult result) {
+		LocalDate romanNumeralDate = parseRomanNumeralDate(dateText, result);
+		if (romanNumeralDate != null) {
+			setPartialDate(output, romanNumeralDate);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * See processRomanNumeralDate(...)
+	 *
+	 * @param dateText
+	 * @param result
+	 * @return the LocalDate or null
+	 */
+	private LocalDate parseRomanNumeralDate(String dateText, ProcessingResult result) {
 		Matcher romanNumeralMatcher = ROMAN_NUMERAL_PATTERN.matcher(dateText);
 		if (romanNumeralMatcher.find()) {
 			String romNum = romanNumeralMatcher.group(1);
@@ -375,28 +536,19 @@ public class DateProcessor extends AbstractDataProcessor {
 				// Standardize the date punctuation based on the new date text
 				newTextDate = standardizeDatePunctuation(newTextDate);
 				// We only support Roman numeral for the month
-				try {
-					LocalDate le_d_m_yyyy_date = LE_D_M_YYYY_PATTERN.parse(newTextDate, LocalDate.FROM);
-					setPartialDate(output, le_d_m_yyyy_date);
-					return true;
-				}
-				catch (DateTimeException e) {
-				}
-				try {
-					LocalDate le_d_m_yyyy_date = BE_ISO8601_PARTIAL_DATE_PATTERN.parse(newTextDate, LocalDate.FROM);
-					setPartialDate(output, le_d_m_yyyy_date);
-					return true;
-				}
-				catch (DateTimeException e) {
+				LocalDate romanNumeralDate = tryParse(LE_D_M_YYYY_PATTERN, newTextDate, LocalDate.FROM);
+				if (romanNumeralDate == null) {
+					romanNumeralDate = tryParse(BE_ISO8601_PARTIAL_DATE_PATTERN, newTextDate, LocalDate.FROM);
 				}
+				return romanNumeralDate;
 			}
 			catch (NumberFormatException ex) {
-				if (result != null) {
-					result.addError(MessageFormat.format(resourceBundle.getString("date.error.romanNumeralUnprocessable"), dateText));
+				if (isErrorRecorded(result)) {
+					addError(result, "date.error.romanNumeralUnprocessable", dateText);
 				}
 			}
 		}
-		return false;
+		return null;
 	}
 
 	@Override
@@ -409,42 +561,180 @@ public class DateProcessor extends AbstractDataProcessor {
 	 * Partial dates are not supported since LocalDate.rule() is used.
 	 *
 	 * @param dateTimeFormatterList
+	 * @param formatFamilyList
+	 *            DateShape format family of each element of dateTimeFormatterList
+	 * @param candidateFormats
+	 *            format families that can possibly match dateText (see DateShape)
 	 * @param dateText
 	 * @return the LocalDate or null
 	 */
-	private LocalDate tryParseCompleteDate(DateTimeFormatter[] dateTimeFormatterList, String dateText) {
+	private LocalDate tryParseCompleteDate(DateTimeFormatter[] dateTimeFormatterList, int[] formatFamilyList, int candidateFormats, String dateText) {
 		LocalDate localDate = null;
-		for (DateTimeFormatter currDateTimeFormatter : dateTimeFormatterList) {
-			try {
-				localDate = currDateTimeFormatter.parse(dateText, LocalDate.FROM);
-				return localDate;
-			}
-			catch (DateTimeException e) {
+		for (int i = 0; i < dateTimeFormatterList.length; i++) {
+			if (isCandidate(candidateFormats, formatFamilyList[i])) {
+				localDate = tryParse(dateTimeFormatterList[i], dateText, LocalDate.FROM);
+				if (localDate != null) {
+					return localDate;
+				}
 			}
 		}
 		return null;
 	}
 
 	/**
-	 * Try to parse a dateText with all supported Locale.
-	 * Partial dates are not supported since LocalDate.rule() is used.
+	 * Try to parse a dateText using a month name from the supported Locale.
+	 * The month name is resolved using the MonthNameTrie, the day and the year are parsed numerically with the same rules
+	 * as the text month patterns (e.g. LE_D_MMM_YYYY_PATTERN).
 	 *
-	 * @param dateTimeFormatterList
+	 * @param candidateFormats
+	 *            format families that can possibly match dateText (see DateShape)
 	 * @param dateText
-	 * @return the LocalDate or null
+	 *            date text with standardized punctuation
+	 * @return packed date or PackedDate.EMPTY
 	 */
-	private LocalDate tryParseWithSupportedLocale(DateTimeFormatter[] dateTimeFormatterList, String dateText) {
-		LocalDate localDate = null;
-		for (DateTimeFormatter currDateTimeFormatter : dateTimeFormatterList) {
-			for (Locale currLocale : supportedLocale) {
-				try {
-					localDate = currDateTimeFormatter.withLocale(currLocale).parse(dateText, LocalDate.FROM);
-					return localDate;
-				}
-				catch (DateTimeException e) {
-				}
+	private long parseWithSupportedLocale(int candidateFormats, String dateText) {
+		int firstSeparator = dateText.indexOf(DateShape.SEPARATOR);
+		int secondSeparator = dateText.indexOf(DateShape.SEPARATOR, firstSeparator + 1);
+		if (firstSeparator < 0 || secondSeparator < 0) {
+			return PackedDate.EMPTY;
+		}
+
+		int month, day, year;
+		if (isCandidate(candidateFormats, DateShape.ME_TEXT_MONTH)) {
+			// MMM-d-yyyy
+			month = monthNameTrie.lookup(dateText, 0, firstSeparator);
+			day = parseDayOfMonth(dateText, firstSeparator + 1, secondSeparator);
+			year = parseYearOfEra(dateText, secondSeparator + 1, dateText.length());
+		}
+		else {
+			month = monthNameTrie.lookup(dateText, firstSeparator + 1, secondSeparator);
+			if (isCandidate(candidateFormats, DateShape.LE_TEXT_MONTH)) {
+				// d-MMM-yyyy
+				day = parseDayOfMonth(dateText, 0, firstSeparator);
+				year = parseYearOfEra(dateText, secondSeparator + 1, dateText.length());
+			}
+			else {
+				// yyyy-MMM-d
+				year = parseYearOfEra(dateText, 0, firstSeparator);
+				day = parseDayOfMonth(dateText, secondSeparator + 1, dateText.length());
 			}
 		}
+
+		if (month == MonthNameTrie.NOT_FOUND || day < 1 || year < 1) {
+			return PackedDate.EMPTY;
+		}
+		// same as ResolverStyle.SMART, the day is adjusted to the last valid day of the month
+		return PackedDate.pack(year, month, Math.min(day, NumericDateLexer.lengthOfMonth(year, month)));
+	}
+
+	/**
+	 * @return the day in dateText[start, end) or -1 if invalid
+	 */
+	private static int parseDayOfMonth(String dateText, int start, int end) {
+		int day = parseUnsignedInt(dateText, start, end);
+		return day > MAX_DAY_OF_MONTH ? -1 : day;
+	}
+
+	/**
+	 * Year is parsed with exactly 4 digits, more digits are only accepted with a + sign.
+	 *
+	 * @return the year in dateText[start, end) or -1 if invalid
+	 */
+	private static int parseYearOfEra(String dateText, int start, int end) {
+		int length = end - start;
+		if (length == 4) {
+			return parseUnsignedInt(dateText, start, end);
+		}
+		if (length > 5 && dateText.charAt(start) == '+') {
+			return parseUnsignedInt(dateText, start + 1, end);
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the number in dateText[start, end) or -1 if not a number or too large
+	 */
+	private static int parseUnsignedInt(String dateText, int start, int end) {
+		// avoid int overflow, values that long are invalid days and years anyway
+		if (end <= start || end - start > 9) {
+			return -1;
+		}
+		int value = 0;
+		char c;
+		for (int i = start; i < end; i++) {
+			c = dateText.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	private static DateOrderInference getDateOrderInference(Map<String, Object> params) {
+		if (params != null) {
+			return (DateOrderInference) params.get(DATE_ORDER_INFERENCE_TAG);
+		}
 		return null;
 	}
+
+	private static boolean isCandidate(int candidateFormats, int formatFamily) {
+		return (candidateFormats & formatFamily) != 0;
+	}
+
+	/**
+	 * Check if the complete dateText can be parsed by the formatter, without resolving the parsed fields.
+	 * Unlike DateTimeFormatter.parse(...), this will not throw a DateTimeException when the text doesn't match,
+	 * which is the most common case since we try multiple formatters on each date.
+	 *
+	 * @param dateTimeFormatter
+	 * @param dateText
+	 * @return the complete dateText can be parsed by the formatter
+	 */
+	private static boolean canParse(DateTimeFormatter dateTimeFormatter, String dateText) {
+		ParsePosition position = new ParsePosition(0);
+		return dateTimeFormatter.parseUnresolved(dateText, position) != null && position.getIndex() == dateText.length();
+	}
+
+	/**
+	 * Parse dateText without throwing DateTimeException.
+	 * The (more expensive) resolving phase is only done if the text matches the formatter, an exception can then
+	 * only be thrown if the date itself is invalid (e.g. 2014-02-30).
+	 *
+	 * @param dateTimeFormatter
+	 * @param dateText
+	 * @param query
+	 * @return the parsed object or null if dateText can't be parsed by dateTimeFormatter
+	 */
+	private static <T> T tryParse(DateTimeFormatter dateTimeFormatter, String dateText, TemporalQuery<T> query) {
+		if (!canParse(dateTimeFormatter, dateText)) {
+			return null;
+		}
+		try {
+			return dateTimeFormatter.parse(dateText, query);
+		}
+		catch (DateTimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Same as tryParse(...) but using DateTimeFormatter.parseBest(...)
+	 *
+	 * @param dateTimeFormatter
+	 * @param dateText
+	 * @param queries
+	 * @return the best parsed object or null if dateText can't be parsed by dateTimeFormatter
+	 */
+	private static TemporalAccessor tryParseBest(DateTimeFormatter dateTimeFormatter, String dateText, TemporalQuery<?>... queries) {
+		if (!canParse(dateTimeFormatter, dateText)) {
+			return null;
+		}
+		try {
+			return dateTimeFormatter.parseBest(dateText, queries);
+		}
+		catch (DateTimeException e) {
+			return null;
+		}
+	}
 }
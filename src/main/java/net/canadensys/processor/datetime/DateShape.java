@@ -0,0 +1,168 @@
+package net.canadensys.processor.datetime;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Computes the "shape" of a standardized date text and the date formats that can possibly match it.
+ * In a shape, each digit is replaced by D, each run of letters is replaced by A and all other characters are kept.
+ * e.g. 3-Jun-1987 has the shape D-A-DDDD, 1987-06-03 has the shape DDDD-DD-DD.
+ * 
+ * Datasets usually use a small number of shapes so the candidate formats of each shape are kept in a concurrent table.
+ * The candidate formats are determined only by looking at the structure of the shape so a format that is not a candidate
+ * can not parse the date. Candidates still need to be tried, in the usual order.
+ * 
+ * @author canadensys
+ * 
+ */
+final class DateShape {
+
+	// Families of formats
+	static final int ISO_PARTIAL = 1;
+	static final int ISO_BASIC = 1 << 1;
+	// e.g. d-MMM-yyyy
+	static final int LE_TEXT_MONTH = 1 << 2;
+	// e.g. yyyy-MMM-d
+	static final int BE_TEXT_MONTH = 1 << 3;
+	// e.g. MMM-d-yyyy
+	static final int ME_TEXT_MONTH = 1 << 4;
+	static final int PARTIAL_MONTH_YEAR = 1 << 5;
+	static final int PARTIAL_MONTH = 1 << 6;
+	static final int FUZZY = 1 << 7;
+	static final int ROMAN_NUMERAL = 1 << 8;
+
+	static final char DIGIT = 'D';
+	static final char LETTERS = 'A';
+	static final char SEPARATOR = '-';
+
+	// only keep short shapes, longer texts are not dates and could fill the table
+	private static final int MAX_CACHED_SHAPE_LENGTH = 32;
+	private static final int MAX_CACHED_SHAPES = 1024;
+
+	private static final ConcurrentMap<String, Integer> CANDIDATE_FORMATS = new ConcurrentHashMap<String, Integer>();
+
+	private DateShape() {
+	}
+
+	/**
+	 * Get the families of formats that can possibly parse the standardized date text.
+	 * 
+	 * @param dateText
+	 *            date text with standardized punctuation
+	 * @return bitwise combination of format families
+	 */
+	static int getCandidateFormats(String dateText) {
+		String shape = shapeOf(dateText);
+		if (shape.length() > MAX_CACHED_SHAPE_LENGTH) {
+			return candidateFormats(shape);
+		}
+
+		Integer formats = CANDIDATE_FORMATS.get(shape);
+		if (formats == null) {
+			formats = candidateFormats(shape);
+			if (CANDIDATE_FORMATS.size() < MAX_CACHED_SHAPES) {
+				CANDIDATE_FORMATS.putIfAbsent(shape, formats);
+			}
+		}
+		return formats;
+	}
+
+	/**
+	 * Compute the shape of a date text.
+	 * 
+	 * @param dateText
+	 * @return shape of the date text
+	 */
+	static String shapeOf(String dateText) {
+		StringBuilder shape = new StringBuilder(dateText.length());
+		char c;
+		for (int i = 0; i < dateText.length(); i++) {
+			c = dateText.charAt(i);
+			if (c >= '0' && c <= '9') {
+				shape.append(DIGIT);
+			}
+			else if (Character.isLetter(c)) {
+				// a run of letters is represented by a single A
+				if (shape.length() == 0 || shape.charAt(shape.length() - 1) != LETTERS) {
+					shape.append(LETTERS);
+				}
+			}
+			else {
+				shape.append(c);
+			}
+		}
+		return shape.toString();
+	}
+
+	/**
+	 * Compute the families of formats that can possibly parse a date of the provided shape.
+	 * This must stay conservative: when in doubt, a family should be included.
+	 * 
+	 * @param shape
+	 * @return bitwise combination of format families
+	 */
+	static int candidateFormats(String shape) {
+		boolean hasLetters = shape.indexOf(LETTERS) >= 0;
+		boolean hasDigits = shape.indexOf(DIGIT) >= 0;
+
+		// numerical only, signs could be parsed as part of the numbers so let the formatters decide.
+		if (!hasLetters) {
+			int formats = ISO_PARTIAL | FUZZY;
+			if (isSignedNumber(shape)) {
+				formats |= ISO_BASIC;
+			}
+			return formats;
+		}
+
+		int formats = hasDigits ? ROMAN_NUMERAL : 0;
+		String[] tokens = StringUtils.splitPreserveAllTokens(shape, SEPARATOR);
+		if (tokens.length == 1 && isMonth(tokens[0])) {
+			formats |= PARTIAL_MONTH;
+		}
+		else if (tokens.length == 2 && isMonth(tokens[0]) && isYear(tokens[1])) {
+			formats |= PARTIAL_MONTH_YEAR;
+		}
+		else if (tokens.length == 3) {
+			if (isMonth(tokens[0]) && isDay(tokens[1]) && isYear(tokens[2])) {
+				formats |= ME_TEXT_MONTH;
+			}
+			if (isYear(tokens[0]) && isMonth(tokens[1]) && isDay(tokens[2])) {
+				formats |= BE_TEXT_MONTH;
+			}
+			if (isDay(tokens[0]) && isMonth(tokens[1]) && isYear(tokens[2])) {
+				formats |= LE_TEXT_MONTH;
+			}
+		}
+		return formats;
+	}
+
+	private static boolean isMonth(String token) {
+		return token.length() == 1 && token.charAt(0) == LETTERS;
+	}
+
+	/**
+	 * Day is parsed as a number of any length
+	 */
+	private static boolean isDay(String token) {
+		return token.length() > 0 && StringUtils.containsOnly(token, DIGIT);
+	}
+
+	/**
+	 * Year (yyyy) is parsed with exactly 4 digits, more digits are only accepted with a + sign.
+	 */
+	private static boolean isYear(String token) {
+		if (token.length() == 4) {
+			return StringUtils.containsOnly(token, DIGIT);
+		}
+		return token.length() > 5 && token.charAt(0) == '+' && StringUtils.containsOnly(token.substring(1), DIGIT);
+	}
+
+	private static boolean isSignedNumber(String token) {
+		if (token.length() > 0 && (token.charAt(0) == '+' || token.charAt(0) == '-')) {
+			return isDay(token.substring(1));
+		}
+		return isDay(token);
+	}
+}
@@ -0,0 +1,146 @@
+package net.canadensys.processor.datetime;
+
+import java.text.DateFormatSymbols;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Case-insensitive and accent-folded lookup of month names (full and abbreviated) in a set of Locale.
+ * The names are taken from DateFormatSymbols, like the DateTimeFormatter text parsers, and stored in a character trie
+ * so a month token is resolved in a single pass, whatever the number of Locale.
+ *
+ * Folding: lowercase, diacritics removed (é -> e, ä -> a) and dots ignored (janv. -> janv).
+ * When the same name is used for different months in 2 Locale, the first Locale (in the provided order) wins.
+ *
+ * Instances are immutable once built and can be shared between threads.
+ *
+ * @author canadensys
+ *
+ */
+final class MonthNameTrie {
+
+	static final int NOT_FOUND = 0;
+
+	// folding table for the Latin characters, other characters are only lowercased
+	private static final int FOLD_TABLE_SIZE = 0x250;
+	private static final char[] FOLD_TABLE = new char[FOLD_TABLE_SIZE];
+	static {
+		for (char c = 0; c < FOLD_TABLE_SIZE; c++) {
+			String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+			FOLD_TABLE[c] = Character.toLowerCase(decomposed.charAt(0));
+		}
+	}
+
+	private final Node root = new Node();
+
+	/**
+	 * Build a trie containing the full and abbreviated month names of all the provided Locale.
+	 *
+	 * @param locales
+	 */
+	MonthNameTrie(List<Locale> locales) {
+		for (Locale locale : locales) {
+			DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+			addMonthNames(symbols.getMonths());
+			addMonthNames(symbols.getShortMonths());
+		}
+	}
+
+	/**
+	 * @param monthNames
+	 *            array of names starting with January, like DateFormatSymbols.getMonths()
+	 */
+	private void addMonthNames(String[] monthNames) {
+		// DateFormatSymbols could include a 13th month
+		for (int i = 0; i < monthNames.length && i < 12; i++) {
+			add(monthNames[i], i + 1);
+		}
+	}
+
+	/**
+	 * Add a month name, ignored if the (folded) name is already known.
+	 *
+	 * @param monthName
+	 * @param month
+	 *            1 to 12
+	 */
+	void add(String monthName, int month) {
+		Node node = root;
+		char c;
+		for (int i = 0; i < monthName.length(); i++) {
+			c = monthName.charAt(i);
+			if (c != '.') {
+				node = node.getOrAddChild(fold(c));
+			}
+		}
+		// empty names
+		if (node != root && node.month == NOT_FOUND) {
+			node.month = month;
+		}
+	}
+
+	/**
+	 * Find the month of the name contained in text[start, end).
+	 *
+	 * @param text
+	 * @param start
+	 *            index of the first character (inclusive)
+	 * @param end
+	 *            index of the last character (exclusive)
+	 * @return the month(1 to 12) or NOT_FOUND
+	 */
+	int lookup(CharSequence text, int start, int end) {
+		Node node = root;
+		char c;
+		for (int i = start; i < end && node != null; i++) {
+			c = text.charAt(i);
+			if (c != '.') {
+				node = node.getChild(fold(c));
+			}
+		}
+		return node == null ? NOT_FOUND : node.month;
+	}
+
+	static char fold(char c) {
+		if (c < FOLD_TABLE_SIZE) {
+			return FOLD_TABLE[c];
+		}
+		return Character.toLowerCase(c);
+	}
+
+	/**
+	 * Trie node, month names use a small alphabet so children are kept in arrays and scanned.
+	 */
+	private static final class Node {
+		private char[] keys = new char[0];
+		private Node[] children = new Node[0];
+		private int month = NOT_FOUND;
+
+		private Node getChild(char key) {
+			for (int i = 0; i < keys.length; i++) {
+				if (keys[i] == key) {
+					return children[i];
+				}
+			}
+			return null;
+		}
+
+		private Node getOrAddChild(char key) {
+			Node child = getChild(key);
+			if (child == null) {
+				int length = keys.length;
+				char[] newKeys = new char[length + 1];
+				Node[] newChildren = new Node[length + 1];
+				System.arraycopy(keys, 0, newKeys, 0, length);
+				System.arraycopy(children, 0, newChildren, 0, length);
+				child = new Node();
+				newKeys[length] = key;
+				newChildren[length] = child;
+				keys = newKeys;
+				children = newChildren;
+			}
+			return child;
+		}
+	}
+}
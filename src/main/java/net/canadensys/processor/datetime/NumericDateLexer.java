@@ -0,0 +1,226 @@
+package net.canadensys.processor.datetime;
+
+/**
+ * Hand-written parser for the most common numerical dates: yyyy, yyyy-MM, yyyy-MM-dd, yyyyMMdd, d-M-yyyy and M-d-yyyy.
+ * The text is read in a single pass, without standardizing the punctuation first and without using DateTimeFormatter.
+ * 
+ * The accepted values are a subset of what the DateProcessor formatters accept and the parsed values must be
+ * identical. Anything unusual (more digits than expected, leading or trailing punctuation, mixed punctuation, invalid date)
+ * is reported as NO_MATCH and must be handled by the formatters.
+ * 
+ * @author canadensys
+ * 
+ */
+final class NumericDateLexer {
+
+	static final long NO_MATCH = PackedDate.EMPTY;
+	// could be d-M-yyyy or M-d-yyyy, not a valid packed date (month 15)
+	static final long VAGUE = -1L;
+
+	// yyyyMMdd
+	private static final int MAX_DIGITS = 8;
+
+	private NumericDateLexer() {
+	}
+
+	/**
+	 * Parse a numerical date from text[start, end).
+	 * 
+	 * @param text
+	 * @param start
+	 *            index of the first character (inclusive)
+	 * @param end
+	 *            index of the last character (exclusive)
+	 * @return the packed date (see PackedDate), VAGUE or NO_MATCH
+	 */
+	static long parse(CharSequence text, int start, int end) {
+		return parse(text, start, end, null);
+	}
+
+	/**
+	 * Parse a numerical date from text[start, end).
+	 * 
+	 * @param text
+	 * @param start
+	 *            index of the first character (inclusive)
+	 * @param end
+	 *            index of the last character (exclusive)
+	 * @param dateOrderInference
+	 *            optional, used to resolve ambiguous d-M-yyyy/M-d-yyyy dates, will also record unambiguous dates
+	 * @return the packed date (see PackedDate), VAGUE or NO_MATCH
+	 */
+	static long parse(CharSequence text, int start, int end, DateOrderInference dateOrderInference) {
+		int runCount = 0;
+		int value0 = 0, value1 = 0, value2 = 0;
+		int length0 = 0, length1 = 0, length2 = 0;
+
+		int i = start;
+		char c;
+		while (i < end) {
+			// digits run
+			int runStart = i;
+			int value = 0;
+			while (i < end && (c = text.charAt(i)) >= '0' && c <= '9') {
+				if (i - runStart == MAX_DIGITS) {
+					return NO_MATCH;
+				}
+				value = value * 10 + (c - '0');
+				i++;
+			}
+			int length = i - runStart;
+			if (length == 0) {
+				return NO_MATCH;
+			}
+			switch (runCount) {
+				case 0:
+					value0 = value;
+					length0 = length;
+					break;
+				case 1:
+					value1 = value;
+					length1 = length;
+					break;
+				case 2:
+					value2 = value;
+					length2 = length;
+					break;
+				default:
+					return NO_MATCH;
+			}
+			runCount++;
+
+			if (i == end) {
+				break;
+			}
+
+			// separator, a single dash or a run of punctuation (see DateProcessor.STANDARDIZE_PUNCT_PATTERN)
+			c = text.charAt(i);
+			if (c == '-') {
+				i++;
+			}
+			else if (isPunctuation(c)) {
+				do {
+					i++;
+				}
+				while (i < end && isPunctuation(text.charAt(i)));
+			}
+			else {
+				return NO_MATCH;
+			}
+			// trailing separator
+			if (i == end) {
+				return NO_MATCH;
+			}
+		}
+
+		switch (runCount) {
+			case 1:
+				// yyyy
+				if (length0 == 4) {
+					return PackedDate.packYear(value0);
+				}
+				// yyyyMMdd
+				if (length0 == MAX_DIGITS) {
+					return packValidDate(value0 / 10000, (value0 / 100) % 100, value0 % 100);
+				}
+				return NO_MATCH;
+			case 2:
+				// yyyy-M
+				if (length0 == 4 && isShortNumber(length1) && isValidMonth(value1)) {
+					return PackedDate.packYearMonth(value0, value1);
+				}
+				return NO_MATCH;
+			case 3:
+				// yyyy-M-d
+				if (length0 == 4 && isShortNumber(length1) && isShortNumber(length2)) {
+					return packValidDate(value0, value1, value2);
+				}
+				// d-M-yyyy or M-d-yyyy
+				if (isShortNumber(length0) && isShortNumber(length1) && length2 == 4) {
+					return packFuzzyDate(value0, value1, value2, dateOrderInference);
+				}
+				return NO_MATCH;
+			default:
+				return NO_MATCH;
+		}
+	}
+
+	/**
+	 * Same rules as DateProcessor LE_D_M_YYYY_PATTERN and ME_M_D_YYYY_PATTERN, if the 2 are valid they
+	 * must give the same date unless the order can be inferred by the DateOrderInference.
+	 */
+	private static long packFuzzyDate(int first, int second, int year, DateOrderInference dateOrderInference) {
+		boolean littleEndian = isValidDate(year, second, first);
+		boolean middleEndian = isValidDate(year, first, second);
+		if (littleEndian && middleEndian && first != second) {
+			if (dateOrderInference != null) {
+				long packedDate = dateOrderInference.resolve(PackedDate.pack(year, second, first), PackedDate.pack(year, first, second));
+				if (packedDate != PackedDate.EMPTY) {
+					return packedDate;
+				}
+			}
+			return VAGUE;
+		}
+		if (littleEndian) {
+			// only one order is valid so the date is unambiguous, unless first == second
+			if (!middleEndian && dateOrderInference != null) {
+				dateOrderInference.record(DateOrderInference.DateOrderEnum.DAY_MONTH);
+			}
+			return PackedDate.pack(year, second, first);
+		}
+		if (middleEndian) {
+			if (dateOrderInference != null) {
+				dateOrderInference.record(DateOrderInference.DateOrderEnum.MONTH_DAY);
+			}
+			return PackedDate.pack(year, first, second);
+		}
+		return NO_MATCH;
+	}
+
+	private static long packValidDate(int year, int month, int day) {
+		if (!isValidDate(year, month, day)) {
+			return NO_MATCH;
+		}
+		return PackedDate.pack(year, month, day);
+	}
+
+	static boolean isValidMonth(int month) {
+		return month >= 1 && month <= 12;
+	}
+
+	/**
+	 * Validates a date in the ISO (proleptic Gregorian) calendar.
+	 */
+	static boolean isValidDate(int year, int month, int day) {
+		return isValidMonth(month) && day >= 1 && day <= lengthOfMonth(year, month);
+	}
+
+	static int lengthOfMonth(int year, int month) {
+		switch (month) {
+			case 2:
+				return isLeapYear(year) ? 29 : 28;
+			case 4:
+			case 6:
+			case 9:
+			case 11:
+				return 30;
+			default:
+				return 31;
+		}
+	}
+
+	static boolean isLeapYear(int year) {
+		return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+	}
+
+	/**
+	 * Month and day are accepted with 1 or 2 digits
+	 */
+	private static boolean isShortNumber(int length) {
+		return length == 1 || length == 2;
+	}
+
+	private static boolean isPunctuation(char c) {
+		return c == '.' || c == '|' || c == '/' || c == ' ' || c == ',';
+	}
+}
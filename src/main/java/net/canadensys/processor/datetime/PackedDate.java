@@ -0,0 +1,235 @@
+package net.canadensys.processor.datetime;
+
+/**
+ * Helpers to build and decode a (partial) date packed in a primitive long.
+ * A packed date avoids allocating an Integer[] and boxing its 3 values for each processed date, it can be stored in
+ * a primitive column and sorted directly.
+ *
+ * Layout (from the most significant bits):
+ * - year (signed, 52 bits)
+ * - month (4 bits, 0 if not present)
+ * - day (5 bits, 0 if not present)
+ * - flags (1 bit, see ORDER_INFERRED)
+ * - presence mask (3 bits, see YEAR_PRESENT, MONTH_PRESENT, DAY_PRESENT)
+ *
+ * Comparing 2 packed dates as long values gives the chronological order. A partial date is sorted before the
+ * complete dates sharing the same year (and month). Dates without a year are sorted as if the year was 0.
+ *
+ * @author canadensys
+ *
+ */
+public final class PackedDate {
+
+	/**
+	 * Packed value of an empty (unprocessable) date
+	 */
+	public static final long EMPTY = 0L;
+
+	public static final int YEAR_PRESENT = 1;
+	public static final int MONTH_PRESENT = 1 << 1;
+	public static final int DAY_PRESENT = 1 << 2;
+
+	/**
+	 * Flag set when the day/month order of an ambiguous date was inferred from the dataset (see DateOrderInference)
+	 */
+	public static final int ORDER_INFERRED = 1 << 3;
+
+	private static final int MASK_BITS = 3;
+	private static final int FLAG_BITS = 1;
+	private static final int DAY_BITS = 5;
+	private static final int MONTH_BITS = 4;
+
+	private static final int DAY_SHIFT = MASK_BITS + FLAG_BITS;
+	private static final int MONTH_SHIFT = DAY_SHIFT + DAY_BITS;
+	private static final int YEAR_SHIFT = MONTH_SHIFT + MONTH_BITS;
+
+	private static final long PRESENCE_MASK = (1L << MASK_BITS) - 1;
+	private static final long DAY_MASK = (1L << DAY_BITS) - 1;
+	private static final long MONTH_MASK = (1L << MONTH_BITS) - 1;
+
+	private PackedDate() {
+	}
+
+	/**
+	 * Pack a complete date.
+	 * No validation is done on the values.
+	 *
+	 * @param year
+	 * @param month
+	 *            1 to 12
+	 * @param day
+	 *            1 to 31
+	 * @return packed date
+	 */
+	public static long pack(int year, int month, int day) {
+		return ((long) year << YEAR_SHIFT) | ((long) month << MONTH_SHIFT) | ((long) day << DAY_SHIFT) | YEAR_PRESENT | MONTH_PRESENT
+				| DAY_PRESENT;
+	}
+
+	/**
+	 * Pack a partial date containing only the year.
+	 *
+	 * @param year
+	 * @return packed date
+	 */
+	public static long packYear(int year) {
+		return ((long) year << YEAR_SHIFT) | YEAR_PRESENT;
+	}
+
+	/**
+	 * Pack a partial date containing only the year and the month.
+	 * No validation is done on the values.
+	 *
+	 * @param year
+	 * @param month
+	 *            1 to 12
+	 * @return packed date
+	 */
+	public static long packYearMonth(int year, int month) {
+		return ((long) year << YEAR_SHIFT) | ((long) month << MONTH_SHIFT) | YEAR_PRESENT | MONTH_PRESENT;
+	}
+
+	/**
+	 * Pack a partial date.
+	 * No validation is done on the values.
+	 *
+	 * @param year
+	 *            year or null
+	 * @param month
+	 *            month(1 to 12) or null
+	 * @param day
+	 *            day(1 to 31) or null
+	 * @return packed date, EMPTY if all parts are null
+	 */
+	public static long pack(Integer year, Integer month, Integer day) {
+		long packedDate = EMPTY;
+		if (year != null) {
+			packedDate |= ((long) year << YEAR_SHIFT) | YEAR_PRESENT;
+		}
+		if (month != null) {
+			packedDate |= ((long) month << MONTH_SHIFT) | MONTH_PRESENT;
+		}
+		if (day != null) {
+			packedDate |= ((long) day << DAY_SHIFT) | DAY_PRESENT;
+		}
+		return packedDate;
+	}
+
+	/**
+	 * Pack an array (year, month, day) as returned by DateProcessor.process(...)
+	 *
+	 * @param partialDate
+	 *            array of size 3
+	 * @return packed date
+	 */
+	public static long pack(Integer[] partialDate) {
+		return pack(partialDate[DateProcessor.YEAR_IDX], partialDate[DateProcessor.MONTH_IDX], partialDate[DateProcessor.DAY_IDX]);
+	}
+
+	/**
+	 * Fill the partialDate array with the content of the packed date.
+	 *
+	 * @param packedDate
+	 * @param partialDate
+	 *            initialized array of size 3
+	 */
+	public static void unpack(long packedDate, Integer[] partialDate) {
+		partialDate[DateProcessor.YEAR_IDX] = hasYear(packedDate) ? Integer.valueOf(getYear(packedDate)) : null;
+		partialDate[DateProcessor.MONTH_IDX] = hasMonth(packedDate) ? Integer.valueOf(getMonth(packedDate)) : null;
+		partialDate[DateProcessor.DAY_IDX] = hasDay(packedDate) ? Integer.valueOf(getDay(packedDate)) : null;
+	}
+
+	/**
+	 * @param packedDate
+	 * @return new array(size==3) containing the parts of the packed date (year,month,day) or null.
+	 */
+	public static Integer[] toArray(long packedDate) {
+		Integer[] partialDate = new Integer[3];
+		unpack(packedDate, partialDate);
+		return partialDate;
+	}
+
+	/**
+	 * @param packedDate
+	 * @return the year or 0 if not present
+	 */
+	public static int getYear(long packedDate) {
+		return (int) (packedDate >> YEAR_SHIFT);
+	}
+
+	/**
+	 * @param packedDate
+	 * @return the month(1 to 12) or 0 if not present
+	 */
+	public static int getMonth(long packedDate) {
+		return (int) ((packedDate >>> MONTH_SHIFT) & MONTH_MASK);
+	}
+
+	/**
+	 * @param packedDate
+	 * @return the day(1 to 31) or 0 if not present
+	 */
+	public static int getDay(long packedDate) {
+		return (int) ((packedDate >>> DAY_SHIFT) & DAY_MASK);
+	}
+
+	/**
+	 * @param packedDate
+	 * @return combination of YEAR_PRESENT, MONTH_PRESENT and DAY_PRESENT
+	 */
+	public static int getPresenceMask(long packedDate) {
+		return (int) (packedDate & PRESENCE_MASK);
+	}
+
+	public static boolean hasYear(long packedDate) {
+		return (packedDate & YEAR_PRESENT) != 0;
+	}
+
+	public static boolean hasMonth(long packedDate) {
+		return (packedDate & MONTH_PRESENT) != 0;
+	}
+
+	public static boolean hasDay(long packedDate) {
+		return (packedDate & DAY_PRESENT) != 0;
+	}
+
+	/**
+	 * @param packedDate
+	 * @return the day/month order of the date was inferred from the dataset
+	 */
+	public static boolean isOrderInferred(long packedDate) {
+		return (packedDate & ORDER_INFERRED) != 0;
+	}
+
+	/**
+	 * @param packedDate
+	 * @return no part of the date is present
+	 */
+	public static boolean isEmpty(long packedDate) {
+		return getPresenceMask(packedDate) == 0;
+	}
+
+	/**
+	 * @param packedDate
+	 * @return year, month and day are present
+	 */
+	public static boolean isComplete(long packedDate) {
+		return getPresenceMask(packedDate) == PRESENCE_MASK;
+	}
+
+	/**
+	 * Human readable representation of a packed date, mostly for debugging.
+	 *
+	 * @param packedDate
+	 * @return the date as (year)-(month)-(day), missing parts are replaced by ?
+	 */
+	public static String toString(long packedDate) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(hasYear(packedDate) ? Integer.toString(getYear(packedDate)) : "?");
+		sb.append('-');
+		sb.append(hasMonth(packedDate) ? Integer.toString(getMonth(packedDate)) : "?");
+		sb.append('-');
+		sb.append(hasDay(packedDate) ? Integer.toString(getDay(packedDate)) : "?");
+		return sb.toString();
+	}
+}
@@ -1,16 +1,15 @@
 package net.canadensys.processor.geography;
 
 import java.lang.reflect.InvocationTargetException;
-import java.text.MessageFormat;
 import java.util.Locale;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import net.canadensys.processor.AbstractDataProcessor;
+import net.canadensys.processor.BeanPropertyAccessor;
 import net.canadensys.processor.ProcessingResult;
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -94,15 +93,15 @@ public class CoordinatePairProcessor extends AbstractDataProcessor {
 	@Override
 	public void processBean(Object in, Object out, Map<String, Object> params, ProcessingResult result) {
 		try {
-			String coordinate = (String) PropertyUtils.getSimpleProperty(in, coordinatePairName);
+			String coordinate = (String) BeanPropertyAccessor.getSimpleProperty(in, coordinatePairName);
 			String[] coordinatePair = process(coordinate, result);
 			if (coordinatePair != null) {
-				PropertyUtils.setSimpleProperty(out, latitudeName, coordinatePair[LATITUDE_IDX]);
-				PropertyUtils.setSimpleProperty(out, longitudeName, coordinatePair[LONGITUDE_IDX]);
+				BeanPropertyAccessor.setSimpleProperty(out, latitudeName, coordinatePair[LATITUDE_IDX]);
+				BeanPropertyAccessor.setSimpleProperty(out, longitudeName, coordinatePair[LONGITUDE_IDX]);
 			}
 			else {
-				PropertyUtils.setSimpleProperty(out, latitudeName, null);
-				PropertyUtils.setSimpleProperty(out, longitudeName, null);
+				BeanPropertyAccessor.setSimpleProperty(out, latitudeName, null);
+				BeanPropertyAccessor.setSimpleProperty(out, longitudeName, null);
 			}
 		}
 		catch (IllegalAccessException e) {
@@ -126,6 +125,16 @@ public class CoordinatePairProcessor extends AbstractDataProcessor {
 	 * @return 2 dimensional String array containing latitude and longitude or null
 	 */
 	public String[] process(String coordinatePair, ProcessingResult result) {
+		if (!metrics.isEnabled()) {
+			return doProcess(coordinatePair, result);
+		}
+		long start = System.nanoTime();
+		String[] coordinates = doProcess(coordinatePair, result);
+		recordCall(start, StringUtils.isBlank(coordinatePair), coordinates != null);
+		return coordinates;
+	}
+
+	private String[] doProcess(String coordinatePair, ProcessingResult result) {
 
 		if (StringUtils.isBlank(coordinatePair)) {
 			return null;
@@ -162,24 +171,24 @@ public class CoordinatePairProcessor extends AbstractDataProcessor {
 						coordinates[LONGITUDE_IDX] = m.group(1).trim();
 					}
 					else {
-						if (result != null) {
-							result.addError(MessageFormat.format(resourceBundle.getString("coordinatePair.error.noCardinalDirection"), coordinatePair));
+						if (isErrorRecorded(result)) {
+							addError(result, "coordinatePair.error.noCardinalDirection", coordinatePair);
 						}
 					}
 				}
 
 				// make sure the latitude is well defined
 				if (coordinates[LATITUDE_IDX] != null && !CHECK_LATITUDE.matcher(coordinates[LATITUDE_IDX]).find()) {
-					if (result != null) {
-						result.addError(MessageFormat.format(resourceBundle.getString("coordinatePair.error.noLatitude"), coordinatePair));
+					if (isErrorRecorded(result)) {
+						addError(result, "coordinatePair.error.noLatitude", coordinatePair);
 					}
 					coordinates = null;
 				}
 			}
 		}
 		if (coordinates == null || coordinates[LATITUDE_IDX] == null || coordinates[LONGITUDE_IDX] == null) {
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("coordinatePair.error.noValidCoordinate"), coordinatePair));
+			if (isErrorRecorded(result)) {
+				addError(result, "coordinatePair.error.noValidCoordinate", coordinatePair);
 			}
 			return null;
 		}
@@ -190,7 +199,7 @@ public class CoordinatePairProcessor extends AbstractDataProcessor {
 	public boolean validateBean(Object in, boolean isMandatory, Map<String, Object> params, ProcessingResult result) {
 		String textCoordinate = null;
 		try {
-			textCoordinate = (String) PropertyUtils.getSimpleProperty(in, coordinatePairName);
+			textCoordinate = (String) BeanPropertyAccessor.getSimpleProperty(in, coordinatePairName);
 			String[] coordinatePair = process(textCoordinate, result);
 			// should we test empty string?
 			if (coordinatePair != null) {
@@ -0,0 +1,491 @@
+package net.canadensys.processor.geography;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Locale;
+import java.util.Map;
+
+import net.canadensys.processor.AbstractDataProcessor;
+import net.canadensys.processor.BeanPropertyAccessor;
+import net.canadensys.processor.ProcessingResult;
+import net.canadensys.processor.ProcessorMetrics;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Allows to process a coordinate pair string (e.g. verbatimCoordinates) into a decimal latitude and longitude.
+ * This is the fused version of CoordinatePairProcessor followed by DecimalLatLongProcessor (decimal pair) or
+ * DegreeMinuteToDecimalProcessor (degree/minute/second pair): same supported formats, same results and same errors but the
+ * pair is read without regular expressions and without intermediate String or arrays.
+ * Supported format :
+ * -71.87°;35.98 ° (decimal, in lat,long order)
+ * 40°26'47"N/74° 0' 21.5022"W (degree/minute/second, in both orders, see DegreeMinuteToDecimalProcessor)
+ * 45.5° N, 129.6° W
+ *
+ * Caller should reuse the same instance to save resources.
+ *
+ * @author canadensys
+ *
+ */
+public class CoordinatePairToDecimalProcessor extends AbstractDataProcessor {
+
+	final Logger logger = LoggerFactory.getLogger(CoordinatePairToDecimalProcessor.class);
+
+	protected static final String DEFAULT_COORDINATE_PAIR_NAME = "coordinates";
+	protected static final String DEFAULT_LATITUDE_NAME = "latitude";
+	protected static final String DEFAULT_LONGITUDE_NAME = "longitude";
+
+	// Those field names will only be used with JavaBean
+	protected String coordinatePairName = null;
+	protected String latitudeName = null;
+	protected String longitudeName = null;
+
+	// used to convert the degree/minute/second pairs, errors are recorded as DegreeMinuteToDecimalProcessor errors
+	protected DegreeMinuteToDecimalProcessor dmsProcessor = null;
+
+	// Only USE_NULL makes sense here
+	protected ErrorHandlingModeEnum errorHandlingMode = ErrorHandlingModeEnum.USE_NULL;
+
+	/**
+	 * Default constructor, default field names will be used.
+	 */
+	public CoordinatePairToDecimalProcessor() {
+		this(DEFAULT_COORDINATE_PAIR_NAME, DEFAULT_LATITUDE_NAME, DEFAULT_LONGITUDE_NAME);
+	}
+
+	/**
+	 * @param coordinatePairName
+	 *            name of the String field in the input JavaBean
+	 * @param latitudeName
+	 *            name of the Double latitude field in the output JavaBean
+	 * @param longitudeName
+	 *            name of the Double longitude field in the output JavaBean
+	 */
+	public CoordinatePairToDecimalProcessor(String coordinatePairName, String latitudeName, String longitudeName) {
+		this.coordinatePairName = coordinatePairName;
+		this.latitudeName = latitudeName;
+		this.longitudeName = longitudeName;
+		dmsProcessor = new DegreeMinuteToDecimalProcessor();
+		// always a default Locale
+		setLocale(Locale.ENGLISH);
+	}
+
+	@Override
+	public void setLocale(Locale locale) {
+		super.setLocale(locale);
+		if (dmsProcessor != null) {
+			dmsProcessor.setLocale(locale);
+		}
+	}
+
+	@Override
+	public void setMetrics(ProcessorMetrics metrics) {
+		super.setMetrics(metrics);
+		// only the errors are reported by the dmsProcessor
+		dmsProcessor.setMetrics(metrics);
+	}
+
+	/**
+	 * Coordinate pair Bean processing function.
+	 *
+	 * @param in
+	 *            JavaBean containing the coordinate pair as String
+	 * @param out
+	 *            Java Bean containing latitude and longitude as Double
+	 * @param params
+	 *            Will be ignored so use null
+	 * @param result
+	 *            Optional ProcessingResult
+	 */
+	@Override
+	public void processBean(Object in, Object out, Map<String, Object> params, ProcessingResult result) {
+		try {
+			String coordinatePair = (String) BeanPropertyAccessor.getSimpleProperty(in, coordinatePairName);
+			double[] output = new double[2];
+			process(coordinatePair, output, result);
+			BeanPropertyAccessor.setSimpleProperty(out, latitudeName, toDouble(output[LatLongProcessorHelper.LATITUDE_IDX]));
+			BeanPropertyAccessor.setSimpleProperty(out, longitudeName, toDouble(output[LatLongProcessorHelper.LONGITUDE_IDX]));
+		}
+		catch (IllegalAccessException e) {
+			logger.error("Bean access error", e);
+		}
+		catch (InvocationTargetException e) {
+			logger.error("Bean access error", e);
+		}
+		catch (NoSuchMethodException e) {
+			logger.error("Bean access error", e);
+		}
+	}
+
+	@Override
+	public boolean validateBean(Object in, boolean isMandatory, Map<String, Object> params, ProcessingResult result) {
+		String coordinatePair = null;
+		try {
+			coordinatePair = (String) BeanPropertyAccessor.getSimpleProperty(in, coordinatePairName);
+			if (process(coordinatePair, new double[2], result)) {
+				return true;
+			}
+		}
+		catch (IllegalAccessException e) {
+			logger.error("Bean access error", e);
+			return false;
+		}
+		catch (InvocationTargetException e) {
+			logger.error("Bean access error", e);
+			return false;
+		}
+		catch (NoSuchMethodException e) {
+			logger.error("Bean access error", e);
+			return false;
+		}
+
+		// not valid, check if the value was mandatory
+		if (!isMandatory && StringUtils.isBlank(coordinatePair)) {
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Coordinate pair processing function.
+	 *
+	 * @param coordinatePair
+	 *            coordinate pair as decimal or degree/minute/seconds. Decimal coordinates must be
+	 *            in lat,long order. dd/mm/ss can be in both orders, the E or W letter will be used to identify longitude.
+	 * @param result
+	 *            optional processing result
+	 * @return initialized array(size==2) that will contain the decimal latitude and longitude or null
+	 */
+	public Double[] process(String coordinatePair, ProcessingResult result) {
+		double[] output = new double[2];
+		process(coordinatePair, output, result);
+		return new Double[] { toDouble(output[LatLongProcessorHelper.LATITUDE_IDX]), toDouble(output[LatLongProcessorHelper.LONGITUDE_IDX]) };
+	}
+
+	/**
+	 * Same as process(String, ProcessingResult) but writing into a caller-owned array.
+	 *
+	 * @param coordinatePair
+	 *            coordinate pair as decimal or degree/minute/seconds
+	 * @param output
+	 *            initialized array(size==2) that will receive the decimal latitude and longitude or NaN
+	 * @param result
+	 *            optional processing result
+	 * @return the latitude and the longitude were processed
+	 */
+	public boolean process(String coordinatePair, double[] output, ProcessingResult result) {
+		if (!metrics.isEnabled()) {
+			return doProcess(coordinatePair, output, result);
+		}
+		long start = System.nanoTime();
+		boolean processed = doProcess(coordinatePair, output, result);
+		recordCall(start, StringUtils.isBlank(coordinatePair), processed);
+		return processed;
+	}
+
+	private boolean doProcess(String coordinatePair, double[] output, ProcessingResult result) {
+		output[LatLongProcessorHelper.LATITUDE_IDX] = Double.NaN;
+		output[LatLongProcessorHelper.LONGITUDE_IDX] = Double.NaN;
+		if (StringUtils.isBlank(coordinatePair)) {
+			return false;
+		}
+
+		// try decimal coordinates
+		if (parseDecimalPair(coordinatePair, output)) {
+			return ensureLatLongBoundaries(output, result);
+		}
+
+		// degree/minute/second coordinates, the pair is split on the last separator of the first line that contains one
+		int length = coordinatePair.length();
+		int lineStart = 0, lineEnd = 0, separatorIdx = -1;
+		while (separatorIdx < 0 && lineStart < length) {
+			lineEnd = lineStart;
+			while (lineEnd < length && !DegreeMinuteToDecimalProcessor.isLineTerminator(coordinatePair.charAt(lineEnd))) {
+				lineEnd++;
+			}
+			// there must be at least one character before and after the separator
+			for (int i = lineEnd - 2; i > lineStart && separatorIdx < 0; i--) {
+				if (isDMSSeparator(coordinatePair.charAt(i))) {
+					separatorIdx = i;
+				}
+			}
+			if (separatorIdx < 0) {
+				lineStart = lineEnd + 1;
+			}
+		}
+		if (separatorIdx < 0) {
+			if (isErrorRecorded(result)) {
+				addError(result, "coordinatePair.error.noValidCoordinate", coordinatePair);
+			}
+			return false;
+		}
+
+		// trimmed parts of the pair
+		int start1 = skipSpaces(coordinatePair, lineStart, separatorIdx);
+		int end1 = skipTrailingSpaces(coordinatePair, start1, separatorIdx);
+		int start2 = skipSpaces(coordinatePair, separatorIdx + 1, lineEnd);
+		int end2 = skipTrailingSpaces(coordinatePair, start2, lineEnd);
+
+		int latitudeStart, latitudeEnd, longitudeStart, longitudeEnd;
+		if (isLongitude(coordinatePair, separatorIdx + 1, lineEnd)) {
+			latitudeStart = start1;
+			latitudeEnd = end1;
+			longitudeStart = start2;
+			longitudeEnd = end2;
+		}
+		else if (isLongitude(coordinatePair, lineStart, separatorIdx)) {
+			latitudeStart = start2;
+			latitudeEnd = end2;
+			longitudeStart = start1;
+			longitudeEnd = end1;
+		}
+		else {
+			if (isErrorRecorded(result)) {
+				addError(result, "coordinatePair.error.noCardinalDirection", coordinatePair);
+				addError(result, "coordinatePair.error.noValidCoordinate", coordinatePair);
+			}
+			return false;
+		}
+
+		// make sure the latitude is well defined
+		if (!isLatitude(coordinatePair, latitudeStart, latitudeEnd)) {
+			if (isErrorRecorded(result)) {
+				addError(result, "coordinatePair.error.noLatitude", coordinatePair);
+				addError(result, "coordinatePair.error.noValidCoordinate", coordinatePair);
+			}
+			return false;
+		}
+
+		output[LatLongProcessorHelper.LATITUDE_IDX] = dmsProcessor.dmsToDecimalDegree(coordinatePair, latitudeStart, latitudeEnd, result);
+		output[LatLongProcessorHelper.LONGITUDE_IDX] = dmsProcessor.dmsToDecimalDegree(coordinatePair, longitudeStart, longitudeEnd,
+				result);
+		return ensureLatLongBoundaries(output, result);
+	}
+
+	/**
+	 * Same as LatLongProcessorHelper.ensureLatLongBoundaries(...) with NaN used instead of null.
+	 *
+	 * @param output
+	 * @param result
+	 * @return the latitude and the longitude are valid
+	 */
+	private boolean ensureLatLongBoundaries(double[] output, ProcessingResult result) {
+		double latitude = output[LatLongProcessorHelper.LATITUDE_IDX];
+		double longitude = output[LatLongProcessorHelper.LONGITUDE_IDX];
+		if (latitude > LatLongProcessorHelper.MAX_LATITUDE || latitude < LatLongProcessorHelper.MIN_LATITUDE) {
+			if (isErrorRecorded(result)) {
+				addError(result, "decimalLatLong.error.outOfBounds", latitude, LatLongProcessorHelper.MIN_LATITUDE,
+						LatLongProcessorHelper.MAX_LATITUDE);
+			}
+			latitude = Double.NaN;
+		}
+		if (longitude > LatLongProcessorHelper.MAX_LONGITUDE || longitude < LatLongProcessorHelper.MIN_LONGITUDE) {
+			if (isErrorRecorded(result)) {
+				addError(result, "decimalLatLong.error.outOfBounds", longitude, LatLongProcessorHelper.MIN_LONGITUDE,
+						LatLongProcessorHelper.MAX_LONGITUDE);
+			}
+			longitude = Double.NaN;
+		}
+
+		// to be a valid coordinate we need both latitude and longitude to be valid
+		if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+			output[LatLongProcessorHelper.LATITUDE_IDX] = Double.NaN;
+			output[LatLongProcessorHelper.LONGITUDE_IDX] = Double.NaN;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Parse a decimal pair: an optional whitespace, the latitude, some filler (anything but digits 1-9 and letters), at
+	 * least one separator (,;/ or a whitespace), the longitude and some filler. Latitude and longitude are made of an optional
+	 * minus sign, 1 to 3 digits, an optional decimal point and at least one digit (e.g. 45.5 or 45 but not 5).
+	 * The numbers are selected like the regular expression previously used by CoordinatePairProcessor would.
+	 *
+	 * @param text
+	 * @param output
+	 *            receives the latitude and the longitude if the text is a decimal pair
+	 * @return the text is a decimal pair
+	 */
+	private static boolean parseDecimalPair(String text, double[] output) {
+		int length = text.length();
+		// the filler after the longitude must reach the end of the text
+		int lastNonFiller = length - 1;
+		while (lastNonFiller >= 0 && isFiller(text.charAt(lastNonFiller))) {
+			lastNonFiller--;
+		}
+
+		int latitudeStart = DegreeMinuteToDecimalProcessor.isWhitespace(text.charAt(0)) ? 1 : 0;
+		int numberStart = latitudeStart;
+		if (numberStart < length && text.charAt(numberStart) == '-') {
+			numberStart++;
+		}
+		// try the possible ends of the latitude, in the order of the regular expression
+		int digitCount = countDigits(text, numberStart, length);
+		int latitudeEnd;
+		int longitudeStart;
+		if (digitCount >= 1 && digitCount <= 3 && numberStart + digitCount + 1 < length && text.charAt(numberStart + digitCount) == '.'
+				&& DegreeMinuteToDecimalProcessor.isDigit(text.charAt(numberStart + digitCount + 1))) {
+			int decimalsStart = numberStart + digitCount + 1;
+			for (latitudeEnd = decimalsStart + countDigits(text, decimalsStart, length); latitudeEnd > decimalsStart; latitudeEnd--) {
+				longitudeStart = findDecimalLongitude(text, latitudeEnd, lastNonFiller);
+				if (longitudeStart >= 0) {
+					return parseDecimalPair(text, latitudeStart, latitudeEnd, longitudeStart, output);
+				}
+			}
+		}
+		for (latitudeEnd = numberStart + digitCount; latitudeEnd >= numberStart + 2; latitudeEnd--) {
+			longitudeStart = findDecimalLongitude(text, latitudeEnd, lastNonFiller);
+			if (longitudeStart >= 0) {
+				return parseDecimalPair(text, latitudeStart, latitudeEnd, longitudeStart, output);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Find the longitude following the latitude of a decimal pair.
+	 *
+	 * @param text
+	 * @param latitudeEnd
+	 * @param lastNonFiller
+	 *            index of the last character that is not a filler
+	 * @return index of the longitude or -1
+	 */
+	private static int findDecimalLongitude(String text, int latitudeEnd, int lastNonFiller) {
+		int fillerEnd = latitudeEnd;
+		while (fillerEnd < text.length() && isFiller(text.charAt(fillerEnd))) {
+			fillerEnd++;
+		}
+		// the longitude follows a run of separators, try the last one first
+		int i = fillerEnd - 1;
+		while (i >= latitudeEnd) {
+			if (isDecimalSeparator(text.charAt(i))) {
+				int longitudeStart = i + 1;
+				if (getDecimalLongitudeEnd(text, longitudeStart) > lastNonFiller) {
+					return longitudeStart;
+				}
+				// skip the other separators of this run
+				while (i >= latitudeEnd && isDecimalSeparator(text.charAt(i))) {
+					i--;
+				}
+			}
+			else {
+				i--;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return end of the longitude starting at start (the longest possible number) or -1
+	 */
+	private static int getDecimalLongitudeEnd(String text, int start) {
+		int length = text.length();
+		int numberStart = start;
+		if (numberStart < length && text.charAt(numberStart) == '-') {
+			numberStart++;
+		}
+		int digitCount = countDigits(text, numberStart, length);
+		if (digitCount >= 1 && digitCount <= 3 && numberStart + digitCount + 1 < length && text.charAt(numberStart + digitCount) == '.'
+				&& DegreeMinuteToDecimalProcessor.isDigit(text.charAt(numberStart + digitCount + 1))) {
+			int decimalsStart = numberStart + digitCount + 1;
+			return decimalsStart + countDigits(text, decimalsStart, length);
+		}
+		return digitCount >= 2 ? numberStart + digitCount : -1;
+	}
+
+	private static boolean parseDecimalPair(String text, int latitudeStart, int latitudeEnd, int longitudeStart, double[] output) {
+		output[LatLongProcessorHelper.LATITUDE_IDX] = parseDecimal(text, latitudeStart, latitudeEnd);
+		output[LatLongProcessorHelper.LONGITUDE_IDX] = parseDecimal(text, longitudeStart, getDecimalLongitudeEnd(text, longitudeStart));
+		return true;
+	}
+
+	/**
+	 * Parse an optional whitespace, an optional minus sign and a number.
+	 */
+	private static double parseDecimal(String text, int start, int end) {
+		if (DegreeMinuteToDecimalProcessor.isWhitespace(text.charAt(start))) {
+			start++;
+		}
+		if (text.charAt(start) == '-') {
+			return -DegreeMinuteToDecimalProcessor.parseNumber(text, start + 1, end);
+		}
+		return DegreeMinuteToDecimalProcessor.parseNumber(text, start, end);
+	}
+
+	private static int countDigits(String text, int start, int end) {
+		int i = start;
+		while (i < end && DegreeMinuteToDecimalProcessor.isDigit(text.charAt(i))) {
+			i++;
+		}
+		return i - start;
+	}
+
+	/**
+	 * Anything but the digits 1 to 9 and the letters.
+	 */
+	private static boolean isFiller(char c) {
+		return !((c >= '1' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'));
+	}
+
+	private static boolean isDecimalSeparator(char c) {
+		return c == ',' || c == ';' || c == '/' || c == ' ' || c == '\t';
+	}
+
+	private static boolean isDMSSeparator(char c) {
+		return c == ',' || c == ';' || c == '/' || c == '\t';
+	}
+
+	/**
+	 * Check if the untrimmed part ends with E or W, only whitespaces can follow.
+	 */
+	private static boolean isLongitude(String text, int start, int end) {
+		while (end > start && DegreeMinuteToDecimalProcessor.isWhitespace(text.charAt(end - 1))) {
+			end--;
+		}
+		if (end == start) {
+			return false;
+		}
+		char c = text.charAt(end - 1);
+		return c == 'E' || c == 'e' || c == 'W' || c == 'w';
+	}
+
+	/**
+	 * Check if the trimmed part ends with N or S.
+	 */
+	private static boolean isLatitude(String text, int start, int end) {
+		if (end == start) {
+			return false;
+		}
+		char c = text.charAt(end - 1);
+		return c == 'N' || c == 'n' || c == 'S' || c == 's';
+	}
+
+	/**
+	 * Same as String.trim()
+	 */
+	private static int skipSpaces(String text, int start, int end) {
+		while (start < end && text.charAt(start) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	private static int skipTrailingSpaces(String text, int start, int end) {
+		while (end > start && text.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	private static Double toDouble(double value) {
+		return Double.isNaN(value) ? null : value;
+	}
+
+	@Override
+	public ErrorHandlingModeEnum getErrorHandlingMode() {
+		return errorHandlingMode;
+	}
+}
@@ -1,18 +1,30 @@
 package net.canadensys.processor.geography;
 
 import java.lang.reflect.InvocationTargetException;
-import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import net.canadensys.processor.AbstractDataProcessor;
+import net.canadensys.processor.BeanPropertyAccessor;
+import net.canadensys.processor.ProcessingError;
 import net.canadensys.processor.ProcessingResult;
+import net.canadensys.processor.ProcessorMetrics.OutcomeEnum;
 
-import org.apache.commons.beanutils.PropertyUtils;
-import org.geotools.geometry.jts.JTS;
-import org.geotools.geometry.jts.JTSFactoryFinder;
+import org.apache.commons.lang3.StringUtils;
 import org.geotools.referencing.CRS;
-import org.opengis.geometry.MismatchedDimensionException;
 import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.NoSuchAuthorityCodeException;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
@@ -22,13 +34,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vividsolutions.jts.geom.Coordinate;
-import com.vividsolutions.jts.geom.Geometry;
-import com.vividsolutions.jts.geom.GeometryFactory;
-import com.vividsolutions.jts.geom.Point;
 
 /**
  * Coordinates conversion from most of the ESPG code to WSG84 using GeoTools 10.
  * The provided coordinates must be expressed as double x, double y.
+ * The MathTransform to WGS84 is resolved once per source CRS and cached, GeoTools MathTransform are immutable and can be shared
+ * between threads.
+ * The EPSG database is only opened when the first CRS is decoded, use warmUp(...) or warmUpInBackground(...) to open it
+ * ahead of time. When EmbeddedCRSRegistry is enabled (see setEmbeddedCRSRegistryEnabled(...)), the EPSG database is only
+ * used for the codes that are not in the registry.
+ * UTM zones of WGS84 and NAD83 (e.g. EPSG:26918) are converted by UTMToWGS84Converter without GeoTools, the GeoTools transform is
+ * only used for the coordinates outside the area of the converter. See setUseUTMFastPath(...).
  * 
  * @author canadensys
  * 
@@ -36,6 +52,8 @@ import com.vividsolutions.jts.geom.Point;
 public class CoordinatesToWGS84Processor extends AbstractDataProcessor {
 
 	final Logger logger = LoggerFactory.getLogger(CoordinatesToWGS84Processor.class);
+	// used by the static methods
+	private static final Logger LOGGER = LoggerFactory.getLogger(CoordinatesToWGS84Processor.class);
 
 	// default Java bean field names.
 	protected static final String DEFAULT_X_NAME = "x";
@@ -43,30 +61,58 @@ public class CoordinatesToWGS84Processor extends AbstractDataProcessor {
 	protected static final String DEFAULT_LATITUDE_NAME = "lat";
 	protected static final String DEFAULT_LONGITUDE_NAME = "lng";
 
+	public static final int DEFAULT_BATCH_CHUNK_SIZE = 8192;
+	public static final String EMBEDDED_CRS_REGISTRY_PROPERTY = "net.canadensys.processor.embeddedCRSRegistry";
+	private static final String TARGET_CRS_CODE = "EPSG:4326";
+
 	// Java bean field name
 	protected String xCoordinateInName, yCoordinateInName = null;
 	protected String latitudeOutName, longitudeOutName = null;
 
-	protected static final CoordinateReferenceSystem TARGET_CRS;
 	protected CoordinateReferenceSystem sourceCRS = null;
 
+	private static volatile boolean embeddedCRSRegistryEnabled = Boolean.getBoolean(EMBEDDED_CRS_REGISTRY_PROPERTY);
+
+	// decoded CRS, shared by all instances
+	private static final ConcurrentMap<String, CoordinateReferenceSystem> CRS_CACHE = new ConcurrentHashMap<String, CoordinateReferenceSystem>();
+	// transforms to the target CRS, shared by all instances
+	private static final ConcurrentMap<CoordinateReferenceSystem, MathTransform> TRANSFORM_CACHE =
+			new ConcurrentHashMap<CoordinateReferenceSystem, MathTransform>();
+	// UTM converters of the CRS decoded by decodeCRS(...), shared by all instances
+	private static final ConcurrentMap<CoordinateReferenceSystem, UTMToWGS84Converter> UTM_CONVERTER_CACHE =
+			new ConcurrentHashMap<CoordinateReferenceSystem, UTMToWGS84Converter>();
+	// last transform used by this instance, avoid computing the hashCode of the CRS when the same instance is always used
+	private volatile CachedTransform lastTransform = null;
+	// last UTM converter looked up by this instance, the converter is null if the CRS is not supported
+	private volatile CachedUTMConverter lastUTMConverter = null;
+
+	protected boolean useUTMFastPath = true;
+	// number of coordinates transformed by each task of the parallel processBatch(...)
+	protected int batchChunkSize = DEFAULT_BATCH_CHUNK_SIZE;
+
 	// Only USE_NULL makes sense here
 	protected ErrorHandlingModeEnum errorHandlingMode = ErrorHandlingModeEnum.USE_NULL;
 
-	// Setup EPSG:4326 (wsg84)
+	// must be set before GeoTools creates its CRS factories
 	static {
 		System.setProperty("org.geotools.referencing.forceXY", "true");
-		CoordinateReferenceSystem tmpCrs = null;
-		try {
-			tmpCrs = CRS.decode("EPSG:4326");
-		}
-		catch (NoSuchAuthorityCodeException e) {
-			e.printStackTrace();
-		}
-		catch (FactoryException e) {
-			e.printStackTrace();
+	}
+
+	/**
+	 * Setup EPSG:4326 (wsg84) on first use, the class is only initialized by getTargetCRS().
+	 */
+	private static class TargetCRSHolder {
+		private static final CoordinateReferenceSystem TARGET_CRS;
+		static {
+			CoordinateReferenceSystem tmpCrs = null;
+			try {
+				tmpCrs = CRS.decode(TARGET_CRS_CODE);
+			}
+			catch (FactoryException e) {
+				LOGGER.error("Can not decode the target CRS " + TARGET_CRS_CODE, e);
+			}
+			TARGET_CRS = tmpCrs;
 		}
-		TARGET_CRS = tmpCrs;
 	}
 
 	/**
@@ -94,7 +140,7 @@ public class CoordinatesToWGS84Processor extends AbstractDataProcessor {
 			String longitudeOutName) throws UnsupportedOperationException {
 		try {
 			if (sourceCoordinateSystem != null) {
-				sourceCRS = CRS.decode(sourceCoordinateSystem);
+				sourceCRS = decodeCRS(sourceCoordinateSystem);
 			}
 
 			this.xCoordinateInName = xCoordinateInName;
@@ -120,15 +166,157 @@ public class CoordinatesToWGS84Processor extends AbstractDataProcessor {
 		return errorHandlingMode;
 	}
 
+	/**
+	 * Resolve the codes of EmbeddedCRSRegistry (including the target EPSG:4326) from the bundled definitions instead of the
+	 * EPSG database, other codes are still decoded from the EPSG database. Can also be enabled with the system property
+	 * net.canadensys.processor.embeddedCRSRegistry=true.
+	 * Configuration method, should be called before creating the processors since the decoded CRS are cached.
+	 * 
+	 * @param enabled
+	 */
+	public static void setEmbeddedCRSRegistryEnabled(boolean enabled) {
+		embeddedCRSRegistryEnabled = enabled;
+	}
+
+	public static boolean isEmbeddedCRSRegistryEnabled() {
+		return embeddedCRSRegistryEnabled;
+	}
+
+	/**
+	 * Convert the UTM zones supported by UTMToWGS84Converter without GeoTools (default), or always use the GeoTools transform.
+	 * Configuration method, should be called at creation time.
+	 * 
+	 * @param useUTMFastPath
+	 */
+	public void setUseUTMFastPath(boolean useUTMFastPath) {
+		this.useUTMFastPath = useUTMFastPath;
+	}
+
+	public boolean isUseUTMFastPath() {
+		return useUTMFastPath;
+	}
+
+	/**
+	 * Set the number of coordinates transformed by each task of processBatch(..., ExecutorService).
+	 * Configuration method, should be called at creation time.
+	 * 
+	 * @param batchChunkSize
+	 */
+	public void setBatchChunkSize(int batchChunkSize) {
+		if (batchChunkSize < 1) {
+			throw new IllegalArgumentException("batchChunkSize must be positive");
+		}
+		this.batchChunkSize = batchChunkSize;
+	}
+
+	public int getBatchChunkSize() {
+		return batchChunkSize;
+	}
+
+	/**
+	 * Get the target CRS, EPSG:4326 (wsg84). Unless EmbeddedCRSRegistry is enabled, the first call opens the EPSG database.
+	 * 
+	 * When EmbeddedCRSRegistry is enabled, the EPSG database is never used, even if the registry can not decode EPSG:4326.
+	 * 
+	 * @return target CRS or null if EPSG:4326 can not be decoded
+	 */
+	protected static CoordinateReferenceSystem getTargetCRS() {
+		if (embeddedCRSRegistryEnabled) {
+			try {
+				return EmbeddedCRSRegistry.getInstance().getCRS(TARGET_CRS_CODE);
+			}
+			catch (FactoryException e) {
+				LOGGER.error("Can not decode the target CRS " + TARGET_CRS_CODE + " with the embedded registry", e);
+				return null;
+			}
+		}
+		return TargetCRSHolder.TARGET_CRS;
+	}
+
+	/**
+	 * Decode a CRS code from EmbeddedCRSRegistry (if enabled) or the EPSG database, decoded CRS are cached.
+	 * 
+	 * @param coordinateSystem
+	 *            e.g. EPSG:26918
+	 * @return decoded CRS, never null
+	 * @throws FactoryException
+	 *             if the code is not supported, failures are not cached
+	 */
+	protected static CoordinateReferenceSystem decodeCRS(String coordinateSystem) throws FactoryException {
+		CoordinateReferenceSystem crs = null;
+		if (embeddedCRSRegistryEnabled) {
+			crs = EmbeddedCRSRegistry.getInstance().getCRS(coordinateSystem);
+		}
+		if (crs == null) {
+			crs = CRS_CACHE.get(coordinateSystem);
+		}
+		if (crs == null) {
+			crs = CRS.decode(coordinateSystem);
+			CoordinateReferenceSystem previous = CRS_CACHE.putIfAbsent(coordinateSystem, crs);
+			if (previous != null) {
+				crs = previous;
+			}
+		}
+		// the CRS of the embedded registry have no identifier, keep the converter found from the code
+		if (!UTM_CONVERTER_CACHE.containsKey(crs)) {
+			UTMToWGS84Converter utmConverter = UTMToWGS84Converter.forEPSGCode(coordinateSystem);
+			if (utmConverter != null) {
+				UTM_CONVERTER_CACHE.putIfAbsent(crs, utmConverter);
+			}
+		}
+		return crs;
+	}
+
+	/**
+	 * Open the EPSG database, decode the provided source coordinate systems and find their transforms so the first
+	 * processed coordinate doesn't pay for it.
+	 * 
+	 * @param sourceCoordinateSystems
+	 *            e.g. EPSG:26918
+	 * @throws FactoryException
+	 *             if a source coordinate system is not supported
+	 */
+	public static void warmUp(String... sourceCoordinateSystems) throws FactoryException {
+		if (getTargetCRS() == null) {
+			throw new FactoryException(TARGET_CRS_CODE + " can not be decoded");
+		}
+		for (String sourceCoordinateSystem : sourceCoordinateSystems) {
+			findTransform(decodeCRS(sourceCoordinateSystem));
+		}
+	}
+
+	/**
+	 * Same as warmUp(...) but in a background (daemon) thread, processors can be created and used while it runs, they will
+	 * wait for the EPSG database if needed.
+	 * 
+	 * @param sourceCoordinateSystems
+	 *            e.g. EPSG:26918
+	 * @return Future completed when the warm-up is done, get() throws an ExecutionException if a source coordinate system is
+	 *         not supported
+	 */
+	public static Future<Void> warmUpInBackground(final String... sourceCoordinateSystems) {
+		FutureTask<Void> warmUpTask = new FutureTask<Void>(new Callable<Void>() {
+			@Override
+			public Void call() throws FactoryException {
+				warmUp(sourceCoordinateSystems);
+				return null;
+			}
+		});
+		Thread thread = new Thread(warmUpTask, "CoordinatesToWGS84Processor-warmUp");
+		thread.setDaemon(true);
+		thread.start();
+		return warmUpTask;
+	}
+
 	@Override
 	public void processBean(Object in, Object out, Map<String, Object> params, ProcessingResult result) {
 		try {
-			Double x = (Double) PropertyUtils.getSimpleProperty(in, xCoordinateInName);
-			Double y = (Double) PropertyUtils.getSimpleProperty(in, yCoordinateInName);
+			Double x = (Double) BeanPropertyAccessor.getSimpleProperty(in, xCoordinateInName);
+			Double y = (Double) BeanPropertyAccessor.getSimpleProperty(in, yCoordinateInName);
 
 			Double[] output = process(x, y, result);
-			PropertyUtils.setSimpleProperty(out, latitudeOutName, output[LatLongProcessorHelper.LATITUDE_IDX]);
-			PropertyUtils.setSimpleProperty(out, longitudeOutName, output[LatLongProcessorHelper.LONGITUDE_IDX]);
+			BeanPropertyAccessor.setSimpleProperty(out, latitudeOutName, output[LatLongProcessorHelper.LATITUDE_IDX]);
+			BeanPropertyAccessor.setSimpleProperty(out, longitudeOutName, output[LatLongProcessorHelper.LONGITUDE_IDX]);
 		}
 		catch (IllegalAccessException e) {
 			logger.error("Bean access error", e);
@@ -145,8 +333,8 @@ public class CoordinatesToWGS84Processor extends AbstractDataProcessor {
 	public boolean validateBean(Object in, boolean isMandatory, Map<String, Object> params, ProcessingResult result) {
 		Double x = null, y = null;
 		try {
-			x = (Double) PropertyUtils.getSimpleProperty(in, xCoordinateInName);
-			y = (Double) PropertyUtils.getSimpleProperty(in, yCoordinateInName);
+			x = (Double) BeanPropertyAccessor.getSimpleProperty(in, xCoordinateInName);
+			y = (Double) BeanPropertyAccessor.getSimpleProperty(in, yCoordinateInName);
 
 			Double[] output = process(x, y, result);
 			if (output[LatLongProcessorHelper.LATITUDE_IDX] != null && output[LatLongProcessorHelper.LONGITUDE_IDX] != null) {
@@ -188,43 +376,109 @@ public class CoordinatesToWGS84Processor extends AbstractDataProcessor {
 	 * @return
 	 */
 	public Double[] process(Double x, Double y, CoordinateReferenceSystem sourceCRS, ProcessingResult result) {
-		GeometryFactory geometryFactory = JTSFactoryFinder.getGeometryFactory();
+		if (!metrics.isEnabled()) {
+			return doProcess(x, y, sourceCRS, result);
+		}
+		long start = System.nanoTime();
+		Double[] output = doProcess(x, y, sourceCRS, result);
+		recordCall(start, x == null && y == null, output[LatLongProcessorHelper.LATITUDE_IDX] != null);
+		return output;
+	}
+
+	private Double[] doProcess(Double x, Double y, CoordinateReferenceSystem sourceCRS, ProcessingResult result) {
 		Double[] output = new Double[2];
 
 		if (sourceCRS == null) {
-			if (result != null) {
-				result.addError(resourceBundle.getString("coordinateConversion.error.invalidSourceCRS"));
+			if (isErrorRecorded(result)) {
+				addError(result, "coordinateConversion.error.invalidSourceCRS");
 			}
 			return output;
 		}
 
-		Coordinate coord = new Coordinate(x, y);
-		Point sourcePoint = geometryFactory.createPoint(coord);
+		double[] point = new double[] { x, y };
+		if (useUTMFastPath) {
+			UTMToWGS84Converter utmConverter = getUTMConverter(sourceCRS);
+			if (utmConverter != null && utmConverter.toWGS84(x, y, point, 0)) {
+				output[LatLongProcessorHelper.LATITUDE_IDX] = point[1];
+				output[LatLongProcessorHelper.LONGITUDE_IDX] = point[0];
+				return output;
+			}
+		}
 		try {
-			// to ensure the best precision, do not use lenient transform
-			MathTransform transform = CRS.findMathTransform(sourceCRS, TARGET_CRS, false);
-			Geometry targetGeometry = JTS.transform(sourcePoint, transform);
-			output[LatLongProcessorHelper.LATITUDE_IDX] = targetGeometry.getCoordinate().y;
-			output[LatLongProcessorHelper.LONGITUDE_IDX] = targetGeometry.getCoordinate().x;
+			MathTransform transform = getTransform(sourceCRS);
+			transform.transform(point, 0, point, 0, 1);
+			output[LatLongProcessorHelper.LATITUDE_IDX] = point[1];
+			output[LatLongProcessorHelper.LONGITUDE_IDX] = point[0];
 		}
 		catch (FactoryException e) {
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("coordinateConversion.error.noTransformation"), sourceCRS.getName()));
-			}
-		}
-		catch (MismatchedDimensionException e) {
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("coordinateConversion.error.transformError"), coord.toString()));
+			if (isErrorRecorded(result)) {
+				addError(result, "coordinateConversion.error.noTransformation", sourceCRS.getName());
 			}
 		}
 		catch (TransformException e) {
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("coordinateConversion.error.transformError"), coord.toString()));
+			if (isErrorRecorded(result)) {
+				addError(result, "coordinateConversion.error.transformError", new Coordinate(x, y).toString());
 			}
 		}
 		return output;
 	}
 
+	/**
+	 * Get the transform from sourceCRS to the target CRS from the cache or find it.
+	 * 
+	 * @param sourceCRS
+	 * @return transform from sourceCRS to the target CRS, never null
+	 * @throws FactoryException
+	 *             if no transform can be found, failures are not cached
+	 */
+	protected MathTransform getTransform(CoordinateReferenceSystem sourceCRS) throws FactoryException {
+		CachedTransform cached = lastTransform;
+		if (cached != null && cached.sourceCRS == sourceCRS) {
+			return cached.transform;
+		}
+		MathTransform transform = findTransform(sourceCRS);
+		lastTransform = new CachedTransform(sourceCRS, transform);
+		return transform;
+	}
+
+	/**
+	 * Get the UTMToWGS84Converter of sourceCRS, found from the code used by decodeCRS(...) or from the EPSG identifier of
+	 * sourceCRS.
+	 * 
+	 * @param sourceCRS
+	 * @return the converter or null if sourceCRS is not a UTM zone supported by UTMToWGS84Converter
+	 */
+	protected UTMToWGS84Converter getUTMConverter(CoordinateReferenceSystem sourceCRS) {
+		CachedUTMConverter cached = lastUTMConverter;
+		if (cached != null && cached.sourceCRS == sourceCRS) {
+			return cached.utmConverter;
+		}
+		UTMToWGS84Converter utmConverter = UTM_CONVERTER_CACHE.get(sourceCRS);
+		if (utmConverter == null) {
+			// the identifiers are read from sourceCRS, the EPSG database is not used
+			utmConverter = UTMToWGS84Converter.forEPSGCode(CRS.toSRS(sourceCRS));
+		}
+		lastUTMConverter = new CachedUTMConverter(sourceCRS, utmConverter);
+		return utmConverter;
+	}
+
+	private static MathTransform findTransform(CoordinateReferenceSystem sourceCRS) throws FactoryException {
+		MathTransform transform = TRANSFORM_CACHE.get(sourceCRS);
+		if (transform == null) {
+			CoordinateReferenceSystem targetCRS = getTargetCRS();
+			if (targetCRS == null) {
+				throw new FactoryException(TARGET_CRS_CODE + " can not be decoded");
+			}
+			// to ensure the best precision, do not use lenient transform
+			transform = CRS.findMathTransform(sourceCRS, targetCRS, false);
+			MathTransform previous = TRANSFORM_CACHE.putIfAbsent(sourceCRS, transform);
+			if (previous != null) {
+				transform = previous;
+			}
+		}
+		return transform;
+	}
+
 	/**
 	 * Process an array of coordinates as x,y into a WSG84 decimal latitude, longitude value.
 	 * 
@@ -257,4 +511,441 @@ public class CoordinatesToWGS84Processor extends AbstractDataProcessor {
 		return output;
 	}
 
+	/**
+	 * Process arrays of primitive x,y coordinates into WSG84 decimal latitude, longitude values.
+	 * All the coordinates are transformed by a single MathTransform call. NaN is used for missing values, a coordinate with a NaN x
+	 * or y is not valid but no error is recorded for it.
+	 * 
+	 * @param x
+	 *            array of x coordinates
+	 * @param y
+	 *            array of y coordinates, same length as x
+	 * @param sourceCRS
+	 *            source CRS of all the coordinates
+	 * @param latitude
+	 *            receives the latitudes (NaN if not valid), at least as long as x
+	 * @param longitude
+	 *            receives the longitudes (NaN if not valid), at least as long as x
+	 * @param valid
+	 *            cleared then receives the validity of each coordinate, bit i is set if coordinate i was transformed
+	 * @param result
+	 *            optional ProcessingResult receiving the errors of all the coordinates
+	 * @return number of valid coordinates
+	 */
+	public int processBatch(double[] x, double[] y, CoordinateReferenceSystem sourceCRS, double[] latitude, double[] longitude, BitSet valid,
+			ProcessingResult result) {
+		if (x.length != y.length || latitude.length < x.length || longitude.length < x.length) {
+			throw new IllegalArgumentException("x and y must have the same length and the output arrays must be at least as long");
+		}
+
+		return processRange(x, y, 0, x.length, sourceCRS, latitude, longitude, valid, result, false);
+	}
+
+	/**
+	 * Same as processBatch(double[], double[], ...) but the coordinates are split in chunks (see setBatchChunkSize(...))
+	 * transformed in parallel by the provided ExecutorService. The results are written in place, the errors are recorded in the
+	 * order of the coordinates like the sequential version. The method returns when all coordinates are processed.
+	 * If the calling thread is interrupted, the remaining chunks are cancelled (a running chunk doesn't write its results), valid
+	 * is left cleared and the InterruptedException is thrown.
+	 * 
+	 * @param x
+	 *            array of x coordinates
+	 * @param y
+	 *            array of y coordinates, same length as x
+	 * @param sourceCRS
+	 *            source CRS of all the coordinates
+	 * @param latitude
+	 *            receives the latitudes (NaN if not valid), at least as long as x
+	 * @param longitude
+	 *            receives the longitudes (NaN if not valid), at least as long as x
+	 * @param valid
+	 *            cleared then receives the validity of each coordinate, bit i is set if coordinate i was transformed
+	 * @param result
+	 *            optional ProcessingResult receiving the errors of all the coordinates
+	 * @param executorService
+	 * @return number of valid coordinates
+	 * @throws InterruptedException
+	 */
+	public int processBatch(final double[] x, final double[] y, final CoordinateReferenceSystem sourceCRS, final double[] latitude,
+			final double[] longitude, BitSet valid, ProcessingResult result, ExecutorService executorService) throws InterruptedException {
+		if (x.length != y.length || latitude.length < x.length || longitude.length < x.length) {
+			throw new IllegalArgumentException("x and y must have the same length and the output arrays must be at least as long");
+		}
+		// nothing to split, also avoids recording the invalid CRS error once per chunk
+		if (x.length <= batchChunkSize || sourceCRS == null) {
+			return processBatch(x, y, sourceCRS, latitude, longitude, valid, result);
+		}
+
+		valid.clear();
+		int chunkCount = (x.length + batchChunkSize - 1) / batchChunkSize;
+		final BitSet[] chunkValid = new BitSet[chunkCount];
+		// each chunk records its errors in its own (non-synchronized) ProcessingResult, merged in order
+		final ProcessingResult[] chunkResults = new ProcessingResult[chunkCount];
+		List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+		for (int chunkIdx = 0; chunkIdx < chunkCount; chunkIdx++) {
+			final int from = chunkIdx * batchChunkSize;
+			final int to = Math.min(from + batchChunkSize, x.length);
+			chunkValid[chunkIdx] = new BitSet(to - from);
+			if (result != null) {
+				chunkResults[chunkIdx] = new ProcessingResult(false);
+			}
+			final BitSet currValid = chunkValid[chunkIdx];
+			final ProcessingResult currResult = chunkResults[chunkIdx];
+			futures.add(executorService.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() {
+					return processRange(x, y, from, to, sourceCRS, latitude, longitude, currValid, currResult, true);
+				}
+			}));
+		}
+
+		int validCount = 0;
+		try {
+			for (Future<Integer> future : futures) {
+				validCount += future.get();
+			}
+		}
+		catch (InterruptedException e) {
+			// the remaining chunks must not write in the arrays of the caller once this method returned
+			for (Future<Integer> future : futures) {
+				future.cancel(true);
+			}
+			throw e;
+		}
+		catch (ExecutionException e) {
+			for (Future<Integer> future : futures) {
+				future.cancel(true);
+			}
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+
+		for (int chunkIdx = 0; chunkIdx < chunkCount; chunkIdx++) {
+			int from = chunkIdx * batchChunkSize;
+			BitSet currValid = chunkValid[chunkIdx];
+			for (int i = currValid.nextSetBit(0); i >= 0; i = currValid.nextSetBit(i + 1)) {
+				valid.set(from + i);
+			}
+			if (result != null) {
+				for (ProcessingError error : chunkResults[chunkIdx].getErrors()) {
+					result.addError(error);
+				}
+			}
+		}
+		return validCount;
+	}
+
+	/**
+	 * Process the coordinates between from (inclusive) and to (exclusive), bit i of valid is the coordinate from + i.
+	 * 
+	 * @param cancellable
+	 *            do not write the results if the current thread was interrupted (chunk cancelled)
+	 */
+	private int processRange(double[] x, double[] y, int from, int to, CoordinateReferenceSystem sourceCRS, double[] latitude,
+			double[] longitude, BitSet valid, ProcessingResult result, boolean cancellable) {
+		int count = to - from;
+		double[] source = new double[count * 2];
+		for (int i = 0; i < count; i++) {
+			source[2 * i] = x[from + i];
+			source[2 * i + 1] = y[from + i];
+		}
+		double[] target = new double[count * 2];
+		int validCount = processInterleavedBatch(source, target, count, sourceCRS, valid, result);
+		if (cancellable && Thread.currentThread().isInterrupted()) {
+			return 0;
+		}
+		for (int i = 0; i < count; i++) {
+			longitude[from + i] = target[2 * i];
+			latitude[from + i] = target[2 * i + 1];
+		}
+		return validCount;
+	}
+
+	/**
+	 * Process arrays of primitive x,y coordinates having their own source coordinate system (e.g. a column of the dataset).
+	 * The coordinates are grouped by code, each code is decoded once and each group is transformed as a block like
+	 * processBatch(double[], double[], CoordinateReferenceSystem, ...), the results are written back in the original order.
+	 * The errors are recorded group by group, in the order of the first appearance of each code. A blank or unsupported code
+	 * records one invalidSourceCRS error for its group.
+	 * 
+	 * @param x
+	 *            array of x coordinates
+	 * @param y
+	 *            array of y coordinates, same length as x
+	 * @param sourceCoordinateSystems
+	 *            code of the source coordinate system of each coordinate (e.g. EPSG:26918), same length as x
+	 * @param latitude
+	 *            receives the latitudes (NaN if not valid), at least as long as x
+	 * @param longitude
+	 *            receives the longitudes (NaN if not valid), at least as long as x
+	 * @param valid
+	 *            cleared then receives the validity of each coordinate, bit i is set if coordinate i was transformed
+	 * @param result
+	 *            optional ProcessingResult receiving the errors of all the coordinates
+	 * @return number of valid coordinates
+	 */
+	public int processMixedCRSBatch(double[] x, double[] y, String[] sourceCoordinateSystems, double[] latitude, double[] longitude, BitSet valid,
+			ProcessingResult result) {
+		if (x.length != y.length || sourceCoordinateSystems.length != x.length || latitude.length < x.length
+				|| longitude.length < x.length) {
+			throw new IllegalArgumentException(
+					"x, y and sourceCoordinateSystems must have the same length and the output arrays must be at least as long");
+		}
+
+		// indices of the coordinates of each code, blank codes use the null key
+		Map<String, CoordinateGroup> groups = new LinkedHashMap<String, CoordinateGroup>();
+		for (int i = 0; i < x.length; i++) {
+			String code = StringUtils.trimToNull(sourceCoordinateSystems[i]);
+			CoordinateGroup group = groups.get(code);
+			if (group == null) {
+				group = new CoordinateGroup();
+				groups.put(code, group);
+			}
+			group.add(i);
+		}
+
+		valid.clear();
+		BitSet groupValid = new BitSet();
+		int validCount = 0;
+		for (Entry<String, CoordinateGroup> entry : groups.entrySet()) {
+			CoordinateReferenceSystem groupCRS = null;
+			if (entry.getKey() != null) {
+				try {
+					groupCRS = decodeCRS(entry.getKey());
+				}
+				catch (FactoryException e) {
+					// recorded as an invalid source CRS by processInterleavedBatch
+				}
+			}
+
+			CoordinateGroup group = entry.getValue();
+			double[] source = new double[group.size * 2];
+			for (int j = 0; j < group.size; j++) {
+				source[2 * j] = x[group.indices[j]];
+				source[2 * j + 1] = y[group.indices[j]];
+			}
+			double[] target = new double[group.size * 2];
+			validCount += processInterleavedBatch(source, target, group.size, groupCRS, groupValid, result);
+			for (int j = 0; j < group.size; j++) {
+				int idx = group.indices[j];
+				longitude[idx] = target[2 * j];
+				latitude[idx] = target[2 * j + 1];
+				if (groupValid.get(j)) {
+					valid.set(idx);
+				}
+			}
+		}
+		return validCount;
+	}
+
+	/**
+	 * Same as processBatch(double[], double[], ...) with interleaved arrays.
+	 * 
+	 * @param xy
+	 *            interleaved coordinates x0,y0,x1,y1,...
+	 * @param sourceCRS
+	 *            source CRS of all the coordinates
+	 * @param longitudeLatitude
+	 *            receives the interleaved results longitude0,latitude0,longitude1,latitude1,... (NaN if not valid), at least as long as
+	 *            xy. Can be xy itself.
+	 * @param valid
+	 *            cleared then receives the validity of each coordinate, bit i is set if coordinate i (xy[2i], xy[2i+1]) was
+	 *            transformed
+	 * @param result
+	 *            optional ProcessingResult receiving the errors of all the coordinates
+	 * @return number of valid coordinates
+	 */
+	public int processBatch(double[] xy, CoordinateReferenceSystem sourceCRS, double[] longitudeLatitude, BitSet valid,
+			ProcessingResult result) {
+		if (xy.length % 2 != 0 || longitudeLatitude.length < xy.length) {
+			throw new IllegalArgumentException("xy must contain pairs and longitudeLatitude must be at least as long");
+		}
+		// the source is needed if a coordinate can not be transformed
+		double[] source = (xy == longitudeLatitude) ? xy.clone() : xy;
+		return processInterleavedBatch(source, longitudeLatitude, xy.length / 2, sourceCRS, valid, result);
+	}
+
+	private int processInterleavedBatch(double[] source, double[] target, int count, CoordinateReferenceSystem sourceCRS, BitSet valid,
+			ProcessingResult result) {
+		if (!metrics.isEnabled()) {
+			return doProcessBatch(source, target, count, sourceCRS, valid, result);
+		}
+		long start = System.nanoTime();
+		int validCount = doProcessBatch(source, target, count, sourceCRS, valid, result);
+		// the latency of the batch is shared by its coordinates
+		long elapsed = count == 0 ? 0 : (System.nanoTime() - start) / count;
+		for (int i = 0; i < count; i++) {
+			if (valid.get(i)) {
+				metrics.recordCall(elapsed, OutcomeEnum.SUCCESS);
+			}
+			else {
+				metrics.recordCall(elapsed, isMissing(source, i) ? OutcomeEnum.BLANK_INPUT : OutcomeEnum.FAILURE);
+			}
+		}
+		return validCount;
+	}
+
+	private int doProcessBatch(double[] source, double[] target, int count, CoordinateReferenceSystem sourceCRS, BitSet valid,
+			ProcessingResult result) {
+		valid.clear();
+		if (sourceCRS == null) {
+			if (isErrorRecorded(result)) {
+				addError(result, "coordinateConversion.error.invalidSourceCRS");
+			}
+			Arrays.fill(target, 0, count * 2, Double.NaN);
+			return 0;
+		}
+
+		UTMToWGS84Converter utmConverter = useUTMFastPath ? getUTMConverter(sourceCRS) : null;
+		if (utmConverter != null) {
+			transformUTMBatch(utmConverter, source, target, count, sourceCRS, result);
+		}
+		else {
+			try {
+				transformBatch(getTransform(sourceCRS), source, target, count, result);
+			}
+			catch (FactoryException e) {
+				if (isErrorRecorded(result)) {
+					addError(result, "coordinateConversion.error.noTransformation", sourceCRS.getName());
+				}
+				Arrays.fill(target, 0, count * 2, Double.NaN);
+				return 0;
+			}
+		}
+
+		int validCount = 0;
+		for (int i = 0; i < count; i++) {
+			if (isMissing(source, i) || Double.isNaN(target[2 * i]) || Double.isNaN(target[2 * i + 1])) {
+				target[2 * i] = Double.NaN;
+				target[2 * i + 1] = Double.NaN;
+			}
+			else {
+				valid.set(i);
+				validCount++;
+			}
+		}
+		return validCount;
+	}
+
+	/**
+	 * Transform all the coordinates with a single MathTransform call.
+	 */
+	private void transformBatch(MathTransform transform, double[] source, double[] target, int count, ProcessingResult result) {
+		try {
+			transform.transform(source, 0, target, 0, count);
+		}
+		catch (TransformException e) {
+			// at least one coordinate failed, transform them one by one to find which ones
+			for (int i = 0; i < count; i++) {
+				if (isMissing(source, i)) {
+					continue;
+				}
+				transformCoordinate(transform, source, target, i, result);
+			}
+		}
+	}
+
+	/**
+	 * Convert the coordinates with the UTMToWGS84Converter, the coordinates it refuses are transformed one by one by the
+	 * GeoTools transform. The GeoTools transform is only looked up if needed.
+	 */
+	private void transformUTMBatch(UTMToWGS84Converter utmConverter, double[] source, double[] target, int count,
+			CoordinateReferenceSystem sourceCRS, ProcessingResult result) {
+		MathTransform transform = null;
+		boolean noTransformation = false;
+		for (int i = 0; i < count; i++) {
+			if (isMissing(source, i)) {
+				target[2 * i] = Double.NaN;
+				target[2 * i + 1] = Double.NaN;
+				continue;
+			}
+			if (utmConverter.toWGS84(source[2 * i], source[2 * i + 1], target, 2 * i)) {
+				continue;
+			}
+			if (transform == null && !noTransformation) {
+				try {
+					transform = getTransform(sourceCRS);
+				}
+				catch (FactoryException e) {
+					noTransformation = true;
+					if (isErrorRecorded(result)) {
+						addError(result, "coordinateConversion.error.noTransformation", sourceCRS.getName());
+					}
+				}
+			}
+			if (transform == null) {
+				target[2 * i] = Double.NaN;
+				target[2 * i + 1] = Double.NaN;
+			}
+			else {
+				transformCoordinate(transform, source, target, i, result);
+			}
+		}
+	}
+
+	private void transformCoordinate(MathTransform transform, double[] source, double[] target, int coordinateIdx,
+			ProcessingResult result) {
+		try {
+			transform.transform(source, 2 * coordinateIdx, target, 2 * coordinateIdx, 1);
+		}
+		catch (TransformException e) {
+			if (isErrorRecorded(result)) {
+				addError(result, "coordinateConversion.error.transformError",
+						new Coordinate(source[2 * coordinateIdx], source[2 * coordinateIdx + 1]).toString());
+			}
+			target[2 * coordinateIdx] = Double.NaN;
+			target[2 * coordinateIdx + 1] = Double.NaN;
+		}
+	}
+
+	private static boolean isMissing(double[] source, int coordinateIdx) {
+		return Double.isNaN(source[2 * coordinateIdx]) || Double.isNaN(source[2 * coordinateIdx + 1]);
+	}
+
+	/**
+	 * Immutable pair of a source CRS and its transform.
+	 */
+	private static class CachedTransform {
+		private final CoordinateReferenceSystem sourceCRS;
+		private final MathTransform transform;
+
+		CachedTransform(CoordinateReferenceSystem sourceCRS, MathTransform transform) {
+			this.sourceCRS = sourceCRS;
+			this.transform = transform;
+		}
+	}
+
+	/**
+	 * Indices of the coordinates sharing the same source coordinate system.
+	 */
+	private static class CoordinateGroup {
+		private int[] indices = new int[16];
+		private int size = 0;
+
+		void add(int idx) {
+			if (size == indices.length) {
+				indices = Arrays.copyOf(indices, size * 2);
+			}
+			indices[size++] = idx;
+		}
+	}
+
+	/**
+	 * Immutable pair of a source CRS and its UTM converter (null if not supported).
+	 */
+	private static class CachedUTMConverter {
+		private final CoordinateReferenceSystem sourceCRS;
+		private final UTMToWGS84Converter utmConverter;
+
+		CachedUTMConverter(CoordinateReferenceSystem sourceCRS, UTMToWGS84Converter utmConverter) {
+			this.sourceCRS = sourceCRS;
+			this.utmConverter = utmConverter;
+		}
+	}
 }
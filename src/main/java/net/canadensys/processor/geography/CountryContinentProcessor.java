@@ -3,7 +3,6 @@ package net.canadensys.processor.geography;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
-import java.text.MessageFormat;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -11,10 +10,10 @@ import java.util.Locale;
 import java.util.Map;
 
 import net.canadensys.processor.AbstractDataProcessor;
+import net.canadensys.processor.BeanPropertyAccessor;
 import net.canadensys.processor.ProcessingResult;
 import net.canadensys.vocabulary.Continent;
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -113,7 +112,7 @@ public class CountryContinentProcessor extends AbstractDataProcessor {
 	@Override
 	public void processBean(Object in, Object out, Map<String, Object> params, ProcessingResult result) {
 		try {
-			String textCountryISOCode = (String) PropertyUtils.getSimpleProperty(in, countryISOLetterCodeName);
+			String textCountryISOCode = (String) BeanPropertyAccessor.getSimpleProperty(in, countryISOLetterCodeName);
 			Continent resultContinent = process(textCountryISOCode, result);
 
 			String continent;
@@ -124,7 +123,7 @@ public class CountryContinentProcessor extends AbstractDataProcessor {
 				// should it be done in process(...) function?
 				continent = (errorHandlingMode == ErrorHandlingModeEnum.USE_NULL ? null : "");
 			}
-			PropertyUtils.setSimpleProperty(out, continentName, continent);
+			BeanPropertyAccessor.setSimpleProperty(out, continentName, continent);
 		}
 		catch (IllegalAccessException e) {
 			logger.error("Bean access error", e);
@@ -141,7 +140,7 @@ public class CountryContinentProcessor extends AbstractDataProcessor {
 	public boolean validateBean(Object in, boolean isMandatory, Map<String, Object> params, ProcessingResult result) {
 		String textCountryISOCode = null;
 		try {
-			textCountryISOCode = (String) PropertyUtils.getSimpleProperty(in, countryISOLetterCodeName);
+			textCountryISOCode = (String) BeanPropertyAccessor.getSimpleProperty(in, countryISOLetterCodeName);
 			if (process(textCountryISOCode, result) != null) {
 				return true;
 			}
@@ -178,6 +177,16 @@ public class CountryContinentProcessor extends AbstractDataProcessor {
 	 * @return matching Continent or null
 	 */
 	public Continent process(String countryISOLetterCode, ProcessingResult result) {
+		if (!metrics.isEnabled()) {
+			return doProcess(countryISOLetterCode, result);
+		}
+		long start = System.nanoTime();
+		Continent continent = doProcess(countryISOLetterCode, result);
+		recordCall(start, StringUtils.isBlank(countryISOLetterCode), continent != null);
+		return continent;
+	}
+
+	private Continent doProcess(String countryISOLetterCode, ProcessingResult result) {
 		if (StringUtils.isBlank(countryISOLetterCode)) {
 			return null;
 		}
@@ -186,8 +195,8 @@ public class CountryContinentProcessor extends AbstractDataProcessor {
 			return Continent.fromCode(continentCode);
 		}
 		else {
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("countryContinent.error.notFound"), countryISOLetterCode));
+			if (isErrorRecorded(result)) {
+				addError(result, "countryContinent.error.notFound", countryISOLetterCode);
 			}
 		}
 		return null;
@@ -1,14 +1,13 @@
 package net.canadensys.processor.geography;
 
 import java.lang.reflect.InvocationTargetException;
-import java.text.MessageFormat;
 import java.util.Locale;
 import java.util.Map;
 
 import net.canadensys.processor.AbstractDataProcessor;
+import net.canadensys.processor.BeanPropertyAccessor;
 import net.canadensys.processor.ProcessingResult;
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.gbif.api.vocabulary.Country;
 import org.gbif.common.parsers.CountryParser;
@@ -64,7 +63,7 @@ public class CountryProcessor extends AbstractDataProcessor {
 	@Override
 	public void processBean(Object in, Object out, Map<String, Object> params, ProcessingResult result) {
 		try {
-			String textCountry = (String) PropertyUtils.getSimpleProperty(in, countryName);
+			String textCountry = (String) BeanPropertyAccessor.getSimpleProperty(in, countryName);
 			Country resultCountry = process(textCountry, result);
 
 			String country = null;
@@ -87,7 +86,7 @@ public class CountryProcessor extends AbstractDataProcessor {
 						break;
 				}
 			}
-			PropertyUtils.setSimpleProperty(out, countryName, country);
+			BeanPropertyAccessor.setSimpleProperty(out, countryName, country);
 		}
 		catch (IllegalAccessException e) {
 			logger.error("Bean access error", e);
@@ -104,7 +103,7 @@ public class CountryProcessor extends AbstractDataProcessor {
 	public boolean validateBean(Object in, boolean isMandatory, Map<String, Object> params, ProcessingResult result) {
 		String textCountry = null;
 		try {
-			textCountry = (String) PropertyUtils.getSimpleProperty(in, countryName);
+			textCountry = (String) BeanPropertyAccessor.getSimpleProperty(in, countryName);
 			if (process(textCountry, result) != null) {
 				return true;
 			}
@@ -141,6 +140,16 @@ public class CountryProcessor extends AbstractDataProcessor {
 	 * @return matching Country.
 	 */
 	public Country process(String countryStr, ProcessingResult result) {
+		if (!metrics.isEnabled()) {
+			return doProcess(countryStr, result);
+		}
+		long start = System.nanoTime();
+		Country country = doProcess(countryStr, result);
+		recordCall(start, StringUtils.isBlank(countryStr), country != null);
+		return country;
+	}
+
+	private Country doProcess(String countryStr, ProcessingResult result) {
 		if (StringUtils.isBlank(countryStr)) {
 			return null;
 		}
@@ -150,8 +159,8 @@ public class CountryProcessor extends AbstractDataProcessor {
 			return parsingResult.getPayload();
 		}
 		else {
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("country.error.notFound"), countryStr));
+			if (isErrorRecorded(result)) {
+				addError(result, "country.error.notFound", countryStr);
 			}
 		}
 		return null;
@@ -27,7 +27,7 @@ public class DecimalLatLongProcessor extends NumericPairDataProcessor {
 
 	public DecimalLatLongProcessor(String latitudePropertyName, String longitudePropertyName) {
 		super(latitudePropertyName, longitudePropertyName);
-		latLongHelper = new LatLongProcessorHelper(resourceBundle);
+		latLongHelper = new LatLongProcessorHelper(resourceBundle, getClass());
 	}
 
 	public DecimalLatLongProcessor(String latitudeInPropertyName, String longitudeInPropertyName, String latitudeOutPropertyName,
@@ -36,11 +36,11 @@ public class DecimalLatLongProcessor extends NumericPairDataProcessor {
 	}
 
 	@Override
-	public Number[] process(String value1, String value2, Class<? extends Number> clazz, ProcessingResult result) {
-		Number[] output = super.process(value1, value2, clazz, result);
+	protected Number[] doProcess(String value1, String value2, Class<? extends Number> clazz, ProcessingResult result) {
+		Number[] output = super.doProcess(value1, value2, clazz, result);
 
 		// validate output boundaries
-		latLongHelper.ensureLatLongBoundaries(output, result);
+		latLongHelper.ensureLatLongBoundaries(output, result, metrics);
 		return output;
 	}
 }
@@ -1,17 +1,14 @@
 package net.canadensys.processor.geography;
 
 import java.lang.reflect.InvocationTargetException;
-import java.text.MessageFormat;
 import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import net.canadensys.processor.AbstractDataProcessor;
+import net.canadensys.processor.BeanPropertyAccessor;
 import net.canadensys.processor.ProcessingResult;
-import net.canadensys.utils.NumberUtils;
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,33 +33,40 @@ public class DegreeMinuteToDecimalProcessor extends AbstractDataProcessor {
 
 	final Logger logger = LoggerFactory.getLogger(DegreeMinuteToDecimalProcessor.class);
 
+	// Deprecated fields of the previous regex implementation, not used anymore (the dms string is read by a scanner).
+	// They are only kept for subclasses.
+	@Deprecated
 	protected static int DEGREE_IDX = 0;
+	@Deprecated
 	protected static int MINUTE_IDX = 1;
+	@Deprecated
 	protected static int SECOND_IDX = 2;
-
-	protected static int MAX_MINUTE_SECOND = 60;
-
+	@Deprecated
 	protected static Pattern CHECK_CARDINAL_DIRECTION_PATTERN = Pattern.compile("[NESW]\\s*$", Pattern.CASE_INSENSITIVE);
+	@Deprecated
 	protected static Pattern CHECK_SOUTH_WEST_PATTERN = Pattern.compile("[SW]\\s*$", Pattern.CASE_INSENSITIVE);
-
+	@Deprecated
 	protected static Pattern CHECK_LATITUDE = Pattern.compile("[NS]\\s*$", Pattern.CASE_INSENSITIVE);
+	@Deprecated
 	protected static Pattern CHECK_LONGITUDE = Pattern.compile("[EW]\\s*$", Pattern.CASE_INSENSITIVE);
-
-	// negative sign(and whitespace) and NSEW letters and whitespace //\s*$
+	@Deprecated
 	protected static Pattern REMOVE_CARDINAL_DIRECTION_PATTERN = Pattern.compile("(^\\s?-\\s?)|(\\s?[NSEW]\\s*$)", Pattern.CASE_INSENSITIVE);
-
+	@Deprecated
 	protected static final Pattern KEEP_NUMBERS_PATTERN = Pattern.compile("[^\\d]");
-
-	// Regex info : (?:X) X, as a non-capturing group
-	// (\d*\.?\d+) :any int or decimal
-	// (?:[°d: ]+ :followed by at least °d: or a space
-	// (\d*\.?\d+) :any int or decimal (optional)
-	// (?:['m′: ])* :followed by an optional 'm:′
-	// (\d*\.?\d+)* :any int or decimal (optional)
-	// [\"s″ ]? :followed by an optional "s″
-	// This regex requires validation on extracted groups
+	@Deprecated
 	protected static Pattern SPLIT_DMS_PARTS = Pattern.compile("(\\d*\\.?\\d+)(?:[º°d: ]+)(\\d*\\.?\\d+)*(?:['m′‘'’‛: ])*(\\d*\\.?\\d+)*[\"s″“‟” ]?");
 
+	protected static int MAX_MINUTE_SECOND = 60;
+
+	// flags returned by scanSkippedChars
+	private static final int DIGIT_FLAG = 1;
+	private static final int SECOND_SYMBOL_FLAG = 2;
+	private static final int LINE_TERMINATOR_FLAG = 4;
+
+	// numbers of up to 15 digits are exactly represented by a double
+	private static final int MAX_EXACT_DIGITS = 15;
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15 };
+
 	// default Java bean field names.
 	protected static final String DEFAULT_LATITUDE_NAME = "lat";
 	protected static final String DEFAULT_LONGITUDE_NAME = "lng";
@@ -111,7 +115,7 @@ public class DegreeMinuteToDecimalProcessor extends AbstractDataProcessor {
 		this.longitudeOutName = longitudeOutName;
 
 		setLocale(Locale.ENGLISH);
-		latLongHelper = new LatLongProcessorHelper(resourceBundle);
+		latLongHelper = new LatLongProcessorHelper(resourceBundle, getClass());
 	}
 
 	/**
@@ -129,12 +133,12 @@ public class DegreeMinuteToDecimalProcessor extends AbstractDataProcessor {
 	@Override
 	public void processBean(Object in, Object out, Map<String, Object> params, ProcessingResult result) {
 		try {
-			String lat = (String) PropertyUtils.getSimpleProperty(in, latitudeInName);
-			String lng = (String) PropertyUtils.getSimpleProperty(in, longitudeInName);
+			String lat = (String) BeanPropertyAccessor.getSimpleProperty(in, latitudeInName);
+			String lng = (String) BeanPropertyAccessor.getSimpleProperty(in, longitudeInName);
 
 			Double[] output = process(lat, lng, result);
-			PropertyUtils.setSimpleProperty(out, latitudeOutName, output[LatLongProcessorHelper.LATITUDE_IDX]);
-			PropertyUtils.setSimpleProperty(out, longitudeOutName, output[LatLongProcessorHelper.LONGITUDE_IDX]);
+			BeanPropertyAccessor.setSimpleProperty(out, latitudeOutName, output[LatLongProcessorHelper.LATITUDE_IDX]);
+			BeanPropertyAccessor.setSimpleProperty(out, longitudeOutName, output[LatLongProcessorHelper.LONGITUDE_IDX]);
 		}
 		catch (IllegalAccessException e) {
 			logger.error("Bean access error", e);
@@ -151,8 +155,8 @@ public class DegreeMinuteToDecimalProcessor extends AbstractDataProcessor {
 	public boolean validateBean(Object in, boolean isMandatory, Map<String, Object> params, ProcessingResult result) {
 		String lat = null, lng = null;
 		try {
-			lat = (String) PropertyUtils.getSimpleProperty(in, latitudeInName);
-			lng = (String) PropertyUtils.getSimpleProperty(in, longitudeInName);
+			lat = (String) BeanPropertyAccessor.getSimpleProperty(in, latitudeInName);
+			lng = (String) BeanPropertyAccessor.getSimpleProperty(in, longitudeInName);
 
 			Double[] output = process(lat, lng, result);
 			if (output[LatLongProcessorHelper.LATITUDE_IDX] != null && output[LatLongProcessorHelper.LONGITUDE_IDX] != null) {
@@ -192,31 +196,50 @@ public class DegreeMinuteToDecimalProcessor extends AbstractDataProcessor {
 	 * @return decimal values of the dms coordinate or null
 	 */
 	public Double[] process(String dmsLat, String dmsLong, ProcessingResult result) {
+		if (!metrics.isEnabled()) {
+			return doProcess(dmsLat, dmsLong, result);
+		}
+		long start = System.nanoTime();
+		Double[] output = doProcess(dmsLat, dmsLong, result);
+		recordCall(start, StringUtils.isBlank(dmsLat) && StringUtils.isBlank(dmsLong),
+				output[LatLongProcessorHelper.LATITUDE_IDX] != null);
+		return output;
+	}
+
+	private Double[] doProcess(String dmsLat, String dmsLong, ProcessingResult result) {
 		Double[] output = new Double[2];
 		output[LatLongProcessorHelper.LATITUDE_IDX] = dmsToDecimalDegree(dmsLat, result);
 		output[LatLongProcessorHelper.LONGITUDE_IDX] = dmsToDecimalDegree(dmsLong, result);
 
 		// make sure that cardinal directions are valid
-		if (output[LatLongProcessorHelper.LATITUDE_IDX] != null && !CHECK_LATITUDE.matcher(dmsLat).find()) {
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("dms.error.noCardinalDirection"), dmsLat));
+		if (output[LatLongProcessorHelper.LATITUDE_IDX] != null && !hasCardinalDirection(dmsLat, true)) {
+			if (isErrorRecorded(result)) {
+				addError(result, "dms.error.noCardinalDirection", dmsLat);
 			}
 			output[LatLongProcessorHelper.LATITUDE_IDX] = null;
 		}
-		if (output[LatLongProcessorHelper.LONGITUDE_IDX] != null && !CHECK_LONGITUDE.matcher(dmsLong).find()) {
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("dms.error.noCardinalDirection"), dmsLong));
+		if (output[LatLongProcessorHelper.LONGITUDE_IDX] != null && !hasCardinalDirection(dmsLong, false)) {
+			if (isErrorRecorded(result)) {
+				addError(result, "dms.error.noCardinalDirection", dmsLong);
 			}
 			output[LatLongProcessorHelper.LONGITUDE_IDX] = null;
 		}
 
 		// use delegate to validate boundaries
-		latLongHelper.ensureLatLongBoundaries(output, result);
+		latLongHelper.ensureLatLongBoundaries(output, result, metrics);
 		return output;
 	}
 
 	/**
 	 * Degree/minute/second to decimal processing function.
+	 * The string is read in a single pass:
+	 * [-] degree degree_symbol+ [minute] minute_symbol* [second] [second_symbol] cardinal_direction
+	 * where the degree, the minute and the second can have decimals and the symbols are :
+	 * degree : º ° d : (space)
+	 * minute : ' ′ ‘ ’ ‛ m : (space)
+	 * second : " ″ “ ‟ ” s (space)
+	 * Any other text before or after the coordinate is ignored as long as it contains no digit. The minus sign is ignored,
+	 * the cardinal direction (case insensitive) gives the sign.
 	 * 
 	 * @param dms
 	 *            degree/minute/second string
@@ -225,101 +248,139 @@ public class DegreeMinuteToDecimalProcessor extends AbstractDataProcessor {
 	 * @return decimal value of the dms coordinate or null
 	 */
 	protected Double dmsToDecimalDegree(String dms, ProcessingResult result) {
-
-		if (StringUtils.isBlank(dms)) {
+		if (dms == null) {
 			return null;
 		}
+		double decimal = dmsToDecimalDegree(dms, 0, dms.length(), result);
+		return Double.isNaN(decimal) ? null : decimal;
+	}
+
+	/**
+	 * Same as dmsToDecimalDegree(String, ProcessingResult) on text[textStart, textEnd), used to avoid extracting the
+	 * coordinate from a longer string.
+	 * 
+	 * @param text
+	 * @param textStart
+	 *            index of the first character (inclusive)
+	 * @param textEnd
+	 *            index of the last character (exclusive)
+	 * @param result
+	 *            optional
+	 * @return decimal value of the dms coordinate or NaN
+	 */
+	double dmsToDecimalDegree(String text, int textStart, int textEnd, ProcessingResult result) {
+		if (isBlank(text, textStart, textEnd)) {
+			return Double.NaN;
+		}
 
 		// make sure we have a cardinal direction at the end
-		if (!CHECK_CARDINAL_DIRECTION_PATTERN.matcher(dms).find()) {
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("dms.error.noCardinalDirection"), dms));
+		int directionIdx = findCardinalDirection(text, textStart, textEnd);
+		if (directionIdx < 0) {
+			addDMSError(result, "dms.error.noCardinalDirection", text, textStart, textEnd);
+			return Double.NaN;
+		}
+		char direction = text.charAt(directionIdx);
+		int negation = (direction == 'S' || direction == 's' || direction == 'W' || direction == 'w') ? -1 : 1;
+
+		// ignore a leading minus sign (and one whitespace around it), the cardinal direction and the whitespace before it
+		int start = skipMinusSign(text, textStart, textEnd);
+		int end = directionIdx;
+		if (end > start && isWhitespace(text.charAt(end - 1))) {
+			end--;
+		}
+		// like the regex $, a final line terminator (other than a whitespace) could follow the cardinal direction
+		char lastChar = text.charAt(textEnd - 1);
+		int skippedFlags = (isLineTerminator(lastChar) && !isWhitespace(lastChar)) ? LINE_TERMINATOR_FLAG : 0;
+
+		// the degree is the first number followed by a degree symbol
+		int degreeStart = start;
+		int degreeEnd = -1;
+		while (degreeStart < end) {
+			degreeEnd = findNumberEnd(text, degreeStart, end);
+			if (degreeEnd > 0 && degreeEnd < end && isDegreeSymbol(text.charAt(degreeEnd))) {
+				break;
 			}
-			return null;
+			degreeStart++;
 		}
+		if (degreeStart == end) {
+			addDMSError(result, "dms.error.patternDoesntMatch", text, textStart, textEnd);
+			return Double.NaN;
+		}
+		skippedFlags |= scanSkippedChars(text, start, degreeStart);
 
-		// check if the dms contains S (south) or W (west) string
-		Matcher m = CHECK_SOUTH_WEST_PATTERN.matcher(dms);
-		int negation = m.find() ? -1 : 1;
-
-		// remove minus sign and cardinal direction from the string
-		String p_dms = REMOVE_CARDINAL_DIRECTION_PATTERN.matcher(dms).replaceAll("");
-
-		// this will be used for validation purpose
-		String allNumbers = KEEP_NUMBERS_PATTERN.matcher(dms).replaceAll("");
+		int i = degreeEnd + 1;
+		while (i < end && isDegreeSymbol(text.charAt(i))) {
+			i++;
+		}
 
-		m = SPLIT_DMS_PARTS.matcher(p_dms);
-		// find() need to be called to use group(idx)
-		if (!m.find()) {
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("dms.error.patternDoesntMatch"), dms));
+		// when numbers directly follow each other (e.g. 26.1.5), only the last one is kept
+		int minuteStart = -1, minuteEnd = -1;
+		int numberEnd;
+		while ((numberEnd = findNumberEnd(text, i, end)) > 0) {
+			if (minuteStart >= 0) {
+				skippedFlags |= DIGIT_FLAG;
 			}
-			return null;
+			minuteStart = i;
+			minuteEnd = numberEnd;
+			i = numberEnd;
+		}
+		while (i < end && isMinuteSymbol(text.charAt(i))) {
+			i++;
 		}
 
-		// start at 1 (0 is always the complete match)
-		// TODO Could we remove this part?
-		String[] parts = new String[3];
-		int partsIdx = 0;
-		String currPart;
-		for (int i = 1; i <= m.groupCount(); i++) {
-			currPart = m.group(i);
-			if (!StringUtils.isBlank(currPart)) {
-				parts[partsIdx] = currPart;
-				partsIdx++;
+		int secondStart = -1, secondEnd = -1;
+		while ((numberEnd = findNumberEnd(text, i, end)) > 0) {
+			if (secondStart >= 0) {
+				skippedFlags |= DIGIT_FLAG;
 			}
+			secondStart = i;
+			secondEnd = numberEnd;
+			i = numberEnd;
 		}
-		Double degree = NumberUtils.parseNumber(parts[DEGREE_IDX], Double.class, 0d);
-		Double minute = NumberUtils.parseNumber(parts[MINUTE_IDX], Double.class, 0d);
-		Double second = NumberUtils.parseNumber(parts[SECOND_IDX], Double.class, 0d);
+		skippedFlags |= scanSkippedChars(text, i, end);
+
+		// seconds without minutes are taken as minutes
+		if (minuteStart < 0) {
+			minuteStart = secondStart;
+			minuteEnd = secondEnd;
+			secondStart = -1;
+		}
+		double degree = parseNumber(text, degreeStart, degreeEnd);
+		double minute = (minuteStart < 0) ? 0 : parseNumber(text, minuteStart, minuteEnd);
+		double second = (secondStart < 0) ? 0 : parseNumber(text, secondStart, secondEnd);
 
 		// check numeric bounds of minute and seconds
-		if (!checkMinuteSecondBounds(minute, second, dms, result)) {
-			return null;
+		if (!checkMinuteSecondBounds(minute, second, text, textStart, textEnd, result)) {
+			return Double.NaN;
 		}
 
 		// make sure that we extracted all numbers
-		if (!KEEP_NUMBERS_PATTERN.matcher(parts[DEGREE_IDX] + parts[MINUTE_IDX] + StringUtils.defaultString(parts[SECOND_IDX], "")).replaceAll("")
-				.equalsIgnoreCase(allNumbers)) {
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("dms.error.patternDoesntMatch"), dms));
-			}
-			return null;
+		if ((skippedFlags & DIGIT_FLAG) != 0) {
+			addDMSError(result, "dms.error.patternDoesntMatch", text, textStart, textEnd);
+			return Double.NaN;
 		}
 
 		// If we have decimals on degree, we don't have minute and second
-		if (parts[DEGREE_IDX] != null && parts[DEGREE_IDX].contains(".")) {
-			if (parts[MINUTE_IDX] != null || parts[SECOND_IDX] != null) {
-				if (result != null) {
-					result.addError(MessageFormat.format(resourceBundle.getString("dms.error.decimalDegreeError"), dms));
-				}
-				return null;
-			}
+		if (minuteStart >= 0 && hasDecimals(text, degreeStart, degreeEnd)) {
+			addDMSError(result, "dms.error.decimalDegreeError", text, textStart, textEnd);
+			return Double.NaN;
 		}
 
 		// If we have decimals on minute, we don't have second
-		if (parts[MINUTE_IDX] != null && parts[MINUTE_IDX].contains(".")) {
-			if (parts[SECOND_IDX] != null) {
-				if (result != null) {
-					result.addError(MessageFormat.format(resourceBundle.getString("dms.error.decimalMinuteError"), dms));
-				}
-				return null;
-			}
+		if (secondStart >= 0 && hasDecimals(text, minuteStart, minuteEnd)) {
+			addDMSError(result, "dms.error.decimalMinuteError", text, textStart, textEnd);
+			return Double.NaN;
 		}
 
 		// If we have extracted nothing in second, but we have a second identifier ("s″), minute was not provided.
-		if (parts[SECOND_IDX] == null) {
-			if (p_dms.matches(".*[\"s″].*")) {
-				if (result != null) {
-					result.addError(MessageFormat.format(resourceBundle.getString("dms.error.unprocessable"), dms));
-				}
-				return null;
-			}
+		// (the text is ignored if it contains a line terminator, as the previous regex implementation did)
+		if (secondStart < 0 && (skippedFlags & (SECOND_SYMBOL_FLAG | LINE_TERMINATOR_FLAG)) == SECOND_SYMBOL_FLAG) {
+			addDMSError(result, "dms.error.unprocessable", text, textStart, textEnd);
+			return Double.NaN;
 		}
 
 		// compute decimal value
-		double decimal = (degree + (minute / 60) + (second / 3600)) * negation;
-		return decimal;
+		return (degree + (minute / 60) + (second / 3600)) * negation;
 	}
 
 	/**
@@ -327,29 +388,246 @@ public class DegreeMinuteToDecimalProcessor extends AbstractDataProcessor {
 	 * 
 	 * @param minute
 	 * @param second
-	 * @param dms
-	 *            original degree, minute, second string
+	 * @param text
+	 *            text containing the original degree, minute, second string in [start, end)
+	 * @param start
+	 * @param end
 	 * @param result
 	 *            can be null
 	 * @return bounds are respected or not
 	 */
-	private boolean checkMinuteSecondBounds(Double minute, Double second, String dms, ProcessingResult result) {
+	private boolean checkMinuteSecondBounds(double minute, double second, String text, int start, int end, ProcessingResult result) {
 		if (minute >= MAX_MINUTE_SECOND) {
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("dms.error.minuteOutOfBounds"), dms));
-			}
+			addDMSError(result, "dms.error.minuteOutOfBounds", text, start, end);
 			return false;
 		}
 
 		if (second >= MAX_MINUTE_SECOND) {
-			if (result != null) {
-				result.addError(MessageFormat.format(resourceBundle.getString("dms.error.secondOutOfBounds"), dms));
-			}
+			addDMSError(result, "dms.error.secondOutOfBounds", text, start, end);
 			return false;
 		}
 		return true;
 	}
 
+	/**
+	 * Record an error using the original degree, minute, second string text[start, end) as value.
+	 */
+	private void addDMSError(ProcessingResult result, String key, String text, int start, int end) {
+		if (isErrorRecorded(result)) {
+			addError(result, key, text.substring(start, end));
+		}
+	}
+
+	/**
+	 * Check if the text ends with a latitude (N,S) or a longitude (E,W) cardinal direction, case insensitive.
+	 * 
+	 * @param text
+	 * @param latitude
+	 * @return
+	 */
+	private static boolean hasCardinalDirection(String text, boolean latitude) {
+		int directionIdx = findCardinalDirection(text, 0, text.length());
+		return directionIdx >= 0 && isLatitudeDirection(text.charAt(directionIdx)) == latitude;
+	}
+
+	/**
+	 * Find the cardinal direction (N, E, S or W, case insensitive) in text[start, end), it must be the last character,
+	 * trailing whitespaces excluded.
+	 * 
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @return index of the cardinal direction or -1
+	 */
+	private static int findCardinalDirection(String text, int start, int end) {
+		int i = end;
+		// a final line terminator is accepted after trailing whitespaces
+		if (i > start && isLineTerminator(text.charAt(i - 1)) && !isWhitespace(text.charAt(i - 1))) {
+			i--;
+		}
+		while (i > start && isWhitespace(text.charAt(i - 1))) {
+			i--;
+		}
+		if (i == start) {
+			return -1;
+		}
+		switch (text.charAt(i - 1)) {
+			case 'N':
+			case 'n':
+			case 'E':
+			case 'e':
+			case 'S':
+			case 's':
+			case 'W':
+			case 'w':
+				return i - 1;
+			default:
+				return -1;
+		}
+	}
+
+	private static boolean isLatitudeDirection(char direction) {
+		return direction == 'N' || direction == 'n' || direction == 'S' || direction == 's';
+	}
+
+	/**
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @return index of the first character following the leading minus sign (and one whitespace around it) or start
+	 */
+	private static int skipMinusSign(String text, int start, int end) {
+		int i;
+		if (end - start > 1 && isWhitespace(text.charAt(start)) && text.charAt(start + 1) == '-') {
+			i = start + 2;
+		}
+		else if (text.charAt(start) == '-') {
+			i = start + 1;
+		}
+		else {
+			return start;
+		}
+		if (i < end && isWhitespace(text.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Find the end of the number starting at start, a number can have decimals (e.g. 26, 26.5, .5).
+	 * 
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @return index of the first character following the number or -1 if there is no number at start
+	 */
+	private static int findNumberEnd(String text, int start, int end) {
+		int i = start;
+		while (i < end && isDigit(text.charAt(i))) {
+			i++;
+		}
+		if (i + 1 < end && text.charAt(i) == '.' && isDigit(text.charAt(i + 1))) {
+			i += 2;
+			while (i < end && isDigit(text.charAt(i))) {
+				i++;
+			}
+		}
+		return i > start ? i : -1;
+	}
+
+	/**
+	 * Parse the number text[start, end) made of digits and an optional decimal point, the value is identical to
+	 * Double.parseDouble.
+	 */
+	static double parseNumber(String text, int start, int end) {
+		if (end - start > MAX_EXACT_DIGITS) {
+			return Double.parseDouble(text.substring(start, end));
+		}
+		long mantissa = 0;
+		int scale = 0;
+		boolean decimals = false;
+		char c;
+		for (int i = start; i < end; i++) {
+			c = text.charAt(i);
+			if (c == '.') {
+				decimals = true;
+			}
+			else {
+				mantissa = mantissa * 10 + (c - '0');
+				if (decimals) {
+					scale++;
+				}
+			}
+		}
+		// both values are exact, the division is correctly rounded
+		return mantissa / POWERS_OF_TEN[scale];
+	}
+
+	private static boolean hasDecimals(String text, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (text.charAt(i) == '.') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Scan characters that are not part of the coordinate.
+	 * 
+	 * @return DIGIT_FLAG, SECOND_SYMBOL_FLAG and LINE_TERMINATOR_FLAG if at least one such character was found
+	 */
+	private static int scanSkippedChars(String text, int start, int end) {
+		int flags = 0;
+		char c;
+		for (int i = start; i < end; i++) {
+			c = text.charAt(i);
+			if (isDigit(c)) {
+				flags |= DIGIT_FLAG;
+			}
+			else if (c == '"' || c == 's' || c == '″') {
+				flags |= SECOND_SYMBOL_FLAG;
+			}
+			else if (isLineTerminator(c)) {
+				flags |= LINE_TERMINATOR_FLAG;
+			}
+		}
+		return flags;
+	}
+
+	private static boolean isBlank(String text, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (!Character.isWhitespace(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isDegreeSymbol(char c) {
+		switch (c) {
+			case 'º':
+			case '°':
+			case 'd':
+			case ':':
+			case ' ':
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	private static boolean isMinuteSymbol(char c) {
+		switch (c) {
+			case '\'':
+			case '′':
+			case '‘':
+			case '’':
+			case '‛':
+			case 'm':
+			case ':':
+			case ' ':
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Same as the regex \s
+	 */
+	static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+
 	@Override
 	public ErrorHandlingModeEnum getErrorHandlingMode() {
 		return errorHandlingMode;
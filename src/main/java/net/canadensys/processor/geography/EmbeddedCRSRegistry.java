@@ -0,0 +1,239 @@
+package net.canadensys.processor.geography;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.geotools.referencing.CRS;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+/**
+ * Registry of common coordinate reference systems (WGS84, NAD27, NAD83, NAD83(CSRS) and their UTM zones, some national grids)
+ * defined as WKT in a bundled resource (see DEFAULT_REGISTRY_FILE).
+ * Those CRS are parsed by GeoTools without opening the EPSG database, the datum shifts to WGS84 are the ones written in the
+ * definitions. The parsed CRS have no identifier (AUTHORITY) so GeoTools doesn't look for their coordinate operations in the
+ * EPSG database.
+ *
+ * @author canadensys
+ *
+ */
+public class EmbeddedCRSRegistry {
+
+	public static final String DEFAULT_REGISTRY_FILE = "/coordinates/crs_registry.properties";
+
+	private static final String EPSG_PREFIX = "EPSG:";
+	private static final String UTM_KEY_PREFIX = "utm.";
+	private static final Pattern REFERENCE_PATTERN = Pattern.compile("\\{(\\d+)\\}");
+
+	// WKT by EPSG code, with the references resolved
+	private final Map<Integer, String> definitions;
+	private final ConcurrentMap<Integer, CoordinateReferenceSystem> crsCache = new ConcurrentHashMap<Integer, CoordinateReferenceSystem>();
+
+	private static class DefaultRegistryHolder {
+		private static final EmbeddedCRSRegistry INSTANCE;
+		static {
+			try {
+				INSTANCE = new EmbeddedCRSRegistry(DEFAULT_REGISTRY_FILE);
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Can't load " + DEFAULT_REGISTRY_FILE, e);
+			}
+		}
+	}
+
+	/**
+	 * Get the registry of the bundled definitions.
+	 *
+	 * @return
+	 */
+	public static EmbeddedCRSRegistry getInstance() {
+		return DefaultRegistryHolder.INSTANCE;
+	}
+
+	/**
+	 * Create a registry from a definitions file.
+	 *
+	 * @param resourceName
+	 *            classpath resource using the format of DEFAULT_REGISTRY_FILE
+	 * @throws IOException
+	 */
+	public EmbeddedCRSRegistry(String resourceName) throws IOException {
+		InputStream is = EmbeddedCRSRegistry.class.getResourceAsStream(resourceName);
+		if (is == null) {
+			throw new IOException(resourceName + " not found");
+		}
+		Properties properties = new Properties();
+		try {
+			properties.load(is);
+		}
+		finally {
+			is.close();
+		}
+		definitions = Collections.unmodifiableMap(readDefinitions(properties));
+	}
+
+	private static Map<Integer, String> readDefinitions(Properties properties) throws IOException {
+		Map<Integer, String> rawDefinitions = new HashMap<Integer, String>();
+		Map<Integer, String> utmRanges = new HashMap<Integer, String>();
+		for (Entry<Object, Object> entry : properties.entrySet()) {
+			String key = entry.getKey().toString().trim();
+			String value = entry.getValue().toString().trim();
+			try {
+				if (key.startsWith(UTM_KEY_PREFIX)) {
+					utmRanges.put(Integer.valueOf(key.substring(UTM_KEY_PREFIX.length())), value);
+				}
+				else {
+					rawDefinitions.put(Integer.valueOf(key), value);
+				}
+			}
+			catch (NumberFormatException e) {
+				throw new IOException("Invalid EPSG code in definition " + key);
+			}
+		}
+
+		Map<Integer, String> resolvedDefinitions = new HashMap<Integer, String>();
+		for (Entry<Integer, String> entry : rawDefinitions.entrySet()) {
+			resolvedDefinitions.put(entry.getKey(), resolveReferences(entry.getValue(), rawDefinitions));
+		}
+		for (Entry<Integer, String> entry : utmRanges.entrySet()) {
+			addUTMZones(entry.getKey(), entry.getValue(), resolvedDefinitions);
+		}
+		return resolvedDefinitions;
+	}
+
+	/**
+	 * Replace the {code} references by the WKT of the referenced definition.
+	 */
+	private static String resolveReferences(String wkt, Map<Integer, String> rawDefinitions) throws IOException {
+		Matcher m = REFERENCE_PATTERN.matcher(wkt);
+		StringBuffer sb = new StringBuffer();
+		while (m.find()) {
+			String referencedWKT = rawDefinitions.get(Integer.valueOf(m.group(1)));
+			if (referencedWKT == null) {
+				throw new IOException("Unknown reference " + m.group());
+			}
+			m.appendReplacement(sb, Matcher.quoteReplacement(referencedWKT));
+		}
+		m.appendTail(sb);
+		return sb.toString();
+	}
+
+	/**
+	 * Generate the WKT of a range of UTM zones.
+	 *
+	 * @param firstCode
+	 *            EPSG code of the first zone
+	 * @param range
+	 *            (geographic CRS code),(first zone),(last zone),(N|S),(name of the geographic CRS)
+	 * @param resolvedDefinitions
+	 * @throws IOException
+	 */
+	private static void addUTMZones(int firstCode, String range, Map<Integer, String> resolvedDefinitions) throws IOException {
+		String[] elements = range.split(",", 5);
+		if (elements.length != 5) {
+			throw new IOException("Invalid UTM range " + range);
+		}
+		String geographicWKT = resolvedDefinitions.get(Integer.valueOf(elements[0].trim()));
+		if (geographicWKT == null) {
+			throw new IOException("Unknown geographic CRS in UTM range " + range);
+		}
+		int firstZone = Integer.parseInt(elements[1].trim());
+		int lastZone = Integer.parseInt(elements[2].trim());
+		boolean north = "N".equals(elements[3].trim());
+		String geographicName = elements[4].trim();
+
+		for (int zone = firstZone; zone <= lastZone; zone++) {
+			int code = firstCode + zone - firstZone;
+			String wkt = "PROJCS[\"" + geographicName + " / UTM zone " + zone + (north ? "N" : "S") + "\", " + geographicWKT
+					+ ", PROJECTION[\"Transverse_Mercator\"], PARAMETER[\"central_meridian\", " + (zone * 6 - 183) + ".0], "
+					+ "PARAMETER[\"latitude_of_origin\", 0.0], PARAMETER[\"scale_factor\", 0.9996], "
+					+ "PARAMETER[\"false_easting\", 500000.0], PARAMETER[\"false_northing\", " + (north ? "0.0" : "10000000.0") + "], "
+					+ "UNIT[\"m\", 1.0], AXIS[\"Easting\", EAST], AXIS[\"Northing\", NORTH]]";
+			resolvedDefinitions.put(code, wkt);
+		}
+	}
+
+	/**
+	 * Get a CRS of the registry, parsed CRS are cached.
+	 *
+	 * @param coordinateSystem
+	 *            e.g. EPSG:26918
+	 * @return the CRS or null if the code is not in the registry
+	 * @throws FactoryException
+	 *             if the definition can not be parsed
+	 */
+	public CoordinateReferenceSystem getCRS(String coordinateSystem) throws FactoryException {
+		Integer code = toEPSGCode(coordinateSystem);
+		if (code == null) {
+			return null;
+		}
+		CoordinateReferenceSystem crs = crsCache.get(code);
+		if (crs == null) {
+			String wkt = definitions.get(code);
+			if (wkt == null) {
+				return null;
+			}
+			crs = CRS.parseWKT(wkt);
+			CoordinateReferenceSystem previous = crsCache.putIfAbsent(code, crs);
+			if (previous != null) {
+				crs = previous;
+			}
+		}
+		return crs;
+	}
+
+	/**
+	 * @param coordinateSystem
+	 *            e.g. EPSG:26918
+	 * @return the code is in the registry
+	 */
+	public boolean contains(String coordinateSystem) {
+		Integer code = toEPSGCode(coordinateSystem);
+		return code != null && definitions.containsKey(code);
+	}
+
+	/**
+	 * @return all the codes of the registry (e.g. EPSG:26918), sorted by code
+	 */
+	public Set<String> getCodes() {
+		Set<String> codes = new LinkedHashSet<String>();
+		for (Integer code : new TreeSet<Integer>(definitions.keySet())) {
+			codes.add(EPSG_PREFIX + code);
+		}
+		return codes;
+	}
+
+	/**
+	 * @param coordinateSystem
+	 *            e.g. EPSG:26918 (case insensitive)
+	 * @return the numeric code or null if coordinateSystem is not an EPSG code
+	 */
+	private static Integer toEPSGCode(String coordinateSystem) {
+		if (coordinateSystem == null) {
+			return null;
+		}
+		String code = coordinateSystem.trim();
+		if (!code.toUpperCase(Locale.ENGLISH).startsWith(EPSG_PREFIX)) {
+			return null;
+		}
+		try {
+			return Integer.valueOf(code.substring(EPSG_PREFIX.length()).trim());
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+}
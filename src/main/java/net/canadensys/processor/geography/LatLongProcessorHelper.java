@@ -1,9 +1,11 @@
 package net.canadensys.processor.geography;
 
-import java.text.MessageFormat;
 import java.util.ResourceBundle;
 
+import net.canadensys.processor.NoOpProcessorMetrics;
+import net.canadensys.processor.ProcessingError;
 import net.canadensys.processor.ProcessingResult;
+import net.canadensys.processor.ProcessorMetrics;
 
 /**
  * Helper class to be used by processors for common lat/long related tasks.
@@ -25,9 +27,21 @@ public class LatLongProcessorHelper {
 	public static final double MAX_LONGITUDE = 180d;
 
 	protected ResourceBundle resourceBundle = null;
+	// processor recording the errors
+	protected Class<?> processorClass;
 
 	public LatLongProcessorHelper(ResourceBundle resourceBundle) {
+		this(resourceBundle, LatLongProcessorHelper.class);
+	}
+
+	/**
+	 * @param resourceBundle
+	 * @param processorClass
+	 *            class of the processor using the helper, used in the recorded errors
+	 */
+	public LatLongProcessorHelper(ResourceBundle resourceBundle, Class<?> processorClass) {
 		this.resourceBundle = resourceBundle;
+		this.processorClass = processorClass;
 	}
 
 	/**
@@ -38,12 +52,24 @@ public class LatLongProcessorHelper {
 	 * @param result
 	 */
 	public void ensureLatLongBoundaries(Number[] output, ProcessingResult result) {
+		ensureLatLongBoundaries(output, result, NoOpProcessorMetrics.INSTANCE);
+	}
+
+	/**
+	 * Same as ensureLatLongBoundaries(Number[], ProcessingResult) but also reports the errors to the metrics of the processor.
+	 * 
+	 * @param output
+	 * @param result
+	 * @param metrics
+	 */
+	public void ensureLatLongBoundaries(Number[] output, ProcessingResult result, ProcessorMetrics metrics) {
 		// validate output boundaries
 		if (output[LATITUDE_IDX] != null) {
 			if (output[LATITUDE_IDX].doubleValue() > MAX_LATITUDE || output[LATITUDE_IDX].doubleValue() < MIN_LATITUDE) {
+				metrics.recordError("decimalLatLong.error.outOfBounds");
 				if (result != null) {
-					result.addError(MessageFormat.format(resourceBundle.getString("decimalLatLong.error.outOfBounds"),
-							output[LATITUDE_IDX].doubleValue(), MIN_LATITUDE, MAX_LATITUDE));
+					result.addError(new ProcessingError(processorClass, resourceBundle, "decimalLatLong.error.outOfBounds", output[LATITUDE_IDX]
+							.doubleValue(), MIN_LATITUDE, MAX_LATITUDE));
 				}
 				output[LATITUDE_IDX] = null;
 			}
@@ -51,9 +77,10 @@ public class LatLongProcessorHelper {
 
 		if (output[LONGITUDE_IDX] != null) {
 			if (output[LONGITUDE_IDX].doubleValue() > MAX_LONGITUDE || output[LONGITUDE_IDX].doubleValue() < MIN_LONGITUDE) {
+				metrics.recordError("decimalLatLong.error.outOfBounds");
 				if (result != null) {
-					result.addError(MessageFormat.format(resourceBundle.getString("decimalLatLong.error.outOfBounds"),
-							output[LONGITUDE_IDX].doubleValue(), MIN_LONGITUDE, MAX_LONGITUDE));
+					result.addError(new ProcessingError(processorClass, resourceBundle, "decimalLatLong.error.outOfBounds", output[LONGITUDE_IDX]
+							.doubleValue(), MIN_LONGITUDE, MAX_LONGITUDE));
 				}
 				output[LONGITUDE_IDX] = null;
 			}
@@ -0,0 +1,206 @@
+package net.canadensys.processor.geography;
+
+import java.util.Locale;
+
+/**
+ * Pure-Java inverse Transverse Mercator for the UTM zones of WGS84 (EPSG:32601 to EPSG:32660, EPSG:32701 to EPSG:32760)
+ * and NAD83 (EPSG:26901 to EPSG:26923), NAD83 is considered identical to WGS84 like the EPSG database does (EPSG:1188).
+ * Uses the 6th order Krüger series (Karney, Transverse Mercator with an accuracy of a few nanometers, 2011) on primitive
+ * doubles, no object is allocated and GeoTools is not required.
+ * The conversion is limited to the area where UTM is used (latitude between -84 and 84, at most 4 degrees of longitude from
+ * the central meridian), within that area the error of the series is below 1 micrometer. Coordinates outside that area are
+ * refused so the caller can use a more general transform.
+ * Instances are immutable and can be shared between threads.
+ *
+ * @author canadensys
+ *
+ */
+public class UTMToWGS84Converter {
+
+	public static final double MAX_LATITUDE = 84;
+	public static final double MAX_LONGITUDE_OFFSET = 4;
+
+	private static final String EPSG_PREFIX = "EPSG:";
+
+	private static final double WGS84_SEMI_MAJOR_AXIS = 6378137.0;
+	private static final double WGS84_INVERSE_FLATTENING = 298.257223563;
+	private static final double GRS80_INVERSE_FLATTENING = 298.257222101;
+
+	private static final double SCALE_FACTOR = 0.9996;
+	private static final double FALSE_EASTING = 500000;
+	private static final double SOUTH_FALSE_NORTHING = 10000000;
+	// rough bounds to refuse meaningless values before doing any trigonometry
+	private static final double MAX_EASTING_OFFSET = 1000000;
+	private static final double MAX_NORTHING_OFFSET = 10000000;
+
+	private final int zone;
+	private final boolean north;
+	private final double centralMeridian;
+	private final double falseNorthing;
+
+	// scale factor times the rectifying radius
+	private final double k0A;
+	// Krüger series coefficients, from the projected coordinates to the conformal sphere
+	private final double[] beta = new double[6];
+	// from the conformal latitude to the geodetic latitude
+	private final double[] delta = new double[6];
+
+	/**
+	 * @param zone
+	 *            UTM zone between 1 and 60
+	 * @param north
+	 *            northern hemisphere (false northing of 0) or southern hemisphere (false northing of 10000000)
+	 * @param inverseFlattening
+	 *            inverse flattening of the ellipsoid, the semi-major axis must be the one of WGS84 (6378137)
+	 */
+	public UTMToWGS84Converter(int zone, boolean north, double inverseFlattening) {
+		if (zone < 1 || zone > 60) {
+			throw new IllegalArgumentException("Invalid UTM zone " + zone);
+		}
+		this.zone = zone;
+		this.north = north;
+		this.centralMeridian = zone * 6 - 183;
+		this.falseNorthing = north ? 0 : SOUTH_FALSE_NORTHING;
+
+		double f = 1 / inverseFlattening;
+		double n = f / (2 - f);
+		double n2 = n * n;
+		double n3 = n2 * n;
+		double n4 = n3 * n;
+		double n5 = n4 * n;
+		double n6 = n5 * n;
+
+		k0A = SCALE_FACTOR * WGS84_SEMI_MAJOR_AXIS / (1 + n) * (1 + n2 / 4 + n4 / 64 + n6 / 256);
+
+		beta[0] = n / 2 - 2 * n2 / 3 + 37 * n3 / 96 - n4 / 360 - 81 * n5 / 512 + 96199 * n6 / 604800;
+		beta[1] = n2 / 48 + n3 / 15 - 437 * n4 / 1440 + 46 * n5 / 105 - 1118711 * n6 / 3870720;
+		beta[2] = 17 * n3 / 480 - 37 * n4 / 840 - 209 * n5 / 4480 + 5569 * n6 / 90720;
+		beta[3] = 4397 * n4 / 161280 - 11 * n5 / 504 - 830251 * n6 / 7257600;
+		beta[4] = 4583 * n5 / 161280 - 108847 * n6 / 3991680;
+		beta[5] = 20648693 * n6 / 638668800;
+
+		delta[0] = 2 * n - 2 * n2 / 3 - 2 * n3 + 116 * n4 / 45 + 26 * n5 / 45 - 2854 * n6 / 675;
+		delta[1] = 7 * n2 / 3 - 8 * n3 / 5 - 227 * n4 / 45 + 2704 * n5 / 315 + 2323 * n6 / 945;
+		delta[2] = 56 * n3 / 15 - 136 * n4 / 35 - 1262 * n5 / 105 + 73814 * n6 / 2835;
+		delta[3] = 4279 * n4 / 630 - 332 * n5 / 35 - 399572 * n6 / 14175;
+		delta[4] = 4174 * n5 / 315 - 144838 * n6 / 6237;
+		delta[5] = 601676 * n6 / 22275;
+	}
+
+	/**
+	 * Get the converter of an EPSG code.
+	 *
+	 * @param coordinateSystem
+	 *            e.g. EPSG:26918 (case insensitive)
+	 * @return the converter or null if coordinateSystem is not a supported UTM zone
+	 */
+	public static UTMToWGS84Converter forEPSGCode(String coordinateSystem) {
+		if (coordinateSystem == null) {
+			return null;
+		}
+		String code = coordinateSystem.trim();
+		if (!code.toUpperCase(Locale.ENGLISH).startsWith(EPSG_PREFIX)) {
+			return null;
+		}
+		int epsgCode;
+		try {
+			epsgCode = Integer.parseInt(code.substring(EPSG_PREFIX.length()).trim());
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+
+		if (epsgCode >= 32601 && epsgCode <= 32660) {
+			return new UTMToWGS84Converter(epsgCode - 32600, true, WGS84_INVERSE_FLATTENING);
+		}
+		if (epsgCode >= 32701 && epsgCode <= 32760) {
+			return new UTMToWGS84Converter(epsgCode - 32700, false, WGS84_INVERSE_FLATTENING);
+		}
+		if (epsgCode >= 26901 && epsgCode <= 26923) {
+			return new UTMToWGS84Converter(epsgCode - 26900, true, GRS80_INVERSE_FLATTENING);
+		}
+		return null;
+	}
+
+	public int getZone() {
+		return zone;
+	}
+
+	public boolean isNorth() {
+		return north;
+	}
+
+	/**
+	 * Convert UTM coordinates to WGS84 decimal longitude, latitude.
+	 *
+	 * @param easting
+	 * @param northing
+	 * @param longitudeLatitude
+	 *            receives the longitude at offset and the latitude at offset + 1, untouched if the coordinate is refused
+	 * @param offset
+	 * @return the coordinate was converted, false if it is outside the area of the converter (or NaN)
+	 */
+	public boolean toWGS84(double easting, double northing, double[] longitudeLatitude, int offset) {
+		double x = easting - FALSE_EASTING;
+		double y = northing - falseNorthing;
+		// written to also refuse NaN
+		if (!(Math.abs(x) <= MAX_EASTING_OFFSET && Math.abs(y) <= MAX_NORTHING_OFFSET)) {
+			return false;
+		}
+
+		double xi = y / k0A;
+		double eta = x / k0A;
+
+		// sin(2j xi), cos(2j xi), sinh(2j eta) and cosh(2j eta) are computed by recurrence from j = 1
+		double sin2Xi = Math.sin(2 * xi);
+		double cos2Xi = Math.cos(2 * xi);
+		double exp2Eta = Math.exp(2 * eta);
+		double sinh2Eta = (exp2Eta - 1 / exp2Eta) / 2;
+		double cosh2Eta = (exp2Eta + 1 / exp2Eta) / 2;
+
+		double sinJ = sin2Xi, cosJ = cos2Xi, sinhJ = sinh2Eta, coshJ = cosh2Eta;
+		double xiPrime = xi;
+		double etaPrime = eta;
+		for (int j = 0; j < 6; j++) {
+			xiPrime -= beta[j] * sinJ * coshJ;
+			etaPrime -= beta[j] * cosJ * sinhJ;
+
+			double nextSin = sinJ * cos2Xi + cosJ * sin2Xi;
+			cosJ = cosJ * cos2Xi - sinJ * sin2Xi;
+			sinJ = nextSin;
+			double nextSinh = sinhJ * cosh2Eta + coshJ * sinh2Eta;
+			coshJ = coshJ * cosh2Eta + sinhJ * sinh2Eta;
+			sinhJ = nextSinh;
+		}
+
+		double expEtaPrime = Math.exp(etaPrime);
+		double sinhEtaPrime = (expEtaPrime - 1 / expEtaPrime) / 2;
+		double coshEtaPrime = (expEtaPrime + 1 / expEtaPrime) / 2;
+
+		double longitudeOffset = Math.toDegrees(Math.atan2(sinhEtaPrime, Math.cos(xiPrime)));
+		// conformal latitude
+		double sinChi = Math.sin(xiPrime) / coshEtaPrime;
+		double chi = Math.asin(sinChi);
+
+		double sin2Chi = 2 * sinChi * Math.sqrt(1 - sinChi * sinChi);
+		double cos2Chi = 1 - 2 * sinChi * sinChi;
+		sinJ = sin2Chi;
+		cosJ = cos2Chi;
+		double phi = chi;
+		for (int j = 0; j < 6; j++) {
+			phi += delta[j] * sinJ;
+
+			double nextSin = sinJ * cos2Chi + cosJ * sin2Chi;
+			cosJ = cosJ * cos2Chi - sinJ * sin2Chi;
+			sinJ = nextSin;
+		}
+		double latitude = Math.toDegrees(phi);
+
+		if (!(Math.abs(longitudeOffset) <= MAX_LONGITUDE_OFFSET && Math.abs(latitude) <= MAX_LATITUDE)) {
+			return false;
+		}
+		longitudeLatitude[offset] = centralMeridian + longitudeOffset;
+		longitudeLatitude[offset + 1] = latitude;
+		return true;
+	}
+}
@@ -1,16 +1,15 @@
 package net.canadensys.processor.numeric;
 
 import java.lang.reflect.InvocationTargetException;
-import java.text.MessageFormat;
 import java.util.Locale;
 import java.util.Map;
 import java.util.regex.Pattern;
 
 import net.canadensys.processor.AbstractDataProcessor;
+import net.canadensys.processor.BeanPropertyAccessor;
 import net.canadensys.processor.ProcessingResult;
 import net.canadensys.utils.NumberUtils;
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -99,13 +98,13 @@ public class NumericPairDataProcessor extends AbstractDataProcessor {
 	public void processBean(Object in, Object out, Map<String, Object> params, ProcessingResult result) {
 
 		try {
-			String val1 = (String) PropertyUtils.getSimpleProperty(in, value1InName);
-			String val2 = (String) PropertyUtils.getSimpleProperty(in, value2InName);
+			String val1 = (String) BeanPropertyAccessor.getSimpleProperty(in, value1InName);
+			String val2 = (String) BeanPropertyAccessor.getSimpleProperty(in, value2InName);
 
-			Number[] output = process(val1, val2, PropertyUtils.getPropertyType(out, value1OutName), result);
+			Number[] output = process(val1, val2, (Class<? extends Number>) BeanPropertyAccessor.getPropertyType(out, value1OutName), result);
 
-			PropertyUtils.setSimpleProperty(out, value1OutName, output[0]);
-			PropertyUtils.setSimpleProperty(out, value2OutName, output[1]);
+			BeanPropertyAccessor.setSimpleProperty(out, value1OutName, output[0]);
+			BeanPropertyAccessor.setSimpleProperty(out, value2OutName, output[1]);
 		}
 		catch (IllegalAccessException e) {
 			logger.error("Bean access error", e);
@@ -138,8 +137,8 @@ public class NumericPairDataProcessor extends AbstractDataProcessor {
 		}
 
 		try {
-			val1 = (String) PropertyUtils.getSimpleProperty(in, value1InName);
-			val2 = (String) PropertyUtils.getSimpleProperty(in, value2InName);
+			val1 = (String) BeanPropertyAccessor.getSimpleProperty(in, value1InName);
+			val2 = (String) BeanPropertyAccessor.getSimpleProperty(in, value2InName);
 			Number[] output = process(val1, val2, clazz, result);
 			if (output[0] != null && output[1] != null) {
 				return true;
@@ -178,6 +177,21 @@ public class NumericPairDataProcessor extends AbstractDataProcessor {
 	 * @return 2 dimensions array with instance of clazz or null if the process failed
 	 */
 	public Number[] process(String value1, String value2, Class<? extends Number> clazz, ProcessingResult result) {
+		if (!metrics.isEnabled()) {
+			return doProcess(value1, value2, clazz, result);
+		}
+		long start = System.nanoTime();
+		Number[] output = doProcess(value1, value2, clazz, result);
+		// blank values are not expected to be parsed
+		recordCall(start, StringUtils.isBlank(value1) && StringUtils.isBlank(value2), (output[0] != null || StringUtils.isBlank(value1))
+				&& (output[1] != null || StringUtils.isBlank(value2)));
+		return output;
+	}
+
+	/**
+	 * Processing function called by process(...), subclasses should override this method to keep the calls measured once.
+	 */
+	protected Number[] doProcess(String value1, String value2, Class<? extends Number> clazz, ProcessingResult result) {
 		String originalValue1 = value1;
 		String originalValue2 = value2;
 		if (!StringUtils.isBlank(originalValue1)) {
@@ -191,13 +205,13 @@ public class NumericPairDataProcessor extends AbstractDataProcessor {
 		output[1] = NumberUtils.parseNumber(value2, clazz);
 
 		// Do we need to log the result?
-		if (result != null) {
+		if (isErrorRecorded(result)) {
 			// It's an error only if the original value was not null
 			if (output[0] == null && !StringUtils.isBlank(originalValue1)) {
-				result.addError(MessageFormat.format(resourceBundle.getString("numericPair.error.unprocessable"), originalValue1));
+				addError(result, "numericPair.error.unprocessable", originalValue1);
 			}
 			if (output[1] == null && !StringUtils.isBlank(originalValue2)) {
-				result.addError(MessageFormat.format(resourceBundle.getString("numericPair.error.unprocessable"), originalValue2));
+				addError(result, "numericPair.error.unprocessable", originalValue2);
 			}
 		}
 		return output;
@@ -7,9 +7,9 @@ import java.util.Map;
 import java.util.regex.Pattern;
 
 import net.canadensys.processor.AbstractDataProcessor;
+import net.canadensys.processor.BeanPropertyAccessor;
 import net.canadensys.processor.ProcessingResult;
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -95,14 +95,14 @@ public class PersonNameProcessor extends AbstractDataProcessor {
 	@Override
 	public void processBean(Object in, Object out, Map<String, Object> params, ProcessingResult result) {
 		try {
-			String rawPersonName = (String) PropertyUtils.getSimpleProperty(in, beanPropertyName);
+			String rawPersonName = (String) BeanPropertyAccessor.getSimpleProperty(in, beanPropertyName);
 			List<String> personNameList = process(rawPersonName, result);
 
 			if (!personNameList.isEmpty()) {
-				PropertyUtils.setSimpleProperty(out, beanPropertyName, StringUtils.join(personNameList, "|"));
+				BeanPropertyAccessor.setSimpleProperty(out, beanPropertyName, StringUtils.join(personNameList, "|"));
 			}
 			else {
-				PropertyUtils.setSimpleProperty(out, beanPropertyName, getValueOnError(errorHandlingMode, rawPersonName));
+				BeanPropertyAccessor.setSimpleProperty(out, beanPropertyName, getValueOnError(errorHandlingMode, rawPersonName));
 			}
 		}
 		catch (IllegalAccessException e) {
@@ -120,7 +120,7 @@ public class PersonNameProcessor extends AbstractDataProcessor {
 	public boolean validateBean(Object in, boolean isMandatory, Map<String, Object> params, ProcessingResult result) {
 		String propertyText = null;
 		try {
-			propertyText = (String) PropertyUtils.getSimpleProperty(in, beanPropertyName);
+			propertyText = (String) BeanPropertyAccessor.getSimpleProperty(in, beanPropertyName);
 			if (!process(propertyText, result).isEmpty()) {
 				return true;
 			}
@@ -154,6 +154,16 @@ public class PersonNameProcessor extends AbstractDataProcessor {
 	 * @return
 	 */
 	public List<String> process(String rawValue, ProcessingResult result) {
+		if (!metrics.isEnabled()) {
+			return doProcess(rawValue, result);
+		}
+		long start = System.nanoTime();
+		List<String> nameList = doProcess(rawValue, result);
+		recordCall(start, StringUtils.isBlank(rawValue), !nameList.isEmpty());
+		return nameList;
+	}
+
+	private List<String> doProcess(String rawValue, ProcessingResult result) {
 		List<String> nameList = Lists.newArrayList();
 		String[] names = NORMALIZE.matcher(normalize(rawValue)).replaceAll("").split(SPLIT_NAMES);
 
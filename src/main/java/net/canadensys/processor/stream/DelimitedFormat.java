@@ -0,0 +1,56 @@
+package net.canadensys.processor.stream;
+
+/**
+ * Format of a delimited text file (CSV, TSV, Darwin Core Archive data file).
+ *
+ * Like the fieldsEnclosedBy attribute of a Darwin Core Archive meta.xml, the quote character is optional. When used, a quoted field can
+ * contain the delimiter, line breaks and escaped (doubled) quote characters.
+ *
+ * @author canadensys
+ *
+ */
+public final class DelimitedFormat {
+
+	/**
+	 * No quote character
+	 */
+	public static final char NO_QUOTE = '\0';
+
+	/**
+	 * Tab delimited, no quote character (default format of a Darwin Core Archive)
+	 */
+	public static final DelimitedFormat TSV = new DelimitedFormat('\t', NO_QUOTE);
+
+	/**
+	 * Comma delimited, fields optionally enclosed by double quotes
+	 */
+	public static final DelimitedFormat CSV = new DelimitedFormat(',', '"');
+
+	private final char delimiter;
+	private final char quoteChar;
+
+	/**
+	 * @param delimiter
+	 * @param quoteChar
+	 *            character used to enclose fields or NO_QUOTE
+	 */
+	public DelimitedFormat(char delimiter, char quoteChar) {
+		if (delimiter == quoteChar || delimiter == '\n' || delimiter == '\r' || quoteChar == '\n' || quoteChar == '\r') {
+			throw new IllegalArgumentException("Invalid delimiter or quote character");
+		}
+		this.delimiter = delimiter;
+		this.quoteChar = quoteChar;
+	}
+
+	public char getDelimiter() {
+		return delimiter;
+	}
+
+	public char getQuoteChar() {
+		return quoteChar;
+	}
+
+	public boolean isQuoted() {
+		return quoteChar != NO_QUOTE;
+	}
+}
@@ -0,0 +1,134 @@
+package net.canadensys.processor.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader of the rows of a delimited text file.
+ * Rows are separated by \n, \r\n or \r. Empty lines are skipped.
+ *
+ * Not thread-safe.
+ *
+ * @author canadensys
+ *
+ */
+public class DelimitedReader implements Closeable {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int EOF = -1;
+
+	private final Reader reader;
+	private final DelimitedFormat format;
+
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int bufferPos;
+	private int bufferLength;
+
+	// reused between rows
+	private final StringBuilder field = new StringBuilder();
+	private final List<String> fields = new ArrayList<String>();
+
+	/**
+	 * @param reader
+	 *            no need to use a BufferedReader, the reader is buffered internally
+	 * @param format
+	 */
+	public DelimitedReader(Reader reader, DelimitedFormat format) {
+		this.reader = reader;
+		this.format = format;
+	}
+
+	/**
+	 * Read the next row.
+	 *
+	 * @return the fields of the row or null if the end of the stream is reached
+	 * @throws IOException
+	 */
+	public String[] readRow() throws IOException {
+		int c = read();
+		// skip empty lines
+		while (c == '\n' || c == '\r') {
+			c = read();
+		}
+		if (c == EOF) {
+			return null;
+		}
+
+		char delimiter = format.getDelimiter();
+		char quoteChar = format.getQuoteChar();
+		boolean quoted = format.isQuoted();
+		boolean inQuotes = false;
+		boolean fieldStart = true;
+
+		fields.clear();
+		field.setLength(0);
+		while (c != EOF) {
+			if (inQuotes) {
+				if (c == quoteChar) {
+					c = read();
+					if (c != quoteChar) {
+						// closing quote, c is processed as an unquoted char
+						inQuotes = false;
+						continue;
+					}
+				}
+				field.append((char) c);
+			}
+			else if (c == delimiter) {
+				fields.add(field.toString());
+				field.setLength(0);
+				fieldStart = true;
+				c = read();
+				continue;
+			}
+			else if (c == '\n' || c == '\r') {
+				if (c == '\r' && peek() == '\n') {
+					read();
+				}
+				break;
+			}
+			else if (quoted && fieldStart && c == quoteChar) {
+				inQuotes = true;
+			}
+			else {
+				field.append((char) c);
+			}
+			fieldStart = false;
+			c = read();
+		}
+		fields.add(field.toString());
+		return fields.toArray(new String[fields.size()]);
+	}
+
+	private int read() throws IOException {
+		if (bufferPos == bufferLength && !fill()) {
+			return EOF;
+		}
+		return buffer[bufferPos++];
+	}
+
+	private int peek() throws IOException {
+		if (bufferPos == bufferLength && !fill()) {
+			return EOF;
+		}
+		return buffer[bufferPos];
+	}
+
+	private boolean fill() throws IOException {
+		bufferLength = reader.read(buffer, 0, buffer.length);
+		bufferPos = 0;
+		if (bufferLength <= 0) {
+			bufferLength = 0;
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
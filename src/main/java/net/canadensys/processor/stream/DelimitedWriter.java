@@ -0,0 +1,97 @@
+package net.canadensys.processor.stream;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streaming writer of the rows of a delimited text file. Rows are terminated by \n.
+ *
+ * When the format uses a quote character, fields containing the delimiter, the quote character or a line break are quoted.
+ * Otherwise, the delimiter and the line breaks contained in a field are replaced by a space since they can't be represented.
+ *
+ * Not thread-safe.
+ *
+ * @author canadensys
+ *
+ */
+public class DelimitedWriter implements Closeable, Flushable {
+
+	private final Writer writer;
+	private final DelimitedFormat format;
+
+	/**
+	 * @param writer
+	 *            should be buffered
+	 * @param format
+	 */
+	public DelimitedWriter(Writer writer, DelimitedFormat format) {
+		this.writer = writer;
+		this.format = format;
+	}
+
+	/**
+	 * Write a row, null values are written as empty fields.
+	 *
+	 * @param values
+	 * @throws IOException
+	 */
+	public void writeRow(Object... values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				writer.write(format.getDelimiter());
+			}
+			if (values[i] != null) {
+				writeField(values[i].toString());
+			}
+		}
+		writer.write('\n');
+	}
+
+	private void writeField(String value) throws IOException {
+		char delimiter = format.getDelimiter();
+		char quoteChar = format.getQuoteChar();
+		boolean quoted = format.isQuoted();
+
+		boolean special = false;
+		char c;
+		for (int i = 0; i < value.length() && !special; i++) {
+			c = value.charAt(i);
+			special = (c == delimiter || c == '\n' || c == '\r' || (quoted && c == quoteChar));
+		}
+		if (!special) {
+			writer.write(value);
+			return;
+		}
+
+		if (quoted) {
+			writer.write(quoteChar);
+		}
+		for (int i = 0; i < value.length(); i++) {
+			c = value.charAt(i);
+			if (quoted) {
+				if (c == quoteChar) {
+					writer.write(quoteChar);
+				}
+				writer.write(c);
+			}
+			else {
+				writer.write((c == delimiter || c == '\n' || c == '\r') ? ' ' : c);
+			}
+		}
+		if (quoted) {
+			writer.write(quoteChar);
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
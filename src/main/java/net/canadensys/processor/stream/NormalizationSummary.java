@@ -0,0 +1,46 @@
+package net.canadensys.processor.stream;
+
+/**
+ * Counters of a normalization run of OccurrenceFileNormalizer.
+ *
+ * @author canadensys
+ *
+ */
+public class NormalizationSummary {
+
+	private final long rowCount;
+	private final long errorRowCount;
+	private final long errorCount;
+
+	public NormalizationSummary(long rowCount, long errorRowCount, long errorCount) {
+		this.rowCount = rowCount;
+		this.errorRowCount = errorRowCount;
+		this.errorCount = errorCount;
+	}
+
+	/**
+	 * @return number of data rows read (and written)
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * @return number of rows with at least one error
+	 */
+	public long getErrorRowCount() {
+		return errorRowCount;
+	}
+
+	/**
+	 * @return total number of errors
+	 */
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	@Override
+	public String toString() {
+		return "NormalizationSummary [rowCount=" + rowCount + ", errorRowCount=" + errorRowCount + ", errorCount=" + errorCount + "]";
+	}
+}
@@ -0,0 +1,603 @@
+package net.canadensys.processor.stream;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import net.canadensys.processor.ErrorStatisticsResult;
+import net.canadensys.processor.ProcessingError;
+import net.canadensys.processor.ProcessingResult;
+import net.canadensys.processor.ProcessorPipeline;
+import net.canadensys.processor.RowHeader;
+import net.canadensys.processor.RowRecord;
+
+/**
+ * Streaming normalization of a delimited occurrence file (Darwin Core Archive core file, CSV, TSV) using a ProcessorPipeline.
+ *
+ * The file is processed by 3 pipelined stages connected by bounded queues of batches of rows:
+ * - reading and parsing the rows (calling thread)
+ * - processing the rows with the ProcessorPipeline (threadCount threads, each using its own RowRecord)
+ * - writing the normalized rows, in the original order, and the error report (1 thread)
+ * Batches are recycled and their number is fixed (maxBatchesInFlight) so the memory used doesn't depend on the size of the file.
+ *
+ * The normalized file contains the columns of the input file followed by the columns of the output header that are not in the input
+ * file. The value of a column of the output header is taken from the output of the pipeline when a processor wrote it for the row
+ * (e.g. a country column normalized in place), the other columns are copied from the input file.
+ *
+ * The error report contains one row per input row with errors: row number (1 based, header lines excluded), the value of the id
+ * column (if configured) and the errors. The errors can also be aggregated in an ErrorStatisticsResult.
+ *
+ * Configuration methods should be called at creation time, a normalizer can then be used to normalize multiple files, even
+ * concurrently.
+ *
+ * @author canadensys
+ *
+ */
+public class OccurrenceFileNormalizer {
+
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+	public static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final long POLL_TIMEOUT_MS = 100;
+	private static final String ROW_NUMBER_COLUMN = "row";
+	private static final String ERRORS_COLUMN = "errors";
+
+	// marks the end of the input for the processing threads
+	private static final Batch END_OF_INPUT = new Batch(0);
+
+	private final ProcessorPipeline pipeline;
+	private final RowHeader outHeader;
+
+	private DelimitedFormat inputFormat = DelimitedFormat.TSV;
+	private DelimitedFormat outputFormat;
+	private RowHeader inputHeader;
+	private int ignoreHeaderLines = 0;
+	private String idColumn;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+	private int maxBatchesInFlight = 0;
+	private ErrorStatisticsResult errorStatistics;
+
+	/**
+	 * @param pipeline
+	 *            processors to run on each row, field names are column names
+	 * @param outHeader
+	 *            columns written by the pipeline (with their type)
+	 */
+	public OccurrenceFileNormalizer(ProcessorPipeline pipeline, RowHeader outHeader) {
+		if (pipeline == null || outHeader == null) {
+			throw new IllegalArgumentException("pipeline and outHeader are required");
+		}
+		this.pipeline = pipeline;
+		this.outHeader = outHeader;
+	}
+
+	/**
+	 * Format of the input file, TSV by default.
+	 * Configuration method, should be called at creation time.
+	 *
+	 * @param inputFormat
+	 */
+	public void setInputFormat(DelimitedFormat inputFormat) {
+		this.inputFormat = inputFormat;
+	}
+
+	/**
+	 * Format of the normalized file and of the error report, same as the input format by default.
+	 * Configuration method, should be called at creation time.
+	 *
+	 * @param outputFormat
+	 */
+	public void setOutputFormat(DelimitedFormat outputFormat) {
+		this.outputFormat = outputFormat;
+	}
+
+	/**
+	 * Columns of the input file (e.g. from the meta.xml of a Darwin Core Archive). By default, the columns are read from the first
+	 * line of the file.
+	 * Configuration method, should be called at creation time.
+	 *
+	 * @param inputHeader
+	 * @param ignoreHeaderLines
+	 *            number of lines to skip at the beginning of the file
+	 */
+	public void setInputHeader(RowHeader inputHeader, int ignoreHeaderLines) {
+		if (ignoreHeaderLines < 0) {
+			throw new IllegalArgumentException("ignoreHeaderLines can not be negative");
+		}
+		this.inputHeader = inputHeader;
+		this.ignoreHeaderLines = ignoreHeaderLines;
+	}
+
+	/**
+	 * Column identifying the rows in the error report.
+	 * Configuration method, should be called at creation time.
+	 *
+	 * @param idColumn
+	 */
+	public void setIdColumn(String idColumn) {
+		this.idColumn = idColumn;
+	}
+
+	/**
+	 * Number of rows per batch, DEFAULT_BATCH_SIZE by default.
+	 * Configuration method, should be called at creation time.
+	 *
+	 * @param batchSize
+	 */
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batchSize must be positive");
+		}
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Number of processing threads, the number of available processors by default.
+	 * Configuration method, should be called at creation time.
+	 *
+	 * @param threadCount
+	 */
+	public void setThreadCount(int threadCount) {
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("threadCount must be positive");
+		}
+		this.threadCount = threadCount;
+	}
+
+	/**
+	 * Maximum number of batches in memory, 4 per processing thread by default.
+	 * Configuration method, should be called at creation time.
+	 *
+	 * @param maxBatchesInFlight
+	 */
+	public void setMaxBatchesInFlight(int maxBatchesInFlight) {
+		if (maxBatchesInFlight < 1) {
+			throw new IllegalArgumentException("maxBatchesInFlight must be positive");
+		}
+		this.maxBatchesInFlight = maxBatchesInFlight;
+	}
+
+	/**
+	 * Aggregate the errors of all rows in an ErrorStatisticsResult, the value of the id column is used as record identifier.
+	 * Configuration method, should be called at creation time.
+	 *
+	 * @param errorStatistics
+	 */
+	public void setErrorStatistics(ErrorStatisticsResult errorStatistics) {
+		this.errorStatistics = errorStatistics;
+	}
+
+	/**
+	 * Normalize a file encoded in UTF-8.
+	 *
+	 * @param inputFile
+	 * @param outputFile
+	 *            normalized file, written in UTF-8
+	 * @param errorReportFile
+	 *            error report, written in UTF-8, could be null
+	 * @return counters of the run
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public NormalizationSummary normalize(File inputFile, File outputFile, File errorReportFile) throws IOException, InterruptedException {
+		Reader in = null;
+		Writer out = null;
+		Writer errorReport = null;
+		try {
+			in = new InputStreamReader(new FileInputStream(inputFile), UTF8);
+			out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), UTF8));
+			if (errorReportFile != null) {
+				errorReport = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(errorReportFile), UTF8));
+			}
+			return normalize(in, out, errorReport);
+		}
+		finally {
+			closeQuietly(in);
+			closeQuietly(out);
+			closeQuietly(errorReport);
+		}
+	}
+
+	/**
+	 * Normalize a stream. The streams are flushed but not closed.
+	 *
+	 * @param in
+	 * @param out
+	 *            normalized rows
+	 * @param errorReport
+	 *            error report, could be null
+	 * @return counters of the run
+	 * @throws IOException
+	 * @throws InterruptedException
+	 * @throws IllegalArgumentException
+	 *             if a field read by the pipeline is not a column of the file
+	 */
+	public NormalizationSummary normalize(Reader in, Writer out, Writer errorReport) throws IOException, InterruptedException {
+		DelimitedReader reader = new DelimitedReader(in, inputFormat);
+		RowHeader inHeader = inputHeader;
+		int linesToSkip = ignoreHeaderLines;
+		if (inHeader == null) {
+			String[] headerRow = reader.readRow();
+			inHeader = new RowHeader(headerRow == null ? new String[0] : headerRow);
+			linesToSkip = 0;
+		}
+		for (int i = 0; i < linesToSkip; i++) {
+			reader.readRow();
+		}
+		for (String field : pipeline.getInputFields()) {
+			if (inHeader.indexOf(field) == RowHeader.NOT_FOUND && outHeader.indexOf(field) == RowHeader.NOT_FOUND) {
+				throw new IllegalArgumentException("Field '" + field + "' read by the pipeline is not a column of the file");
+			}
+		}
+
+		DelimitedFormat format = outputFormat == null ? inputFormat : outputFormat;
+		Run run = new Run(inHeader, new DelimitedWriter(out, format), errorReport == null ? null : new DelimitedWriter(errorReport,
+				format));
+		return run.execute(reader);
+	}
+
+	private static void closeQuietly(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException ignore) {
+				// nothing to do
+			}
+		}
+	}
+
+	/**
+	 * Rows handed from a stage to the next one.
+	 */
+	private static final class Batch {
+		private final CharSequence[][] rows;
+		private final Object[][] outputs;
+		// output columns written by the pipeline, for each row
+		private final boolean[][] written;
+		// row number, id, errors
+		private final List<Object[]> errors = new ArrayList<Object[]>();
+		private int errorCount;
+		private int sequence;
+		private long firstRowNumber;
+		private int size;
+
+		private Batch(int batchSize) {
+			rows = new CharSequence[batchSize][];
+			outputs = new Object[batchSize][];
+			written = new boolean[batchSize][];
+		}
+
+		private void recycle() {
+			for (int i = 0; i < size; i++) {
+				rows[i] = null;
+			}
+			errors.clear();
+			errorCount = 0;
+			size = 0;
+		}
+	}
+
+	/**
+	 * State of a single normalization.
+	 */
+	private final class Run {
+		private final RowHeader inHeader;
+		private final DelimitedWriter writer;
+		private final DelimitedWriter errorWriter;
+
+		private final String[] outputColumns;
+		// for each column of the normalized file, index in the output buffer or RowHeader.NOT_FOUND
+		private final int[] outputIdx;
+		private final int idIdx;
+
+		private final BlockingQueue<Batch> freeBatches;
+		private final BlockingQueue<Batch> inQueue;
+		private final BlockingQueue<Batch> outQueue;
+		private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		// set by the reading stage at the end of the input
+		private volatile int batchCount = -1;
+
+		private long rowCount;
+		private long errorRowCount;
+		private long errorCount;
+
+		private Run(RowHeader inHeader, DelimitedWriter writer, DelimitedWriter errorWriter) {
+			this.inHeader = inHeader;
+			this.writer = writer;
+			this.errorWriter = errorWriter;
+
+			List<String> columns = new ArrayList<String>();
+			List<Integer> columnOutputIdx = new ArrayList<Integer>();
+			for (int i = 0; i < inHeader.size(); i++) {
+				String name = inHeader.getColumnName(i);
+				columns.add(name == null ? "" : name);
+				columnOutputIdx.add(name == null ? RowHeader.NOT_FOUND : outHeader.indexOf(name));
+			}
+			for (int i = 0; i < outHeader.size(); i++) {
+				String name = outHeader.getColumnName(i);
+				if (name != null && inHeader.indexOf(name) == RowHeader.NOT_FOUND) {
+					columns.add(name);
+					columnOutputIdx.add(i);
+				}
+			}
+			outputColumns = columns.toArray(new String[columns.size()]);
+			outputIdx = new int[columnOutputIdx.size()];
+			for (int i = 0; i < outputIdx.length; i++) {
+				outputIdx[i] = columnOutputIdx.get(i);
+			}
+			idIdx = idColumn == null ? RowHeader.NOT_FOUND : inHeader.indexOf(idColumn);
+
+			int batches = maxBatchesInFlight > 0 ? maxBatchesInFlight : 4 * threadCount;
+			freeBatches = new ArrayBlockingQueue<Batch>(batches);
+			for (int i = 0; i < batches; i++) {
+				Batch batch = new Batch(batchSize);
+				for (int j = 0; j < batchSize; j++) {
+					batch.outputs[j] = outHeader.newBuffer();
+					batch.written[j] = new boolean[outHeader.size()];
+				}
+				freeBatches.add(batch);
+			}
+			// never full, the number of batches is fixed
+			inQueue = new ArrayBlockingQueue<Batch>(batches + threadCount);
+			outQueue = new ArrayBlockingQueue<Batch>(batches);
+		}
+
+		private NormalizationSummary execute(DelimitedReader reader) throws IOException, InterruptedException {
+			ExecutorService executorService = Executors.newFixedThreadPool(threadCount + 1);
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			try {
+				for (int i = 0; i < threadCount; i++) {
+					futures.add(executorService.submit(new Callable<Void>() {
+						@Override
+						public Void call() throws InterruptedException {
+							processBatches();
+							return null;
+						}
+					}));
+				}
+				Future<Void> writerFuture = executorService.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws IOException, InterruptedException {
+						writeBatches();
+						return null;
+					}
+				});
+				futures.add(writerFuture);
+
+				try {
+					readBatches(reader);
+				}
+				catch (IOException e) {
+					failure.compareAndSet(null, e);
+					throw e;
+				}
+				catch (RuntimeException e) {
+					failure.compareAndSet(null, e);
+					throw e;
+				}
+
+				for (Future<Void> future : futures) {
+					get(future);
+				}
+			}
+			finally {
+				failure.compareAndSet(null, new InterruptedException("Normalization aborted"));
+				executorService.shutdownNow();
+			}
+			return new NormalizationSummary(rowCount, errorRowCount, errorCount);
+		}
+
+		/**
+		 * Reading stage
+		 */
+		private void readBatches(DelimitedReader reader) throws IOException, InterruptedException {
+			int sequence = 0;
+			long rowNumber = 0;
+			Batch batch = null;
+			String[] row;
+			while ((row = reader.readRow()) != null) {
+				if (batch == null) {
+					batch = take(freeBatches);
+					if (batch == null) {
+						return;
+					}
+					batch.sequence = sequence++;
+					batch.firstRowNumber = rowNumber + 1;
+				}
+				batch.rows[batch.size++] = row;
+				rowNumber++;
+				if (batch.size == batchSize) {
+					inQueue.put(batch);
+					batch = null;
+				}
+			}
+			if (batch != null) {
+				inQueue.put(batch);
+			}
+			rowCount = rowNumber;
+			batchCount = sequence;
+			for (int i = 0; i < threadCount; i++) {
+				inQueue.put(END_OF_INPUT);
+			}
+		}
+
+		/**
+		 * Processing stage
+		 */
+		private void processBatches() throws InterruptedException {
+			RowRecord record = new RowRecord(inHeader, outHeader);
+			ProcessingResult result = new ProcessingResult(false);
+			Batch batch;
+			try {
+				while ((batch = take(inQueue)) != null && batch != END_OF_INPUT) {
+					for (int i = 0; i < batch.size; i++) {
+						record.setRow(batch.rows[i], batch.outputs[i], batch.written[i]);
+						result.clear();
+						pipeline.process(record, record, result);
+						if (!result.getErrorList().isEmpty()) {
+							CharSequence[] row = batch.rows[i];
+							Object id = (idIdx != RowHeader.NOT_FOUND && idIdx < row.length) ? row[idIdx] : null;
+							batch.errors.add(new Object[] { batch.firstRowNumber + i, id, result.getErrorString() });
+							batch.errorCount += result.getErrorList().size();
+							if (errorStatistics != null) {
+								errorStatistics.setRecordId(id);
+								for (ProcessingError error : result.getErrors()) {
+									errorStatistics.addError(error);
+								}
+							}
+						}
+					}
+					outQueue.put(batch);
+				}
+			}
+			catch (RuntimeException e) {
+				failure.compareAndSet(null, e);
+				throw e;
+			}
+		}
+
+		/**
+		 * Writing stage
+		 */
+		private void writeBatches() throws IOException, InterruptedException {
+			try {
+				writer.writeRow((Object[]) outputColumns);
+				if (errorWriter != null) {
+					if (idIdx != RowHeader.NOT_FOUND) {
+						errorWriter.writeRow(ROW_NUMBER_COLUMN, idColumn, ERRORS_COLUMN);
+					}
+					else {
+						errorWriter.writeRow(ROW_NUMBER_COLUMN, ERRORS_COLUMN);
+					}
+				}
+
+				Object[] line = new Object[outputColumns.length];
+				Map<Integer, Batch> pending = new HashMap<Integer, Batch>();
+				int nextSequence = 0;
+				int count = batchCount;
+				while (count < 0 || nextSequence < count) {
+					Batch batch = outQueue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+					if (batch == null) {
+						if (failure.get() != null) {
+							return;
+						}
+					}
+					else {
+						// batches are written in the original order
+						pending.put(batch.sequence, batch);
+						while ((batch = pending.remove(nextSequence)) != null) {
+							writeBatch(batch, line);
+							nextSequence++;
+							batch.recycle();
+							freeBatches.put(batch);
+						}
+					}
+					count = batchCount;
+				}
+				writer.flush();
+				if (errorWriter != null) {
+					errorWriter.flush();
+				}
+			}
+			catch (IOException e) {
+				failure.compareAndSet(null, e);
+				throw e;
+			}
+			catch (RuntimeException e) {
+				failure.compareAndSet(null, e);
+				throw e;
+			}
+		}
+
+		private void writeBatch(Batch batch, Object[] line) throws IOException {
+			for (int i = 0; i < batch.size; i++) {
+				CharSequence[] row = batch.rows[i];
+				Object[] output = batch.outputs[i];
+				boolean[] written = batch.written[i];
+				for (int j = 0; j < line.length; j++) {
+					int outIdx = outputIdx[j];
+					// an input column not written by the pipeline for this row keeps its original value
+					if (outIdx != RowHeader.NOT_FOUND && (written[outIdx] || j >= inHeader.size())) {
+						line[j] = output[outIdx];
+					}
+					else {
+						line[j] = j < row.length ? row[j] : null;
+					}
+				}
+				writer.writeRow(line);
+			}
+			if (!batch.errors.isEmpty()) {
+				errorRowCount += batch.errors.size();
+				errorCount += batch.errorCount;
+				if (errorWriter != null) {
+					for (Object[] error : batch.errors) {
+						if (idIdx != RowHeader.NOT_FOUND) {
+							errorWriter.writeRow(error);
+						}
+						else {
+							errorWriter.writeRow(error[0], error[2]);
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Take the next element of a queue, unless another stage failed.
+		 *
+		 * @return the next element or null if another stage failed
+		 */
+		private Batch take(BlockingQueue<Batch> queue) throws InterruptedException {
+			Batch batch = null;
+			while (batch == null && failure.get() == null) {
+				batch = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+			}
+			return batch;
+		}
+
+		private void get(Future<Void> future) throws IOException, InterruptedException {
+			try {
+				future.get();
+			}
+			catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+				if (cause instanceof InterruptedException) {
+					throw (InterruptedException) cause;
+				}
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+}
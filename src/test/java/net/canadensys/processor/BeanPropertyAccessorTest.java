@@ -0,0 +1,105 @@
+package net.canadensys.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import net.canadensys.processor.dwc.mock.MockOccurrenceModel;
+
+import org.apache.commons.beanutils.BasicDynaClass;
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.DynaProperty;
+import org.junit.Test;
+
+/**
+ * Unit tests for BeanPropertyAccessor
+ * 
+ * @author canadensys
+ * 
+ */
+public class BeanPropertyAccessorTest {
+
+	@Test
+	public void testSimpleProperty() throws Exception {
+		MockOccurrenceModel mockModel = new MockOccurrenceModel();
+		BeanPropertyAccessor.setSimpleProperty(mockModel, "country", "Canada");
+		BeanPropertyAccessor.setSimpleProperty(mockModel, "decimalLatitude", 45.5d);
+		assertEquals("Canada", mockModel.getCountry());
+		assertEquals("Canada", BeanPropertyAccessor.getSimpleProperty(mockModel, "country"));
+		assertEquals(45.5d, BeanPropertyAccessor.getSimpleProperty(mockModel, "decimalLatitude"));
+
+		BeanPropertyAccessor.setSimpleProperty(mockModel, "country", null);
+		assertNull(BeanPropertyAccessor.getSimpleProperty(mockModel, "country"));
+
+		assertEquals(Double.class, BeanPropertyAccessor.getPropertyType(mockModel, "decimalLatitude"));
+		assertNull(BeanPropertyAccessor.getPropertyType(mockModel, "notAProperty"));
+	}
+
+	@Test
+	public void testErrors() throws Exception {
+		MockOccurrenceModel mockModel = new MockOccurrenceModel();
+		try {
+			BeanPropertyAccessor.getSimpleProperty(mockModel, "notAProperty");
+			fail();
+		}
+		catch (NoSuchMethodException e) {
+			// expected, also from the cache
+		}
+		try {
+			BeanPropertyAccessor.setSimpleProperty(mockModel, "notAProperty", "value");
+			fail();
+		}
+		catch (NoSuchMethodException e) {
+			// expected
+		}
+		try {
+			BeanPropertyAccessor.getSimpleProperty(mockModel, "country.name");
+			fail();
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			BeanPropertyAccessor.setSimpleProperty(mockModel, "decimalLatitude", "45.5");
+			fail();
+		}
+		catch (IllegalArgumentException e) {
+			// expected, same as PropertyUtils
+		}
+	}
+
+	@Test
+	public void testDynaBean() throws Exception {
+		BasicDynaClass dynaClass = new BasicDynaClass("occurrence", null, new DynaProperty[] { new DynaProperty("country", String.class) });
+		DynaBean dynaBean = dynaClass.newInstance();
+		BeanPropertyAccessor.setSimpleProperty(dynaBean, "country", "Canada");
+		assertEquals("Canada", BeanPropertyAccessor.getSimpleProperty(dynaBean, "country"));
+		assertEquals(String.class, BeanPropertyAccessor.getPropertyType(dynaBean, "country"));
+	}
+
+	@Test
+	public void testClassFromOtherClassLoader() throws Exception {
+		assertTrue(BeanPropertyAccessor.isCacheSafe(String.class));
+		assertTrue(BeanPropertyAccessor.isCacheSafe(MockOccurrenceModel.class));
+
+		// same bean class loaded by an isolated class loader, e.g. the one of a web application
+		URL testClassesLocation = MockOccurrenceModel.class.getProtectionDomain().getCodeSource().getLocation();
+		URLClassLoader classLoader = new URLClassLoader(new URL[] { testClassesLocation }, null);
+		Class<?> beanClass = classLoader.loadClass(MockOccurrenceModel.class.getName());
+		assertNotSame(MockOccurrenceModel.class, beanClass);
+		assertFalse(BeanPropertyAccessor.isCacheSafe(beanClass));
+
+		Object bean = beanClass.newInstance();
+		BeanPropertyAccessor.setSimpleProperty(bean, "country", "Canada");
+		assertEquals("Canada", BeanPropertyAccessor.getSimpleProperty(bean, "country"));
+		assertEquals("Canada", beanClass.getMethod("getCountry").invoke(bean));
+		assertEquals(Double.class, BeanPropertyAccessor.getPropertyType(bean, "decimalLatitude"));
+		assertNull(BeanPropertyAccessor.getPropertyType(bean, "notAProperty"));
+	}
+}
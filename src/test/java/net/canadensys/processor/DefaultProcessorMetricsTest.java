@@ -0,0 +1,129 @@
+package net.canadensys.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import net.canadensys.processor.ProcessorMetrics.OutcomeEnum;
+import net.canadensys.processor.datetime.DateProcessor;
+
+import org.junit.Test;
+
+/**
+ * Test DefaultProcessorMetrics and the reporting of the processors.
+ *
+ * @author canadensys
+ *
+ */
+public class DefaultProcessorMetricsTest {
+
+	@Test
+	public void testCounters() {
+		DefaultProcessorMetrics metrics = new DefaultProcessorMetrics();
+		metrics.recordCall(100, OutcomeEnum.SUCCESS);
+		metrics.recordCall(100, OutcomeEnum.SUCCESS);
+		metrics.recordCall(100, OutcomeEnum.SUCCESS);
+		metrics.recordCall(900, OutcomeEnum.FAILURE);
+		metrics.recordCall(0, OutcomeEnum.BLANK_INPUT);
+		metrics.recordError("date.error.unprocessable");
+		metrics.recordError("date.error.unprocessable");
+		metrics.recordError("date.error.vagueDate");
+
+		ProcessorMetricsSnapshot snapshot = metrics.snapshot();
+		assertEquals(5, snapshot.getCallCount());
+		assertEquals(3, snapshot.getSuccessCount());
+		assertEquals(1, snapshot.getFailureCount());
+		assertEquals(1, snapshot.getBlankInputCount());
+		// blank inputs are excluded
+		assertEquals(0.25, snapshot.getFailureRate(), 0.0001);
+		assertEquals(3, snapshot.getErrorCount());
+		assertEquals(Long.valueOf(2), snapshot.getErrorCountByKey().get("date.error.unprocessable"));
+		assertEquals(Long.valueOf(1), snapshot.getErrorCountByKey().get("date.error.vagueDate"));
+		assertEquals(240, snapshot.getMeanLatencyNanos(), 0.0001);
+		assertEquals(900, snapshot.getMaxLatencyNanos());
+
+		metrics.reset();
+		assertEquals(0, metrics.snapshot().getCallCount());
+		assertTrue(metrics.snapshot().getErrorCountByKey().isEmpty());
+		assertEquals(0, metrics.snapshot().getLatencyPercentileNanos(50));
+	}
+
+	@Test
+	public void testLatencyHistogram() {
+		DefaultProcessorMetrics metrics = new DefaultProcessorMetrics();
+		for (int i = 0; i < 99; i++) {
+			metrics.recordCall(100, OutcomeEnum.SUCCESS);
+		}
+		metrics.recordCall(5000, OutcomeEnum.SUCCESS);
+
+		ProcessorMetricsSnapshot snapshot = metrics.snapshot();
+		long[] histogram = snapshot.getLatencyHistogram();
+		// 64 <= 100 < 128
+		assertEquals(99, histogram[7]);
+		// 4096 <= 5000 < 8192
+		assertEquals(1, histogram[13]);
+
+		// upper bound of the bucket
+		assertEquals(127, snapshot.getLatencyPercentileNanos(50));
+		assertEquals(127, snapshot.getLatencyPercentileNanos(99));
+		// capped by the max latency
+		assertEquals(5000, snapshot.getLatencyPercentileNanos(100));
+		assertEquals(127, metrics.getLatencyP50Nanos());
+	}
+
+	@Test
+	public void testProcessorMetrics() {
+		DateProcessor dateProcessor = new DateProcessor();
+		// disabled by default
+		assertSame(NoOpProcessorMetrics.INSTANCE, dateProcessor.getMetrics());
+		assertFalse(dateProcessor.getMetrics().isEnabled());
+
+		DefaultProcessorMetrics metrics = new DefaultProcessorMetrics();
+		dateProcessor.setMetrics(metrics);
+		dateProcessor.process("2012-03-25", null);
+		dateProcessor.process("25 March 2012", null);
+		dateProcessor.process(" ", null);
+		// errors are counted even without ProcessingResult
+		assertNull(dateProcessor.process("not a date", null)[0]);
+		ProcessingResult pr = new ProcessingResult();
+		dateProcessor.process("another unparsable date", pr);
+		assertEquals(1, pr.getErrorCount());
+
+		ProcessorMetricsSnapshot snapshot = metrics.snapshot();
+		assertEquals(5, snapshot.getCallCount());
+		assertEquals(2, snapshot.getSuccessCount());
+		assertEquals(2, snapshot.getFailureCount());
+		assertEquals(1, snapshot.getBlankInputCount());
+		assertEquals(Long.valueOf(2), snapshot.getErrorCountByKey().get("date.error.unprocessable"));
+		assertTrue(snapshot.getMaxLatencyNanos() > 0);
+
+		dateProcessor.setMetrics(null);
+		assertSame(NoOpProcessorMetrics.INSTANCE, dateProcessor.getMetrics());
+	}
+
+	@Test
+	public void testMBean() throws Exception {
+		DefaultProcessorMetrics metrics = new DefaultProcessorMetrics();
+		metrics.recordCall(100, OutcomeEnum.SUCCESS);
+		metrics.recordCall(100, OutcomeEnum.FAILURE);
+
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		ObjectName objectName = metrics.registerMBean("eventDate");
+		try {
+			assertEquals(2L, mBeanServer.getAttribute(objectName, "CallCount"));
+			assertEquals(0.5d, mBeanServer.getAttribute(objectName, "FailureRate"));
+			mBeanServer.invoke(objectName, "reset", null, null);
+			assertEquals(0L, metrics.getCallCount());
+		}
+		finally {
+			mBeanServer.unregisterMBean(objectName);
+		}
+	}
+}
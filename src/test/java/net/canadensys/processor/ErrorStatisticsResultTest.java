@@ -0,0 +1,117 @@
+package net.canadensys.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.canadensys.processor.ErrorStatisticsResult.ErrorSample;
+import net.canadensys.processor.datetime.DateProcessor;
+import net.canadensys.processor.numeric.NumericPairDataProcessor;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for ErrorStatisticsResult
+ *
+ * @author canadensys
+ *
+ */
+public class ErrorStatisticsResultTest {
+
+	private static final ResourceBundle RESOURCE_BUNDLE = ResourceBundle.getBundle(AbstractDataProcessor.ERROR_BUNDLE_NAME,
+			Locale.ENGLISH);
+
+	@Test
+	public void testStatistics() {
+		ErrorStatisticsResult result = new ErrorStatisticsResult(5);
+		for (int i = 0; i < 1000; i++) {
+			result.setRecordId(i);
+			result.addError(new ProcessingError(DateProcessor.class, RESOURCE_BUNDLE, "date.error.unprocessable", "date" + i));
+			if (i % 10 == 0) {
+				result.addError(new ProcessingError(NumericPairDataProcessor.class, RESOURCE_BUNDLE, "numericPair.error.unprocessable",
+						"value" + i));
+			}
+		}
+		result.addError("plain message");
+
+		assertEquals(1101, result.getTotalErrorCount());
+		assertEquals(1101, result.getErrorCount());
+		assertEquals(Long.valueOf(1000), result.getCountByKey().get("date.error.unprocessable"));
+		assertEquals(Long.valueOf(100), result.getCountByKey().get("numericPair.error.unprocessable"));
+		assertEquals(Long.valueOf(1), result.getCountByKey().get(ErrorStatisticsResult.UNKEYED_ERROR_KEY));
+		// sorted by count
+		assertEquals("date.error.unprocessable", result.getCountByKey().keySet().iterator().next());
+		assertEquals(Long.valueOf(100), result.getCountByProcessor().get(NumericPairDataProcessor.class));
+
+		// the samples are bounded
+		List<ErrorSample> samples = result.getSamples("date.error.unprocessable");
+		assertEquals(5, samples.size());
+		for (ErrorSample sample : samples) {
+			assertEquals("date" + sample.getRecordId(), sample.getError().getValue());
+		}
+		assertEquals(11, result.getErrors().size());
+		assertEquals(11, result.getErrorList().size());
+		assertTrue(result.getSamples("unknown").isEmpty());
+
+		result.clear();
+		assertEquals(0, result.getTotalErrorCount());
+		assertTrue(result.getErrors().isEmpty());
+	}
+
+	@Test
+	public void testProcessor() {
+		ErrorStatisticsResult result = new ErrorStatisticsResult();
+		DateProcessor dateProcessor = new DateProcessor();
+		for (int i = 0; i < 100; i++) {
+			dateProcessor.process("not a date " + i, result);
+		}
+		assertEquals(100, result.getTotalErrorCount());
+		assertEquals(ErrorStatisticsResult.DEFAULT_SAMPLE_SIZE, result.getSamples("date.error.unprocessable").size());
+		assertEquals(Long.valueOf(100), result.getCountByProcessor().get(DateProcessor.class));
+	}
+
+	@Test
+	public void testMultiThreading() throws InterruptedException, ExecutionException {
+		final ErrorStatisticsResult result = new ErrorStatisticsResult(3);
+		int threadCount = 8;
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for (int i = 0; i < threadCount; i++) {
+			final int thread = i;
+			tasks.add(new Callable<Void>() {
+				@Override
+				public Void call() {
+					for (int j = 0; j < 10000; j++) {
+						result.setRecordId(thread);
+						result.addError(new ProcessingError(DateProcessor.class, RESOURCE_BUNDLE, "date.error.unprocessable", thread));
+					}
+					return null;
+				}
+			});
+		}
+		ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+		try {
+			for (Future<Void> future : executorService.invokeAll(tasks)) {
+				future.get();
+			}
+		}
+		finally {
+			executorService.shutdown();
+		}
+		assertEquals(threadCount * 10000, result.getTotalErrorCount());
+		List<ErrorSample> samples = result.getSamples("date.error.unprocessable");
+		assertEquals(3, samples.size());
+		// the record id is kept per thread
+		for (ErrorSample sample : samples) {
+			assertEquals(sample.getError().getValue(), sample.getRecordId());
+		}
+	}
+}
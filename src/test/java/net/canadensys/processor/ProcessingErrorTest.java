@@ -0,0 +1,72 @@
+package net.canadensys.processor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import net.canadensys.processor.datetime.DateProcessor;
+import net.canadensys.processor.geography.DecimalLatLongProcessor;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for ProcessingError
+ *
+ * @author canadensys
+ *
+ */
+public class ProcessingErrorTest {
+
+	@Test
+	public void testMessage() {
+		ResourceBundle resourceBundle = ResourceBundle.getBundle(AbstractDataProcessor.ERROR_BUNDLE_NAME, Locale.ENGLISH);
+		ProcessingError error = new ProcessingError(DateProcessor.class, resourceBundle, "date.error.unprocessable", "abc");
+		assertEquals("date.error.unprocessable", error.getKey());
+		assertEquals(DateProcessor.class, error.getProcessorClass());
+		assertEquals("abc", error.getValue());
+		assertEquals("The date [abc] could not be processed.", error.getMessage());
+		// the message is kept
+		assertSame(error.getMessage(), error.getMessage());
+
+		// escaped quote and multiple arguments
+		error = new ProcessingError(DecimalLatLongProcessor.class, resourceBundle, "decimalLatLong.error.outOfBounds", 91d, -90d, 90d);
+		assertEquals(MessageFormat.format(resourceBundle.getString("decimalLatLong.error.outOfBounds"), 91d, -90d, 90d), error.getMessage());
+		assertArrayEquals(new Object[] { 91d, -90d, 90d }, error.getArguments());
+
+		// no argument, the message is used as is
+		error = new ProcessingError(null, resourceBundle, "coordinateConversion.error.invalidSourceCRS");
+		assertNull(error.getValue());
+		assertEquals(resourceBundle.getString("coordinateConversion.error.invalidSourceCRS"), error.getMessage());
+
+		error = new ProcessingError("message");
+		assertNull(error.getKey());
+		assertEquals("message", error.getMessage());
+	}
+
+	@Test
+	public void testLocale() {
+		ResourceBundle resourceBundle = ResourceBundle.getBundle(AbstractDataProcessor.ERROR_BUNDLE_NAME, Locale.FRENCH);
+		ProcessingError error = new ProcessingError(DateProcessor.class, resourceBundle, "date.error.unprocessable", "abc");
+		assertEquals(MessageFormat.format(resourceBundle.getString("date.error.unprocessable"), "abc"), error.getMessage());
+	}
+
+	@Test
+	public void testProcessingResult() {
+		DateProcessor dateProcessor = new DateProcessor();
+		ProcessingResult pr = new ProcessingResult();
+		dateProcessor.process("abc", pr);
+		dateProcessor.process("10-11-2010", pr);
+
+		assertEquals(2, pr.getErrorCount());
+		assertEquals("date.error.unprocessable", pr.getErrors().get(0).getKey());
+		assertEquals("abc", pr.getErrors().get(0).getValue());
+		assertEquals("date.error.vagueDate", pr.getErrors().get(1).getKey());
+		assertEquals(DateProcessor.class, pr.getErrors().get(1).getProcessorClass());
+		assertEquals("The date [abc] could not be processed.", pr.getErrorList().get(0));
+	}
+}
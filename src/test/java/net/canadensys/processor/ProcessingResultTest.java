@@ -0,0 +1,110 @@
+package net.canadensys.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for ProcessingResult
+ *
+ * @author canadensys
+ *
+ */
+public class ProcessingResultTest {
+
+	private static final int NUMBER_OF_ERRORS = 10000;
+
+	@Test
+	public void testErrorList() {
+		for (boolean synchronizedList : new boolean[] { true, false }) {
+			ProcessingResult pr = new ProcessingResult(synchronizedList);
+			pr.addError("a");
+			pr.addError("b");
+			assertEquals(Arrays.asList("a", "b"), pr.getErrorList());
+			pr.addError("c");
+			assertEquals("a,b,c", pr.getErrorString());
+
+			pr.clear();
+			assertTrue(pr.getErrorList().isEmpty());
+			pr.addError("d");
+			assertEquals(Arrays.asList("d"), pr.getErrorList());
+			pr.getErrorList().clear();
+			assertTrue(pr.getErrorList().isEmpty());
+		}
+	}
+
+	@Test
+	public void testLiveErrorList() {
+		for (boolean synchronizedList : new boolean[] { true, false }) {
+			ProcessingResult pr = new ProcessingResult(synchronizedList);
+			List<String> errorList = pr.getErrorList();
+			assertTrue(errorList.isEmpty());
+			// errors added after getErrorList() are visible in the list already returned
+			pr.addError("a");
+			assertFalse(errorList.isEmpty());
+			assertEquals(1, errorList.size());
+			assertEquals("a", errorList.get(0));
+
+			// buffered errors are cleared too, they must not come back
+			pr.addError("b");
+			errorList.clear();
+			assertTrue(errorList.isEmpty());
+			assertEquals(0, pr.getErrorCount());
+		}
+	}
+
+	@Test
+	public void testMultiThreading() throws InterruptedException, ExecutionException {
+		final ProcessingResult pr = new ProcessingResult();
+		int threadCount = 8;
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for (int i = 0; i < threadCount; i++) {
+			final String prefix = i + "-";
+			tasks.add(new Callable<Void>() {
+				@Override
+				public Void call() {
+					for (int j = 0; j < NUMBER_OF_ERRORS; j++) {
+						pr.addError(prefix + j);
+						// concurrent merge
+						if (j % 1000 == 0) {
+							pr.getErrorList();
+						}
+					}
+					return null;
+				}
+			});
+		}
+		ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+		try {
+			for (Future<Void> future : executorService.invokeAll(tasks)) {
+				future.get();
+			}
+		}
+		finally {
+			executorService.shutdown();
+		}
+
+		List<String> errorList = pr.getErrorList();
+		assertEquals(NUMBER_OF_ERRORS * threadCount, errorList.size());
+
+		// the order of the errors of each thread is kept
+		int[] next = new int[threadCount];
+		synchronized (errorList) {
+			for (String error : errorList) {
+				int thread = Integer.parseInt(error.substring(0, error.indexOf('-')));
+				assertEquals(next[thread]++, Integer.parseInt(error.substring(error.indexOf('-') + 1)));
+			}
+		}
+	}
+}
@@ -0,0 +1,265 @@
+package net.canadensys.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import net.canadensys.processor.AbstractDataProcessor.ErrorHandlingModeEnum;
+import net.canadensys.processor.datetime.DateProcessor;
+import net.canadensys.processor.dwc.mock.MockOccurrenceModel;
+import net.canadensys.processor.dwc.mock.MockRawOccurrenceModel;
+import net.canadensys.processor.geography.CoordinatePairProcessor;
+import net.canadensys.processor.geography.CountryProcessor;
+import net.canadensys.processor.geography.DegreeMinuteToDecimalProcessor;
+import net.canadensys.processor.numeric.NumericPairDataProcessor;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for ProcessorPipeline
+ * 
+ * @author canadensys
+ * 
+ */
+public class ProcessorPipelineTest {
+
+	private static final double DELTA = 0.00001;
+
+	private ProcessorPipeline pipeline;
+	private AbstractDataProcessor coordinatePairProcessor, dmsProcessor, dateProcessor, countryProcessor;
+
+	private void createPipeline() {
+		pipeline = new ProcessorPipeline(10);
+		coordinatePairProcessor = new CoordinatePairProcessor("verbatimCoordinates", "verbatimLatitude", "verbatimLongitude");
+		dmsProcessor = new DegreeMinuteToDecimalProcessor("verbatimLatitude", "verbatimLongitude", "decimalLatitude", "decimalLongitude");
+		dateProcessor = new DateProcessor("eventDate", "eventStartYear", "eventStartMonth", "eventStartDay");
+		countryProcessor = new CountryProcessor("country", ErrorHandlingModeEnum.USE_ORIGINAL);
+
+		// registered in the "wrong" order on purpose
+		pipeline.addStep(dmsProcessor, new String[] { "verbatimLatitude", "verbatimLongitude" }, new String[] { "decimalLatitude",
+				"decimalLongitude" });
+		pipeline.addStep(dateProcessor, new String[] { "eventDate" }, new String[] { "eventStartYear", "eventStartMonth", "eventStartDay" });
+		pipeline.addStep(coordinatePairProcessor, new String[] { "verbatimCoordinates" }, new String[] { "verbatimLatitude", "verbatimLongitude" });
+		pipeline.addStep(countryProcessor, new String[] { "country" }, new String[] { "country" });
+	}
+
+	private static MockRawOccurrenceModel createRawModel(String verbatimCoordinates, String eventDate, String country) {
+		MockRawOccurrenceModel mockRawModel = new MockRawOccurrenceModel();
+		mockRawModel.setVerbatimCoordinates(verbatimCoordinates);
+		mockRawModel.setEventDate(eventDate);
+		mockRawModel.setCountry(country);
+		return mockRawModel;
+	}
+
+	@Test
+	public void testProcessingOrder() {
+		createPipeline();
+		List<AbstractDataProcessor> processingOrder = pipeline.getProcessingOrder();
+		assertEquals(Arrays.asList(coordinatePairProcessor, dmsProcessor, dateProcessor, countryProcessor), processingOrder);
+		assertEquals(3, pipeline.getBranchCount());
+	}
+
+	@Test
+	public void testProcess() {
+		createPipeline();
+		MockRawOccurrenceModel mockRawModel = createRawModel("45° 32' 25\"N,129° 40' 31\"W", "3 Jun 1987", "u.s.a");
+		MockOccurrenceModel mockModel = new MockOccurrenceModel();
+		ProcessingResult pr = new ProcessingResult();
+		pipeline.process(mockRawModel, mockModel, pr);
+
+		assertEquals(45.540277d, mockModel.getDecimalLatitude(), DELTA);
+		assertEquals(-129.675277d, mockModel.getDecimalLongitude(), DELTA);
+		assertEquals(Integer.valueOf(1987), mockModel.getEventStartYear());
+		assertEquals(Integer.valueOf(6), mockModel.getEventStartMonth());
+		assertEquals(Integer.valueOf(3), mockModel.getEventStartDay());
+		assertEquals("United States", mockModel.getCountry());
+		assertEquals(0, pr.getErrorList().size());
+	}
+
+	@Test
+	public void testProcessBatch() throws InterruptedException {
+		createPipeline();
+		List<MockRawOccurrenceModel> inList = new ArrayList<MockRawOccurrenceModel>();
+		List<MockOccurrenceModel> outList = new ArrayList<MockOccurrenceModel>();
+		for (int i = 0; i < 100; i++) {
+			inList.add(createRawModel("45° 32' 25\"N,129° 40' 31\"W", "1987-06-" + (i % 28 + 1), "u.s.a"));
+			outList.add(new MockOccurrenceModel());
+		}
+		// one bad record
+		inList.set(50, createRawModel("abc", "not a date", "u.s.a"));
+
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		ProcessingResult pr = new ProcessingResult();
+		try {
+			pipeline.processBatch(inList, outList, executorService, pr);
+		}
+		finally {
+			executorService.shutdown();
+		}
+
+		for (int i = 0; i < 100; i++) {
+			MockOccurrenceModel mockModel = outList.get(i);
+			assertEquals("United States", mockModel.getCountry());
+			if (i == 50) {
+				assertNull(mockModel.getDecimalLatitude());
+				assertNull(mockModel.getEventStartYear());
+			}
+			else {
+				assertEquals(45.540277d, mockModel.getDecimalLatitude(), DELTA);
+				assertEquals(Integer.valueOf(i % 28 + 1), mockModel.getEventStartDay());
+			}
+		}
+		assertEquals(true, pr.getErrorList().size() >= 2);
+	}
+
+	@Test
+	public void testProcessBatchInterrupted() throws InterruptedException {
+		createPipeline();
+		List<MockRawOccurrenceModel> inList = new ArrayList<MockRawOccurrenceModel>();
+		List<MockOccurrenceModel> outList = new ArrayList<MockOccurrenceModel>();
+		for (int i = 0; i < 20; i++) {
+			inList.add(createRawModel("45° 32' 25\"N,129° 40' 31\"W", "1987-06-03", "u.s.a"));
+			outList.add(new MockOccurrenceModel());
+		}
+
+		// keep the only thread busy so no chunk can start before the interruption
+		final CountDownLatch latch = new CountDownLatch(1);
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		executorService.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws InterruptedException {
+				latch.await();
+				return null;
+			}
+		});
+
+		Thread.currentThread().interrupt();
+		try {
+			pipeline.processBatch(inList, outList, executorService, new ProcessingResult());
+			fail("InterruptedException expected");
+		}
+		catch (InterruptedException e) {
+			// expected
+		}
+		finally {
+			latch.countDown();
+			executorService.shutdown();
+		}
+		executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+		for (MockOccurrenceModel mockModel : outList) {
+			assertNull(mockModel.getDecimalLatitude());
+			assertNull(mockModel.getEventStartYear());
+			assertNull(mockModel.getCountry());
+		}
+	}
+
+	@Test
+	public void testUnreadableInputField() {
+		ProcessorPipeline unreadablePipeline = new ProcessorPipeline();
+		unreadablePipeline.addStep(new DegreeMinuteToDecimalProcessor("verbatimLatitude", "verbatimLongitude", "decimalLatitude",
+				"decimalLongitude"), new String[] { "verbatimLatitude", "verbatimLongitude" }, new String[] { "decimalLatitude",
+				"decimalLongitude" });
+		// same branch (verbatimLongitude is shared), notAField is not a property of the input bean
+		unreadablePipeline.addStep(new DegreeMinuteToDecimalProcessor("notAField", "verbatimLongitude", "otherLatitude", "otherLongitude"),
+				new String[] { "notAField", "verbatimLongitude" }, new String[] { "otherLatitude", "otherLongitude" });
+		assertEquals(1, unreadablePipeline.getBranchCount());
+
+		MockRawOccurrenceModel mockRawModel = new MockRawOccurrenceModel();
+		mockRawModel.setVerbatimLatitude("45° 32' 25\"N");
+		mockRawModel.setVerbatimLongitude("129° 40' 31\"W");
+		MockOccurrenceModel mockModel = new MockOccurrenceModel();
+		unreadablePipeline.process(mockRawModel, mockModel, new ProcessingResult());
+
+		// the other fields of the branch are still processed
+		assertEquals(45.540277d, mockModel.getDecimalLatitude(), DELTA);
+		assertEquals(-129.675277d, mockModel.getDecimalLongitude(), DELTA);
+	}
+
+	@Test
+	public void testIntermediateFieldType() {
+		ProcessorPipeline typedPipeline = new ProcessorPipeline();
+		// altitude1 and altitude2 are neither in the input bean nor in the output bean
+		typedPipeline.addStep(new NumericPairDataProcessor("minAltitude", "maxAltitude", "altitude1", "altitude2"), new String[] {
+				"minAltitude", "maxAltitude" }, new String[] { "altitude1", "altitude2" }, new Class<?>[] { Double.class, Double.class }, null);
+		// any Double property of the output bean not read by the first step
+		typedPipeline.addStep(new CopyProcessor("altitude1", "decimalLatitude"), new String[] { "altitude1" },
+				new String[] { "decimalLatitude" });
+
+		MockRawOccurrenceModel mockRawModel = new MockRawOccurrenceModel();
+		mockRawModel.setMinAltitude("125.8m");
+		mockRawModel.setMaxAltitude("1147 meters");
+		MockOccurrenceModel mockModel = new MockOccurrenceModel();
+		ProcessingResult pr = new ProcessingResult();
+		typedPipeline.process(mockRawModel, mockModel, pr);
+
+		assertEquals(125.8d, mockModel.getDecimalLatitude(), DELTA);
+		assertEquals(0, pr.getErrorCount());
+
+		try {
+			typedPipeline.addStep(new CopyProcessor("minAltitude", "altitude1"), new String[] { "minAltitude" },
+					new String[] { "altitude1" }, new Class<?>[] { Integer.class }, null);
+			fail();
+		}
+		catch (IllegalArgumentException e) {
+			// expected, altitude1 is already declared as Double
+		}
+	}
+
+	@Test
+	public void testCyclicDependency() {
+		ProcessorPipeline cyclicPipeline = new ProcessorPipeline();
+		cyclicPipeline.addStep(new DegreeMinuteToDecimalProcessor("a", "b", "c", "d"), new String[] { "a", "b" }, new String[] { "c", "d" });
+		cyclicPipeline.addStep(new DegreeMinuteToDecimalProcessor("c", "d", "a", "b"), new String[] { "c", "d" }, new String[] { "a", "b" });
+		try {
+			cyclicPipeline.compile();
+			fail();
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Copy a field, used to read an intermediate field of the pipeline.
+	 */
+	private static class CopyProcessor extends AbstractDataProcessor {
+		private final String inName;
+		private final String outName;
+
+		private CopyProcessor(String inName, String outName) {
+			this.inName = inName;
+			this.outName = outName;
+		}
+
+		@Override
+		public ErrorHandlingModeEnum getErrorHandlingMode() {
+			return ErrorHandlingModeEnum.USE_NULL;
+		}
+
+		@Override
+		public void processBean(Object in, Object out, Map<String, Object> params, ProcessingResult result) {
+			try {
+				BeanPropertyAccessor.setSimpleProperty(out, outName, BeanPropertyAccessor.getSimpleProperty(in, inName));
+			}
+			catch (Exception e) {
+				fail(e.getMessage());
+			}
+		}
+
+		@Override
+		public boolean validateBean(Object in, boolean isMandatory, Map<String, Object> params, ProcessingResult result) {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package net.canadensys.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.canadensys.processor.AbstractDataProcessor.ErrorHandlingModeEnum;
+import net.canadensys.processor.datetime.DateProcessor;
+import net.canadensys.processor.geography.CoordinatePairProcessor;
+import net.canadensys.processor.geography.CountryContinentProcessor;
+import net.canadensys.processor.geography.CountryProcessor;
+import net.canadensys.processor.geography.DegreeMinuteToDecimalProcessor;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for RowRecord and RowHeader
+ *
+ * @author canadensys
+ *
+ */
+public class RowRecordTest {
+
+	private static final double DELTA = 0.00001;
+
+	private static final RowHeader IN_HEADER = new RowHeader("id", "eventDate", "country", "verbatimCoordinates");
+	private static final RowHeader OUT_HEADER = new RowHeader(new String[] { "eventStartYear", "eventStartMonth", "eventStartDay",
+			"country", "verbatimLatitude", "verbatimLongitude", "decimalLatitude", "decimalLongitude" }, new Class<?>[] { Integer.class,
+			Integer.class, Integer.class, null, null, null, Double.class, Double.class });
+
+	@Test
+	public void testRowHeader() {
+		Map<String, Integer> headerMap = new HashMap<String, Integer>();
+		headerMap.put("eventDate", 2);
+		headerMap.put("id", 0);
+		RowHeader header = RowHeader.fromIndexMap(headerMap);
+		assertEquals(3, header.size());
+		assertEquals(2, header.indexOf("eventDate"));
+		assertNull(header.getColumnName(1));
+		assertEquals(RowHeader.NOT_FOUND, header.indexOf("country"));
+		assertEquals(String.class, header.getColumnType(0));
+
+		assertEquals(Double.class, OUT_HEADER.getColumnType(OUT_HEADER.indexOf("decimalLatitude")));
+
+		try {
+			new RowHeader("id", "id");
+			fail();
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testProcessBean() {
+		DateProcessor dateProcessor = new DateProcessor("eventDate", "eventStartYear", "eventStartMonth", "eventStartDay");
+		CountryProcessor countryProcessor = new CountryProcessor("country", ErrorHandlingModeEnum.USE_ORIGINAL);
+
+		RowRecord record = new RowRecord(IN_HEADER, OUT_HEADER);
+		Object[] output = OUT_HEADER.newBuffer();
+		ProcessingResult pr = new ProcessingResult();
+
+		record.setRow(new String[] { "1", "3 Jun 1987", "u.s.a" }, output);
+		dateProcessor.processBean(record, record, null, pr);
+		countryProcessor.processBean(record, record, null, pr);
+		assertEquals(Integer.valueOf(1987), output[0]);
+		assertEquals(Integer.valueOf(6), output[1]);
+		assertEquals(Integer.valueOf(3), output[2]);
+		assertEquals("United States", output[3]);
+
+		// the buffer is reused
+		record.setRow(new CharSequence[] { "2", new StringBuilder("2001-02-23"), "Canada", null }, output);
+		dateProcessor.processBean(record, record, null, pr);
+		assertEquals(Integer.valueOf(2001), output[0]);
+		assertEquals(Integer.valueOf(23), output[2]);
+		assertNull(output[3]);
+		assertEquals(0, pr.getErrorList().size());
+	}
+
+	@Test
+	public void testChainedProcessors() {
+		CoordinatePairProcessor coordinatePairProcessor = new CoordinatePairProcessor("verbatimCoordinates", "verbatimLatitude",
+				"verbatimLongitude");
+		DegreeMinuteToDecimalProcessor dmsProcessor = new DegreeMinuteToDecimalProcessor("verbatimLatitude", "verbatimLongitude",
+				"decimalLatitude", "decimalLongitude");
+
+		RowRecord record = new RowRecord(IN_HEADER, OUT_HEADER);
+		Object[] output = OUT_HEADER.newBuffer();
+		record.setRow(new String[] { "1", null, null, "45° 32' 25\"N,129° 40' 31\"W" }, output);
+		coordinatePairProcessor.processBean(record, record, null, null);
+		dmsProcessor.processBean(record, record, null, null);
+		assertEquals(45.540277d, (Double) output[6], DELTA);
+		assertEquals(-129.675277d, (Double) output[7], DELTA);
+	}
+
+	/**
+	 * A column normalized to null by a processor must be read as null by the next processor, not as the raw input.
+	 */
+	@Test
+	public void testChainedProcessorsWithNullOutput() {
+		RowHeader outHeader = new RowHeader("country", "continent");
+		CountryProcessor countryProcessor = new CountryProcessor("country", ErrorHandlingModeEnum.USE_NULL);
+		CountryContinentProcessor countryContinentProcessor = new CountryContinentProcessor("country", "continent");
+
+		RowRecord record = new RowRecord(IN_HEADER, outHeader);
+		Object[] output = outHeader.newBuffer();
+		record.setRow(new String[] { "1", null, "not a country" }, output);
+		countryProcessor.processBean(record, record, null, null);
+		assertNull(output[0]);
+
+		ProcessingResult pr = new ProcessingResult();
+		countryContinentProcessor.processBean(record, record, null, pr);
+		assertNull(output[1]);
+		// the raw input was not given to the CountryContinentProcessor
+		assertEquals(0, pr.getErrorCount());
+
+		// the written flags are cleared by setRow(...)
+		record.setRow(new String[] { "2", null, "CA" }, output);
+		try {
+			assertEquals("CA", record.getProperty("country"));
+		}
+		catch (NoSuchMethodException e) {
+			fail();
+		}
+	}
+
+	@Test
+	public void testProcessorPipeline() {
+		ProcessorPipeline pipeline = new ProcessorPipeline();
+		pipeline.addStep(new DateProcessor("eventDate", "eventStartYear", "eventStartMonth", "eventStartDay"), new String[] { "eventDate" },
+				new String[] { "eventStartYear", "eventStartMonth", "eventStartDay" });
+		pipeline.addStep(new CountryProcessor("country", ErrorHandlingModeEnum.USE_ORIGINAL), new String[] { "country" },
+				new String[] { "country" });
+
+		RowRecord record = new RowRecord(IN_HEADER, OUT_HEADER);
+		Object[] output = OUT_HEADER.newBuffer();
+		record.setRow(new String[] { "1", "1987-06-03", "u.s.a" }, output);
+		pipeline.process(record, record, null);
+		assertEquals(Integer.valueOf(1987), output[0]);
+		assertEquals("United States", output[3]);
+	}
+
+	@Test
+	public void testPropertyAccess() throws Exception {
+		RowRecord record = new RowRecord(IN_HEADER, OUT_HEADER);
+		record.setRow(new String[] { "1", "1987" }, OUT_HEADER.newBuffer());
+		assertEquals("1987", BeanPropertyAccessor.getSimpleProperty(record, "eventDate"));
+		assertNull(BeanPropertyAccessor.getSimpleProperty(record, "verbatimCoordinates"));
+		assertEquals(Integer.class, BeanPropertyAccessor.getPropertyType(record, "eventStartYear"));
+		assertTrue(BeanPropertyAccessor.isWriteable(record, "country"));
+		assertFalse(BeanPropertyAccessor.isWriteable(record, "id"));
+
+		// the column indexes are resolved once, also for another String instance of the same name
+		record.setRow(new String[] { "2", "2001" }, OUT_HEADER.newBuffer());
+		assertEquals("2001", record.getProperty("eventDate"));
+		assertEquals("2001", record.getProperty(new String("eventDate")));
+		record.setProperty(new String("country"), "Canada");
+		assertEquals("Canada", record.getProperty("country"));
+		try {
+			BeanPropertyAccessor.setSimpleProperty(record, "id", "2");
+			fail();
+		}
+		catch (NoSuchMethodException e) {
+			// expected
+		}
+		try {
+			BeanPropertyAccessor.getSimpleProperty(record, "unknown");
+			fail();
+		}
+		catch (NoSuchMethodException e) {
+			// expected
+		}
+	}
+}
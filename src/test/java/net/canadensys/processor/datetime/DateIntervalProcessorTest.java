@@ -7,6 +7,7 @@ import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.net.URISyntaxException;
+import java.util.Locale;
 
 import net.canadensys.FileBasedTest;
 import net.canadensys.processor.ProcessingResult;
@@ -61,6 +62,40 @@ public class DateIntervalProcessorTest {
 		}
 	}
 
+	@Test
+	public void testProcessDates() {
+		DateIntervalProcessor dateIntervalProcessor = new DateIntervalProcessor();
+
+		assertDates(dateIntervalProcessor.processDates("1977-08-16/1977-08-20", null), PackedDate.pack(1977, 8, 16), PackedDate.pack(1977, 8, 20));
+		assertDates(dateIntervalProcessor.processDates("2001-02/2001-05", null), PackedDate.packYearMonth(2001, 2),
+				PackedDate.packYearMonth(2001, 5));
+		assertDates(dateIntervalProcessor.processDates("1910 Jul 23/1910 Jul 24", null), PackedDate.pack(1910, 7, 23), PackedDate.pack(1910, 7, 24));
+		assertDates(dateIntervalProcessor.processDates("9.v.1994 - 3.vi.1994", null), PackedDate.pack(1994, 5, 9), PackedDate.pack(1994, 6, 3));
+
+		// shared year (and month)
+		assertDates(dateIntervalProcessor.processDates("3-5 June 1999", null), PackedDate.pack(1999, 6, 3), PackedDate.pack(1999, 6, 5));
+		assertDates(dateIntervalProcessor.processDates("3 May - 5 June 1999", null), PackedDate.pack(1999, 5, 3), PackedDate.pack(1999, 6, 5));
+
+		// reusable output
+		long[] output = new long[2];
+		assertTrue(dateIntervalProcessor.processDates("1950-07-11-1950-07-15", output, null));
+		assertDates(output, PackedDate.pack(1950, 7, 11), PackedDate.pack(1950, 7, 15));
+
+		ProcessingResult pr = new ProcessingResult();
+		assertFalse(dateIntervalProcessor.processDates("31-5 June 1999", output, pr));
+		assertEquals(PackedDate.EMPTY, output[DateIntervalProcessor.START_DATE_IDX]);
+		assertEquals(1, pr.getErrorList().size());
+
+		pr = new ProcessingResult();
+		assertFalse(dateIntervalProcessor.processDates("1977-08-16,20", output, pr));
+		assertEquals(1, pr.getErrorList().size());
+	}
+
+	private void assertDates(long[] dates, long startDate, long endDate) {
+		assertEquals(PackedDate.toString(startDate), PackedDate.toString(dates[DateIntervalProcessor.START_DATE_IDX]));
+		assertEquals(PackedDate.toString(endDate), PackedDate.toString(dates[DateIntervalProcessor.END_DATE_IDX]));
+	}
+
 	@Test
 	public void testDateIntervalValidation() {
 		DateIntervalProcessor dateIntervalProcessor = new DateIntervalProcessor("eventDate", "eventStartDate", "eventEndDate");
@@ -85,4 +120,28 @@ public class DateIntervalProcessorTest {
 		assertFalse(dateIntervalProcessor.validateBean(mockRawModel, false, null, pr));
 		assertTrue(pr.getErrorList().size() > 0);
 	}
+
+	@Test
+	public void testDateIntervalLocale() {
+		DateIntervalProcessor dateIntervalProcessor = new DateIntervalProcessor("eventDate", "eventStartDate", "eventEndDate");
+		dateIntervalProcessor.setLocale(Locale.FRENCH);
+		MockRawOccurrenceModel mockRawModel = new MockRawOccurrenceModel();
+		mockRawModel.setEventDate("1977-08-16/1977-13-45");
+
+		// the errors of the dateProcessor are also reported in French
+		ProcessingResult pr = new ProcessingResult();
+		assertFalse(dateIntervalProcessor.validateBean(mockRawModel, false, null, pr));
+		assertTrue(pr.getErrorList().size() > 0);
+		for (String error : pr.getErrorList()) {
+			assertTrue(error.startsWith("Impossible"));
+		}
+
+		// a dateProcessor set afterward uses the same Locale
+		dateIntervalProcessor.setDateProcessor(new DateProcessor());
+		pr = new ProcessingResult();
+		assertFalse(dateIntervalProcessor.validateBean(mockRawModel, false, null, pr));
+		for (String error : pr.getErrorList()) {
+			assertTrue(error.startsWith("Impossible"));
+		}
+	}
 }
@@ -0,0 +1,87 @@
+package net.canadensys.processor.datetime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.canadensys.processor.ProcessingResult;
+import net.canadensys.processor.datetime.DateOrderInference.DateOrderEnum;
+import net.canadensys.processor.dwc.mock.MockOccurrenceModel;
+import net.canadensys.processor.dwc.mock.MockRawOccurrenceModel;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for DateOrderInference
+ * 
+ * @author canadensys
+ * 
+ */
+public class DateOrderInferenceTest {
+
+	@Test
+	public void testInference() {
+		DateOrderInference dateOrderInference = new DateOrderInference(3, 0.9);
+		assertEquals(DateOrderEnum.UNKNOWN, dateOrderInference.getDateOrder());
+
+		dateOrderInference.record(DateOrderEnum.MONTH_DAY);
+		dateOrderInference.record(DateOrderEnum.MONTH_DAY);
+		assertEquals(DateOrderEnum.UNKNOWN, dateOrderInference.getDateOrder());
+		dateOrderInference.record(DateOrderEnum.MONTH_DAY);
+		assertEquals(DateOrderEnum.MONTH_DAY, dateOrderInference.getDateOrder());
+
+		// not enough agreement
+		dateOrderInference.record(DateOrderEnum.DAY_MONTH);
+		assertEquals(DateOrderEnum.UNKNOWN, dateOrderInference.getDateOrder());
+
+		dateOrderInference.reset();
+		assertEquals(0, dateOrderInference.getMonthDayCount());
+		dateOrderInference.setDateOrder(DateOrderEnum.DAY_MONTH);
+		long packedDate = dateOrderInference.resolve(PackedDate.pack(2010, 11, 10), PackedDate.pack(2010, 10, 11));
+		assertEquals(10, PackedDate.getDay(packedDate));
+		assertTrue(PackedDate.isOrderInferred(packedDate));
+		assertEquals(1, dateOrderInference.getInferredCount());
+	}
+
+	@Test
+	public void testDateProcessor() {
+		DateProcessor dateProcessor = new DateProcessor();
+		DateOrderInference dateOrderInference = new DateOrderInference();
+		ProcessingResult pr = new ProcessingResult();
+
+		// not inferred yet
+		assertEquals(PackedDate.EMPTY, dateProcessor.processPacked("10-11-2010", dateOrderInference, pr));
+		assertEquals(1, pr.getErrorList().size());
+
+		// sampling pass
+		for (int day = 13; day < 13 + DateOrderInference.DEFAULT_MIN_SAMPLE_SIZE; day++) {
+			dateProcessor.processPacked(day + "/4/2001", dateOrderInference, null);
+		}
+		assertEquals(DateOrderEnum.DAY_MONTH, dateOrderInference.freeze());
+
+		long packedDate = dateProcessor.processPacked("10-11-2010", dateOrderInference, null);
+		assertEquals(2010, PackedDate.getYear(packedDate));
+		assertEquals(11, PackedDate.getMonth(packedDate));
+		assertEquals(10, PackedDate.getDay(packedDate));
+		assertTrue(PackedDate.isOrderInferred(packedDate));
+
+		// unambiguous dates are not flagged
+		assertFalse(PackedDate.isOrderInferred(dateProcessor.processPacked("23-4-2001", dateOrderInference, null)));
+
+		// using processBean
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(DateProcessor.DATE_ORDER_INFERENCE_TAG, dateOrderInference);
+		DateProcessor beanDateProcessor = new DateProcessor("eventDate", "eventStartYear", "eventStartMonth", "eventStartDay");
+		MockRawOccurrenceModel mockRawModel = new MockRawOccurrenceModel();
+		MockOccurrenceModel mockModel = new MockOccurrenceModel();
+		mockRawModel.setEventDate("08.11.2003");
+		beanDateProcessor.processBean(mockRawModel, mockModel, params, null);
+		assertArrayEquals(new Integer[] { 2003, 11, 8 },
+				new Integer[] { mockModel.getEventStartYear(), mockModel.getEventStartMonth(), mockModel.getEventStartDay() });
+		assertEquals(2, dateOrderInference.getInferredCount());
+	}
+}
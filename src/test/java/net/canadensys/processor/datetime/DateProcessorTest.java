@@ -1,5 +1,6 @@
 package net.canadensys.processor.datetime;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
@@ -8,6 +9,8 @@ import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Locale;
 
 import net.canadensys.FileBasedTest;
 import net.canadensys.processor.ProcessingResult;
@@ -137,6 +140,53 @@ public class DateProcessorTest {
 		assertTrue(pr.getErrorList().size() >= 1);
 	}
 
+	@Test
+	public void testProcessPacked() {
+		DateProcessor dateProcessor = new DateProcessor();
+
+		long packedDate = dateProcessor.processPacked("3 Jun 1987", null);
+		assertEquals(1987, PackedDate.getYear(packedDate));
+		assertEquals(6, PackedDate.getMonth(packedDate));
+		assertEquals(3, PackedDate.getDay(packedDate));
+
+		packedDate = dateProcessor.processPacked("Jun", null);
+		assertFalse(PackedDate.hasYear(packedDate));
+		assertEquals(6, PackedDate.getMonth(packedDate));
+		assertFalse(PackedDate.hasDay(packedDate));
+
+		ProcessingResult pr = new ProcessingResult();
+		assertEquals(PackedDate.EMPTY, dateProcessor.processPacked("10-11-2010", pr));
+		assertEquals(1, pr.getErrorList().size());
+
+		// reusable output
+		Integer[] output = new Integer[3];
+		assertTrue(dateProcessor.process("1987-06-03", output, null));
+		assertEquals(Integer.valueOf(3), output[DateProcessor.DAY_IDX]);
+		assertTrue(dateProcessor.process("1987", output, null));
+		assertEquals(Integer.valueOf(1987), output[DateProcessor.YEAR_IDX]);
+		assertNull(output[DateProcessor.DAY_IDX]);
+		assertFalse(dateProcessor.process("not a date", output, null));
+		assertNull(output[DateProcessor.YEAR_IDX]);
+	}
+
+	@Test
+	public void testSupportedLocale() {
+		DateProcessor dateProcessor = new DateProcessor("eventDate", "eventStartYear", "eventStartMonth", "eventStartDay", Arrays.asList(
+				Locale.FRENCH, Locale.GERMAN));
+
+		assertArrayEquals(new Integer[] { 1987, 3, 3 }, dateProcessor.process("3. März 1987", null));
+		assertArrayEquals(new Integer[] { 2012, 12, 3 }, dateProcessor.process("3 decembre 2012", null));
+		assertArrayEquals(new Integer[] { 2012, 8, 3 }, dateProcessor.process("AOUT 3, 2012", null));
+		assertArrayEquals(new Integer[] { 1987, 2, 3 }, dateProcessor.process("1987-févr.-3", null));
+		// same as the English patterns, the day is adjusted to the last valid day of the month
+		assertArrayEquals(new Integer[] { 1987, 6, 30 }, dateProcessor.process("31 juin 1987", null));
+
+		// Spanish is not supported by this instance
+		ProcessingResult pr = new ProcessingResult();
+		assertArrayEquals(new Integer[3], dateProcessor.process("3 diciembre 2012", pr));
+		assertEquals(1, pr.getErrorList().size());
+	}
+
 	@Test
 	public void testInvalidDates() {
 		assertInvalidDate("2014-02-30");
@@ -0,0 +1,47 @@
+package net.canadensys.processor.datetime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for DateShape
+ * 
+ * @author canadensys
+ * 
+ */
+public class DateShapeTest {
+
+	@Test
+	public void testShapeOf() {
+		assertEquals("D-A-DDDD", DateShape.shapeOf("3-Jun-1987"));
+		assertEquals("DDDD-DD-DD", DateShape.shapeOf("1987-06-03"));
+		assertEquals("DDDD-A-D", DateShape.shapeOf("1987-Août-3"));
+		assertEquals("A-DD-DDDD", DateShape.shapeOf("Janvier-13-2008"));
+	}
+
+	@Test
+	public void testCandidateFormats() {
+		int formats = DateShape.getCandidateFormats("1987-06-03");
+		assertTrue((formats & DateShape.ISO_PARTIAL) != 0);
+		assertFalse((formats & DateShape.ISO_BASIC) != 0);
+		assertFalse((formats & DateShape.LE_TEXT_MONTH) != 0);
+
+		assertTrue((DateShape.getCandidateFormats("20081227") & DateShape.ISO_BASIC) != 0);
+
+		formats = DateShape.getCandidateFormats("3-Jun-1987");
+		assertEquals(DateShape.LE_TEXT_MONTH | DateShape.ROMAN_NUMERAL, formats);
+
+		formats = DateShape.getCandidateFormats("1986-dic-3");
+		assertEquals(DateShape.BE_TEXT_MONTH | DateShape.ROMAN_NUMERAL, formats);
+
+		assertEquals(DateShape.ME_TEXT_MONTH | DateShape.ROMAN_NUMERAL, DateShape.getCandidateFormats("Jun-13-2008"));
+		assertEquals(DateShape.PARTIAL_MONTH_YEAR | DateShape.ROMAN_NUMERAL, DateShape.getCandidateFormats("Jun-1895"));
+		assertEquals(DateShape.PARTIAL_MONTH, DateShape.getCandidateFormats("Jun"));
+
+		// no digits, no month
+		assertEquals(0, DateShape.getCandidateFormats("unknown-date"));
+	}
+}
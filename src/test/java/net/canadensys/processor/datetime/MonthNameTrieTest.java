@@ -0,0 +1,55 @@
+package net.canadensys.processor.datetime;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for MonthNameTrie
+ * 
+ * @author canadensys
+ * 
+ */
+public class MonthNameTrieTest {
+
+	private static int lookup(MonthNameTrie monthNameTrie, String text) {
+		return monthNameTrie.lookup(text, 0, text.length());
+	}
+
+	@Test
+	public void testLookup() {
+		MonthNameTrie monthNameTrie = new MonthNameTrie(Arrays.asList(Locale.FRENCH, new Locale("ES"), Locale.GERMAN));
+
+		assertEquals(1, lookup(monthNameTrie, "Janvier"));
+		assertEquals(1, lookup(monthNameTrie, "JANV."));
+		assertEquals(12, lookup(monthNameTrie, "décembre"));
+		assertEquals(1, lookup(monthNameTrie, "Ene"));
+		assertEquals(12, lookup(monthNameTrie, "diciembre"));
+		assertEquals(3, lookup(monthNameTrie, "März"));
+		assertEquals(10, lookup(monthNameTrie, "Oktober"));
+
+		// accent folding
+		assertEquals(8, lookup(monthNameTrie, "aout"));
+		assertEquals(12, lookup(monthNameTrie, "DECEMBRE"));
+		assertEquals(3, lookup(monthNameTrie, "Marz"));
+
+		// partial range of the text
+		assertEquals(6, monthNameTrie.lookup("3-juin-1987", 2, 6));
+
+		assertEquals(MonthNameTrie.NOT_FOUND, lookup(monthNameTrie, "janvi"));
+		assertEquals(MonthNameTrie.NOT_FOUND, lookup(monthNameTrie, "xyz"));
+		assertEquals(MonthNameTrie.NOT_FOUND, lookup(monthNameTrie, ""));
+	}
+
+	@Test
+	public void testFirstLocaleWins() {
+		MonthNameTrie monthNameTrie = new MonthNameTrie(Arrays.asList(Locale.FRENCH));
+		monthNameTrie.add("juin", 7);
+		monthNameTrie.add("sextilis", 8);
+		assertEquals(6, lookup(monthNameTrie, "juin"));
+		assertEquals(8, lookup(monthNameTrie, "Sextilis"));
+	}
+}
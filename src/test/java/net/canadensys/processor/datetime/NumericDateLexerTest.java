@@ -0,0 +1,58 @@
+package net.canadensys.processor.datetime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for NumericDateLexer
+ * 
+ * @author canadensys
+ * 
+ */
+public class NumericDateLexerTest {
+
+	private static void assertMatch(String text, Integer year, Integer month, Integer day) {
+		long packedDate = NumericDateLexer.parse(text, 0, text.length());
+		assertArrayEquals(text, new Integer[] { year, month, day }, PackedDate.toArray(packedDate));
+	}
+
+	private static void assertResult(String text, long expected) {
+		assertEquals(text, expected, NumericDateLexer.parse(text, 0, text.length()));
+	}
+
+	@Test
+	public void testMatch() {
+		assertMatch("1987", 1987, null, null);
+		assertMatch("1987-06", 1987, 6, null);
+		assertMatch("1987-06-03", 1987, 6, 3);
+		assertMatch("1987/6/3", 1987, 6, 3);
+		assertMatch("1987. 6. 3", 1987, 6, 3);
+		assertMatch("20081227", 2008, 12, 27);
+		assertMatch("2000-02-29", 2000, 2, 29);
+		assertMatch("31-12-2012", 2012, 12, 31);
+		assertMatch("12-31-2012", 2012, 12, 31);
+		assertMatch("12-12-2012", 2012, 12, 12);
+	}
+
+	@Test
+	public void testVague() {
+		assertResult("10-11-2010", NumericDateLexer.VAGUE);
+		assertResult("08.11 2003", NumericDateLexer.VAGUE);
+	}
+
+	@Test
+	public void testNoMatch() {
+		// must be handled by the formatters
+		assertResult(" 1987", NumericDateLexer.NO_MATCH);
+		assertResult("1987.", NumericDateLexer.NO_MATCH);
+		assertResult("1987 -06", NumericDateLexer.NO_MATCH);
+		assertResult("1987-006", NumericDateLexer.NO_MATCH);
+		assertResult("3-Jun-1987", NumericDateLexer.NO_MATCH);
+		assertResult("2014-02-30", NumericDateLexer.NO_MATCH);
+		assertResult("1900-02-29", NumericDateLexer.NO_MATCH);
+		assertResult("20140230", NumericDateLexer.NO_MATCH);
+		assertResult("1987-13", NumericDateLexer.NO_MATCH);
+	}
+}
@@ -0,0 +1,62 @@
+package net.canadensys.processor.datetime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for PackedDate
+ * 
+ * @author canadensys
+ * 
+ */
+public class PackedDateTest {
+
+	@Test
+	public void testPackUnpack() {
+		long packedDate = PackedDate.pack(1987, 6, 3);
+		assertEquals(1987, PackedDate.getYear(packedDate));
+		assertEquals(6, PackedDate.getMonth(packedDate));
+		assertEquals(3, PackedDate.getDay(packedDate));
+		assertTrue(PackedDate.isComplete(packedDate));
+		assertArrayEquals(new Integer[] { 1987, 6, 3 }, PackedDate.toArray(packedDate));
+
+		packedDate = PackedDate.pack(null, 12, null);
+		assertFalse(PackedDate.hasYear(packedDate));
+		assertTrue(PackedDate.hasMonth(packedDate));
+		assertFalse(PackedDate.hasDay(packedDate));
+		assertArrayEquals(new Integer[] { null, 12, null }, PackedDate.toArray(packedDate));
+
+		assertEquals(PackedDate.pack(2008, 12, null), PackedDate.packYearMonth(2008, 12));
+		assertEquals(PackedDate.pack(2008, null, null), PackedDate.packYear(2008));
+		assertEquals(PackedDate.pack(new Integer[] { 2008, 12, 27 }), PackedDate.pack(2008, 12, 27));
+
+		assertTrue(PackedDate.isEmpty(PackedDate.pack((Integer) null, null, null)));
+		assertArrayEquals(new Integer[3], PackedDate.toArray(PackedDate.EMPTY));
+
+		// negative years
+		packedDate = PackedDate.pack(-44, 3, 15);
+		assertEquals(-44, PackedDate.getYear(packedDate));
+		assertEquals(3, PackedDate.getMonth(packedDate));
+		assertEquals(15, PackedDate.getDay(packedDate));
+	}
+
+	@Test
+	public void testOrdering() {
+		assertTrue(PackedDate.pack(-1, 12, 31) < PackedDate.pack(1, 1, 1));
+		assertTrue(PackedDate.pack(1987, 6, 3) < PackedDate.pack(1987, 6, 4));
+		assertTrue(PackedDate.pack(1987, 6, 30) < PackedDate.pack(1987, 7, 1));
+		assertTrue(PackedDate.packYear(1987) < PackedDate.packYearMonth(1987, 1));
+		assertTrue(PackedDate.packYearMonth(1987, 6) < PackedDate.pack(1987, 6, 1));
+		assertTrue(PackedDate.pack(1987, 12, 31) < PackedDate.packYear(1988));
+	}
+
+	@Test
+	public void testToString() {
+		assertEquals("1987-6-3", PackedDate.toString(PackedDate.pack(1987, 6, 3)));
+		assertEquals("?-6-?", PackedDate.toString(PackedDate.pack(null, 6, null)));
+	}
+}
@@ -0,0 +1,150 @@
+package net.canadensys.processor.geography;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.net.URISyntaxException;
+
+import net.canadensys.FileBasedTest;
+import net.canadensys.processor.ProcessingResult;
+import net.canadensys.processor.dwc.mock.MockOccurrenceModel;
+import net.canadensys.processor.dwc.mock.MockRawOccurrenceModel;
+
+import org.junit.Test;
+
+/**
+ * Tests for the CoordinatePairToDecimalProcessor
+ *
+ * @author canadensys
+ *
+ */
+public class CoordinatePairToDecimalProcessorTest {
+
+	private static final String TEST_FILE_NAME = "/coordinatePairFormat.txt";
+	private static final String TEST_FILE_ELEMENT_SEPARATOR = "%";
+
+	/**
+	 * The result must be the same as CoordinatePairProcessor followed by DecimalLatLongProcessor or DegreeMinuteToDecimalProcessor.
+	 */
+	@Test
+	public void testSameAsCoordinatePairProcessor() {
+		final CoordinatePairToDecimalProcessor processor = new CoordinatePairToDecimalProcessor();
+		final CoordinatePairProcessor cpProcessor = new CoordinatePairProcessor();
+		final DecimalLatLongProcessor decimalProcessor = new DecimalLatLongProcessor();
+		final DegreeMinuteToDecimalProcessor dmsProcessor = new DegreeMinuteToDecimalProcessor();
+
+		try {
+			final File coordinateFile = new File(getClass().getResource(TEST_FILE_NAME).toURI());
+			FileBasedTest fileBasedTest = new FileBasedTest(coordinateFile, TEST_FILE_ELEMENT_SEPARATOR) {
+				@Override
+				public void processLine(String[] elements, int lineNumber) {
+					if (elements.length == 3) {
+						String assertText = "[Line #" + lineNumber + " in " + coordinateFile.getName() + "]";
+						String[] pair = cpProcessor.process(elements[0], null);
+						assertNotNull(assertText, pair);
+
+						Number[] expected = dmsProcessor.process(pair[0], pair[1], null);
+						if (expected[0] == null) {
+							expected = decimalProcessor.process(pair[0], pair[1], Double.class, null);
+						}
+						double[] output = new double[2];
+						assertTrue(assertText, processor.process(elements[0], output, null));
+						assertEquals(assertText, expected[0].doubleValue(), output[0], 0);
+						assertEquals(assertText, expected[1].doubleValue(), output[1], 0);
+					}
+					else {
+						fail("[Line #" + lineNumber + " in " + coordinateFile.getName() + "] is not valid.");
+					}
+				}
+			};
+			fileBasedTest.processFile();
+		}
+		catch (URISyntaxException e) {
+			e.printStackTrace();
+		}
+	}
+
+	@Test
+	public void testProcessing() {
+		CoordinatePairToDecimalProcessor processor = new CoordinatePairToDecimalProcessor();
+		double[] output = new double[2];
+
+		assertTrue(processor.process("45.5;-73.25", output, null));
+		assertEquals(45.5, output[LatLongProcessorHelper.LATITUDE_IDX], 0);
+		assertEquals(-73.25, output[LatLongProcessorHelper.LONGITUDE_IDX], 0);
+
+		// dms coordinates in both orders
+		assertTrue(processor.process("40°26'47\"N/74° 0' 21.5022\"W", output, null));
+		assertEquals(40.446, output[LatLongProcessorHelper.LATITUDE_IDX], 0.001);
+		assertEquals(-74.006, output[LatLongProcessorHelper.LONGITUDE_IDX], 0.001);
+		assertTrue(processor.process("74° 0' 21.5022\"W/40°26'47\"N", output, null));
+		assertEquals(40.446, output[LatLongProcessorHelper.LATITUDE_IDX], 0.001);
+		assertEquals(-74.006, output[LatLongProcessorHelper.LONGITUDE_IDX], 0.001);
+
+		assertArrayEquals(new Double[] { 45.5, -129.6 }, processor.process("45.5° N, 129.6° W", null));
+		assertArrayEquals(new Double[] { null, null }, processor.process(null, null));
+
+		assertFalse(processor.process(" ", output, null));
+		assertTrue(Double.isNaN(output[LatLongProcessorHelper.LATITUDE_IDX]));
+		assertTrue(Double.isNaN(output[LatLongProcessorHelper.LONGITUDE_IDX]));
+	}
+
+	@Test
+	public void testProcessingErrors() {
+		CoordinatePairToDecimalProcessor processor = new CoordinatePairToDecimalProcessor();
+		double[] output = new double[2];
+
+		ProcessingResult pr = new ProcessingResult();
+		assertFalse(processor.process("95.5,-73.25", output, pr));
+		assertTrue(Double.isNaN(output[LatLongProcessorHelper.LONGITUDE_IDX]));
+		assertEquals("decimalLatLong.error.outOfBounds", pr.getErrors().get(0).getKey());
+
+		pr = new ProcessingResult();
+		assertFalse(processor.process("40°26'47\"N/74°0'21\"S", output, pr));
+		assertEquals("coordinatePair.error.noCardinalDirection", pr.getErrors().get(0).getKey());
+		assertEquals("coordinatePair.error.noValidCoordinate", pr.getErrors().get(1).getKey());
+
+		pr = new ProcessingResult();
+		assertFalse(processor.process("40°26'47\"/74°0'21\"W", output, pr));
+		assertEquals("coordinatePair.error.noLatitude", pr.getErrors().get(0).getKey());
+
+		pr = new ProcessingResult();
+		assertFalse(processor.process("40°26'61\"N/74°0'21\"W", output, pr));
+		assertEquals("dms.error.secondOutOfBounds", pr.getErrors().get(0).getKey());
+		assertEquals(1, pr.getErrorCount());
+
+		pr = new ProcessingResult();
+		assertFalse(processor.process("not a coordinate", output, pr));
+		assertEquals("coordinatePair.error.noValidCoordinate", pr.getErrors().get(0).getKey());
+	}
+
+	@Test
+	public void testProcessingBean() {
+		CoordinatePairToDecimalProcessor processor = new CoordinatePairToDecimalProcessor("verbatimCoordinates", "decimalLatitude",
+				"decimalLongitude");
+		MockRawOccurrenceModel rawModel = new MockRawOccurrenceModel();
+		MockOccurrenceModel model = new MockOccurrenceModel();
+
+		rawModel.setVerbatimCoordinates("74° 0' 21.5022\"W/40°26'47\"N");
+		processor.processBean(rawModel, model, null, null);
+		assertEquals(40.446, model.getDecimalLatitude(), 0.001);
+		assertEquals(-74.006, model.getDecimalLongitude(), 0.001);
+		assertTrue(processor.validateBean(rawModel, true, null, null));
+
+		rawModel.setVerbatimCoordinates("40°26'47\"N");
+		processor.processBean(rawModel, model, null, null);
+		assertNull(model.getDecimalLatitude());
+		assertNull(model.getDecimalLongitude());
+		assertFalse(processor.validateBean(rawModel, false, null, null));
+
+		rawModel.setVerbatimCoordinates(null);
+		assertTrue(processor.validateBean(rawModel, false, null, null));
+		assertFalse(processor.validateBean(rawModel, true, null, null));
+	}
+}
@@ -1,13 +1,22 @@
 package net.canadensys.processor.geography;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.net.URISyntaxException;
+import java.util.BitSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import net.canadensys.FileBasedTest;
 import net.canadensys.processor.ProcessingResult;
@@ -15,6 +24,7 @@ import net.canadensys.processor.ProcessingResult;
 import org.apache.commons.lang3.StringUtils;
 import org.geotools.referencing.CRS;
 import org.junit.Test;
+import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 
 /**
@@ -38,6 +48,240 @@ public class CoordinatesToWGS84ProcesorTest {
 		assertTrue(StringUtils.isNotBlank(pr.getErrorString()));
 	}
 
+	@Test
+	public void testTransformCache() throws Exception {
+		CoordinateReferenceSystem crs = CRS.decode("EPSG:26918");
+		CoordinatesToWGS84Processor ctwProcessor = new CoordinatesToWGS84Processor();
+		CoordinatesToWGS84Processor otherProcessor = new CoordinatesToWGS84Processor("EPSG:26918");
+
+		// the transform is resolved once per source CRS
+		assertSame(ctwProcessor.getTransform(crs), ctwProcessor.getTransform(crs));
+		assertSame(ctwProcessor.getTransform(crs), otherProcessor.getTransform(crs));
+
+		Double[] output = ctwProcessor.process(612710d, 5045877d, crs, null);
+		assertEquals(45.55730, output[LatLongProcessorHelper.LATITUDE_IDX], 0.00001);
+		assertEquals(-73.55587, output[LatLongProcessorHelper.LONGITUDE_IDX], 0.00001);
+		// switching CRS must not reuse the last transform
+		output = ctwProcessor.process(548566d, 4935158d, CRS.decode("EPSG:26912"), null);
+		assertEquals(44.568126, output[LatLongProcessorHelper.LATITUDE_IDX], 0.00001);
+		assertEquals(-110.388383, output[LatLongProcessorHelper.LONGITUDE_IDX], 0.00001);
+		output = otherProcessor.process(612710d, 5045877d, null);
+		assertEquals(45.55730, output[LatLongProcessorHelper.LATITUDE_IDX], 0.00001);
+	}
+
+	@Test
+	public void testWarmUp() throws Exception {
+		CoordinatesToWGS84Processor.warmUpInBackground("EPSG:26918", "EPSG:26912").get();
+		CoordinatesToWGS84Processor ctwProcessor = new CoordinatesToWGS84Processor("EPSG:26918");
+		// the decoded CRS and its transform were prepared by the warm-up
+		assertSame(CoordinatesToWGS84Processor.decodeCRS("EPSG:26918"), ctwProcessor.sourceCRS);
+		Double[] output = ctwProcessor.process(612710d, 5045877d, null);
+		assertEquals(45.55730, output[LatLongProcessorHelper.LATITUDE_IDX], 0.00001);
+
+		try {
+			CoordinatesToWGS84Processor.warmUpInBackground("EPSG:1").get();
+			fail("EPSG:1 is not a valid CRS");
+		}
+		catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof FactoryException);
+		}
+	}
+
+	@Test
+	public void testPrimitiveBatch() throws Exception {
+		CoordinatesToWGS84Processor ctwProcessor = new CoordinatesToWGS84Processor();
+		CoordinateReferenceSystem crs = CRS.decode("EPSG:26918");
+		double[] x = { 612710, Double.NaN, 612710 };
+		double[] y = { 5045877, 5045877, 5045877 };
+		double[] latitude = new double[3];
+		double[] longitude = new double[3];
+		BitSet valid = new BitSet();
+		ProcessingResult pr = new ProcessingResult();
+
+		assertEquals(2, ctwProcessor.processBatch(x, y, crs, latitude, longitude, valid, pr));
+		assertTrue(valid.get(0));
+		assertFalse(valid.get(1));
+		assertTrue(valid.get(2));
+		assertEquals(45.55730, latitude[0], 0.00001);
+		assertEquals(-73.55587, longitude[0], 0.00001);
+		assertTrue(Double.isNaN(latitude[1]));
+		// missing values are not errors
+		assertEquals(0, pr.getErrorCount());
+
+		// interleaved, in place
+		double[] xy = { 612710, 5045877, 548566, 4935158 };
+		assertEquals(2, ctwProcessor.processBatch(xy, CRS.decode("EPSG:26912"), xy, valid, null));
+		assertEquals(-110.388383, xy[2], 0.00001);
+		assertEquals(44.568126, xy[3], 0.00001);
+
+		// same result as process(...)
+		Double[] output = ctwProcessor.process(612710d, 5045877d, crs, null);
+		assertEquals(output[LatLongProcessorHelper.LATITUDE_IDX], latitude[2], 0);
+		assertEquals(output[LatLongProcessorHelper.LONGITUDE_IDX], longitude[2], 0);
+
+		pr = new ProcessingResult();
+		assertEquals(0, ctwProcessor.processBatch(x, y, null, latitude, longitude, valid, pr));
+		assertTrue(valid.isEmpty());
+		assertEquals(1, pr.getErrorCount());
+	}
+
+	/**
+	 * The UTM fast path must give the same results as GeoTools within 1e-7 degree (about 1 cm).
+	 */
+	@Test
+	public void testUTMFastPath() throws Exception {
+		CoordinatesToWGS84Processor fastProcessor = new CoordinatesToWGS84Processor();
+		CoordinatesToWGS84Processor geoToolsProcessor = new CoordinatesToWGS84Processor();
+		geoToolsProcessor.setUseUTMFastPath(false);
+
+		assertNotNull(fastProcessor.getUTMConverter(CRS.decode("EPSG:26918")));
+		assertNull(fastProcessor.getUTMConverter(CRS.decode("EPSG:32198")));
+
+		for (String code : new String[] { "EPSG:26918", "EPSG:32618", "EPSG:32718" }) {
+			CoordinateReferenceSystem crs = CRS.decode(code);
+			for (double x = 100000; x <= 900000; x += 20000) {
+				for (double y = 1000000; y <= 9000000; y += 200000) {
+					Double[] expected = geoToolsProcessor.process(x, y, crs, null);
+					Double[] output = fastProcessor.process(x, y, crs, null);
+					String assertText = code + " " + x + "," + y;
+					assertEquals(assertText, expected[LatLongProcessorHelper.LATITUDE_IDX], output[LatLongProcessorHelper.LATITUDE_IDX], 1e-7);
+					assertEquals(assertText, expected[LatLongProcessorHelper.LONGITUDE_IDX], output[LatLongProcessorHelper.LONGITUDE_IDX], 1e-7);
+				}
+			}
+		}
+
+		// coordinates refused by the converter use the GeoTools transform
+		CoordinateReferenceSystem crs = CRS.decode("EPSG:26918");
+		Double[] expected = geoToolsProcessor.process(100000d, 7000000d, crs, null);
+		Double[] output = fastProcessor.process(100000d, 7000000d, crs, null);
+		assertEquals(expected[LatLongProcessorHelper.LATITUDE_IDX], output[LatLongProcessorHelper.LATITUDE_IDX]);
+		assertEquals(expected[LatLongProcessorHelper.LONGITUDE_IDX], output[LatLongProcessorHelper.LONGITUDE_IDX]);
+
+		double[] x = { 612710, 100000, Double.NaN };
+		double[] y = { 5045877, 7000000, 5045877 };
+		double[] latitude = new double[3];
+		double[] longitude = new double[3];
+		BitSet valid = new BitSet();
+		assertEquals(2, fastProcessor.processBatch(x, y, crs, latitude, longitude, valid, null));
+		assertEquals(45.55730, latitude[0], 0.00001);
+		assertEquals(expected[LatLongProcessorHelper.LATITUDE_IDX], latitude[1], 0);
+		assertFalse(valid.get(2));
+	}
+
+	@Test
+	public void testParallelBatch() throws Exception {
+		CoordinatesToWGS84Processor ctwProcessor = new CoordinatesToWGS84Processor();
+		ctwProcessor.setBatchChunkSize(7);
+		CoordinateReferenceSystem crs = CRS.decode("EPSG:26918");
+		int count = 100;
+		double[] x = new double[count];
+		double[] y = new double[count];
+		for (int i = 0; i < count; i++) {
+			x[i] = (i % 10 == 3) ? Double.NaN : 600000 + i * 1000;
+			y[i] = 5000000 + i * 1000;
+		}
+		double[] latitude = new double[count];
+		double[] longitude = new double[count];
+		BitSet valid = new BitSet();
+		int validCount = ctwProcessor.processBatch(x, y, crs, latitude, longitude, valid, null);
+
+		double[] parallelLatitude = new double[count];
+		double[] parallelLongitude = new double[count];
+		BitSet parallelValid = new BitSet();
+		parallelValid.set(count + 1);
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		try {
+			assertEquals(validCount,
+					ctwProcessor.processBatch(x, y, crs, parallelLatitude, parallelLongitude, parallelValid, null, executorService));
+		}
+		finally {
+			executorService.shutdown();
+		}
+		assertEquals(90, validCount);
+		assertEquals(valid, parallelValid);
+		for (int i = 0; i < count; i++) {
+			assertEquals(latitude[i], parallelLatitude[i], 0);
+			assertEquals(longitude[i], parallelLongitude[i], 0);
+		}
+	}
+
+	@Test
+	public void testParallelBatchInterrupted() throws Exception {
+		CoordinatesToWGS84Processor ctwProcessor = new CoordinatesToWGS84Processor();
+		ctwProcessor.setBatchChunkSize(2);
+		CoordinateReferenceSystem crs = CRS.decode("EPSG:26918");
+		double[] x = { 612710, 612710, 612710, 612710, 612710, 612710 };
+		double[] y = { 5045877, 5045877, 5045877, 5045877, 5045877, 5045877 };
+		double[] latitude = new double[6];
+		double[] longitude = new double[6];
+		BitSet valid = new BitSet();
+		valid.set(0);
+
+		// the only thread of the executor is busy, the chunks stay in the queue
+		final CountDownLatch blocker = new CountDownLatch(1);
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		executorService.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws InterruptedException {
+				blocker.await();
+				return null;
+			}
+		});
+		Thread.currentThread().interrupt();
+		try {
+			ctwProcessor.processBatch(x, y, crs, latitude, longitude, valid, null, executorService);
+			fail("the calling thread was interrupted");
+		}
+		catch (InterruptedException e) {
+			// expected
+		}
+		finally {
+			blocker.countDown();
+			executorService.shutdown();
+		}
+		assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+		// the chunks were cancelled, nothing was written after the method returned
+		assertTrue(valid.isEmpty());
+		for (int i = 0; i < x.length; i++) {
+			assertEquals(0, latitude[i], 0);
+			assertEquals(0, longitude[i], 0);
+		}
+	}
+
+	@Test
+	public void testMixedCRSBatch() throws Exception {
+		CoordinatesToWGS84Processor ctwProcessor = new CoordinatesToWGS84Processor();
+		double[] x = { 612710, 548566, 612710, Double.NaN, 612710, 548566 };
+		double[] y = { 5045877, 4935158, 5045877, 5045877, 5045877, 4935158 };
+		String[] codes = { "EPSG:26918", "EPSG:26912", null, "EPSG:26918", "EPSG:1", " EPSG:26912 " };
+		double[] latitude = new double[6];
+		double[] longitude = new double[6];
+		BitSet valid = new BitSet();
+		ProcessingResult pr = new ProcessingResult();
+
+		assertEquals(3, ctwProcessor.processMixedCRSBatch(x, y, codes, latitude, longitude, valid, pr));
+		assertTrue(valid.get(0));
+		assertTrue(valid.get(1));
+		assertFalse(valid.get(2));
+		assertFalse(valid.get(3));
+		assertFalse(valid.get(4));
+		assertTrue(valid.get(5));
+
+		// same result as process(...)
+		Double[] output = ctwProcessor.process(612710d, 5045877d, CRS.decode("EPSG:26918"), null);
+		assertEquals(output[LatLongProcessorHelper.LATITUDE_IDX], latitude[0], 0);
+		assertEquals(output[LatLongProcessorHelper.LONGITUDE_IDX], longitude[0], 0);
+		assertEquals(44.568126, latitude[1], 0.00001);
+		assertEquals(-110.388383, longitude[1], 0.00001);
+		assertEquals(latitude[1], latitude[5], 0);
+		assertTrue(Double.isNaN(latitude[2]));
+		assertTrue(Double.isNaN(latitude[4]));
+
+		// one error for the null code and one for EPSG:1, the missing value is not an error
+		assertEquals(2, pr.getErrorCount());
+	}
+
 	@Test
 	public void testProcessor() {
 		final CoordinatesToWGS84Processor ctwProcessor = new CoordinatesToWGS84Processor();
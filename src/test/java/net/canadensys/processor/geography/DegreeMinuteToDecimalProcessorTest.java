@@ -126,6 +126,37 @@ public class DegreeMinuteToDecimalProcessorTest {
 		assertEquals(1, pr.getErrorList().size());
 	}
 
+	/**
+	 * Test the error recorded for each kind of invalid coordinate.
+	 */
+	@Test
+	public void testDMSErrors() {
+		DegreeMinuteToDecimalProcessor dmtdProcessor = new DegreeMinuteToDecimalProcessor();
+		assertError(dmtdProcessor, "40°26'47\"", "dms.error.noCardinalDirection");
+		assertError(dmtdProcessor, "40.44653N", "dms.error.patternDoesntMatch");
+		assertError(dmtdProcessor, "4x40:26N", "dms.error.patternDoesntMatch");
+		assertError(dmtdProcessor, "40.1:26:47N", "dms.error.decimalDegreeError");
+		assertError(dmtdProcessor, "40:26.1:47N", "dms.error.decimalMinuteError");
+		assertError(dmtdProcessor, "40d8.29sN", "dms.error.unprocessable");
+		assertError(dmtdProcessor, "45° 332' 25\" N", "dms.error.minuteOutOfBounds");
+		assertError(dmtdProcessor, "45° 32' 255\" N", "dms.error.secondOutOfBounds");
+
+		// latitude used as longitude
+		ProcessingResult pr = new ProcessingResult();
+		assertArrayEquals(new Double[] { null, null }, dmtdProcessor.process("40:26N", "30:17N", pr));
+		assertEquals("dms.error.noCardinalDirection", pr.getErrors().get(0).getKey());
+
+		// text without digits around the coordinate is ignored
+		assertEquals(-40.433334f, dmtdProcessor.process("approx. 40:26 S", "30:17E", null)[0].floatValue(), 0);
+	}
+
+	private void assertError(DegreeMinuteToDecimalProcessor dmtdProcessor, String dms, String expectedKey) {
+		ProcessingResult pr = new ProcessingResult();
+		assertArrayEquals(dms, new Double[] { null, null }, dmtdProcessor.process(dms, "30:17E", pr));
+		assertEquals(dms, 1, pr.getErrorCount());
+		assertEquals(dms, expectedKey, pr.getErrors().get(0).getKey());
+	}
+
 	/**
 	 * Test all coordinates from the file INVALID_DATA_FILE_NAME that should not process.
 	 */
@@ -0,0 +1,146 @@
+package net.canadensys.processor.geography;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.canadensys.FileBasedTest;
+import net.canadensys.processor.ProcessingError;
+import net.canadensys.processor.ProcessingResult;
+
+import org.junit.Test;
+
+/**
+ * Differential test of the DegreeMinuteToDecimalProcessor against its previous regex implementation
+ * (RegexDegreeMinuteToDecimalProcessor) : values (bit for bit) and error keys must be identical.
+ * The values come from the DDMMSS test files, a list of edge cases and strings generated with a fixed seed.
+ * 
+ * @author canadensys
+ * 
+ */
+public class DegreeMinuteToDecimalRegressionTest {
+
+	private static final String[] TEST_FILE_NAMES = { "/ValidDDMMSSCoordinates.txt", "/InvalidDDMMSSCoordinates.txt" };
+
+	private static final String[] EDGE_CASES = { "40°26′47″N", "76°27'11\" W", "40d 26'N", "40d 26.17'N", "40:26:47.5N", "45.5° N",
+			"-129.6° W", "1:2:3 N", "4:5:6 W", "N", " N", "-N", "- 40:26 N", "abc40:26xyz N", "40:26 s", "40d8.29sN", ".5:30N", ".40:5N",
+			"x.5.5:3N", "40:26.1.5N", "40 26 47N", "40d2647N", "40°'47\"N", "40:26N ", "40:26sN ", "40:26s\nN", "\n-40d 8sN", "40.:26N",
+			"40::26::47N", "40 : 26 : 47 N", "00040°0026'N", "40.1234567890123456789:0N", "1234567890123456789°N",
+			"0.000000000000000001:N", "40°26′47″ſ", "40°26′47″n", "40°26′47″w", "40°26′47″ N  ", "40°26′47″\tN\t", " 40:26N", "40 :26N",
+			"40:26N\n", "40:26N\r\n", "40:26N\u0085", "40:26N\u2028", "40:26N \u2029" };
+
+	// characters used to generate and mutate the strings
+	private static final String ALPHABET = "0123456789..::  º°d'′‘’‛m\"″“‟”s-NSEWnsewx\t\n\r \u0085\u2028";
+
+	private static final long SEED = 42;
+	private static final int GENERATED_COUNT = 20000;
+	private static final int MAX_GENERATED_LENGTH = 14;
+
+	private final DegreeMinuteToDecimalProcessor processor = new DegreeMinuteToDecimalProcessor();
+	private final DegreeMinuteToDecimalProcessor regexProcessor = new RegexDegreeMinuteToDecimalProcessor();
+
+	@Test
+	public void testSameResultsAsRegexImplementation() {
+		final List<String> values = new ArrayList<String>();
+		for (String testFileName : TEST_FILE_NAMES) {
+			try {
+				File testFile = new File(getClass().getResource(testFileName).toURI());
+				FileBasedTest fileBasedTest = new FileBasedTest(testFile) {
+					@Override
+					public void processLine(String[] elements, int lineNumber) {
+						String lng = elements.length > 1 ? elements[1] : "";
+						assertSameResults(elements[0], lng);
+						values.add(elements[0]);
+						values.add(lng);
+					}
+				};
+				fileBasedTest.processFile();
+			}
+			catch (URISyntaxException e) {
+				e.printStackTrace();
+				fail();
+			}
+		}
+
+		for (String edgeCase : EDGE_CASES) {
+			assertSameResults(edgeCase, "30°17′12″E");
+			assertSameResults("40:26N", edgeCase);
+			values.add(edgeCase);
+		}
+
+		Random random = new Random(SEED);
+		for (int i = 0; i < GENERATED_COUNT; i++) {
+			// random string
+			StringBuilder generated = new StringBuilder();
+			int length = random.nextInt(MAX_GENERATED_LENGTH);
+			for (int j = 0; j < length; j++) {
+				generated.append(randomChar(random));
+			}
+			assertSameResults(generated.toString(), "30°17′12″E");
+
+			// known value with 1 to 3 inserted, deleted or replaced characters
+			StringBuilder mutated = new StringBuilder(values.get(random.nextInt(values.size())));
+			int mutationCount = 1 + random.nextInt(3);
+			for (int j = 0; j < mutationCount; j++) {
+				int pos = random.nextInt(mutated.length() + 1);
+				int operation = random.nextInt(3);
+				if (operation == 0 || mutated.length() == 0) {
+					mutated.insert(pos, randomChar(random));
+				}
+				else if (pos < mutated.length()) {
+					if (operation == 1) {
+						mutated.deleteCharAt(pos);
+					}
+					else {
+						mutated.setCharAt(pos, randomChar(random));
+					}
+				}
+			}
+			assertSameResults("40:26N", mutated.toString());
+			assertSameResults(mutated.toString(), "30:17E");
+		}
+	}
+
+	private static char randomChar(Random random) {
+		return ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+	}
+
+	private void assertSameResults(String dmsLat, String dmsLong) {
+		String message = "[" + escape(dmsLat) + "] [" + escape(dmsLong) + "]";
+		assertEquals(message, run(regexProcessor, dmsLat, dmsLong), run(processor, dmsLat, dmsLong));
+	}
+
+	/**
+	 * @return output values (as raw bits) and error keys
+	 */
+	private static String run(DegreeMinuteToDecimalProcessor dmsProcessor, String dmsLat, String dmsLong) {
+		ProcessingResult result = new ProcessingResult(false);
+		Double[] output = dmsProcessor.process(dmsLat, dmsLong, result);
+		StringBuilder sb = new StringBuilder();
+		for (Double value : output) {
+			sb.append(value == null ? "null" : Long.toHexString(Double.doubleToRawLongBits(value))).append(' ');
+		}
+		for (ProcessingError error : result.getErrors()) {
+			sb.append(error.getKey()).append(' ');
+		}
+		return sb.toString();
+	}
+
+	private static String escape(String text) {
+		StringBuilder sb = new StringBuilder();
+		for (char c : text.toCharArray()) {
+			if (c < 32 || c > 126) {
+				sb.append(String.format("\\u%04x", (int) c));
+			}
+			else {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,125 @@
+package net.canadensys.processor.geography;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.net.URISyntaxException;
+
+import net.canadensys.FileBasedTest;
+
+import org.geotools.referencing.CRS;
+import org.junit.Test;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.MathTransform;
+
+/**
+ * Test for the EmbeddedCRSRegistry
+ *
+ * @author canadensys
+ *
+ */
+public class EmbeddedCRSRegistryTest {
+
+	private static final int TEST_FILE_COLUMNS = 7;
+	private static final String TEST_FILE_NAME = "/CoordinatesToWGS84.txt";
+
+	@Test
+	public void testDefinitions() throws Exception {
+		EmbeddedCRSRegistry registry = EmbeddedCRSRegistry.getInstance();
+		// 7 geographic CRS, 180 UTM zones and 5 national grids
+		assertEquals(192, registry.getCodes().size());
+		for (String code : registry.getCodes()) {
+			assertNotNull(code, registry.getCRS(code));
+		}
+		assertTrue(registry.contains("epsg:26918"));
+		assertSame(registry.getCRS("EPSG:26918"), registry.getCRS("EPSG:26918"));
+		assertTrue(registry.getCRS("EPSG:2959").getName().getCode().contains("UTM zone 18N"));
+
+		assertFalse(registry.contains("EPSG:2000"));
+		assertNull(registry.getCRS("EPSG:2000"));
+		assertNull(registry.getCRS("26918"));
+		assertNull(registry.getCRS(null));
+	}
+
+	/**
+	 * The registry must give the expected results of CoordinatesToWGS84.txt
+	 */
+	@Test
+	public void testCoordinatesToWGS84() {
+		final EmbeddedCRSRegistry registry = EmbeddedCRSRegistry.getInstance();
+		try {
+			final File coordinatesFile = new File(getClass().getResource(TEST_FILE_NAME).toURI());
+			FileBasedTest fileBasedTest = new FileBasedTest(coordinatesFile) {
+				@Override
+				public void processLine(String[] elements, int lineNumber) {
+					String assertText = "[Line #" + lineNumber + " in " + coordinatesFile.getName() + "]";
+					if (elements.length != TEST_FILE_COLUMNS) {
+						fail(assertText + " is not valid.");
+					}
+					assertTrue(assertText, registry.contains(elements[0]));
+					double[] point = new double[] { Double.parseDouble(elements[1]), Double.parseDouble(elements[2]) };
+					try {
+						MathTransform transform = CRS.findMathTransform(registry.getCRS(elements[0]), registry.getCRS("EPSG:4326"), false);
+						transform.transform(point, 0, point, 0, 1);
+					}
+					catch (Exception e) {
+						fail(assertText + " " + e.getMessage());
+					}
+					double delta = Double.parseDouble(elements[5]);
+					assertEquals(assertText, Double.parseDouble(elements[3]), point[1], delta);
+					assertEquals(assertText, Double.parseDouble(elements[4]), point[0], delta);
+				}
+			};
+			fileBasedTest.processFile();
+		}
+		catch (URISyntaxException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Definitions without datum shift must give the same results as the EPSG database.
+	 */
+	@Test
+	public void testSameAsEPSG() throws Exception {
+		EmbeddedCRSRegistry registry = EmbeddedCRSRegistry.getInstance();
+		String[] codes = { "EPSG:26918", "EPSG:32618", "EPSG:2959", "EPSG:32198", "EPSG:3978" };
+		double[][] points = { { 612710, 5045877 }, { 612710, 5045877 }, { 612710, 5045877 }, { -195000, 320000 }, { 1600000, 10000 } };
+		CoordinateReferenceSystem wgs84 = CRS.decode("EPSG:4326");
+		for (int i = 0; i < codes.length; i++) {
+			double[] expected = points[i].clone();
+			CRS.findMathTransform(CRS.decode(codes[i]), wgs84, false).transform(expected, 0, expected, 0, 1);
+			double[] embedded = points[i].clone();
+			CRS.findMathTransform(registry.getCRS(codes[i]), registry.getCRS("EPSG:4326"), false).transform(embedded, 0, embedded, 0, 1);
+			assertEquals(codes[i], expected[0], embedded[0], 0.00001);
+			assertEquals(codes[i], expected[1], embedded[1], 0.00001);
+		}
+	}
+
+	@Test
+	public void testCoordinatesToWGS84Processor() {
+		CoordinatesToWGS84Processor.setEmbeddedCRSRegistryEnabled(true);
+		try {
+			CoordinatesToWGS84Processor ctwProcessor = new CoordinatesToWGS84Processor("EPSG:26918");
+			assertSame(EmbeddedCRSRegistry.getInstance().getCRS("EPSG:26918"), ctwProcessor.sourceCRS);
+			Double[] output = ctwProcessor.process(612710d, 5045877d, null);
+			assertEquals(45.55730, output[LatLongProcessorHelper.LATITUDE_IDX], 0.00001);
+			assertEquals(-73.55587, output[LatLongProcessorHelper.LONGITUDE_IDX], 0.00001);
+
+			// unknown codes are decoded from the EPSG database
+			assertNotNull(new CoordinatesToWGS84Processor("EPSG:2000").sourceCRS);
+		}
+		catch (Exception e) {
+			fail(e.getMessage());
+		}
+		finally {
+			CoordinatesToWGS84Processor.setEmbeddedCRSRegistryEnabled(false);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package net.canadensys.processor.geography;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import net.canadensys.processor.ProcessingResult;
+import net.canadensys.utils.NumberUtils;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Previous implementation of the DegreeMinuteToDecimalProcessor based on regular expressions.
+ * Only used to check that the scanner of DegreeMinuteToDecimalProcessor returns the same values and errors.
+ * 
+ * @author canadensys
+ * 
+ */
+public class RegexDegreeMinuteToDecimalProcessor extends DegreeMinuteToDecimalProcessor {
+
+	private static final int DEGREE_PART_IDX = 0;
+	private static final int MINUTE_PART_IDX = 1;
+	private static final int SECOND_PART_IDX = 2;
+
+	private static final Pattern CARDINAL_DIRECTION_PATTERN = Pattern.compile("[NESW]\\s*$", Pattern.CASE_INSENSITIVE);
+	private static final Pattern SOUTH_WEST_PATTERN = Pattern.compile("[SW]\\s*$", Pattern.CASE_INSENSITIVE);
+	private static final Pattern LATITUDE_PATTERN = Pattern.compile("[NS]\\s*$", Pattern.CASE_INSENSITIVE);
+	private static final Pattern LONGITUDE_PATTERN = Pattern.compile("[EW]\\s*$", Pattern.CASE_INSENSITIVE);
+	private static final Pattern CARDINAL_DIRECTION_REMOVAL_PATTERN = Pattern.compile("(^\\s?-\\s?)|(\\s?[NSEW]\\s*$)", Pattern.CASE_INSENSITIVE);
+	private static final Pattern NOT_NUMBER_PATTERN = Pattern.compile("[^\\d]");
+	private static final Pattern DMS_PARTS_PATTERN = Pattern.compile("(\\d*\\.?\\d+)(?:[º°d: ]+)(\\d*\\.?\\d+)*(?:['m′‘'’‛: ])*(\\d*\\.?\\d+)*[\"s″“‟” ]?");
+
+	@Override
+	public Double[] process(String dmsLat, String dmsLong, ProcessingResult result) {
+		Double[] output = new Double[2];
+		output[LatLongProcessorHelper.LATITUDE_IDX] = dmsToDecimalDegree(dmsLat, result);
+		output[LatLongProcessorHelper.LONGITUDE_IDX] = dmsToDecimalDegree(dmsLong, result);
+
+		// make sure that cardinal directions are valid
+		if (output[LatLongProcessorHelper.LATITUDE_IDX] != null && !LATITUDE_PATTERN.matcher(dmsLat).find()) {
+			if (isErrorRecorded(result)) {
+				addError(result, "dms.error.noCardinalDirection", dmsLat);
+			}
+			output[LatLongProcessorHelper.LATITUDE_IDX] = null;
+		}
+		if (output[LatLongProcessorHelper.LONGITUDE_IDX] != null && !LONGITUDE_PATTERN.matcher(dmsLong).find()) {
+			if (isErrorRecorded(result)) {
+				addError(result, "dms.error.noCardinalDirection", dmsLong);
+			}
+			output[LatLongProcessorHelper.LONGITUDE_IDX] = null;
+		}
+
+		// use delegate to validate boundaries
+		latLongHelper.ensureLatLongBoundaries(output, result, metrics);
+		return output;
+	}
+
+	@Override
+	protected Double dmsToDecimalDegree(String dms, ProcessingResult result) {
+
+		if (StringUtils.isBlank(dms)) {
+			return null;
+		}
+
+		// make sure we have a cardinal direction at the end
+		if (!CARDINAL_DIRECTION_PATTERN.matcher(dms).find()) {
+			if (isErrorRecorded(result)) {
+				addError(result, "dms.error.noCardinalDirection", dms);
+			}
+			return null;
+		}
+
+		// check if the dms contains S (south) or W (west) string
+		Matcher m = SOUTH_WEST_PATTERN.matcher(dms);
+		int negation = m.find() ? -1 : 1;
+
+		// remove minus sign and cardinal direction from the string
+		String p_dms = CARDINAL_DIRECTION_REMOVAL_PATTERN.matcher(dms).replaceAll("");
+
+		// this will be used for validation purpose
+		String allNumbers = NOT_NUMBER_PATTERN.matcher(dms).replaceAll("");
+
+		m = DMS_PARTS_PATTERN.matcher(p_dms);
+		// find() need to be called to use group(idx)
+		if (!m.find()) {
+			if (isErrorRecorded(result)) {
+				addError(result, "dms.error.patternDoesntMatch", dms);
+			}
+			return null;
+		}
+
+		// start at 1 (0 is always the complete match)
+		String[] parts = new String[3];
+		int partsIdx = 0;
+		String currPart;
+		for (int i = 1; i <= m.groupCount(); i++) {
+			currPart = m.group(i);
+			if (!StringUtils.isBlank(currPart)) {
+				parts[partsIdx] = currPart;
+				partsIdx++;
+			}
+		}
+		Double degree = NumberUtils.parseNumber(parts[DEGREE_PART_IDX], Double.class, 0d);
+		Double minute = NumberUtils.parseNumber(parts[MINUTE_PART_IDX], Double.class, 0d);
+		Double second = NumberUtils.parseNumber(parts[SECOND_PART_IDX], Double.class, 0d);
+
+		// check numeric bounds of minute and seconds
+		if (minute >= MAX_MINUTE_SECOND) {
+			if (isErrorRecorded(result)) {
+				addError(result, "dms.error.minuteOutOfBounds", dms);
+			}
+			return null;
+		}
+		if (second >= MAX_MINUTE_SECOND) {
+			if (isErrorRecorded(result)) {
+				addError(result, "dms.error.secondOutOfBounds", dms);
+			}
+			return null;
+		}
+
+		// make sure that we extracted all numbers
+		if (!NOT_NUMBER_PATTERN
+				.matcher(parts[DEGREE_PART_IDX] + parts[MINUTE_PART_IDX] + StringUtils.defaultString(parts[SECOND_PART_IDX], "")).replaceAll("")
+				.equalsIgnoreCase(allNumbers)) {
+			if (isErrorRecorded(result)) {
+				addError(result, "dms.error.patternDoesntMatch", dms);
+			}
+			return null;
+		}
+
+		// If we have decimals on degree, we don't have minute and second
+		if (parts[DEGREE_PART_IDX] != null && parts[DEGREE_PART_IDX].contains(".")) {
+			if (parts[MINUTE_PART_IDX] != null || parts[SECOND_PART_IDX] != null) {
+				if (isErrorRecorded(result)) {
+					addError(result, "dms.error.decimalDegreeError", dms);
+				}
+				return null;
+			}
+		}
+
+		// If we have decimals on minute, we don't have second
+		if (parts[MINUTE_PART_IDX] != null && parts[MINUTE_PART_IDX].contains(".")) {
+			if (parts[SECOND_PART_IDX] != null) {
+				if (isErrorRecorded(result)) {
+					addError(result, "dms.error.decimalMinuteError", dms);
+				}
+				return null;
+			}
+		}
+
+		// If we have extracted nothing in second, but we have a second identifier ("s″), minute was not provided.
+		if (parts[SECOND_PART_IDX] == null) {
+			if (p_dms.matches(".*[\"s″].*")) {
+				if (isErrorRecorded(result)) {
+					addError(result, "dms.error.unprocessable", dms);
+				}
+				return null;
+			}
+		}
+
+		// compute decimal value
+		double decimal = (degree + (minute / 60) + (second / 3600)) * negation;
+		return decimal;
+	}
+}
@@ -0,0 +1,97 @@
+package net.canadensys.processor.geography;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.net.URISyntaxException;
+
+import net.canadensys.FileBasedTest;
+
+import org.junit.Test;
+
+/**
+ * Test for the UTMToWGS84Converter, GeoTools is not used.
+ *
+ * @author canadensys
+ *
+ */
+public class UTMToWGS84ConverterTest {
+
+	private static final int TEST_FILE_COLUMNS = 7;
+	private static final String TEST_FILE_NAME = "/CoordinatesToWGS84.txt";
+
+	@Test
+	public void testForEPSGCode() {
+		UTMToWGS84Converter converter = UTMToWGS84Converter.forEPSGCode("EPSG:26918");
+		assertEquals(18, converter.getZone());
+		assertTrue(converter.isNorth());
+		converter = UTMToWGS84Converter.forEPSGCode(" epsg:32760 ");
+		assertEquals(60, converter.getZone());
+		assertFalse(converter.isNorth());
+		assertEquals(1, UTMToWGS84Converter.forEPSGCode("EPSG:32601").getZone());
+
+		// Quebec Lambert, NAD83 zone 24 does not exist, not an EPSG code
+		assertNull(UTMToWGS84Converter.forEPSGCode("EPSG:32198"));
+		assertNull(UTMToWGS84Converter.forEPSGCode("EPSG:26924"));
+		assertNull(UTMToWGS84Converter.forEPSGCode("26918"));
+		assertNull(UTMToWGS84Converter.forEPSGCode("EPSG:a"));
+		assertNull(UTMToWGS84Converter.forEPSGCode(null));
+	}
+
+	@Test
+	public void testCoordinatesToWGS84() {
+		try {
+			final File coordinatesFile = new File(getClass().getResource(TEST_FILE_NAME).toURI());
+			FileBasedTest fileBasedTest = new FileBasedTest(coordinatesFile) {
+				@Override
+				public void processLine(String[] elements, int lineNumber) {
+					String assertText = "[Line #" + lineNumber + " in " + coordinatesFile.getName() + "]";
+					if (elements.length != TEST_FILE_COLUMNS) {
+						fail(assertText + " is not valid.");
+					}
+					UTMToWGS84Converter converter = UTMToWGS84Converter.forEPSGCode(elements[0]);
+					double[] output = new double[2];
+					assertTrue(assertText, converter.toWGS84(Double.parseDouble(elements[1]), Double.parseDouble(elements[2]), output, 0));
+					double delta = Double.parseDouble(elements[5]);
+					assertEquals(assertText, Double.parseDouble(elements[3]), output[1], delta);
+					assertEquals(assertText, Double.parseDouble(elements[4]), output[0], delta);
+				}
+			};
+			fileBasedTest.processFile();
+		}
+		catch (URISyntaxException e) {
+			e.printStackTrace();
+		}
+	}
+
+	@Test
+	public void testSouthernHemisphere() {
+		// Sydney, UTM zone 56S
+		double[] output = new double[4];
+		assertTrue(UTMToWGS84Converter.forEPSGCode("EPSG:32756").toWGS84(334369, 6250948, output, 2));
+		assertEquals(-33.8688, output[3], 0.0001);
+		assertEquals(151.2093, output[2], 0.0001);
+		assertEquals(0, output[0], 0);
+	}
+
+	@Test
+	public void testRefused() {
+		UTMToWGS84Converter converter = UTMToWGS84Converter.forEPSGCode("EPSG:26918");
+		double[] output = { 1, 2 };
+		assertFalse(converter.toWGS84(Double.NaN, 5045877, output, 0));
+		assertFalse(converter.toWGS84(612710, Double.NaN, output, 0));
+		assertFalse(converter.toWGS84(-1e9, 5045877, output, 0));
+		assertFalse(converter.toWGS84(612710, 1e12, output, 0));
+		// more than 4 degrees from the central meridian
+		assertFalse(converter.toWGS84(100000, 7000000, output, 0));
+		// north of 84 degrees
+		assertFalse(converter.toWGS84(500000, 9400000, output, 0));
+		// refused coordinates are not written
+		assertEquals(1, output[0], 0);
+		assertEquals(2, output[1], 0);
+	}
+}
@@ -0,0 +1,60 @@
+package net.canadensys.processor.stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for DelimitedReader and DelimitedWriter
+ *
+ * @author canadensys
+ *
+ */
+public class DelimitedReaderTest {
+
+	@Test
+	public void testReadTSV() throws IOException {
+		DelimitedReader reader = new DelimitedReader(new StringReader("id\tcountry\n1\tu.s.a\r\n2\t\"Canada\"\r\n\n3\n"), DelimitedFormat.TSV);
+		assertArrayEquals(new String[] { "id", "country" }, reader.readRow());
+		assertArrayEquals(new String[] { "1", "u.s.a" }, reader.readRow());
+		// no quote character
+		assertArrayEquals(new String[] { "2", "\"Canada\"" }, reader.readRow());
+		assertArrayEquals(new String[] { "3" }, reader.readRow());
+		assertNull(reader.readRow());
+	}
+
+	@Test
+	public void testReadCSV() throws IOException {
+		DelimitedReader reader = new DelimitedReader(new StringReader("1,\"Ottawa, Canada\",\"a \"\"b\"\"\"\n2,\"line\nbreak\",\n3,,"),
+				DelimitedFormat.CSV);
+		assertArrayEquals(new String[] { "1", "Ottawa, Canada", "a \"b\"" }, reader.readRow());
+		assertArrayEquals(new String[] { "2", "line\nbreak", "" }, reader.readRow());
+		assertArrayEquals(new String[] { "3", "", "" }, reader.readRow());
+		assertNull(reader.readRow());
+	}
+
+	@Test
+	public void testWrite() throws IOException {
+		StringWriter sw = new StringWriter();
+		DelimitedWriter writer = new DelimitedWriter(sw, DelimitedFormat.CSV);
+		writer.writeRow("1", "Ottawa, Canada", "a \"b\"", null, 45.5d);
+		writer.flush();
+		assertEquals("1,\"Ottawa, Canada\",\"a \"\"b\"\"\",,45.5\n", sw.toString());
+
+		// round trip
+		DelimitedReader reader = new DelimitedReader(new StringReader(sw.toString()), DelimitedFormat.CSV);
+		assertArrayEquals(new String[] { "1", "Ottawa, Canada", "a \"b\"", "", "45.5" }, reader.readRow());
+
+		sw = new StringWriter();
+		writer = new DelimitedWriter(sw, DelimitedFormat.TSV);
+		writer.writeRow("1", "a\tb\nc");
+		writer.flush();
+		assertEquals("1\ta b c\n", sw.toString());
+	}
+}
@@ -0,0 +1,142 @@
+package net.canadensys.processor.stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import net.canadensys.processor.AbstractDataProcessor.ErrorHandlingModeEnum;
+import net.canadensys.processor.ErrorStatisticsResult;
+import net.canadensys.processor.ProcessorPipeline;
+import net.canadensys.processor.RowHeader;
+import net.canadensys.processor.datetime.DateProcessor;
+import net.canadensys.processor.geography.CountryProcessor;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for OccurrenceFileNormalizer
+ *
+ * @author canadensys
+ *
+ */
+public class OccurrenceFileNormalizerTest {
+
+	private static final int ROW_COUNT = 2500;
+
+	private static OccurrenceFileNormalizer createNormalizer() {
+		ProcessorPipeline pipeline = new ProcessorPipeline();
+		pipeline.addStep(new DateProcessor("eventDate", "year", "month", "day"), new String[] { "eventDate" }, new String[] { "year",
+				"month", "day" });
+		pipeline.addStep(new CountryProcessor("country", ErrorHandlingModeEnum.USE_ORIGINAL), new String[] { "country" },
+				new String[] { "country" });
+		RowHeader outHeader = new RowHeader(new String[] { "country", "year", "month", "day" }, new Class<?>[] { null, Integer.class,
+				Integer.class, Integer.class });
+
+		OccurrenceFileNormalizer normalizer = new OccurrenceFileNormalizer(pipeline, outHeader);
+		normalizer.setIdColumn("id");
+		normalizer.setBatchSize(100);
+		normalizer.setThreadCount(3);
+		normalizer.setMaxBatchesInFlight(4);
+		return normalizer;
+	}
+
+	@Test
+	public void testNormalize() throws IOException, InterruptedException {
+		StringBuilder input = new StringBuilder("id\teventDate\tcountry\tlocality\n");
+		for (int i = 1; i <= ROW_COUNT; i++) {
+			String eventDate = (i == 1234) ? "not a date" : "1987-06-" + (i % 28 + 1);
+			input.append(i).append('\t').append(eventDate).append("\tu.s.a\tlocality ").append(i).append('\n');
+		}
+
+		StringWriter out = new StringWriter();
+		StringWriter errorReport = new StringWriter();
+		OccurrenceFileNormalizer normalizer = createNormalizer();
+		ErrorStatisticsResult errorStatistics = new ErrorStatisticsResult();
+		normalizer.setErrorStatistics(errorStatistics);
+		NormalizationSummary summary = normalizer.normalize(new StringReader(input.toString()), out, errorReport);
+
+		assertEquals(ROW_COUNT, summary.getRowCount());
+		assertEquals(1, summary.getErrorRowCount());
+		assertEquals(1, summary.getErrorCount());
+
+		// rows are written in the original order
+		DelimitedReader reader = new DelimitedReader(new StringReader(out.toString()), DelimitedFormat.TSV);
+		assertArrayEquals(new String[] { "id", "eventDate", "country", "locality", "year", "month", "day" }, reader.readRow());
+		String[] row;
+		for (int i = 1; i <= ROW_COUNT; i++) {
+			row = reader.readRow();
+			assertEquals(Integer.toString(i), row[0]);
+			assertEquals("United States", row[2]);
+			assertEquals("locality " + i, row[3]);
+			if (i == 1234) {
+				assertEquals("", row[4]);
+			}
+			else {
+				assertEquals("1987", row[4]);
+				assertEquals(Integer.toString(i % 28 + 1), row[6]);
+			}
+		}
+		assertNull(reader.readRow());
+
+		reader = new DelimitedReader(new StringReader(errorReport.toString()), DelimitedFormat.TSV);
+		assertArrayEquals(new String[] { "row", "id", "errors" }, reader.readRow());
+		row = reader.readRow();
+		assertEquals("1234", row[0]);
+		assertEquals("1234", row[1]);
+		assertNull(reader.readRow());
+
+		assertEquals(1, errorStatistics.getTotalErrorCount());
+		assertEquals("1234", errorStatistics.getSamples("date.error.unprocessable").get(0).getRecordId());
+	}
+
+	@Test
+	public void testInputHeader() throws IOException, InterruptedException {
+		OccurrenceFileNormalizer normalizer = createNormalizer();
+		normalizer.setInputHeader(new RowHeader("id", null, "eventDate", "country"), 1);
+		normalizer.setInputFormat(DelimitedFormat.CSV);
+
+		StringWriter out = new StringWriter();
+		NormalizationSummary summary = normalizer.normalize(new StringReader("ignored header\n1,x,\"3 Jun 1987\",Canada\n"), out, null);
+		assertEquals(1, summary.getRowCount());
+		// unnamed column are written with an empty name
+		assertEquals("id,,eventDate,country,year,month,day\n1,x,3 Jun 1987,Canada,1987,6,3\n", out.toString());
+	}
+
+	@Test
+	public void testUnwrittenOutputColumn() throws IOException, InterruptedException {
+		ProcessorPipeline pipeline = new ProcessorPipeline();
+		pipeline.addStep(new CountryProcessor("country", ErrorHandlingModeEnum.USE_NULL), new String[] { "country" },
+				new String[] { "country" });
+		// locality is declared in the output header but no step writes it
+		OccurrenceFileNormalizer normalizer = new OccurrenceFileNormalizer(pipeline, new RowHeader("country", "locality"));
+
+		StringWriter out = new StringWriter();
+		normalizer.normalize(new StringReader("id\tcountry\tlocality\n1\tu.s.a\tMontreal\n2\tnot a country\tQuebec\n"), out, null);
+		// the input value is kept when the column is not written, a column written to null stays empty
+		assertEquals("id\tcountry\tlocality\n1\tUnited States\tMontreal\n2\t\tQuebec\n", out.toString());
+	}
+
+	@Test
+	public void testEmptyFile() throws IOException, InterruptedException {
+		StringWriter out = new StringWriter();
+		NormalizationSummary summary = createNormalizer().normalize(new StringReader("id\teventDate\tcountry\n"), out, null);
+		assertEquals(0, summary.getRowCount());
+		assertEquals("id\teventDate\tcountry\tyear\tmonth\tday\n", out.toString());
+	}
+
+	@Test
+	public void testMissingColumn() throws IOException, InterruptedException {
+		try {
+			createNormalizer().normalize(new StringReader("id\tcountry\n1\tCanada\n"), new StringWriter(), null);
+			fail();
+		}
+		catch (IllegalArgumentException e) {
+			// expected, eventDate is missing
+		}
+	}
+}